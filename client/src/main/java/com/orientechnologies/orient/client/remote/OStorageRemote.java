@@ -300,6 +300,35 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     return networkOperationRetryTimeout(request, errorMessage, connectionRetry, 0);
   }
 
+  /**
+   * Sends the request without waiting for the response, so that the server can process it while
+   * the client does something else. The response has to be read with {@link
+   * OStorageRemotePendingResponse#read()}.
+   */
+  public <T extends OBinaryResponse> OStorageRemotePendingResponse<T> pipelinedNetworkOperation(
+      final OBinaryRequest<T> request, final String errorMessage) {
+    return baseNetworkOperation(
+        (network, session) -> {
+          try {
+            try {
+              network.beginRequest(request.getCommand(), session);
+              request.write(network, session);
+            } finally {
+              network.endRequest();
+            }
+          } catch (IOException e) {
+            if (network.isConnected()) {
+              OLogManager.instance().warn(this, "Error Writing request on the network", e);
+            }
+            throw new ONotSendRequestException("Cannot send request on this channel");
+          }
+          return new OStorageRemotePendingResponse<>(
+              this, network, session, request.createResponse(), errorMessage);
+        },
+        errorMessage,
+        connectionRetry);
+  }
+
   public <T> T baseNetworkOperation(
       final OStorageRemoteOperation<T> operation, final String errorMessage, int retry) {
     OStorageRemoteSession session = getCurrentSession();
@@ -978,10 +1007,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public ORemoteQueryResult query(ODatabaseDocumentRemote db, String query, Object[] args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             "sql", query, args, OQueryRequest.QUERY, db.getSerializer(), recordsPerPage);
@@ -1003,10 +1029,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public ORemoteQueryResult query(ODatabaseDocumentRemote db, String query, Map args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             "sql", query, args, OQueryRequest.QUERY, db.getSerializer(), recordsPerPage);
@@ -1029,10 +1052,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public ORemoteQueryResult command(ODatabaseDocumentRemote db, String query, Object[] args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             "sql", query, args, OQueryRequest.COMMAND, db.getSerializer(), recordsPerPage);
@@ -1055,10 +1075,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
   }
 
   public ORemoteQueryResult command(ODatabaseDocumentRemote db, String query, Map args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             "sql", query, args, OQueryRequest.COMMAND, db.getSerializer(), recordsPerPage);
@@ -1144,10 +1161,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
 
   public ORemoteQueryResult execute(
       ODatabaseDocumentRemote db, String language, String query, Object[] args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             language, query, args, OQueryRequest.EXECUTE, db.getSerializer(), recordsPerPage);
@@ -1173,10 +1187,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
 
   public ORemoteQueryResult execute(
       ODatabaseDocumentRemote db, String language, String query, Map args) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
-    }
+    int recordsPerPage = db.getQueryPageSize();
     OQueryRequest request =
         new OQueryRequest(
             language, query, args, OQueryRequest.EXECUTE, db.getSerializer(), recordsPerPage);
@@ -1204,14 +1215,23 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy, O
     networkOperation(request, "Error closing query: " + queryId);
   }
 
+  public void prefetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
+    OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize());
+    rs.prefetchStarted(
+        pipelinedNetworkOperation(
+            request, "Error on prefetching next page for statement: " + rs.getQueryId()));
+  }
+
   public void fetchNextPage(ODatabaseDocumentRemote database, ORemoteResultSet rs) {
-    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
-    if (recordsPerPage <= 0) {
-      recordsPerPage = 100;
+    OQueryResponse response;
+    OStorageRemotePendingResponse<OQueryResponse> prefetched = rs.takePrefetched();
+    if (prefetched != null) {
+      response = prefetched.read();
+    } else {
+      OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), rs.getPageSize());
+      response =
+          networkOperation(request, "Error on fetching next page for statment: " + rs.getQueryId());
     }
-    OQueryNextPageRequest request = new OQueryNextPageRequest(rs.getQueryId(), recordsPerPage);
-    OQueryResponse response =
-        networkOperation(request, "Error on fetching next page for statment: " + rs.getQueryId());
 
     rs.fetched(
         response.getResult(),
@@ -0,0 +1,61 @@
+package com.orientechnologies.orient.client.remote;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.io.OIOException;
+import com.orientechnologies.orient.client.binary.OChannelBinaryAsynchClient;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import java.io.IOException;
+
+/**
+ * The response of a request that has already been sent to the server but not read yet, see {@link
+ * OStorageRemote#pipelinedNetworkOperation(OBinaryRequest, String)}. The channel used to send the
+ * request stays out of the connection pool until the response is read, so every pending response
+ * has to be read exactly once.
+ */
+public class OStorageRemotePendingResponse<T extends OBinaryResponse> {
+
+  private final OStorageRemote storage;
+  private final OChannelBinaryAsynchClient network;
+  private final OStorageRemoteSession session;
+  private final T response;
+  private final String errorMessage;
+
+  OStorageRemotePendingResponse(
+      OStorageRemote storage,
+      OChannelBinaryAsynchClient network,
+      OStorageRemoteSession session,
+      T response,
+      String errorMessage) {
+    this.storage = storage;
+    this.network = network;
+    this.session = session;
+    this.response = response;
+    this.errorMessage = errorMessage;
+  }
+
+  /**
+   * Waits for the response and reads it. The request is not retried in case of failure, because
+   * the server could have already executed it.
+   */
+  public T read() {
+    try {
+      try {
+        OStorageRemote.beginResponse(network, session);
+        response.read(network, session);
+      } finally {
+        storage.endResponse(network);
+      }
+      storage.connectionManager.release(network);
+      return response;
+    } catch (IOException | OIOException e) {
+      storage.connectionManager.remove(network);
+      throw OException.wrapException(new OIOException(e.getMessage()), e);
+    } catch (OException e) {
+      storage.connectionManager.release(network);
+      throw e;
+    } catch (Exception e) {
+      storage.connectionManager.release(network);
+      throw OException.wrapException(new OStorageException(errorMessage), e);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37Client;
 import com.orientechnologies.orient.core.serialization.serializer.result.binary.OResultSerializerNetwork;
@@ -66,8 +67,8 @@ public class OMessageHelper {
     channel.writeRID(iRecord.getIdentity());
     channel.writeVersion(iRecord.getVersion());
     try {
-      final byte[] stream = getRecordBytes(iRecord, serializer);
-      channel.writeBytes(stream);
+      final BytesContainer content = getRecordContent(iRecord, serializer);
+      channel.writeBytes(content.bytes, content.offset);
     } catch (Exception e) {
       channel.writeBytes(null);
       final String message =
@@ -78,8 +79,19 @@ public class OMessageHelper {
   }
 
   public static byte[] getRecordBytes(final ORecord iRecord, ORecordSerializer serializer) {
+    final BytesContainer content = getRecordContent(iRecord, serializer);
+    return content.bytes != null ? content.fitBytes() : null;
+  }
 
-    final byte[] stream;
+  /**
+   * Returns the content of a record in the format of the passed serializer, as the first {@link
+   * BytesContainer#offset} bytes of the container. The stored bytes of the record are returned as
+   * they are when the serializer is the one of the database. Otherwise the document is serialized
+   * in a growing buffer, which is meant to be written with {@link
+   * OChannelDataOutput#writeBytes(byte[], int)} without copying it to an array of the exact size.
+   */
+  public static BytesContainer getRecordContent(
+      final ORecord iRecord, final ORecordSerializer serializer) {
     String dbSerializerName = null;
     if (ODatabaseRecordThreadLocal.instance().getIfDefined() != null)
       dbSerializerName =
@@ -87,10 +99,17 @@ public class OMessageHelper {
     if (ORecordInternal.getRecordType(iRecord) == ODocument.RECORD_TYPE
         && (dbSerializerName == null || !dbSerializerName.equals(serializer.toString()))) {
       ((ODocument) iRecord).deserializeFields();
-      stream = serializer.toStream(iRecord);
-    } else stream = iRecord.toStream();
+      if (serializer instanceof ORecordSerializerNetworkV37) {
+        final BytesContainer container = new BytesContainer();
+        ((ORecordSerializerNetworkV37) serializer).serialize((ODocument) iRecord, container);
+        return container;
+      }
+      final byte[] stream = serializer.toStream(iRecord);
+      return new BytesContainer(stream, stream != null ? stream.length : 0);
+    }
 
-    return stream;
+    final byte[] stream = iRecord.toStream();
+    return new BytesContainer(stream, stream != null ? stream.length : 0);
   }
 
   public static Map<UUID, OBonsaiCollectionPointer> readCollectionChanges(OChannelDataInput network)
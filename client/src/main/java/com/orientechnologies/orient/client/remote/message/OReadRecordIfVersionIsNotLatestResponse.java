@@ -38,6 +38,7 @@ public class OReadRecordIfVersionIsNotLatestResponse implements OBinaryResponse
   private byte recordType;
   private int version;
   private byte[] record;
+  private int recordLength;
   private Set<ORecord> recordsToSend;
   private ORawBuffer result;
 
@@ -45,9 +46,16 @@ public class OReadRecordIfVersionIsNotLatestResponse implements OBinaryResponse
 
   public OReadRecordIfVersionIsNotLatestResponse(
       byte recordType, int version, byte[] record, Set<ORecord> recordsToSend) {
+    this(recordType, version, record, record != null ? record.length : 0, recordsToSend);
+  }
+
+  /** @param recordLength the length of the record content, which can be shorter than the array */
+  public OReadRecordIfVersionIsNotLatestResponse(
+      byte recordType, int version, byte[] record, int recordLength, Set<ORecord> recordsToSend) {
     this.recordType = recordType;
     this.version = version;
     this.record = record;
+    this.recordLength = recordLength;
     this.recordsToSend = recordsToSend;
   }
 
@@ -56,13 +64,13 @@ public class OReadRecordIfVersionIsNotLatestResponse implements OBinaryResponse
     if (record != null) {
       network.writeByte((byte) 1);
       if (protocolVersion <= OChannelBinaryProtocol.PROTOCOL_VERSION_27) {
-        network.writeBytes(record);
+        network.writeBytes(record, recordLength);
         network.writeVersion(version);
         network.writeByte(recordType);
       } else {
         network.writeByte(recordType);
         network.writeVersion(version);
-        network.writeBytes(record);
+        network.writeBytes(record, recordLength);
       }
       for (ORecord d : recordsToSend) {
         if (d.getIdentity().isValid()) {
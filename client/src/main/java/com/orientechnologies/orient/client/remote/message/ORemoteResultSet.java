@@ -1,5 +1,7 @@
 package com.orientechnologies.orient.client.remote.message;
 
+import com.orientechnologies.orient.client.remote.OStorageRemotePendingResponse;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentRemote;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
@@ -10,9 +12,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-/** Created by luigidellaquila on 05/12/16. */
+/**
+ * Created by luigidellaquila on 05/12/16.
+ *
+ * <p>When {@link OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PREFETCH} is enabled, the next page
+ * is requested as soon as the consumption of the current one starts, so that the server computes
+ * and sends it in the meantime. The page size is doubled when the consumer had to wait for the
+ * prefetched page and halved, down to the configured one, when the page was already there, within
+ * the bound of {@link OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PREFETCH_MAX_MEMORY}. The
+ * pending request holds a connection of the pool until the page is read, so a prefetching result
+ * set has to be closed.
+ */
 public class ORemoteResultSet implements OResultSet {
 
+  // the page arrived late if the consumer waited more than 1/WAIT_RATIO of its processing time
+  private static final int WAIT_RATIO = 10;
+  // the page arrived early if the consumer waited less than 1/IDLE_RATIO of its processing time
+  private static final int IDLE_RATIO = 100;
+  // used before the size of the records is known, and for projections
+  private static final int DEFAULT_RECORD_SIZE = 1024;
+
   private final ODatabaseDocumentRemote db;
   private final String queryId;
   private List<OResultInternal> currentPage;
@@ -20,6 +39,14 @@ public class ORemoteResultSet implements OResultSet {
   private Map<String, Long> queryStats;
   private boolean hasNextPage;
 
+  private final boolean prefetch;
+  private final int initialPageSize;
+  private int pageSize;
+  private OStorageRemotePendingResponse<OQueryResponse> prefetched;
+  private long pageStart;
+  private long sampledRecords;
+  private long sampledBytes;
+
   public ORemoteResultSet(
       ODatabaseDocumentRemote db,
       String queryId,
@@ -33,6 +60,12 @@ public class ORemoteResultSet implements OResultSet {
     this.executionPlan = executionPlan;
     this.queryStats = queryStats;
     this.hasNextPage = hasNextPage;
+    this.prefetch = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.getValueAsBoolean();
+    this.initialPageSize =
+        db != null ? db.getQueryPageSize() : ODatabaseDocumentRemote.defaultQueryPageSize();
+    this.pageSize = initialPageSize;
+    this.pageStart = System.nanoTime();
+    sampleRecordSize(currentPage);
     if (db != null) {
       db.queryStarted(queryId, this);
       for (OResultInternal result : currentPage) {
@@ -55,7 +88,50 @@ public class ORemoteResultSet implements OResultSet {
 
   private void fetchNextPage() {
     if (db != null) {
+      boolean wasPrefetched = prefetched != null;
+      long fetchStart = System.nanoTime();
       db.fetchNextPage(this);
+      long fetchEnd = System.nanoTime();
+      if (wasPrefetched) {
+        adaptPageSize(fetchStart - pageStart, fetchEnd - fetchStart);
+      }
+      pageStart = fetchEnd;
+    }
+  }
+
+  private void prefetchNextPage() {
+    if (prefetch && prefetched == null && hasNextPage && db != null) {
+      db.prefetchNextPage(this);
+    }
+  }
+
+  private void adaptPageSize(long consumeNanos, long waitNanos) {
+    if (waitNanos * WAIT_RATIO > consumeNanos) {
+      pageSize = (int) Math.min((long) pageSize * 2, maxPageSize());
+    } else if (waitNanos * IDLE_RATIO < consumeNanos) {
+      pageSize = Math.max(initialPageSize, pageSize / 2);
+    }
+    // the configured page size is always allowed, the memory bound only limits its growth
+    pageSize = (int) Math.max(initialPageSize, Math.min(pageSize, maxPageSize()));
+  }
+
+  private long maxPageSize() {
+    long recordSize =
+        sampledRecords == 0 ? DEFAULT_RECORD_SIZE : Math.max(1, sampledBytes / sampledRecords);
+    long maxMemory =
+        OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH_MAX_MEMORY.getValueAsLong()
+            * 1024
+            * 1024;
+    // the current page and the prefetched one are in memory at the same time
+    return Math.min(Integer.MAX_VALUE, maxMemory / 2 / recordSize);
+  }
+
+  private void sampleRecordSize(List<OResultInternal> page) {
+    for (OResultInternal result : page) {
+      Optional<ORecord> record = result.getRecord();
+      int size = record.isPresent() ? record.get().getSize() : 0;
+      sampledBytes += size > 0 ? size : DEFAULT_RECORD_SIZE;
+      sampledRecords++;
     }
   }
 
@@ -71,6 +147,7 @@ public class ORemoteResultSet implements OResultSet {
       throw new IllegalStateException();
     }
     OResultInternal internal = currentPage.remove(0);
+    prefetchNextPage();
 
     if (internal.isRecord() && db != null && db.getTransaction().isActive()) {
       ORecord record = db.getTransaction().getRecord(internal.getRecord().get().getIdentity());
@@ -83,6 +160,11 @@ public class ORemoteResultSet implements OResultSet {
 
   @Override
   public void close() {
+    if (prefetched != null && db != null) {
+      // THE RESPONSE OF A PREFETCH HAS TO BE READ ANYWAY TO GIVE THE CONNECTION BACK TO THE POOL
+      fetchNextPage();
+      currentPage.clear();
+    }
     if (hasNextPage && db != null) {
       // CLOSES THE QUERY SERVER SIDE ONLY IF THERE IS ANOTHER PAGE. THE SERVER ALREADY
       // AUTOMATICALLY CLOSES THE QUERY AFTER SENDING THE LAST PAGE
@@ -112,6 +194,22 @@ public class ORemoteResultSet implements OResultSet {
     return queryId;
   }
 
+  /** @return the number of records to request with the next page */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public void prefetchStarted(OStorageRemotePendingResponse<OQueryResponse> prefetched) {
+    this.prefetched = prefetched;
+  }
+
+  /** @return the response of the page requested in advance, if any, and forgets it */
+  public OStorageRemotePendingResponse<OQueryResponse> takePrefetched() {
+    OStorageRemotePendingResponse<OQueryResponse> result = prefetched;
+    prefetched = null;
+    return result;
+  }
+
   public void fetched(
       List<OResultInternal> result,
       boolean hasNextPage,
@@ -119,6 +217,7 @@ public class ORemoteResultSet implements OResultSet {
       Map<String, Long> queryStats) {
     this.currentPage = result;
     this.hasNextPage = hasNextPage;
+    sampleRecordSize(result);
 
     if (queryStats != null) {
       this.queryStats = queryStats;
@@ -85,6 +85,7 @@ public class ODatabaseDocumentRemote extends ODatabaseDocumentAbstract {
   protected OStorageRemoteSession sessionMetadata;
   private OrientDBConfig config;
   private OStorageRemote storage;
+  private int queryPageSize;
 
   public ODatabaseDocumentRemote(final OStorageRemote storage, OSharedContext sharedContext) {
     activateOnCurrentThread();
@@ -428,6 +429,28 @@ public class ODatabaseDocumentRemote extends ODatabaseDocumentAbstract {
     return result.getResult();
   }
 
+  /**
+   * @return the number of records per page requested by the next queries, as set by {@link
+   *     #setQueryPageSize(int)} or configured by {@link
+   *     OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PAGE_SIZE}
+   */
+  public int getQueryPageSize() {
+    return queryPageSize > 0 ? queryPageSize : defaultQueryPageSize();
+  }
+
+  /**
+   * Sets the number of records per page requested by the next queries of this database instance,
+   * 0 to use {@link OGlobalConfiguration#QUERY_REMOTE_RESULTSET_PAGE_SIZE}.
+   */
+  public void setQueryPageSize(int queryPageSize) {
+    this.queryPageSize = Math.max(queryPageSize, 0);
+  }
+
+  public static int defaultQueryPageSize() {
+    int recordsPerPage = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PAGE_SIZE.getValueAsInteger();
+    return recordsPerPage <= 0 ? 100 : recordsPerPage;
+  }
+
   public void closeQuery(String queryId) {
     storage.closeQuery(this, queryId);
     queryClosed(queryId);
@@ -439,6 +462,14 @@ public class ODatabaseDocumentRemote extends ODatabaseDocumentAbstract {
     storage.fetchNextPage(this, rs);
   }
 
+  public void prefetchNextPage(ORemoteResultSet rs) {
+    checkOpenness();
+    // the changes done during the iteration have to be sent before the next page is computed
+    if (!currentTx.isActive()) {
+      storage.prefetchNextPage(this, rs);
+    }
+  }
+
   @Override
   public OLiveQueryMonitor live(String query, OLiveQueryResultListener listener, Object... args) {
     return storage.liveQuery(
@@ -0,0 +1,120 @@
+package com.orientechnologies.orient.client.remote.message;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OReadRecordMessagesTest {
+
+  private OrientDB orientDB;
+  private ODatabaseSession session;
+
+  @Before
+  public void before() {
+    orientDB = new OrientDB("embedded:", OrientDBConfig.defaultConfig());
+    orientDB.execute("create database test memory users (admin identified by 'admin' role admin)");
+    session = orientDB.open("test", "admin", "admin");
+    session.createClass("Test");
+  }
+
+  @After
+  public void after() {
+    session.close();
+    orientDB.close();
+  }
+
+  @Test
+  public void testWriteRecordContent() throws IOException {
+    ODocument doc = session.save(newDocument());
+
+    BytesContainer content =
+        OMessageHelper.getRecordContent(doc, ORecordSerializerNetworkV37.INSTANCE);
+    assertArrayEquals(
+        ORecordSerializerNetworkV37.INSTANCE.toStream(doc),
+        Arrays.copyOf(content.bytes, content.offset));
+
+    MockChannel channel = new MockChannel();
+    OMessageHelper.writeRecord(channel, doc, ORecordSerializerNetworkV37.INSTANCE);
+    channel.close();
+
+    ODocument read =
+        (ODocument) OMessageHelper.readIdentifiable(channel, ORecordSerializerNetworkV37.INSTANCE);
+    assertEquals(doc.getIdentity(), read.getIdentity());
+    assertEquals(doc.getVersion(), read.getVersion());
+    assertEquals("name", read.field("name"));
+    assertEquals(Integer.valueOf(42), read.field("number"));
+    assertEquals(doc.<String>field("text"), read.field("text"));
+  }
+
+  @Test
+  public void testReadRecordResponse() throws IOException {
+    ODocument cached = session.save(newDocument());
+    byte[] record = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    OReadRecordResponse responseWrite =
+        new OReadRecordResponse(
+            ODocument.RECORD_TYPE, 3, record, 6, Collections.<ORecord>singleton(cached));
+    MockChannel channel = new MockChannel();
+    responseWrite.write(
+        channel,
+        OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION,
+        ORecordSerializerNetworkV37.INSTANCE);
+    channel.close();
+
+    OReadRecordResponse responseRead = new OReadRecordResponse();
+    responseRead.read(channel, null);
+    ORawBuffer result = responseRead.getResult();
+    assertArrayEquals(Arrays.copyOf(record, 6), result.buffer);
+    assertEquals(3, result.version);
+    assertEquals(ODocument.RECORD_TYPE, result.recordType);
+  }
+
+  @Test
+  public void testReadRecordIfVersionIsNotLatestResponse() throws IOException {
+    ODocument cached = session.save(newDocument());
+    byte[] record = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    OReadRecordIfVersionIsNotLatestResponse responseWrite =
+        new OReadRecordIfVersionIsNotLatestResponse(
+            ODocument.RECORD_TYPE, 3, record, 6, Collections.<ORecord>singleton(cached));
+    MockChannel channel = new MockChannel();
+    responseWrite.write(
+        channel,
+        OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION,
+        ORecordSerializerNetworkV37.INSTANCE);
+    channel.close();
+
+    OReadRecordIfVersionIsNotLatestResponse responseRead =
+        new OReadRecordIfVersionIsNotLatestResponse();
+    responseRead.read(channel, null);
+    ORawBuffer result = responseRead.getResult();
+    assertArrayEquals(Arrays.copyOf(record, 6), result.buffer);
+    assertEquals(3, result.version);
+    assertEquals(ODocument.RECORD_TYPE, result.recordType);
+  }
+
+  private static ODocument newDocument() {
+    ODocument doc = new ODocument("Test");
+    doc.field("name", "name");
+    doc.field("number", 42);
+    char[] text = new char[100];
+    Arrays.fill(text, 'x');
+    doc.field("text", new String(text));
+    return doc;
+  }
+}
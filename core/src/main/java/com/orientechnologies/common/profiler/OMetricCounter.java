@@ -0,0 +1,23 @@
+package com.orientechnologies.common.profiler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter of {@link OMetricsRegistry}. Increments are striped across threads, so they
+ * can be used on hot paths.
+ */
+public class OMetricCounter {
+  private final LongAdder value = new LongAdder();
+
+  public void increment() {
+    value.increment();
+  }
+
+  public void add(long delta) {
+    value.add(delta);
+  }
+
+  public long get() {
+    return value.sum();
+  }
+}
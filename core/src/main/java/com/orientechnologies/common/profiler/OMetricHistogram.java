@@ -0,0 +1,128 @@
+package com.orientechnologies.common.profiler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram of {@link OMetricsRegistry}, values are in nanoseconds. It uses the same
+ * bucketing of HdrHistogram: every power of two is split in {@link #SUB_BUCKETS} linear
+ * sub-buckets, so that the relative error of the recorded values is below 25% whatever their
+ * magnitude.
+ *
+ * <p>Every thread records in one of several stripes of counters, chosen by thread id, so that
+ * concurrent recordings seldom touch the same cache line. The stripes are merged only when the
+ * histogram is read.
+ */
+public class OMetricHistogram {
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private static final int STRIPES = stripes();
+  // every stripe has a counter for each bucket plus the sum of the recorded values
+  private static final int STRIPE_SIZE = BUCKETS + 1;
+
+  private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+  /** Records a duration, in nanoseconds. Negative values are recorded as 0. */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    final int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+    counters.incrementAndGet(stripe + bucketIndex(nanos));
+    counters.addAndGet(stripe + BUCKETS, nanos);
+  }
+
+  /** Records the time elapsed since <code>startNanos</code>, see {@link System#nanoTime()} */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /** @return the number of recorded values of each bucket, merged across the stripes */
+  public long[] getBuckets() {
+    final long[] buckets = new long[BUCKETS];
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      final int offset = stripe * STRIPE_SIZE;
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] += counters.get(offset + i);
+      }
+    }
+    return buckets;
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (long bucket : getBuckets()) {
+      count += bucket;
+    }
+    return count;
+  }
+
+  /** @return the sum of the recorded values, in nanoseconds */
+  public long getSum() {
+    long sum = 0;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      sum += counters.get(stripe * STRIPE_SIZE + BUCKETS);
+    }
+    return sum;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the highest value that is equivalent, within the precision of the histogram, to the
+   *     value at the given percentile, or 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    final long[] buckets = getBuckets();
+    long count = 0;
+    for (long bucket : buckets) {
+      count += bucket;
+    }
+    if (count == 0) {
+      return 0;
+    }
+    final long target = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= target) {
+        return highestEquivalentValue(i);
+      }
+    }
+    return highestEquivalentValue(BUCKETS - 1);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long lowestEquivalentValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long subBucket = index % SUB_BUCKETS;
+    return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index == BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    return lowestEquivalentValue(index + 1) - 1;
+  }
+
+  private static int stripes() {
+    final int processors = Runtime.getRuntime().availableProcessors();
+    int stripes = 1;
+    while (stripes < processors && stripes < 64) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+}
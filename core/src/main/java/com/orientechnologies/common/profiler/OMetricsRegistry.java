@@ -0,0 +1,132 @@
+package com.orientechnologies.common.profiler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the counters, gauges and latency histograms of the process, that can be exported in
+ * the Prometheus text format.
+ *
+ * <p>Metrics are registered once, usually in a static field of the component that updates them,
+ * so that recording a value does not require any lookup. Registering a name twice returns the
+ * metric already registered.
+ */
+public class OMetricsRegistry {
+  private static final OMetricsRegistry INSTANCE = new OMetricsRegistry();
+
+  // exported histogram buckets, from about 1 microsecond to about 34 seconds
+  private static final int MIN_EXPORTED_EXPONENT = 10;
+  private static final int MAX_EXPORTED_EXPONENT = 35;
+
+  public static final String COMMIT_SECONDS = "orientdb_storage_commit_seconds";
+  public static final String WAL_FLUSH_SECONDS = "orientdb_wal_flush_seconds";
+  public static final String PAGE_LOAD_SECONDS = "orientdb_disk_cache_page_load_seconds";
+  public static final String CACHE_HITS = "orientdb_disk_cache_hits_total";
+  public static final String CACHE_MISSES = "orientdb_disk_cache_misses_total";
+  public static final String QUERY_SECONDS = "orientdb_query_seconds";
+  // prefix of the counters of the execution plan caches of all the databases
+  public static final String PLAN_CACHE = "orientdb_execution_plan_cache";
+
+  private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+  public static OMetricsRegistry instance() {
+    return INSTANCE;
+  }
+
+  public OMetricCounter counter(final String name, final String help) {
+    return (OMetricCounter) register(name, help, "counter", new OMetricCounter()).value;
+  }
+
+  public OMetricHistogram histogram(final String name, final String help) {
+    return (OMetricHistogram) register(name, help, "histogram", new OMetricHistogram()).value;
+  }
+
+  /** Registers a value that is read only when the metrics are exported, eg. the size of a cache */
+  public void gauge(final String name, final String help, final LongSupplier value) {
+    metrics.put(name, new Metric(help, "gauge", value));
+  }
+
+  public void unregister(final String name) {
+    metrics.remove(name);
+  }
+
+  public Object getMetric(final String name) {
+    final Metric metric = metrics.get(name);
+    return metric == null ? null : metric.value;
+  }
+
+  /**
+   * Writes all the metrics in the Prometheus text exposition format. Histograms are exported in
+   * seconds.
+   */
+  public void writePrometheus(final Appendable out) throws IOException {
+    for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+      final String name = entry.getKey();
+      final Metric metric = entry.getValue();
+      out.append("# HELP ").append(name).append(' ').append(escapeHelp(metric.help)).append('\n');
+      out.append("# TYPE ").append(name).append(' ').append(metric.type).append('\n');
+      if (metric.value instanceof OMetricCounter) {
+        out.append(name).append(' ');
+        out.append(Long.toString(((OMetricCounter) metric.value).get())).append('\n');
+      } else if (metric.value instanceof LongSupplier) {
+        out.append(name).append(' ');
+        out.append(Long.toString(((LongSupplier) metric.value).getAsLong())).append('\n');
+      } else {
+        writeHistogram(out, name, (OMetricHistogram) metric.value);
+      }
+    }
+  }
+
+  private static void writeHistogram(
+      final Appendable out, final String name, final OMetricHistogram histogram)
+      throws IOException {
+    final long[] buckets = histogram.getBuckets();
+    long cumulative = 0;
+    int index = 0;
+    for (int exponent = MIN_EXPORTED_EXPONENT; exponent <= MAX_EXPORTED_EXPONENT; exponent++) {
+      final int limit = OMetricHistogram.bucketIndex(1L << exponent);
+      while (index < limit) {
+        cumulative += buckets[index++];
+      }
+      out.append(name).append("_bucket{le=\"");
+      out.append(Double.toString((1L << exponent) / 1_000_000_000.0)).append("\"} ");
+      out.append(Long.toString(cumulative)).append('\n');
+    }
+    while (index < buckets.length) {
+      cumulative += buckets[index++];
+    }
+    out.append(name).append("_bucket{le=\"+Inf\"} ").append(Long.toString(cumulative));
+    out.append('\n');
+    out.append(name).append("_sum ");
+    out.append(Double.toString(histogram.getSum() / 1_000_000_000.0)).append('\n');
+    out.append(name).append("_count ").append(Long.toString(cumulative)).append('\n');
+  }
+
+  private static String escapeHelp(final String help) {
+    return help.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+
+  private Metric register(
+      final String name, final String help, final String type, final Object value) {
+    final Metric metric = metrics.computeIfAbsent(name, n -> new Metric(help, type, value));
+    if (!metric.type.equals(type)) {
+      throw new IllegalArgumentException(
+          "Metric '" + name + "' is already registered as " + metric.type);
+    }
+    return metric;
+  }
+
+  private static final class Metric {
+    private final String help;
+    private final String type;
+    private final Object value;
+
+    private Metric(final String help, final String type, final Object value) {
+      this.help = help;
+      this.type = type;
+      this.value = value;
+    }
+  }
+}
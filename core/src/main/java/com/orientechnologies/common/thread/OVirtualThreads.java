@@ -0,0 +1,114 @@
+package com.orientechnologies.common.thread;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Starts virtual threads when they are enabled with {@link
+ * OGlobalConfiguration#ENVIRONMENT_VIRTUAL_THREADS} and the JVM supports them. The virtual thread
+ * API is looked up by reflection, because it does not exist in the Java version the code is
+ * compiled for.
+ *
+ * <p>Code that runs on virtual threads should guard its blocking operations with {@link
+ * java.util.concurrent.locks.ReentrantLock}s instead of <code>synchronized</code> blocks, which
+ * pin the virtual thread to its carrier thread while it is blocked.
+ */
+public final class OVirtualThreads {
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_UNSTARTED;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderUnstarted = null;
+    Method newThreadPerTaskExecutor = null;
+    try {
+      final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      builderName = builder.getMethod("name", String.class);
+      builderUnstarted = builder.getMethod("unstarted", Runnable.class);
+      newThreadPerTaskExecutor =
+          Class.forName("java.util.concurrent.Executors")
+              .getMethod("newVirtualThreadPerTaskExecutor");
+      // fails if virtual threads are a preview feature that is not enabled
+      ofVirtual.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      // virtual threads are not supported by this JVM
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_UNSTARTED = builderUnstarted;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  private static volatile boolean unsupportedLogged = false;
+
+  private OVirtualThreads() {}
+
+  /** @return true if the JVM supports virtual threads */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * @return true if virtual threads are enabled by the configuration and supported by the JVM,
+   *     a warning is logged once if they are enabled but not supported
+   */
+  public static boolean isEnabled() {
+    if (!OGlobalConfiguration.ENVIRONMENT_VIRTUAL_THREADS.getValueAsBoolean()) {
+      return false;
+    }
+    if (!isSupported()) {
+      if (!unsupportedLogged) {
+        unsupportedLogged = true;
+        OLogManager.instance()
+            .warn(
+                OVirtualThreads.class,
+                "Virtual threads are enabled by '%s' but not supported by this JVM, platform"
+                    + " threads are used",
+                OGlobalConfiguration.ENVIRONMENT_VIRTUAL_THREADS.getKey());
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Creates a virtual thread that is not started yet.
+   *
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public static Thread newThread(final String name, final Runnable task) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    try {
+      final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+      return (Thread) BUILDER_UNSTARTED.invoke(builder, task);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot create a virtual thread", e);
+    }
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread.
+   *
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor() {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+    }
+    try {
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot create a virtual thread executor", e);
+    }
+  }
+}
@@ -67,6 +67,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Runtime.getRuntime().availableProcessors() << 3,
       false),
 
+  ENVIRONMENT_VIRTUAL_THREADS(
+      "environment.virtualThreads",
+      "Runs the network connection handlers and the asynchronous database tasks on virtual threads"
+          + " instead of platform threads. Requires Java 21 or later, ignored otherwise",
+      Boolean.class,
+      Boolean.FALSE),
+
   @Deprecated
   ENVIRONMENT_ALLOW_JVM_SHUTDOWN(
       "environment.allowJVMShutdown",
@@ -212,6 +219,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       5),
 
+  DISK_CACHE_READ_AHEAD_MAX_PAGES(
+      "storage.diskCache.readAheadMaxPages",
+      "Max amount of pages which are loaded ahead of a sequential scan of a file, the amount "
+          + "grows from a few pages while the loaded pages are used. 0 disables read-ahead",
+      Integer.class,
+      128),
+
   @Deprecated
   DISK_WRITE_CACHE_USE_ASYNC_IO(
       "storage.diskCache.useAsyncIO",
@@ -468,6 +482,19 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       String.class,
       "none"),
 
+  STORAGE_COMPACTION_PAGES_PER_SECOND(
+      "storage.compaction.pagesPerSecond",
+      "Max number of pages per second read or written by an online cluster compaction",
+      Integer.class,
+      2000,
+      true),
+
+  STORAGE_COMPACTION_BATCH_SIZE(
+      "storage.compaction.batchSize",
+      "Number of records moved in a single atomic operation by an online cluster compaction",
+      Integer.class,
+      100),
+
   /**
    * @deprecated WAL can not be disabled because that is very unsafe for consistency and durability
    */
@@ -714,6 +741,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Boolean.class,
       true),
 
+  RECORD_SERIALIZATION_BUFFER_MAX_SIZE(
+      "record.serialization.bufferMaxSize",
+      "Maximum size in bytes of the buffers that every thread keeps to serialize the next records."
+          + " Bigger buffers are released once the record is serialized",
+      Integer.class,
+      64 * 1024),
+
   // DATABASE
   OBJECT_SAVE_ONLY_DIRTY(
       "object.saveOnlyDirty",
@@ -799,6 +833,12 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       12),
 
+  TX_SPILL_THRESHOLD(
+      "tx.spillThreshold",
+      "Number of created or updated records a transaction keeps in memory, past it the records are serialized to a temporary file and loaded back when they are accessed. 0 keeps all the records in memory",
+      Integer.class,
+      0),
+
   // INDEX
   INDEX_EMBEDDED_TO_SBTREEBONSAI_THRESHOLD(
       "index.embeddedToSbtreeBonsaiThreshold",
@@ -837,6 +877,13 @@ public enum OGlobalConfiguration { // ENVIRONMENT
   INDEX_FLUSH_AFTER_CREATE(
       "index.flushAfterCreate", "Flush storage buffer after index creation", Boolean.class, true),
 
+  INDEX_BLOOM_FILTER_BITS_PER_KEY(
+      "index.bloomFilter.bitsPerKey",
+      "Bits per key of the Bloom filter of the unique indexes created with the 'bloomFilter' metadata. "
+          + "10 bits per key give about 1% of false positives",
+      Integer.class,
+      10),
+
   @Deprecated
   INDEX_MANUAL_LAZY_UPDATES(
       "index.manual.lazyUpdates",
@@ -1319,6 +1366,25 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Integer.class,
       1000),
 
+  QUERY_REMOTE_RESULTSET_PREFETCH(
+      "query.remoteResultSet.prefetch",
+      "Requests the next page of a remote ResultSet while the current one is consumed, growing "
+          + "the page size when the client has to wait for the network. The connection is held by "
+          + "the prefetched page until it is consumed or the ResultSet is closed, so ResultSets "
+          + "must always be closed when it is enabled. This has to be set on the client.",
+      Boolean.class,
+      false,
+      true),
+
+  QUERY_REMOTE_RESULTSET_PREFETCH_MAX_MEMORY(
+      "query.remoteResultSet.prefetchMaxMemory",
+      "Max amount of memory (in MB) used by the pages of a remote ResultSet that are kept on the "
+          + "client while prefetching. It limits the growth of the page size. This has to be set "
+          + "on the client.",
+      Integer.class,
+      16,
+      true),
+
   QUERY_REMOTE_SEND_EXECUTION_PLAN(
       "query.remoteResultSet.sendExecutionPlan",
       "Send the execution plan details or not. False by default",
@@ -1376,12 +1442,62 @@ public enum OGlobalConfiguration { // ENVIRONMENT
       Long.class,
       500_000),
 
+  QUERY_JOIN_SPILL_THRESHOLD(
+      "query.join.spillThreshold",
+      "Number of rows the build side of a hash join keeps in memory, past it the rows are written to a temporary file. "
+          + "When both sides of a MATCH join are larger than this and ordered by an index, a merge join is used instead. (Use 0 to keep all the rows in memory)",
+      Integer.class,
+      100_000),
+
   QUERY_LIVE_SUPPORT(
       "query.live.support",
       "Enable/Disable the support of live query. (Use false to disable)",
       Boolean.class,
       true),
 
+  QUERY_STATISTICS_HISTOGRAM_BUCKETS(
+      "query.statistics.histogramBuckets",
+      "Maximum number of buckets of the histograms built when index statistics are collected",
+      Integer.class,
+      64),
+
+  QUERY_STATISTICS_INDEX_SCAN_RATIO(
+      "query.statistics.indexScanRatio",
+      "When index statistics are available and an index lookup is estimated to return more than this fraction of the records of a class,"
+          + " the query planner prefers a class scan to the index lookup. (Use 0 to always use the index)",
+      Float.class,
+      0.3),
+
+  QUERY_PROFILING_SAMPLING_INTERVAL(
+      "query.profiling.samplingInterval",
+      "On average one query execution every this number is profiled step by step, counting also "
+          + "the pages it reads. All the executions are timed anyway. (Use 0 to disable sampling)",
+      Integer.class,
+      100,
+      true),
+
+  QUERY_PROFILING_MAX_STATEMENTS(
+      "query.profiling.maxStatements",
+      "Maximum number of distinct statements, with literals removed, whose execution statistics "
+          + "are kept for each database and returned by 'select from metadata:queryStats'",
+      Integer.class,
+      1000),
+
+  QUERY_SLOW_LOG_THRESHOLD(
+      "query.slowLog.threshold",
+      "Queries whose execution takes longer than this time (in ms) are written with their "
+          + "execution plan to the slow query log. (Use 0 to disable the slow query log)",
+      Long.class,
+      1000,
+      true),
+
+  QUERY_SLOW_LOG_FILE(
+      "query.slowLog.file",
+      "Pattern of the rolling files of the slow query log, as the one of java.util.logging."
+          + "FileHandler. If empty slow queries are written to the server log",
+      String.class,
+      "${ORIENTDB_HOME}/log/slow-queries.%g.log"),
+
   STATEMENT_CACHE_SIZE(
       "statement.cacheSize",
       "Number of parsed SQL statements kept in cache. Zero means cache disabled",
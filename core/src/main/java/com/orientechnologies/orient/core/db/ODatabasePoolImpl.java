@@ -27,6 +27,8 @@ import com.orientechnologies.common.concur.resource.OResourcePool;
 import com.orientechnologies.common.concur.resource.OResourcePoolListener;
 import com.orientechnologies.orient.core.exception.OAcquireTimeoutException;
 import com.orientechnologies.orient.core.exception.ODatabaseException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /** Created by tglman on 07/07/16. */
 public class ODatabasePoolImpl implements ODatabasePoolInternal {
@@ -34,6 +36,7 @@ public class ODatabasePoolImpl implements ODatabasePoolInternal {
   private final OrientDBInternal factory;
   private final OrientDBConfig config;
   private volatile long lastCloseTime = System.currentTimeMillis();
+  private final Lock closeLock = new ReentrantLock();
 
   public ODatabasePoolImpl(
       OrientDBInternal factory,
@@ -72,10 +75,7 @@ public class ODatabasePoolImpl implements ODatabasePoolInternal {
 
   @Override
   public ODatabaseSession acquire() throws OAcquireTimeoutException {
-    OResourcePool<Void, ODatabaseDocumentInternal> p;
-    synchronized (this) {
-      p = pool;
-    }
+    final OResourcePool<Void, ODatabaseDocumentInternal> p = pool;
     if (p != null) {
       return p.getResource(
           null, config.getConfigurations().getValueAsLong(DB_POOL_ACQUIRE_TIMEOUT));
@@ -85,28 +85,27 @@ public class ODatabasePoolImpl implements ODatabasePoolInternal {
   }
 
   @Override
-  public synchronized void close() {
-    OResourcePool<Void, ODatabaseDocumentInternal> p;
-    synchronized (this) {
-      p = pool;
+  public void close() {
+    closeLock.lock();
+    try {
+      final OResourcePool<Void, ODatabaseDocumentInternal> p = pool;
       pool = null;
-    }
-    if (p != null) {
-      for (ODatabaseDocumentInternal res : p.getAllResources()) {
-        res.realClose();
+      if (p != null) {
+        for (ODatabaseDocumentInternal res : p.getAllResources()) {
+          res.realClose();
+        }
+        p.close();
+        factory.removePool(this);
       }
-      p.close();
-      factory.removePool(this);
+    } finally {
+      closeLock.unlock();
     }
   }
 
   public void release(ODatabaseDocumentInternal database) {
-    OResourcePool<Void, ODatabaseDocumentInternal> p;
-    synchronized (this) {
-      p = pool;
-    }
+    final OResourcePool<Void, ODatabaseDocumentInternal> p = pool;
     if (p != null) {
-      pool.returnResource(database);
+      p.returnResource(database);
     } else {
       throw new ODatabaseException("The pool is closed");
     }
@@ -25,6 +25,7 @@ import com.orientechnologies.common.concur.lock.OModificationOperationProhibited
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.thread.OVirtualThreads;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.command.script.OScriptManager;
@@ -140,13 +141,17 @@ public class OrientDBEmbedded implements OrientDBInternal {
 
     orient.addOrientDB(this);
 
-    executor =
-        new ThreadPoolExecutor(
-            1,
-            Runtime.getRuntime().availableProcessors(),
-            30,
-            TimeUnit.MINUTES,
-            new LinkedBlockingQueue<>());
+    if (OVirtualThreads.isEnabled()) {
+      executor = OVirtualThreads.newThreadPerTaskExecutor();
+    } else {
+      executor =
+          new ThreadPoolExecutor(
+              1,
+              Runtime.getRuntime().availableProcessors(),
+              30,
+              TimeUnit.MINUTES,
+              new LinkedBlockingQueue<>());
+    }
     timer = new Timer();
 
     cachedPoolFactory = createCachedDatabasePoolFactory(this.configurations);
@@ -0,0 +1,291 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.db.tool;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorCluster;
+import com.orientechnologies.orient.core.metadata.OMetadataDefault;
+import com.orientechnologies.orient.core.metadata.function.OFunction;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.security.OIdentity;
+import com.orientechnologies.orient.core.metadata.sequence.OSequence;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.schedule.OScheduledEvent;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a database to a directory that is imported back by {@link ODatabaseBinaryImport}. The
+ * schema, the cluster and index definitions and the records of the system classes are exported to
+ * a JSON file by {@link ODatabaseExport}, the records of the other clusters are exported in
+ * parallel, one binary file per cluster, with their position in the cluster so the import can keep
+ * their RIDs.
+ *
+ * <p>Records are serialized with {@link ORecordSerializerNetworkV37}, which stores the field names
+ * instead of the property ids of the schema, and tree based rid bags are exported as embedded ones.
+ */
+public class ODatabaseBinaryExport extends ODatabaseImpExpAbstract {
+  static final String DATABASE_FILE = "database.json.gz";
+  static final String CLUSTER_FILE_PREFIX = "cluster-";
+  static final String CLUSTER_FILE_EXTENSION = ".bin";
+  static final int MAGIC = 0x4f424558;
+  static final int FORMAT_VERSION = 1;
+  static final long END_OF_CLUSTER = -1;
+
+  private static final List<String> SYSTEM_CLASSES =
+      Arrays.asList(
+          OIdentity.CLASS_NAME,
+          OFunction.CLASS_NAME,
+          OSequence.CLASS_NAME,
+          OScheduledEvent.CLASS_NAME,
+          "OSecurityPolicy",
+          ODatabaseImport.EXPORT_IMPORT_CLASS_NAME);
+  private static final int BUFFER_SIZE = 65536;
+
+  private final Path directory;
+  private int parallel = Runtime.getRuntime().availableProcessors();
+
+  public ODatabaseBinaryExport(
+      final ODatabaseDocumentInternal iDatabase,
+      final String iDirectory,
+      final OCommandOutputListener iListener) {
+    super(iDatabase, iDirectory, iListener);
+    if (iDirectory == null) throw new IllegalArgumentException("directory missing");
+
+    directory = Paths.get(iDirectory);
+    fileName = directory.toString();
+  }
+
+  @Override
+  public void run() {
+    exportDatabase();
+  }
+
+  @Override
+  public ODatabaseBinaryExport setOptions(final String s) {
+    super.setOptions(s);
+    return this;
+  }
+
+  @Override
+  protected void parseSetting(final String option, final List<String> items) {
+    if (option.equalsIgnoreCase("-parallel")) parallel = Integer.parseInt(items.get(0));
+    else super.parseSetting(option, items);
+  }
+
+  public int getParallel() {
+    return parallel;
+  }
+
+  public void setParallel(final int parallel) {
+    this.parallel = parallel;
+  }
+
+  public ODatabaseBinaryExport exportDatabase() {
+    try {
+      listener.onMessage(
+          "\nStarted binary export of database '"
+              + database.getName()
+              + "' to "
+              + directory
+              + " with "
+              + parallel
+              + " threads...");
+      final long time = System.nanoTime();
+
+      Files.createDirectories(directory);
+      final Map<Integer, String> clusters = getBinaryClusters();
+
+      final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallel));
+      try {
+        final List<Future<Long>> results = new ArrayList<>();
+        for (Map.Entry<Integer, String> cluster : clusters.entrySet()) {
+          // THE COPY HAS TO BE OPENED BY THIS THREAD, IT ACTIVATES THE DATABASE ON THE CURRENT ONE
+          final ODatabaseDocumentInternal session = database.copy();
+          results.add(
+              executor.submit(() -> exportCluster(session, cluster.getKey(), cluster.getValue())));
+        }
+
+        final Set<String> clustersWithoutRecords = new LinkedHashSet<>();
+        for (String clusterName : clusters.values())
+          clustersWithoutRecords.add(clusterName.toUpperCase(Locale.ENGLISH));
+
+        final ODatabaseExport export =
+            new ODatabaseExport(database, directory.resolve(DATABASE_FILE).toString(), listener);
+        export.setIncludeClusters(includeClusters);
+        export.setExcludeClusters(excludeClusters);
+        export.setIncludeClasses(includeClasses);
+        export.setExcludeClasses(excludeClasses);
+        export.setClustersWithoutRecords(clustersWithoutRecords);
+        export.exportDatabase();
+
+        long records = 0;
+        for (Future<Long> result : results) records += result.get();
+        listener.onMessage(
+            "\n\nExported " + records + " records of " + clusters.size() + " binary clusters");
+      } finally {
+        executor.shutdownNow();
+      }
+
+      listener.onMessage(
+          "\n\nDatabase binary export completed in "
+              + ((System.nanoTime() - time) / 1000000)
+              + "ms");
+    } catch (Exception e) {
+      final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+      OLogManager.instance()
+          .error(
+              this,
+              "Error on exporting database '%s' to: %s",
+              cause,
+              database.getName(),
+              directory);
+      throw new ODatabaseExportException(
+          "Error on exporting database '" + database.getName() + "' to: " + directory, cause);
+    } finally {
+      database.activateOnCurrentThread();
+    }
+    return this;
+  }
+
+  /** @return id and name of the clusters which records are exported to the binary files */
+  private Map<Integer, String> getBinaryClusters() {
+    final Set<String> excluded = new LinkedHashSet<>();
+    if (excludeClusters != null)
+      for (String clusterName : excludeClusters)
+        excluded.add(clusterName.toUpperCase(Locale.ENGLISH));
+    excluded.add(OMetadataDefault.CLUSTER_INTERNAL_NAME.toUpperCase(Locale.ENGLISH));
+    excluded.add(OMetadataDefault.CLUSTER_INDEX_NAME.toUpperCase(Locale.ENGLISH));
+    excluded.add(OMetadataDefault.CLUSTER_MANUAL_INDEX_NAME.toUpperCase(Locale.ENGLISH));
+
+    final OSchema schema = database.getMetadata().getImmutableSchemaSnapshot();
+    for (OClass cls : schema.getClasses()) {
+      boolean system = false;
+      for (String systemClass : SYSTEM_CLASSES) system |= cls.isSubClassOf(systemClass);
+      if (system
+          || (excludeClasses != null
+              && excludeClasses.contains(cls.getName().toUpperCase(Locale.ENGLISH)))) {
+        for (int clusterId : cls.getClusterIds()) {
+          final String clusterName = database.getClusterNameById(clusterId);
+          if (clusterName != null) excluded.add(clusterName.toUpperCase(Locale.ENGLISH));
+        }
+      }
+    }
+
+    final Map<Integer, String> clusters = new LinkedHashMap<>();
+    for (String clusterName : database.getClusterNames()) {
+      final String upperName = clusterName.toUpperCase(Locale.ENGLISH);
+      if (!excluded.contains(upperName)
+          && (includeClusters == null || includeClusters.contains(upperName)))
+        clusters.put(database.getClusterIdByName(clusterName), clusterName);
+    }
+    return clusters;
+  }
+
+  private long exportCluster(
+      final ODatabaseDocumentInternal session, final int clusterId, final String clusterName)
+      throws IOException {
+    session.activateOnCurrentThread();
+    final Path file = directory.resolve(CLUSTER_FILE_PREFIX + clusterId + CLUSTER_FILE_EXTENSION);
+    long records = 0;
+    try (DataOutputStream out =
+        new DataOutputStream(
+            new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE) {
+                  {
+                    def.setLevel(Deflater.BEST_SPEED);
+                  }
+                },
+                BUFFER_SIZE))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(clusterName);
+      out.writeInt(clusterId);
+
+      final ORecordIteratorCluster<ORecord> it = session.browseCluster(clusterName);
+      while (it.hasNext()) {
+        final ORecord record = it.next();
+        if (includeClasses != null
+            && (!(record instanceof ODocument)
+                || ((ODocument) record).getClassName() == null
+                || !includeClasses.contains(
+                    ((ODocument) record).getClassName().toUpperCase(Locale.ENGLISH)))) continue;
+
+        final byte[] content = toStream(record);
+        out.writeLong(record.getIdentity().getClusterPosition());
+        out.writeByte(ORecordInternal.getRecordType(record));
+        out.writeInt(content.length);
+        out.write(content);
+        records++;
+      }
+      out.writeLong(END_OF_CLUSTER);
+    } finally {
+      session.close();
+    }
+
+    listener.onMessage(
+        "\n- Cluster '" + clusterName + "' (id=" + clusterId + ")...OK (records=" + records + ")");
+    return records;
+  }
+
+  private static byte[] toStream(final ORecord record) {
+    if (record instanceof ODocument) {
+      final ODocument document = (ODocument) record;
+      for (String fieldName : document.fieldNames()) {
+        final Object value = document.rawField(fieldName);
+        if (value instanceof ORidBag && !((ORidBag) value).isEmbedded()) {
+          // TREE BASED BAGS POINT TO THE STORAGE OF THIS DATABASE, THE DOCUMENT IS NOT SAVED
+          final ORidBag bag = new ORidBag(Integer.MAX_VALUE, -1);
+          for (Iterator<OIdentifiable> items = ((ORidBag) value).rawIterator(); items.hasNext(); )
+            bag.add(items.next());
+          document.field(fieldName, bag);
+        }
+      }
+    }
+    return ORecordSerializerNetworkV37.INSTANCE.toStream(record);
+  }
+}
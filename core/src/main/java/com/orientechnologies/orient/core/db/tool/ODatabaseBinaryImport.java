@@ -0,0 +1,429 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.db.tool;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODocumentFieldWalker;
+import com.orientechnologies.orient.core.db.tool.importer.OConverterData;
+import com.orientechnologies.orient.core.db.tool.importer.OLinksRewriter;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
+import com.orientechnologies.orient.core.index.OIndexMetadata;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ORecordBytes;
+import com.orientechnologies.orient.core.record.impl.ORecordFlat;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports a directory written by {@link ODatabaseBinaryExport}. The JSON file is imported first by
+ * {@link ODatabaseImport}, then the binary files are loaded in parallel, one thread and one session
+ * per cluster, and the automatic indexes of their clusters are built at the end.
+ *
+ * <p>Records keep their position in the cluster: the holes left by deleted records are filled with
+ * empty records that are deleted when the cluster is loaded, so the links only have to be rewritten
+ * when the cluster ids changed or when they point to records imported from the JSON file. The
+ * clusters have to be empty when they are loaded.
+ *
+ * <p>The write ahead log is a setting of the storage when it is opened: for the fastest import open
+ * the database with {@link OGlobalConfiguration#USE_WAL} set to false, and close it once the import
+ * is completed.
+ */
+public class ODatabaseBinaryImport extends ODatabaseImpExpAbstract {
+  private static final int BUFFER_SIZE = 65536;
+
+  private final Path directory;
+  private int parallel = Runtime.getRuntime().availableProcessors();
+
+  public ODatabaseBinaryImport(
+      final ODatabaseDocumentInternal iDatabase,
+      final String iDirectory,
+      final OCommandOutputListener iListener) {
+    super(iDatabase, iDirectory, iListener);
+    if (iDirectory == null) throw new IllegalArgumentException("directory missing");
+
+    directory = Paths.get(iDirectory);
+    fileName = directory.toString();
+  }
+
+  @Override
+  public void run() {
+    importDatabase();
+  }
+
+  @Override
+  public ODatabaseBinaryImport setOptions(final String s) {
+    super.setOptions(s);
+    return this;
+  }
+
+  @Override
+  protected void parseSetting(final String option, final List<String> items) {
+    if (option.equalsIgnoreCase("-parallel")) parallel = Integer.parseInt(items.get(0));
+    else super.parseSetting(option, items);
+  }
+
+  public int getParallel() {
+    return parallel;
+  }
+
+  public void setParallel(final int parallel) {
+    this.parallel = parallel;
+  }
+
+  public ODatabaseBinaryImport importDatabase() {
+    try {
+      listener.onMessage(
+          "\nStarted binary import of database '"
+              + database.getURL()
+              + "' from "
+              + directory
+              + " with "
+              + parallel
+              + " threads...");
+      final long time = System.nanoTime();
+
+      if (database.getStorage() instanceof OAbstractPaginatedStorage
+          && OGlobalConfiguration.USE_WAL.getValueAsBoolean())
+        listener.onMessage(
+            "\nWARNING: the write ahead log is enabled, open the database with '"
+                + OGlobalConfiguration.USE_WAL.getKey()
+                + "=false' for a faster import");
+
+      final ODatabaseImport importer =
+          new ODatabaseImport(
+              database,
+              directory.resolve(ODatabaseBinaryExport.DATABASE_FILE).toString(),
+              listener);
+      importer.setDeleteRIDMapping(false);
+      importer.importDatabase();
+
+      final Map<Path, String> files = readClusterFiles();
+      final Function<ORID, ORID> ridMapping = createRIDMapping(files.keySet());
+      importer.removeExportImportRIDsMap();
+
+      final List<IndexToBuild> indexes = dropIndexes(files.values());
+
+      final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallel));
+      try {
+        final List<Future<Long>> results = new ArrayList<>();
+        for (Path file : files.keySet()) {
+          // THE COPY HAS TO BE OPENED BY THIS THREAD, IT ACTIVATES THE DATABASE ON THE CURRENT ONE
+          final ODatabaseDocumentInternal session = database.copy();
+          results.add(executor.submit(() -> importCluster(session, file, ridMapping)));
+        }
+
+        long records = 0;
+        for (Future<Long> result : results) records += result.get();
+        listener.onMessage(
+            "\n\nImported " + records + " records of " + files.size() + " binary clusters");
+      } finally {
+        executor.shutdownNow();
+        database.activateOnCurrentThread();
+      }
+
+      createIndexes(indexes);
+
+      database.getMetadata().reload();
+      database.getStorage().synch();
+
+      listener.onMessage(
+          "\n\nDatabase binary import completed in "
+              + ((System.nanoTime() - time) / 1000000)
+              + " ms");
+    } catch (Exception e) {
+      final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+      OLogManager.instance()
+          .error(
+              this,
+              "Error on importing database '%s' from: %s",
+              cause,
+              database.getName(),
+              directory);
+      throw OException.wrapException(
+          new ODatabaseImportException(
+              "Error on importing database '" + database.getName() + "' from: " + directory),
+          cause);
+    }
+    return this;
+  }
+
+  /** @return the binary files of the export with the name of their cluster */
+  private Map<Path, String> readClusterFiles() throws IOException {
+    final Map<Path, String> files = new LinkedHashMap<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(
+            directory,
+            ODatabaseBinaryExport.CLUSTER_FILE_PREFIX
+                + "*"
+                + ODatabaseBinaryExport.CLUSTER_FILE_EXTENSION)) {
+      for (Path file : stream) {
+        try (DataInputStream in = openClusterFile(file)) {
+          files.put(file, in.readUTF());
+        }
+      }
+    }
+    return files;
+  }
+
+  /**
+   * The RID mapping of the import: records imported from the JSON file are looked up in the RID
+   * mapping class filled by {@link ODatabaseImport}, the other ones keep their cluster position and
+   * get the id of the cluster with the same name.
+   *
+   * @return the mapping, or null if the RIDs of the exported database are kept
+   */
+  private Function<ORID, ORID> createRIDMapping(final Set<Path> files) throws IOException {
+    final Map<ORID, ORID> records = new HashMap<>();
+    final OSchema schema = database.getMetadata().getSchema();
+    if (schema.existsClass(ODatabaseImport.EXPORT_IMPORT_CLASS_NAME)) {
+      try (OResultSet result =
+          database.query("select key, value from " + ODatabaseImport.EXPORT_IMPORT_CLASS_NAME)) {
+        while (result.hasNext()) {
+          final OResult mapping = result.next();
+          final ORID oldRid = new ORecordId(mapping.<String>getProperty("key"));
+          final ORID newRid = new ORecordId(mapping.<String>getProperty("value"));
+          if (!oldRid.equals(newRid)) records.put(oldRid, newRid);
+        }
+      }
+    }
+
+    final Map<Integer, Integer> clusters = new HashMap<>();
+    for (Path file : files) {
+      try (DataInputStream in = openClusterFile(file)) {
+        final String clusterName = in.readUTF();
+        final int oldClusterId = in.readInt();
+        final int newClusterId = database.getClusterIdByName(clusterName);
+        if (newClusterId == -1)
+          throw new ODatabaseImportException(
+              "Cluster '" + clusterName + "' is not defined by the imported database");
+        if (oldClusterId != newClusterId) clusters.put(oldClusterId, newClusterId);
+      }
+    }
+
+    listener.onMessage(
+        "\nRID mapping: "
+            + records.size()
+            + " records and "
+            + clusters.size()
+            + " clusters changed their id");
+    if (records.isEmpty() && clusters.isEmpty()) return null;
+
+    return rid -> {
+      final ORID newRid = records.get(rid);
+      if (newRid != null) return newRid;
+      final Integer newClusterId = clusters.get(rid.getClusterId());
+      return newClusterId != null ? new ORecordId(newClusterId, rid.getClusterPosition()) : rid;
+    };
+  }
+
+  /**
+   * Drops the automatic indexes of the binary clusters, they are built from scratch once the
+   * clusters are loaded.
+   */
+  private List<IndexToBuild> dropIndexes(final Iterable<String> clusterNames) {
+    final Set<String> clusters = new HashSet<>();
+    for (String clusterName : clusterNames) clusters.add(clusterName.toLowerCase(Locale.ENGLISH));
+
+    final OIndexManagerAbstract indexManager = database.getMetadata().getIndexManagerInternal();
+    final List<IndexToBuild> indexes = new ArrayList<>();
+    for (OIndex index : indexManager.getIndexes(database)) {
+      if (!index.isAutomatic()) continue;
+
+      boolean binary = false;
+      for (String clusterName : index.getClusters())
+        binary |= clusters.contains(clusterName.toLowerCase(Locale.ENGLISH));
+      if (binary) {
+        indexes.add(
+            new IndexToBuild(
+                new OIndexMetadata(
+                    index.getName(),
+                    index.getDefinition(),
+                    new HashSet<>(index.getClusters()),
+                    index.getType(),
+                    index.getAlgorithm(),
+                    null),
+                index.getMetadata()));
+      }
+    }
+
+    for (IndexToBuild index : indexes) {
+      listener.onMessage("\n- Dropping index '" + index.metadata.getName() + "' during the load");
+      indexManager.dropIndex(database, index.metadata.getName());
+    }
+    return indexes;
+  }
+
+  private void createIndexes(final List<IndexToBuild> indexes) {
+    final OIndexManagerAbstract indexManager = database.getMetadata().getIndexManagerInternal();
+    for (IndexToBuild index : indexes) {
+      final OIndexMetadata metadata = index.metadata;
+      listener.onMessage("\n- Building index '" + metadata.getName() + "'...");
+
+      final int[] clusterIds = new int[metadata.getClustersToIndex().size()];
+      int i = 0;
+      for (String clusterName : metadata.getClustersToIndex())
+        clusterIds[i++] = database.getClusterIdByName(clusterName);
+
+      indexManager.createIndex(
+              database,
+              metadata.getName(),
+              metadata.getType(),
+              metadata.getIndexDefinition(),
+              clusterIds,
+              null,
+              index.options,
+              metadata.getAlgorithm());
+      listener.onMessage("OK");
+    }
+  }
+
+  private long importCluster(
+      final ODatabaseDocumentInternal session,
+      final Path file,
+      final Function<ORID, ORID> ridMapping)
+      throws IOException {
+    session.activateOnCurrentThread();
+    session.declareIntent(new OIntentMassiveInsert());
+    session.setValidationEnabled(false);
+
+    final String clusterName;
+    final List<ORID> fillers = new ArrayList<>();
+    long records = 0;
+    try (DataInputStream in = openClusterFile(file)) {
+      clusterName = in.readUTF();
+      in.readInt();
+
+      final OConverterData converterData =
+          ridMapping != null
+              ? new OConverterData(session, Collections.emptySet(), ridMapping)
+              : null;
+
+      long nextPosition = 0;
+      long position;
+      while ((position = in.readLong()) != ODatabaseBinaryExport.END_OF_CLUSTER) {
+        final byte recordType = in.readByte();
+        final byte[] content = new byte[in.readInt()];
+        in.readFully(content);
+
+        final ORecord record = fromStream(recordType, content);
+        if (converterData != null && record instanceof ODocument)
+          new ODocumentFieldWalker()
+              .walkDocument((ODocument) record, new OLinksRewriter(converterData));
+
+        // FILL THE HOLES OF THE DELETED RECORDS, SO THE RECORD KEEPS ITS POSITION
+        while (nextPosition < position) {
+          final ORecord filler = session.save(new ORecordBytes(new byte[0]), clusterName);
+          fillers.add(filler.getIdentity());
+          nextPosition = filler.getIdentity().getClusterPosition() + 1;
+        }
+
+        session.save(record, clusterName);
+        if (record.getIdentity().getClusterPosition() != position)
+          throw new ODatabaseImportException(
+              "Record at position "
+                  + position
+                  + " of cluster '"
+                  + clusterName
+                  + "' was imported as "
+                  + record.getIdentity()
+                  + ", the cluster has to be empty");
+        nextPosition = position + 1;
+        records++;
+      }
+
+      for (ORID filler : fillers) session.delete(filler);
+    } finally {
+      session.declareIntent(null);
+      session.close();
+    }
+
+    listener.onMessage("\n- Cluster '" + clusterName + "'...OK (records=" + records + ")");
+    return records;
+  }
+
+  private static ORecord fromStream(final byte recordType, final byte[] content) {
+    final ORecord record;
+    if (recordType == ODocument.RECORD_TYPE) record = new ODocument();
+    else if (recordType == ORecordBytes.RECORD_TYPE) record = new ORecordBytes();
+    else if (recordType == ORecordFlat.RECORD_TYPE) record = new ORecordFlat();
+    else throw new ODatabaseImportException("Unsupported record type: " + (char) recordType);
+
+    ORecordSerializerNetworkV37.INSTANCE.fromStream(content, record, null);
+    record.setDirty();
+    return record;
+  }
+
+  private DataInputStream openClusterFile(final Path file) throws IOException {
+    final DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE));
+    if (in.readInt() != ODatabaseBinaryExport.MAGIC
+        || in.readInt() != ODatabaseBinaryExport.FORMAT_VERSION) {
+      in.close();
+      throw new ODatabaseImportException("File " + file + " is not a supported binary export");
+    }
+    return in;
+  }
+
+  private static final class IndexToBuild {
+    private final OIndexMetadata metadata;
+    private final ODocument options;
+
+    private IndexToBuild(final OIndexMetadata metadata, final ODocument options) {
+      this.metadata = metadata;
+      this.options = options;
+    }
+  }
+}
@@ -75,6 +75,7 @@ public class ODatabaseExport extends ODatabaseImpExpAbstract {
   protected int compressionBuffer = 16384; // 16Kb
 
   private final String tempFileName;
+  private Set<String> clustersWithoutRecords = Collections.emptySet();
 
   public ODatabaseExport(
       final ODatabaseDocumentInternal iDatabase,
@@ -127,6 +128,16 @@ public class ODatabaseExport extends ODatabaseImpExpAbstract {
     return this;
   }
 
+  /**
+   * Exports the definition of the given clusters without their records, which are exported by
+   * {@link ODatabaseBinaryExport}.
+   *
+   * @param clustersWithoutRecords upper case cluster names
+   */
+  void setClustersWithoutRecords(final Set<String> clustersWithoutRecords) {
+    this.clustersWithoutRecords = clustersWithoutRecords;
+  }
+
   public ODatabaseExport exportDatabase() {
     try {
       listener.onMessage(
@@ -209,6 +220,8 @@ public class ODatabaseExport extends ODatabaseImpExpAbstract {
         if (excludeClusters != null
             && excludeClusters.contains(clusterName.toUpperCase(Locale.ENGLISH))) continue;
 
+        if (clustersWithoutRecords.contains(clusterName.toUpperCase(Locale.ENGLISH))) continue;
+
         clusterExportedRecordsTot = database.countClusterElements(clusterName);
       } else if (includeClusters != null && !includeClusters.isEmpty()) continue;
 
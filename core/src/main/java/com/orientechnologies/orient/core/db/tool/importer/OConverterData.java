@@ -3,14 +3,26 @@ package com.orientechnologies.orient.core.db.tool.importer;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.id.ORID;
 import java.util.Set;
+import java.util.function.Function;
 
 /** Created by tglman on 28/07/17. */
 public class OConverterData {
   protected ODatabaseSession session;
   protected Set<ORID> brokenRids;
+  protected Function<ORID, ORID> ridMapping;
 
   public OConverterData(ODatabaseSession session, Set<ORID> brokenRids) {
     this.session = session;
     this.brokenRids = brokenRids;
   }
+
+  /**
+   * @param ridMapping returns the new RID of an imported record, it is used instead of the RID
+   *     mapping class of the JSON import
+   */
+  public OConverterData(
+      ODatabaseSession session, Set<ORID> brokenRids, Function<ORID, ORID> ridMapping) {
+    this(session, brokenRids);
+    this.ridMapping = ridMapping;
+  }
 }
@@ -21,6 +21,11 @@ public final class OLinkConverter implements OValuesConverter<OIdentifiable> {
 
     if (converterData.brokenRids.contains(rid)) return OImportConvertersFactory.BROKEN_LINK;
 
+    if (converterData.ridMapping != null) {
+      final ORID newRid = converterData.ridMapping.apply(rid);
+      return newRid.equals(rid) ? value : newRid;
+    }
+
     try (final OResultSet resultSet =
         converterData.session.query(
             "select value from " + ODatabaseImport.EXPORT_IMPORT_CLASS_NAME + " where key = ?",
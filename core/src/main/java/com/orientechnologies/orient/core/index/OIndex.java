@@ -34,6 +34,11 @@ import java.util.Set;
  */
 public interface OIndex extends Comparable<OIndex> {
   String MERGE_KEYS = "mergeKeys";
+  /**
+   * Metadata flag that keeps a Bloom filter of the keys of a unique index, to answer the lookups of
+   * missing keys without reading the index
+   */
+  String BLOOM_FILTER = "bloomFilter";
 
   OIndex create(
       String name,
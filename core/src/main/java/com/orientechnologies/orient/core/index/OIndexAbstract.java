@@ -568,6 +568,10 @@ public abstract class OIndexAbstract implements OIndexInternal {
       releaseSharedLock();
     }
 
+    // THE STATISTICS COLLECTED BY ANALYZE DESCRIBE THE CONTENT BEFORE THE REBUILD
+    if (getDatabase().getMetadata() != null)
+      getDatabase().getMetadata().getIndexManagerInternal().removeIndexStatistics(name);
+
     return documentIndexed;
   }
 
@@ -296,6 +296,52 @@ public abstract class OIndexManagerAbstract implements OCloseable {
     }
   }
 
+  /**
+   * Stores the statistics collected on an index in its configuration and saves the index manager.
+   *
+   * @param iName the name of the index
+   * @param statistics the statistics, see {@link OIndexStatistics#toDocument()}
+   */
+  public void setIndexStatistics(final String iName, final ODocument statistics) {
+    acquireExclusiveLock();
+    try {
+      final OIndex index = indexes.get(iName);
+      if (index == null || index.getConfiguration() == null) {
+        return;
+      }
+      index
+          .getConfiguration()
+          .field(OIndexStatistics.CONFIG_STATISTICS, statistics, OType.EMBEDDED);
+      setDirty();
+      save();
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  /**
+   * Removes the statistics stored in the configuration of an index, once they do not describe its
+   * content any more, and saves the index manager if they were there.
+   *
+   * @param iName the name of the index
+   */
+  public void removeIndexStatistics(final String iName) {
+    acquireExclusiveLock();
+    try {
+      final OIndex index = indexes.get(iName);
+      if (index == null
+          || index.getConfiguration() == null
+          || !index.getConfiguration().containsField(OIndexStatistics.CONFIG_STATISTICS)) {
+        return;
+      }
+      index.getConfiguration().removeField(OIndexStatistics.CONFIG_STATISTICS);
+      setDirty();
+      save();
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
   public Set<OIndex> getClassInvolvedIndexes(
       ODatabaseDocumentInternal database, final String className, Collection<String> fields) {
     final OMultiKey multiKey = new OMultiKey(fields);
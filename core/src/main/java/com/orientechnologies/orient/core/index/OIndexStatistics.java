@@ -0,0 +1,282 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.index;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Statistics about the content of an index, used by the query planners to estimate the number of
+ * records returned by an index lookup. They are collected on demand (see {@link #collect(OIndex,
+ * int)}) and stored together with the index configuration, so they survive a database restart.
+ *
+ * <p>For ordered indexes an equi-depth histogram on the first indexed field is kept: each bucket
+ * contains (roughly) the same number of index entries, so range selectivity can be estimated
+ * counting the buckets that overlap the range.
+ */
+public class OIndexStatistics {
+  public static final String CONFIG_STATISTICS = "statistics";
+
+  private static final String FIELD_ENTRIES = "entries";
+  private static final String FIELD_DISTINCT_KEYS = "distinctKeys";
+  private static final String FIELD_NULL_ENTRIES = "nullEntries";
+  private static final String FIELD_HISTOGRAM = "histogram";
+  private static final String FIELD_COLLECTED_ON = "collectedOn";
+
+  private final long entries;
+  private final long distinctKeys;
+  private final long nullEntries;
+  private final List<Object> histogram;
+  private final long collectedOn;
+
+  public OIndexStatistics(
+      long entries, long distinctKeys, long nullEntries, List<Object> histogram, long collectedOn) {
+    this.entries = entries;
+    this.distinctKeys = distinctKeys;
+    this.nullEntries = nullEntries;
+    this.histogram = histogram == null ? Collections.emptyList() : histogram;
+    this.collectedOn = collectedOn;
+  }
+
+  /**
+   * Scans the whole index and calculates its statistics.
+   *
+   * @param index the index to analyze
+   * @param buckets the max number of buckets of the histogram
+   */
+  public static OIndexStatistics collect(OIndex index, int buckets) {
+    final OIndexInternal internal = index.getInternal();
+    final long size = internal.size();
+
+    long nullEntries = 0;
+    final OIndexDefinition definition = internal.getDefinition();
+    if (definition != null && !definition.isNullValuesIgnored()) {
+      try (Stream<ORID> nulls = internal.getRids(null)) {
+        nullEntries = nulls.count();
+      }
+    }
+
+    if (!internal.supportsOrderedIterations()) {
+      // no cheap way to count distinct keys without sorting them
+      long distinct = internal.isUnique() ? size - nullEntries : -1;
+      return new OIndexStatistics(size, distinct, nullEntries, null, System.currentTimeMillis());
+    }
+
+    final long bucketDepth = Math.max(1, (size - nullEntries) / Math.max(1, buckets));
+    final List<Object> histogram = new ArrayList<>();
+    long entries = 0;
+    long distinctKeys = 0;
+    long inBucket = 0;
+    Object lastKey = null;
+    Object lastFirstField = null;
+    try (Stream<ORawPair<Object, ORID>> stream = internal.stream()) {
+      Iterator<ORawPair<Object, ORID>> iterator = stream.iterator();
+      while (iterator.hasNext()) {
+        Object key = iterator.next().first;
+        entries++;
+        if (entries == 1 || !Objects.equals(key, lastKey)) {
+          distinctKeys++;
+          lastKey = key;
+        }
+        Object firstField = firstField(key);
+        if (histogram.isEmpty()) {
+          histogram.add(firstField);
+        }
+        inBucket++;
+        if (inBucket >= bucketDepth && !Objects.equals(firstField, lastFirstField)) {
+          histogram.add(firstField);
+          inBucket = 0;
+        }
+        lastFirstField = firstField;
+      }
+    }
+    if (inBucket > 0 && lastFirstField != null) {
+      histogram.add(lastFirstField);
+    }
+    return new OIndexStatistics(
+        entries + nullEntries, distinctKeys, nullEntries, histogram, System.currentTimeMillis());
+  }
+
+  private static Object firstField(Object key) {
+    if (key instanceof OCompositeKey) {
+      List<Object> keys = ((OCompositeKey) key).getKeys();
+      return keys.isEmpty() ? null : keys.get(0);
+    }
+    return key;
+  }
+
+  /** @return the total number of entries in the index, including null keys */
+  public long getEntries() {
+    return entries;
+  }
+
+  /** @return the number of distinct non-null keys, -1 if unknown */
+  public long getDistinctKeys() {
+    return distinctKeys;
+  }
+
+  public long getNullEntries() {
+    return nullEntries;
+  }
+
+  public double getNullFraction() {
+    return entries == 0 ? 0 : ((double) nullEntries) / entries;
+  }
+
+  public List<Object> getHistogram() {
+    return histogram;
+  }
+
+  public long getCollectedOn() {
+    return collectedOn;
+  }
+
+  /**
+   * estimates the number of entries returned by an equality lookup on the first <code>
+   * matchingFields</code> fields of an index with <code>totalFields</code> fields.
+   *
+   * @return the estimated number of entries, -1 if the statistics are not enough to estimate it
+   */
+  public long estimateEquality(int matchingFields, int totalFields) {
+    if (distinctKeys <= 0 || matchingFields <= 0 || totalFields <= 0) {
+      return -1;
+    }
+    long notNull = entries - nullEntries;
+    double distinct = distinctKeys;
+    if (matchingFields < totalFields) {
+      // assume the fields are independent and have similar cardinality
+      distinct = Math.pow(distinctKeys, ((double) matchingFields) / totalFields);
+    }
+    return Math.max(1, (long) Math.ceil(notNull / Math.max(1d, distinct)));
+  }
+
+  /**
+   * estimates the number of entries with the first indexed field in the given range, based on the
+   * histogram. Null bounds mean unbounded.
+   *
+   * @return the estimated number of entries, -1 if there is no histogram or the values cannot be
+   *     compared with the histogram
+   */
+  public long estimateRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+    if (histogram.size() < 2) {
+      return -1;
+    }
+    final int nBuckets = histogram.size() - 1;
+    final double bucketEntries = ((double) (entries - nullEntries)) / nBuckets;
+    final ODefaultComparator comparator = ODefaultComparator.INSTANCE;
+    double result = 0;
+    try {
+      for (int i = 0; i < nBuckets; i++) {
+        Object lower = histogram.get(i);
+        Object upper = histogram.get(i + 1);
+        if (from != null) {
+          int cmp = comparator.compare(upper, from);
+          if (cmp < 0 || (cmp == 0 && !fromInclusive)) {
+            continue;
+          }
+        }
+        if (to != null) {
+          int cmp = comparator.compare(lower, to);
+          if (cmp > 0 || (cmp == 0 && !toInclusive)) {
+            continue;
+          }
+        }
+        boolean partial =
+            (from != null && comparator.compare(lower, from) < 0)
+                || (to != null && comparator.compare(upper, to) > 0);
+        result += partial ? bucketEntries / 2 : bucketEntries;
+      }
+    } catch (RuntimeException e) {
+      // values not comparable with the histogram boundaries
+      return -1;
+    }
+    return (long) Math.ceil(result);
+  }
+
+  public ODocument toDocument() {
+    ODocument result = new ODocument();
+    result.field(FIELD_ENTRIES, entries);
+    result.field(FIELD_DISTINCT_KEYS, distinctKeys);
+    result.field(FIELD_NULL_ENTRIES, nullEntries);
+    result.field(FIELD_HISTOGRAM, new ArrayList<>(histogram), OType.EMBEDDEDLIST);
+    result.field(FIELD_COLLECTED_ON, collectedOn);
+    return result;
+  }
+
+  public static OIndexStatistics fromDocument(ODocument document) {
+    if (document == null) {
+      return null;
+    }
+    Number entries = document.field(FIELD_ENTRIES);
+    Number distinctKeys = document.field(FIELD_DISTINCT_KEYS);
+    Number nullEntries = document.field(FIELD_NULL_ENTRIES);
+    List<Object> histogram = document.field(FIELD_HISTOGRAM);
+    Number collectedOn = document.field(FIELD_COLLECTED_ON);
+    if (entries == null || distinctKeys == null) {
+      return null;
+    }
+    return new OIndexStatistics(
+        entries.longValue(),
+        distinctKeys.longValue(),
+        nullEntries == null ? 0 : nullEntries.longValue(),
+        histogram == null ? null : new ArrayList<>(histogram),
+        collectedOn == null ? 0 : collectedOn.longValue());
+  }
+
+  /**
+   * Reads the statistics stored in the index configuration.
+   *
+   * @return the statistics, null if the index was never analyzed
+   */
+  public static OIndexStatistics fromIndex(OIndex index) {
+    ODocument configuration = index.getConfiguration();
+    if (configuration == null) {
+      return null;
+    }
+    Object statistics = configuration.field(CONFIG_STATISTICS);
+    if (statistics instanceof ODocument) {
+      return fromDocument((ODocument) statistics);
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return "OIndexStatistics{"
+        + "entries="
+        + entries
+        + ", distinctKeys="
+        + distinctKeys
+        + ", nullEntries="
+        + nullEntries
+        + ", histogramBuckets="
+        + Math.max(0, histogram.size() - 1)
+        + '}';
+  }
+}
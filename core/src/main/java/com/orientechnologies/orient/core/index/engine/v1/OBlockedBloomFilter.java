@@ -0,0 +1,83 @@
+package com.orientechnologies.orient.core.index.engine.v1;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Blocked Bloom filter over 64-bit key hashes. All the bits of a key are set in a single block of
+ * 512 bits, so that a lookup touches one cache line only. The filter has a fixed capacity: once
+ * more keys than the capacity are added it still works, but its false positive rate grows, see
+ * {@link #isFull()}.
+ *
+ * <p>Bits are only ever set, never cleared, so that it can be read concurrently with the writers
+ * and a removed or rolled back key only costs a false positive.
+ */
+public final class OBlockedBloomFilter {
+  private static final int BLOCK_LONGS = 8;
+  private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+
+  private final AtomicLongArray bits;
+  private final int blocks;
+  private final int hashes;
+  private final long capacity;
+  private final AtomicLong size = new AtomicLong();
+
+  /**
+   * @param capacity the number of keys the filter is sized for
+   * @param bitsPerKey the bits of the filter per key of the capacity
+   */
+  public OBlockedBloomFilter(long capacity, int bitsPerKey) {
+    final long blocks = Math.max(1, (capacity * bitsPerKey + BLOCK_BITS - 1) / BLOCK_BITS);
+    if (blocks > Integer.MAX_VALUE / BLOCK_LONGS) {
+      throw new IllegalArgumentException("Bloom filter capacity is too big: " + capacity);
+    }
+    this.blocks = (int) blocks;
+    this.hashes = Math.max(1, Math.min(16, (int) Math.round(bitsPerKey * Math.log(2))));
+    this.capacity = capacity;
+    this.bits = new AtomicLongArray(this.blocks * BLOCK_LONGS);
+  }
+
+  public void add(long hash) {
+    final int base = block(hash) * BLOCK_LONGS;
+    final int h1 = (int) hash;
+    final int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      final int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+      final int index = base + (bit >>> 6);
+      final long mask = 1L << bit;
+      long word = bits.get(index);
+      while ((word & mask) == 0 && !bits.compareAndSet(index, word, word | mask)) {
+        word = bits.get(index);
+      }
+    }
+    size.incrementAndGet();
+  }
+
+  /** @return false if the key with the given hash was never added, true if it may have been */
+  public boolean mightContain(long hash) {
+    final int base = block(hash) * BLOCK_LONGS;
+    final int h1 = (int) hash;
+    final int h2 = (int) (hash >>> 32) | 1;
+    for (int i = 0; i < hashes; i++) {
+      final int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+      if ((bits.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** @return true if more keys than the capacity of the filter were added */
+  public boolean isFull() {
+    return size.get() > capacity;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  private int block(long hash) {
+    // multiply-shift of the high bits, the low bits select the bits inside the block
+    return (int) (((hash >>> 32) * blocks) >>> 32);
+  }
+}
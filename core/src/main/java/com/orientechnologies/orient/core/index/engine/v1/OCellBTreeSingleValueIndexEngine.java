@@ -1,10 +1,15 @@
 package com.orientechnologies.orient.core.index.engine.v1;
 
 import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.hash.OMurmurHash3;
+import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.encryption.OEncryption;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndexException;
 import com.orientechnologies.orient.core.index.engine.OSingleValueIndexEngine;
@@ -25,12 +30,31 @@ public final class OCellBTreeSingleValueIndexEngine
     implements OSingleValueIndexEngine, OCellBTreeIndexEngine {
   private static final String DATA_FILE_EXTENSION = ".cbt";
   private static final String NULL_BUCKET_FILE_EXTENSION = ".nbt";
+  private static final int BLOOM_FILTER_SEED = 0x5bd1e995;
+  private static final long MIN_BLOOM_FILTER_CAPACITY = 1 << 10;
 
   private final OCellBTreeSingleValue<Object> sbTree;
   private final OVersionPositionMap versionPositionMap;
   private final String name;
   private final int id;
 
+  private OBinarySerializer<Object> keySerializer;
+  private OType[] keyTypes;
+
+  private boolean bloomFilterEnabled;
+  private int bloomFilterBitsPerKey;
+  /**
+   * Bloom filter of the keys of the index used by the gets, null if it is disabled or it is not
+   * built yet. A full filter is still used, with more false positives, till a bigger one is built.
+   */
+  private volatile OBlockedBloomFilter bloomFilter;
+  /**
+   * Bloom filter that is being built in the background from the keys of the tree, null if there is
+   * no build running. The keys put meanwhile are added to it too, so that it misses none of them
+   * when it replaces {@link #bloomFilter}.
+   */
+  private volatile OBlockedBloomFilter pendingBloomFilter;
+
   public OCellBTreeSingleValueIndexEngine(
       int id, String name, OAbstractPaginatedStorage storage, int version) {
     this.name = name;
@@ -63,7 +87,22 @@ public final class OCellBTreeSingleValueIndexEngine
       String indexType,
       OIndexDefinition indexDefinition,
       boolean isAutomatic,
-      ODocument metadata) {}
+      ODocument metadata) {
+    bloomFilterEnabled =
+        metadata != null && Boolean.TRUE.equals(metadata.field(OIndex.BLOOM_FILTER));
+    bloomFilterBitsPerKey =
+        OGlobalConfiguration.INDEX_BLOOM_FILTER_BITS_PER_KEY.getValueAsInteger();
+    if (!bloomFilterEnabled) {
+      bloomFilter = null;
+    } else if (bloomFilter == null) {
+      if (sbTree.size() == 0) {
+        bloomFilter = new OBlockedBloomFilter(MIN_BLOOM_FILTER_CAPACITY, bloomFilterBitsPerKey);
+      } else {
+        // the index is loaded, the gets are not filtered till the filter is built
+        buildBloomFilter();
+      }
+    }
+  }
 
   @Override
   public void flush() {}
@@ -84,6 +123,10 @@ public final class OCellBTreeSingleValueIndexEngine
       int keySize,
       Map<String, String> engineProperties,
       OEncryption encryption) {
+    //noinspection unchecked
+    this.keySerializer = keySerializer;
+    this.keyTypes = keyTypes;
+
     try {
       //noinspection unchecked
       sbTree.create(atomicOperation, keySerializer, keyTypes, keySize, encryption);
@@ -127,6 +170,9 @@ public final class OCellBTreeSingleValueIndexEngine
       final OBinarySerializer keySerializer,
       final OEncryption encryption) {
     //noinspection unchecked
+    this.keySerializer = keySerializer;
+    this.keyTypes = keyTypes;
+    //noinspection unchecked
     sbTree.load(indexName, keySize, keyTypes, keySerializer, encryption);
     try {
       versionPositionMap.open();
@@ -162,6 +208,10 @@ public final class OCellBTreeSingleValueIndexEngine
 
   @Override
   public Stream<ORID> get(Object key) {
+    final OBlockedBloomFilter filter = bloomFilter;
+    if (filter != null && key != null && !filter.mightContain(hash(key))) {
+      return Stream.empty();
+    }
     final ORID rid = sbTree.get(key);
     if (rid == null) {
       return Stream.empty();
@@ -196,6 +246,7 @@ public final class OCellBTreeSingleValueIndexEngine
   public void put(OAtomicOperation atomicOperation, Object key, ORID value) {
     try {
       sbTree.put(atomicOperation, key, value);
+      addToBloomFilter(key);
     } catch (IOException e) {
       throw OException.wrapException(
           new OIndexException("Error during insertion of key " + key + " into index " + name), e);
@@ -206,13 +257,93 @@ public final class OCellBTreeSingleValueIndexEngine
   public boolean validatedPut(
       OAtomicOperation atomicOperation, Object key, ORID value, Validator<Object, ORID> validator) {
     try {
-      return sbTree.validatedPut(atomicOperation, key, value, validator);
+      final boolean updated = sbTree.validatedPut(atomicOperation, key, value, validator);
+      if (updated) {
+        addToBloomFilter(key);
+      }
+      return updated;
     } catch (IOException e) {
       throw OException.wrapException(
           new OIndexException("Error during insertion of key " + key + " into index " + name), e);
     }
   }
 
+  /**
+   * Adds a key put in the tree to the Bloom filters. It is called after the put, so that the key is
+   * in the filters before the atomic operation is committed and the key is visible to the readers.
+   */
+  private void addToBloomFilter(Object key) {
+    if (!bloomFilterEnabled || key == null) {
+      return;
+    }
+    final long hash = hash(key);
+    // the pending filter is read first: if it replaces the other one meanwhile, it is read below
+    final OBlockedBloomFilter pending = pendingBloomFilter;
+    if (pending != null) {
+      pending.add(hash);
+    }
+    final OBlockedBloomFilter filter = bloomFilter;
+    if (filter == null) {
+      if (pending == null) {
+        // the last build failed
+        buildBloomFilter();
+      }
+    } else if (filter != pending) {
+      filter.add(hash);
+      if (filter.isFull()) {
+        buildBloomFilter();
+      }
+    }
+  }
+
+  /**
+   * Starts to build a Bloom filter with the keys of the tree in the background, if no build is
+   * running. It is called by a put, that holds the lock of the tree till the end of its atomic
+   * operation, or when the index is loaded, so no other atomic operation puts keys meanwhile. The
+   * key stream of the build waits for the lock: it reads the tree once the atomic operation of the
+   * put is committed or rolled back, and the keys put later are added to the pending filter.
+   */
+  private synchronized void buildBloomFilter() {
+    if (pendingBloomFilter != null) {
+      return;
+    }
+    final long capacity = Math.max(MIN_BLOOM_FILTER_CAPACITY, sbTree.size() * 2);
+    final OBlockedBloomFilter filter = new OBlockedBloomFilter(capacity, bloomFilterBitsPerKey);
+    pendingBloomFilter = filter;
+    try {
+      Orient.instance()
+          .submit(
+              () -> {
+                try {
+                  try (Stream<Object> stream = sbTree.keyStream()) {
+                    stream.forEach(key -> filter.add(hash(key)));
+                  }
+                  bloomFilter = filter;
+                } catch (RuntimeException e) {
+                  OLogManager.instance()
+                      .warn(this, "Cannot build the Bloom filter of index %s", e, name);
+                } finally {
+                  pendingBloomFilter = null;
+                }
+              });
+    } catch (RuntimeException e) {
+      pendingBloomFilter = null;
+      OLogManager.instance().warn(this, "Cannot build the Bloom filter of index %s", e, name);
+    }
+  }
+
+  /** @return the capacity of the Bloom filter used by the gets, 0 if there is none */
+  public long getBloomFilterCapacity() {
+    final OBlockedBloomFilter filter = bloomFilter;
+    return filter == null ? 0 : filter.getCapacity();
+  }
+
+  private long hash(Object key) {
+    key = keySerializer.preprocess(key, (Object[]) keyTypes);
+    return OMurmurHash3.murmurHash3_x64_64(
+        keySerializer.serializeNativeAsWhole(key, (Object[]) keyTypes), BLOOM_FILTER_SEED);
+  }
+
   @Override
   public Stream<ORawPair<Object, ORID>> iterateEntriesBetween(
       Object rangeFrom,
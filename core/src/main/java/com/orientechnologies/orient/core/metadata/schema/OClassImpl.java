@@ -845,6 +845,12 @@ public abstract class OClassImpl implements OClass {
     } finally {
       releaseSchemaReadLock();
     }
+
+    // THE STATISTICS COLLECTED BY ANALYZE DESCRIBE THE DELETED RECORDS
+    final OIndexManagerAbstract indexManager = db.getMetadata().getIndexManagerInternal();
+    for (OIndex index : getIndexes()) {
+      indexManager.removeIndexStatistics(index.getName());
+    }
   }
 
   /**
@@ -1,10 +1,12 @@
 package com.orientechnologies.orient.core.metadata.security;
 
+import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseInternal;
 import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.exception.OSecurityException;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.metadata.function.OFunction;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.record.ORecord;
@@ -390,6 +392,31 @@ public class OSecurityEngine {
     }
   }
 
+  /**
+   * Loads the user of a session without checking its permissions, as the security predicates see
+   * it in <code>$currentUser</code>
+   *
+   * @param session
+   * @return a copy of the user document
+   */
+  public static ODocument loadCurrentUser(ODatabaseSession session) {
+    final ORID userRid = session.getUser().getIdentity().getIdentity();
+    try {
+      return ((ODatabaseInternal) session)
+          .getSharedContext()
+          .getOrientDB()
+          .executeNoAuthorization(
+              session.getName(),
+              (db -> {
+                ODocument user = db.load(userRid);
+                return user == null ? null : user.copy();
+              }))
+          .get();
+    } catch (Exception e) {
+      throw OException.wrapException(new OSecurityException("Cannot load the current user"), e);
+    }
+  }
+
   static boolean evaluateSecuirtyPolicyPredicate(
       ODatabaseSession session, OBooleanExpression predicate, ORecord record) {
     if (OBooleanExpression.TRUE.equals(predicate)) {
@@ -8,6 +8,7 @@ import com.orientechnologies.orient.core.metadata.function.OFunction;
 import com.orientechnologies.orient.core.metadata.security.auth.OAuthenticationInfo;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -189,6 +190,20 @@ public interface OSecurityInternal {
    */
   boolean isReadRestrictedBySecurityPolicy(ODatabaseSession session, String resource);
 
+  /**
+   * returns the READ predicate of the security policies of a class for the current session, if the
+   * query planner can add it to the WHERE condition of a query on the class: the records of all
+   * the subclasses have to be filtered by the same predicate, and it can only read the properties
+   * of the record, literals and $currentUser. Subqueries, functions, methods and links would be
+   * evaluated with the permissions of the session, while the policies are evaluated without them
+   *
+   * @param session The session that executes the query
+   * @param className the target class of the query
+   * @return the predicate, or null if the class is not restricted for this session or if its
+   *     predicate can only be evaluated record by record
+   */
+  OBooleanExpression getReadPredicateForQuery(ODatabaseSession session, String className);
+
   /**
    * returns the list of all the filtered properties (for any role defined in the db)
    *
@@ -48,10 +48,27 @@ import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.security.OGlobalUser;
 import com.orientechnologies.orient.core.security.OSecuritySystem;
+import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
+import com.orientechnologies.orient.core.sql.OSQLEngine;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.sql.parser.Node;
+import com.orientechnologies.orient.core.sql.parser.OAndBlock;
+import com.orientechnologies.orient.core.sql.parser.OBaseExpression;
+import com.orientechnologies.orient.core.sql.parser.OBaseIdentifier;
 import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
+import com.orientechnologies.orient.core.sql.parser.OConditionBlock;
+import com.orientechnologies.orient.core.sql.parser.OFunctionCall;
+import com.orientechnologies.orient.core.sql.parser.OIdentifier;
+import com.orientechnologies.orient.core.sql.parser.OInputParameter;
+import com.orientechnologies.orient.core.sql.parser.OMethodCall;
+import com.orientechnologies.orient.core.sql.parser.OModifier;
+import com.orientechnologies.orient.core.sql.parser.ONotBlock;
+import com.orientechnologies.orient.core.sql.parser.OOrBlock;
+import com.orientechnologies.orient.core.sql.parser.OParenthesisBlock;
+import com.orientechnologies.orient.core.sql.parser.OStatement;
+import com.orientechnologies.orient.core.sql.parser.OSuffixIdentifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -1680,6 +1697,100 @@ public class OSecurityShared implements OSecurityInternal {
     return predicate != null && !OBooleanExpression.TRUE.equals(predicate);
   }
 
+  @Override
+  public OBooleanExpression getReadPredicateForQuery(ODatabaseSession session, String className) {
+    if (session.getUser() == null) {
+      // executeNoAuth
+      return null;
+    }
+    OClass clazz = session.getClass(className);
+    if (clazz == null) {
+      return null;
+    }
+    OBooleanExpression predicate =
+        OSecurityEngine.getPredicateForSecurityResource(
+            session, this, "database.class." + clazz.getName(), OSecurityPolicy.Scope.READ);
+    if (predicate == null || OBooleanExpression.TRUE.equals(predicate)) {
+      return null;
+    }
+    for (OClass subclass : clazz.getAllSubclasses()) {
+      OBooleanExpression subclassPredicate =
+          OSecurityEngine.getPredicateForSecurityResource(
+              session, this, "database.class." + subclass.getName(), OSecurityPolicy.Scope.READ);
+      if (!predicate.equals(subclassPredicate)) {
+        return null;
+      }
+    }
+    if (OBooleanExpression.FALSE.equals(predicate)) {
+      return predicate;
+    }
+    try {
+      // the predicates are copies, parse it again to walk its nodes
+      if (!canPushDown(OSQLEngine.parsePredicate(predicate.toString()), null)) {
+        return null;
+      }
+    } catch (OCommandSQLParsingException e) {
+      return null;
+    }
+    return predicate.copy();
+  }
+
+  /**
+   * checks that a security predicate reads only the properties of the record itself, literals and
+   * $currentUser, so that its evaluation in the query gives the same result as the evaluation with
+   * no permission checks done by {@link OSecurityEngine}. Modifiers, method calls, function calls,
+   * subqueries and conditions on nested elements can load other records and are refused.
+   *
+   * @param node a node of a parsed predicate (the children are filled by the parser only)
+   * @param parent the parent of the node
+   */
+  private static boolean canPushDown(Node node, Node parent) {
+    if (node instanceof OStatement
+        || node instanceof OFunctionCall
+        || node instanceof OMethodCall
+        || node instanceof OModifier
+        || node instanceof OInputParameter) {
+      return false;
+    }
+    if (node instanceof OBooleanExpression
+        && parent != null
+        && !(parent instanceof OOrBlock
+            || parent instanceof OAndBlock
+            || parent instanceof ONotBlock
+            || parent instanceof OParenthesisBlock
+            || parent instanceof OConditionBlock)) {
+      return false;
+    }
+    if (node instanceof OBaseExpression) {
+      OBaseExpression expression = (OBaseExpression) node;
+      if (isCurrentUser(expression)) {
+        // $currentUser or $currentUser.property
+        OModifier modifier = expression.getModifier();
+        return modifier == null
+            || (modifier.jjtGetNumChildren() == 1
+                && modifier.jjtGetChild(0) instanceof OSuffixIdentifier);
+      }
+    }
+    if (node instanceof OIdentifier
+        && ((OIdentifier) node).getStringValue().startsWith("$")) {
+      return false;
+    }
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      if (!canPushDown(node.jjtGetChild(i), node)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCurrentUser(OBaseExpression expression) {
+    OBaseIdentifier identifier = expression.getIdentifier();
+    return identifier != null
+        && identifier.getSuffix() != null
+        && identifier.getSuffix().getIdentifier() != null
+        && "$currentUser".equalsIgnoreCase(identifier.getSuffix().getIdentifier().getStringValue());
+  }
+
   @Override
   public synchronized Set<OSecurityResourceProperty> getAllFilteredProperties(
       ODatabaseDocumentInternal database) {
@@ -40,6 +40,7 @@ import com.orientechnologies.orient.core.metadata.security.auth.OAuthenticationI
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.security.OSecurityManager;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -351,6 +352,11 @@ public class OSymmetricKeySecurity implements OSecurityInternal {
     return delegate.isReadRestrictedBySecurityPolicy(session, resource);
   }
 
+  @Override
+  public OBooleanExpression getReadPredicateForQuery(ODatabaseSession session, String className) {
+    return delegate.getReadPredicateForQuery(session, className);
+  }
+
   @Override
   public Set<OSecurityResourceProperty> getAllFilteredProperties(
       ODatabaseDocumentInternal database) {
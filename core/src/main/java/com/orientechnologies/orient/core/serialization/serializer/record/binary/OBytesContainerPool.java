@@ -0,0 +1,61 @@
+package com.orientechnologies.orient.core.serialization.serializer.record.binary;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import java.util.Arrays;
+
+/**
+ * Per thread stack of {@link BytesContainer}s used as scratch buffers by the record serializers,
+ * so that serializing a record does not allocate and grow new arrays every time. Containers are
+ * acquired and released in LIFO order, which matches the nesting of embedded documents.
+ *
+ * <p>The content of a released container is overwritten by the next serialization, so it has to
+ * be copied out before the release, for example with {@link #toBytes(BytesContainer)}. Buffers
+ * bigger than {@link OGlobalConfiguration#RECORD_SERIALIZATION_BUFFER_MAX_SIZE} are not kept.
+ */
+public final class OBytesContainerPool {
+  private static final int INITIAL_SIZE = 64;
+
+  private static final ThreadLocal<OBytesContainerPool> POOL =
+      ThreadLocal.withInitial(OBytesContainerPool::new);
+
+  private BytesContainer[] containers = new BytesContainer[4];
+  private int used;
+
+  private OBytesContainerPool() {}
+
+  /** @return an empty container of the current thread, to be given back with {@link #release} */
+  public static BytesContainer acquire() {
+    final OBytesContainerPool pool = POOL.get();
+    if (pool.used == pool.containers.length) {
+      pool.containers = Arrays.copyOf(pool.containers, pool.containers.length * 2);
+    }
+
+    BytesContainer container = pool.containers[pool.used];
+    if (container == null) {
+      container = new BytesContainer(new byte[INITIAL_SIZE]);
+      pool.containers[pool.used] = container;
+    }
+    pool.used++;
+
+    container.offset = 0;
+    return container;
+  }
+
+  /** Gives back the last container acquired by the current thread. */
+  public static void release(final BytesContainer container) {
+    final OBytesContainerPool pool = POOL.get();
+    assert pool.used > 0 && pool.containers[pool.used - 1] == container
+        : "Serialization buffers have to be released in reverse order of acquisition";
+    pool.used--;
+
+    if (container.bytes.length
+        > OGlobalConfiguration.RECORD_SERIALIZATION_BUFFER_MAX_SIZE.getValueAsInteger()) {
+      container.bytes = new byte[INITIAL_SIZE];
+    }
+  }
+
+  /** @return a copy of the content of the container, which can outlive its release */
+  public static byte[] toBytes(final BytesContainer container) {
+    return Arrays.copyOf(container.bytes, container.offset);
+  }
+}
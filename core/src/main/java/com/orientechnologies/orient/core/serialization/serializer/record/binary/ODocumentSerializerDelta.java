@@ -85,15 +85,23 @@ public class ODocumentSerializerDelta {
   protected ODocumentSerializerDelta() {}
 
   public byte[] serialize(ODocument document) {
-    BytesContainer bytes = new BytesContainer();
-    serialize(document, bytes);
-    return bytes.fitBytes();
+    BytesContainer bytes = OBytesContainerPool.acquire();
+    try {
+      serialize(document, bytes);
+      return OBytesContainerPool.toBytes(bytes);
+    } finally {
+      OBytesContainerPool.release(bytes);
+    }
   }
 
   public byte[] serializeDelta(ODocument document) {
-    BytesContainer bytes = new BytesContainer();
-    serializeDelta(bytes, document);
-    return bytes.fitBytes();
+    BytesContainer bytes = OBytesContainerPool.acquire();
+    try {
+      serializeDelta(bytes, document);
+      return OBytesContainerPool.toBytes(bytes);
+    } finally {
+      OBytesContainerPool.release(bytes);
+    }
   }
 
   protected OClass serializeClass(final ODocument document, final BytesContainer bytes) {
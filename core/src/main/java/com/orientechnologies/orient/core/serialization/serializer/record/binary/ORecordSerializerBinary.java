@@ -123,15 +123,18 @@ public class ORecordSerializerBinary implements ORecordSerializer {
     } else {
       ODocument documentToSerialize = (ODocument) record;
 
-      final BytesContainer container = new BytesContainer();
-
-      // WRITE SERIALIZER VERSION
-      int pos = container.alloc(1);
-      container.bytes[pos] = currentSerializerVersion;
-      // SERIALIZE RECORD
-      serializerByVersion[currentSerializerVersion].serialize(documentToSerialize, container);
-
-      return container.fitBytes();
+      final BytesContainer container = OBytesContainerPool.acquire();
+      try {
+        // WRITE SERIALIZER VERSION
+        int pos = container.alloc(1);
+        container.bytes[pos] = currentSerializerVersion;
+        // SERIALIZE RECORD
+        serializerByVersion[currentSerializerVersion].serialize(documentToSerialize, container);
+
+        return OBytesContainerPool.toBytes(container);
+      } finally {
+        OBytesContainerPool.release(container);
+      }
     }
   }
 
@@ -456,15 +456,22 @@ public class ORecordSerializerBinaryV1 implements ODocumentSerializer {
     final Map<String, OProperty> props = clazz != null ? clazz.propertiesMap() : null;
     final Set<Entry<String, ODocumentEntry>> fields = ODocumentInternal.rawEntries(document);
 
-    BytesContainer valuesBuffer = new BytesContainer();
-    BytesContainer headerBuffer = new BytesContainer();
-
-    serializeValues(headerBuffer, valuesBuffer, document, fields, props, schema, encryption);
-    int headerLength = headerBuffer.offset;
-    // write header length as soon as possible
-    OVarIntSerializer.write(bytes, headerLength);
-
-    merge(bytes, headerBuffer, valuesBuffer);
+    final BytesContainer valuesBuffer = OBytesContainerPool.acquire();
+    try {
+      final BytesContainer headerBuffer = OBytesContainerPool.acquire();
+      try {
+        serializeValues(headerBuffer, valuesBuffer, document, fields, props, schema, encryption);
+        int headerLength = headerBuffer.offset;
+        // write header length as soon as possible
+        OVarIntSerializer.write(bytes, headerLength);
+
+        merge(bytes, headerBuffer, valuesBuffer);
+      } finally {
+        OBytesContainerPool.release(headerBuffer);
+      }
+    } finally {
+      OBytesContainerPool.release(valuesBuffer);
+    }
   }
 
   public void serializeWithClassName(final ODocument document, final BytesContainer bytes) {
@@ -0,0 +1,85 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Returns an OResult for each statement profiled by the {@link OQueryStats} of the database, see
+ * {@link OStatementProfile#toResult()}
+ */
+public class FetchFromQueryStatsMetadataStep extends AbstractExecutionStep {
+
+  private Iterator<OStatementProfile> profiles;
+  private long cost = 0;
+
+  public FetchFromQueryStatsMetadataStep(OCommandContext ctx, boolean profilingEnabled) {
+    super(ctx, profilingEnabled);
+  }
+
+  @Override
+  public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+    getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    if (profiles == null) {
+      profiles =
+          OQueryStats.get((ODatabaseDocumentInternal) ctx.getDatabase())
+              .getStatementProfiles()
+              .iterator();
+    }
+    return new OResultSet() {
+      private int served = 0;
+
+      @Override
+      public boolean hasNext() {
+        return served < nRecords && profiles.hasNext();
+      }
+
+      @Override
+      public OResult next() {
+        long begin = profilingEnabled ? System.nanoTime() : 0;
+        try {
+          if (!hasNext()) {
+            throw new IllegalStateException();
+          }
+          served++;
+          return profiles.next().toResult();
+        } finally {
+          if (profilingEnabled) {
+            cost += (System.nanoTime() - begin);
+          }
+        }
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    String spaces = OExecutionStepInternal.getIndent(depth, indent);
+    String result = spaces + "+ FETCH QUERY STATS METADATA";
+    if (profilingEnabled) {
+      result += " (" + getCostFormatted() + ")";
+    }
+    return result;
+  }
+
+  @Override
+  public long getCost() {
+    return cost;
+  }
+}
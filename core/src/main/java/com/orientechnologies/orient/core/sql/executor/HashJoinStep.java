@@ -0,0 +1,209 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.sql.parser.OLocalResultSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Inner join of the rows of two execution plans on a list of equality {@link JoinCondition}s: the
+ * rows of the right plan (the build side) are loaded in a {@link HashJoinTable}, then each row of
+ * the left plan (the probe side) is joined with the rows of the table that match it. Rows with a
+ * null value for a condition never match. The output rows have the properties of both rows.
+ *
+ * <p>The planner uses the smaller input as build side, see {@link OMatchExecutionPlanner}.
+ */
+public class HashJoinStep extends AbstractExecutionStep {
+
+  private final OInternalExecutionPlan probePlan;
+  private final OInternalExecutionPlan buildPlan;
+  private final List<JoinCondition> conditions;
+  private final int spillThreshold;
+
+  private HashJoinTable table;
+  private OResultSet probe;
+  private OResult currentProbe;
+  private Iterator<OResult> currentMatches;
+  private OResultInternal nextRecord;
+
+  private long cost = 0;
+
+  public HashJoinStep(
+      OInternalExecutionPlan probePlan,
+      OInternalExecutionPlan buildPlan,
+      List<JoinCondition> conditions,
+      OCommandContext ctx,
+      boolean profilingEnabled) {
+    super(ctx, profilingEnabled);
+    this.probePlan = probePlan;
+    this.buildPlan = buildPlan;
+    this.conditions = conditions;
+    ODatabase db = ctx == null ? null : ctx.getDatabase();
+    this.spillThreshold =
+        db == null
+            ? OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD.getValueAsInteger()
+            : db.getConfiguration()
+                .getValueAsInteger(OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD);
+  }
+
+  @Override
+  public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+    getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    init(ctx);
+    return new OResultSet() {
+      private int currentCount = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (currentCount >= nRecords) {
+          return false;
+        }
+        return nextRecord != null;
+      }
+
+      @Override
+      public OResult next() {
+        if (currentCount >= nRecords || nextRecord == null) {
+          throw new IllegalStateException();
+        }
+        OResultInternal result = nextRecord;
+        fetchNextRecord(ctx);
+        currentCount++;
+        return result;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  private void init(OCommandContext ctx) {
+    if (table != null) {
+      return;
+    }
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
+      table = new HashJoinTable(conditions, spillThreshold);
+      try (OResultSet build = new OLocalResultSet(buildPlan)) {
+        while (build.hasNext()) {
+          OResult row = build.next();
+          Object[] values = new Object[conditions.size()];
+          boolean hasNull = false;
+          for (int i = 0; i < conditions.size() && !hasNull; i++) {
+            values[i] = conditions.get(i).evaluateRight(row, ctx);
+            hasNull = values[i] == null;
+          }
+          if (!hasNull) {
+            table.add(values, row);
+          }
+        }
+      }
+      probe = new OLocalResultSet(probePlan);
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+    fetchNextRecord(ctx);
+  }
+
+  private void fetchNextRecord(OCommandContext ctx) {
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
+      nextRecord = null;
+      while (currentMatches == null || !currentMatches.hasNext()) {
+        if (probe == null || !probe.hasNext()) {
+          closeInputs();
+          return;
+        }
+        currentProbe = probe.next();
+        currentMatches = lookup(currentProbe, ctx);
+      }
+      nextRecord = join(currentProbe, currentMatches.next());
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+  }
+
+  private Iterator<OResult> lookup(OResult row, OCommandContext ctx) {
+    Object[] values = new Object[conditions.size()];
+    for (int i = 0; i < conditions.size(); i++) {
+      values[i] = conditions.get(i).evaluateLeft(row, ctx);
+      if (values[i] == null) {
+        return null;
+      }
+    }
+    return table.lookup(values).iterator();
+  }
+
+  static OResultInternal join(OResult left, OResult right) {
+    OResultInternal result = new OResultInternal();
+    for (String s : left.getPropertyNames()) {
+      result.setProperty(s, left.getProperty(s));
+    }
+    for (String s : right.getPropertyNames()) {
+      result.setProperty(s, right.getProperty(s));
+    }
+    return result;
+  }
+
+  private void closeInputs() {
+    if (probe != null) {
+      probe.close();
+      probe = null;
+    }
+    if (table != null) {
+      table.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    closeInputs();
+    super.close();
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    String spaces = OExecutionStepInternal.getIndent(depth, indent);
+    StringBuilder result = new StringBuilder();
+    result.append(spaces);
+    result.append("+ HASH JOIN ON ");
+    result.append(conditions.stream().map(x -> x.toString()).collect(Collectors.joining(" AND ")));
+    if (profilingEnabled) {
+      result.append(" (").append(getCostFormatted()).append(")");
+    }
+    if (table != null) {
+      result.append("\n").append(spaces).append("  build side: ").append(table.size());
+      result.append(table.isSpilled() ? " rows, spilled to disk" : " rows");
+    }
+    result.append("\n").append(spaces).append("  PROBE\n");
+    result.append(probePlan.prettyPrint(depth + 1, indent));
+    result.append("\n").append(spaces).append("  BUILD\n");
+    result.append(buildPlan.prettyPrint(depth + 1, indent));
+    return result.toString();
+  }
+
+  @Override
+  public long getCost() {
+    return cost;
+  }
+}
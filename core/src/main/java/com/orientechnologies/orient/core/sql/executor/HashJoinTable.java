@@ -0,0 +1,321 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build side of a {@link HashJoinStep}: the rows of one input of the join, grouped by the values
+ * their operands of the {@link JoinCondition}s take.
+ *
+ * <p>Values are hashed only when the equality operator is known to agree with the hash: strings,
+ * booleans, integral numbers (compared as longs) and persistent RIDs, and only when all the rows
+ * have the same kinds of values. The rows that can not be hashed, and the lookups with values of a
+ * different kind, fall back to comparing the values one by one with the operator.
+ *
+ * <p>Past {@link OGlobalConfiguration#QUERY_JOIN_SPILL_THRESHOLD} rows, the rows that hold only
+ * RIDs and persistent records (as the MATCH rows do) are written to a temporary file as RIDs, the
+ * table keeps in memory their values and their position in the file. The records are loaded again
+ * when a lookup returns the row.
+ */
+public class HashJoinTable implements Closeable {
+
+  private static final byte NULL_VALUE = 0;
+  private static final byte RID_VALUE = 1;
+  private static final byte RECORD_VALUE = 2;
+
+  private final List<JoinCondition> conditions;
+  private final int spillThreshold;
+
+  private final Map<List<Object>, List<Entry>> buckets = new HashMap<>();
+  private final List<Entry> unhashed = new ArrayList<>();
+  private Class<?>[] keyClasses;
+  private int rowsInMemory = 0;
+  private long size = 0;
+
+  private FileChannel spill;
+  private long spillSize = 0;
+
+  public HashJoinTable(List<JoinCondition> conditions, int spillThreshold) {
+    this.conditions = conditions;
+    this.spillThreshold = spillThreshold;
+  }
+
+  /**
+   * @return the value to hash instead of the passed one, so that values equal for the equality
+   *     operator have the same hash, or null if the value can not be hashed
+   */
+  public static Object hashKey(Object value) {
+    if (value instanceof String || value instanceof Boolean || value instanceof Long) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof OIdentifiable && !(value instanceof OResult)) {
+      ORID rid = ((OIdentifiable) value).getIdentity();
+      if (rid != null && rid.isPersistent()) {
+        return rid;
+      }
+    }
+    return null;
+  }
+
+  private static Class<?> keyClass(Object hashKey) {
+    return hashKey instanceof ORID ? ORID.class : hashKey.getClass();
+  }
+
+  /**
+   * Adds a row of the right input of the join.
+   *
+   * @param values the values of the right operands of the conditions on the row, none is null
+   */
+  public void add(Object[] values, OResult row) {
+    Entry entry = new Entry(values);
+    if (spillThreshold > 0 && rowsInMemory >= spillThreshold && isSpillable(row)) {
+      write(entry, row);
+    } else {
+      entry.row = row;
+      rowsInMemory++;
+    }
+    size++;
+
+    List<Object> key = hashKeys(values);
+    if (key != null && keyClasses == null) {
+      keyClasses = new Class<?>[key.size()];
+      for (int i = 0; i < key.size(); i++) {
+        keyClasses[i] = keyClass(key.get(i));
+      }
+    }
+    if (key != null && hasKeyClasses(key)) {
+      buckets.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entry);
+    } else {
+      unhashed.add(entry);
+    }
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public boolean isSpilled() {
+    return spill != null;
+  }
+
+  /**
+   * @param values the values of the left operands of the conditions on a row of the left input,
+   *     none is null
+   * @return the rows of the right input that satisfy all the conditions with the passed values
+   */
+  public List<OResult> lookup(Object[] values) {
+    List<OResult> result = new ArrayList<>();
+    List<Object> key = hashKeys(values);
+    if (key != null && keyClasses != null && hasKeyClasses(key)) {
+      List<Entry> entries = buckets.get(key);
+      if (entries != null) {
+        for (Entry entry : entries) {
+          result.add(load(entry));
+        }
+      }
+    } else {
+      for (List<Entry> entries : buckets.values()) {
+        scan(values, entries, result);
+      }
+    }
+    scan(values, unhashed, result);
+    return result;
+  }
+
+  private void scan(Object[] values, List<Entry> entries, List<OResult> result) {
+    for (Entry entry : entries) {
+      boolean matches = true;
+      for (int i = 0; i < conditions.size() && matches; i++) {
+        matches = conditions.get(i).matches(values[i], entry.values[i]);
+      }
+      if (matches) {
+        result.add(load(entry));
+      }
+    }
+  }
+
+  private List<Object> hashKeys(Object[] values) {
+    Object[] result = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = hashKey(values[i]);
+      if (result[i] == null) {
+        return null;
+      }
+    }
+    return Arrays.asList(result);
+  }
+
+  private boolean hasKeyClasses(List<Object> key) {
+    for (int i = 0; i < keyClasses.length; i++) {
+      if (keyClasses[i] != keyClass(key.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * rows can be spilled if all their properties are null, persistent RIDs or records that can be
+   * loaded again, as elements or as results
+   */
+  private static boolean isSpillable(OResult row) {
+    if (row.getClass() != OResultInternal.class
+        || !row.isProjection()
+        || !row.getMetadataKeys().isEmpty()) {
+      return false;
+    }
+    for (String name : row.getPropertyNames()) {
+      Object value = row.getProperty(name);
+      if (value instanceof ORID
+          ? !((ORID) value).isPersistent()
+          : value != null && spilledIdentity(value) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** @return the RID of a record that can be loaded again instead of keeping it in memory */
+  private static ORID spilledIdentity(Object value) {
+    ORecord record = null;
+    if (value instanceof OResult) {
+      record = ((OResult) value).isElement() ? ((OResult) value).getRecord().orElse(null) : null;
+    } else if (value instanceof ORecord) {
+      record = (ORecord) value;
+    }
+    if (record == null || record.isDirty() || !record.getIdentity().isPersistent()) {
+      return null;
+    }
+    return record.getIdentity();
+  }
+
+  private void write(Entry entry, OResult row) {
+    try {
+      if (spill == null) {
+        Path directory = Files.createDirectories(Paths.get(Orient.getTempPath()));
+        spill =
+            FileChannel.open(
+                Files.createTempFile(directory, "join", ".spill"),
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+      }
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(row.getPropertyNames().size());
+      for (String name : row.getPropertyNames()) {
+        Object value = row.getProperty(name);
+        out.writeUTF(name);
+        if (value == null) {
+          out.writeByte(NULL_VALUE);
+        } else {
+          ORID rid = value instanceof ORID ? (ORID) value : spilledIdentity(value);
+          out.writeByte(value instanceof ORID ? RID_VALUE : RECORD_VALUE);
+          out.writeInt(rid.getClusterId());
+          out.writeLong(rid.getClusterPosition());
+        }
+      }
+      out.flush();
+
+      ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+      entry.position = spillSize;
+      entry.length = buffer.remaining();
+      while (buffer.hasRemaining()) {
+        spill.write(buffer, entry.position + buffer.position());
+      }
+      spillSize += entry.length;
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Cannot write to the spill file of the hash join"), e);
+    }
+  }
+
+  private OResult load(Entry entry) {
+    if (entry.row != null) {
+      return entry.row;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+    try {
+      while (buffer.hasRemaining()) {
+        if (spill.read(buffer, entry.position + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of the spill file");
+        }
+      }
+
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+      OResultInternal row = new OResultInternal();
+      int properties = in.readInt();
+      for (int i = 0; i < properties; i++) {
+        String name = in.readUTF();
+        byte type = in.readByte();
+        if (type == NULL_VALUE) {
+          row.setProperty(name, null);
+        } else {
+          ORID rid = new ORecordId(in.readInt(), in.readLong());
+          if (type == RECORD_VALUE) {
+            ORecord record = rid.getRecord();
+            row.setProperty(name, record == null ? rid : record);
+          } else {
+            row.setProperty(name, rid);
+          }
+        }
+      }
+      return row;
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new OCommandExecutionException("Cannot read from the spill file of the hash join"), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    buckets.clear();
+    unhashed.clear();
+    if (spill != null) {
+      try {
+        spill.close();
+      } catch (IOException e) {
+        OLogManager.instance().warn(this, "Cannot delete the spill file of the hash join", e);
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final Object[] values;
+    private OResult row;
+    private long position;
+    private int length;
+
+    private Entry(Object[] values) {
+      this.values = values;
+    }
+  }
+}
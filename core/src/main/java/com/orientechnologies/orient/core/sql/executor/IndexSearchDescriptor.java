@@ -3,10 +3,16 @@ package com.orientechnologies.orient.core.sql.executor;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexStatistics;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.sql.parser.OAndBlock;
 import com.orientechnologies.orient.core.sql.parser.OBinaryCompareOperator;
 import com.orientechnologies.orient.core.sql.parser.OBinaryCondition;
 import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
+import com.orientechnologies.orient.core.sql.parser.OGeOperator;
+import com.orientechnologies.orient.core.sql.parser.OGtOperator;
+import com.orientechnologies.orient.core.sql.parser.OLeOperator;
+import com.orientechnologies.orient.core.sql.parser.OLtOperator;
 
 /** Created by luigidellaquila on 26/07/16. */
 public class IndexSearchDescriptor {
@@ -33,23 +39,78 @@ public class IndexSearchDescriptor {
 
     String indexName = idx.getName();
     int size = keyCondition.getSubBlocks().size();
-    boolean range = false;
-    OBooleanExpression lastOp =
-        keyCondition.getSubBlocks().get(keyCondition.getSubBlocks().size() - 1);
-    if (lastOp instanceof OBinaryCondition) {
-      OBinaryCompareOperator op = ((OBinaryCondition) lastOp).getOperator();
-      range = op.isRangeOperator();
-    }
+    boolean range = isRange();
 
     long val =
         stats.getIndexStats(
             indexName, size, range, additionalRangeCondition != null, ctx.getDatabase());
     if (val == -1) {
-      // TODO query the index!
+      val = estimateFromStatistics(ctx);
     }
     if (val >= 0) {
       return val > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) val;
     }
     return Integer.MAX_VALUE;
   }
+
+  /** @return true if the last condition on the key of the index is a range condition */
+  public boolean isRange() {
+    OBooleanExpression lastOp =
+        keyCondition.getSubBlocks().get(keyCondition.getSubBlocks().size() - 1);
+    return lastOp instanceof OBinaryCondition
+        && ((OBinaryCondition) lastOp).getOperator().isRangeOperator();
+  }
+
+  /**
+   * estimates the number of index entries returned by this lookup, based on the index statistics
+   * collected with {@link OQueryStats#analyze}
+   *
+   * @return the estimated number of entries, -1 if the index has no statistics
+   */
+  public long estimateFromStatistics(OCommandContext ctx) {
+    OQueryStats stats = OQueryStats.get((ODatabaseDocumentInternal) ctx.getDatabase());
+    OIndexStatistics statistics = stats.getIndexStatistics(idx);
+    if (statistics == null) {
+      return -1;
+    }
+    int totalFields = idx.getDefinition().getFields().size();
+    int size = keyCondition.getSubBlocks().size();
+    OBooleanExpression lastOp = keyCondition.getSubBlocks().get(size - 1);
+    if (!(lastOp instanceof OBinaryCondition)
+        || !((OBinaryCondition) lastOp).getOperator().isRangeOperator()) {
+      return statistics.estimateEquality(size, totalFields);
+    }
+    if (size > 1) {
+      // the equality prefix is an upper bound for the range
+      return statistics.estimateEquality(size - 1, totalFields);
+    }
+    Object from = null;
+    boolean fromInclusive = true;
+    Object to = null;
+    boolean toInclusive = true;
+    for (OBinaryCondition condition :
+        new OBinaryCondition[] {(OBinaryCondition) lastOp, additionalRangeCondition}) {
+      if (condition == null) {
+        continue;
+      }
+      if (!condition.getRight().isEarlyCalculated(ctx)) {
+        return -1;
+      }
+      Object value = condition.getRight().execute((OResult) null, ctx);
+      try {
+        value = OType.convert(value, idx.getDefinition().getTypes()[0].getDefaultJavaType());
+      } catch (RuntimeException e) {
+        return -1;
+      }
+      OBinaryCompareOperator operator = condition.getOperator();
+      if (operator instanceof OGtOperator || operator instanceof OGeOperator) {
+        from = value;
+        fromInclusive = operator instanceof OGeOperator;
+      } else if (operator instanceof OLtOperator || operator instanceof OLeOperator) {
+        to = value;
+        toInclusive = operator instanceof OLeOperator;
+      }
+    }
+    return statistics.estimateRange(from, fromInclusive, to, toInclusive);
+  }
 }
@@ -0,0 +1,96 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCompareOperator;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+
+/**
+ * Equality condition between the rows of the two inputs of a {@link HashJoinStep} or of a {@link
+ * MergeJoinStep}. Each operand is evaluated on the rows of one input: an operand with an alias is
+ * evaluated on the record matched by that alias, eg. <code>name</code> on the record of
+ * <code>b</code> in
+ *
+ * <pre>
+ * MATCH {class:A, as:a}, {class:B, as:b, where:(name = $matched.a.name)} RETURN a, b
+ * </pre>
+ *
+ * while an operand without alias is evaluated on the whole row, with the row as <code>$matched
+ * </code> (<code>$matched.a.name</code> in the example).
+ */
+public class JoinCondition {
+
+  private final OExpression leftOperand;
+  private final String leftAlias;
+  private final OExpression rightOperand;
+  private final String rightAlias;
+  private final OBinaryCompareOperator operator;
+  private final boolean swapped;
+
+  /**
+   * @param leftOperand the operand evaluated on the rows of the left input
+   * @param leftAlias the alias the left operand is evaluated on, null to evaluate it on the row
+   * @param rightOperand the operand evaluated on the rows of the right input
+   * @param rightAlias the alias the right operand is evaluated on, null to evaluate it on the row
+   * @param operator the equality operator of the condition
+   * @param swapped true if the left operand is the right one of the operator
+   */
+  public JoinCondition(
+      OExpression leftOperand,
+      String leftAlias,
+      OExpression rightOperand,
+      String rightAlias,
+      OBinaryCompareOperator operator,
+      boolean swapped) {
+    this.leftOperand = leftOperand;
+    this.leftAlias = leftAlias;
+    this.rightOperand = rightOperand;
+    this.rightAlias = rightAlias;
+    this.operator = operator;
+    this.swapped = swapped;
+  }
+
+  /** @return the same condition, with the left and the right input exchanged */
+  public JoinCondition swap() {
+    return new JoinCondition(rightOperand, rightAlias, leftOperand, leftAlias, operator, !swapped);
+  }
+
+  public Object evaluateLeft(OResult row, OCommandContext ctx) {
+    return evaluate(leftOperand, leftAlias, row, ctx);
+  }
+
+  public Object evaluateRight(OResult row, OCommandContext ctx) {
+    return evaluate(rightOperand, rightAlias, row, ctx);
+  }
+
+  /** @return true if the values of the left and of the right operand satisfy the condition */
+  public boolean matches(Object leftValue, Object rightValue) {
+    if (swapped) {
+      return operator.execute(rightValue, leftValue);
+    }
+    return operator.execute(leftValue, rightValue);
+  }
+
+  private static Object evaluate(
+      OExpression operand, String alias, OResult row, OCommandContext ctx) {
+    if (alias == null) {
+      ctx.setVariable("$matched", row);
+      return operand.execute(row, ctx);
+    }
+    Object record = row.getProperty(alias);
+    if (record instanceof OResult) {
+      return operand.execute((OResult) record, ctx);
+    }
+    if (record instanceof OIdentifiable) {
+      return operand.execute((OIdentifiable) record, ctx);
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    String left = (leftAlias == null ? "" : "{" + leftAlias + "}.") + leftOperand;
+    String right = (rightAlias == null ? "" : "{" + rightAlias + "}.") + rightOperand;
+    return swapped ? right + " " + operator + " " + left : left + " " + operator + " " + right;
+  }
+}
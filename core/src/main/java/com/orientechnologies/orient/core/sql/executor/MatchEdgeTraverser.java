@@ -134,7 +134,8 @@ public class MatchEdgeTraverser {
             == null) { // in this case starting point is not returned and only one level depth is
       // evaluated
 
-      Iterable<OResultInternal> queryResult = traversePatternEdge(startingPoint, iCommandContext);
+      Iterable<OResultInternal> queryResult =
+          traversePatternEdge(startingPoint, filter, iCommandContext);
       final OWhereClause theFilter = filter;
       final String theClassName = className;
       final Integer theClusterId = clusterId;
@@ -322,6 +323,31 @@ public class MatchEdgeTraverser {
     return filter == null || filter.matchesFilters(origin, iCommandContext);
   }
 
+  /**
+   * Traverses a single level of the pattern edge, using a vertex-centric index on the edge class
+   * (see {@link VertexCentricIndexLookup}) when it can reduce the candidates for the given filter.
+   * The filter is still evaluated by the caller on each returned element.
+   */
+  protected Iterable<OResultInternal> traversePatternEdge(
+      OIdentifiable startingPoint, OWhereClause filter, OCommandContext iCommandContext) {
+    if (filter != null && !isPrefetched(iCommandContext)) {
+      VertexCentricIndexLookup lookup =
+          VertexCentricIndexLookup.find(
+              startingPoint, this.item.getMethod(), filter, iCommandContext);
+      if (lookup != null) {
+        return lookup.execute();
+      }
+    }
+    return traversePatternEdge(startingPoint, iCommandContext);
+  }
+
+  private boolean isPrefetched(OCommandContext iCommandContext) {
+    return this.item.getFilter() != null
+        && iCommandContext.getVariable(
+                MatchPrefetchStep.PREFETCHED_MATCH_ALIAS_PREFIX + getEndpointAlias())
+            != null;
+  }
+
   // TODO refactor this method to receive the item.
 
   protected Iterable<OResultInternal> traversePatternEdge(
@@ -4,6 +4,7 @@ import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.sql.parser.OFieldMatchPathItem;
 import com.orientechnologies.orient.core.sql.parser.OMatchPathItem;
+import com.orientechnologies.orient.core.sql.parser.OWhereClause;
 import java.util.Collections;
 import java.util.Iterator;
 
@@ -16,6 +17,12 @@ public class MatchFieldTraverser extends MatchEdgeTraverser {
     super(lastUpstreamRecord, item);
   }
 
+  @Override
+  protected Iterable<OResultInternal> traversePatternEdge(
+      OIdentifiable startingPoint, OWhereClause filter, OCommandContext iCommandContext) {
+    return traversePatternEdge(startingPoint, iCommandContext);
+  }
+
   protected Iterable<OResultInternal> traversePatternEdge(
       OIdentifiable startingPoint, OCommandContext iCommandContext) {
 
@@ -21,6 +21,12 @@ public class MatchMultiEdgeTraverser extends MatchEdgeTraverser {
     super(lastUpstreamRecord, edge);
   }
 
+  @Override
+  protected Iterable<OResultInternal> traversePatternEdge(
+      OIdentifiable startingPoint, OWhereClause filter, OCommandContext iCommandContext) {
+    return traversePatternEdge(startingPoint, iCommandContext);
+  }
+
   protected Iterable<OResultInternal> traversePatternEdge(
       OIdentifiable startingPoint, OCommandContext iCommandContext) {
 
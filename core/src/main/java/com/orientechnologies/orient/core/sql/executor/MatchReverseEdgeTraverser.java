@@ -37,6 +37,12 @@ public class MatchReverseEdgeTraverser extends MatchEdgeTraverser {
     return edge.getLeftFilter();
   }
 
+  @Override
+  protected Iterable<OResultInternal> traversePatternEdge(
+      OIdentifiable startingPoint, OWhereClause filter, OCommandContext iCommandContext) {
+    return traversePatternEdge(startingPoint, iCommandContext);
+  }
+
   @Override
   protected Iterable<OResultInternal> traversePatternEdge(
       OIdentifiable startingPoint, OCommandContext iCommandContext) {
@@ -0,0 +1,209 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.common.concur.OTimeoutException;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.sql.parser.OLocalResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Inner join of the rows of two execution plans that return their rows in ascending order of the
+ * operands of an equality {@link JoinCondition}, eg. because both are served by an index on the
+ * joined property. Both inputs are read once and only the rows of the right input that share the
+ * same value are kept in memory, so the planner prefers it to a {@link HashJoinStep} when both
+ * inputs are large. Rows with a null value never match. The output rows have the properties of
+ * both rows.
+ */
+public class MergeJoinStep extends AbstractExecutionStep {
+
+  private final OInternalExecutionPlan leftPlan;
+  private final OInternalExecutionPlan rightPlan;
+  private final JoinCondition condition;
+
+  private OResultSet left;
+  private OResultSet right;
+  private OResult currentLeft;
+  private Object currentLeftValue;
+  private OResult nextRight;
+  private Object nextRightValue;
+  private List<OResult> rightGroup;
+  private Object rightGroupValue;
+  private int rightGroupIndex;
+  private OResultInternal nextRecord;
+
+  private long cost = 0;
+
+  public MergeJoinStep(
+      OInternalExecutionPlan leftPlan,
+      OInternalExecutionPlan rightPlan,
+      JoinCondition condition,
+      OCommandContext ctx,
+      boolean profilingEnabled) {
+    super(ctx, profilingEnabled);
+    this.leftPlan = leftPlan;
+    this.rightPlan = rightPlan;
+    this.condition = condition;
+  }
+
+  @Override
+  public OResultSet syncPull(OCommandContext ctx, int nRecords) throws OTimeoutException {
+    getPrev().ifPresent(x -> x.syncPull(ctx, nRecords));
+    if (left == null) {
+      left = new OLocalResultSet(leftPlan);
+      right = new OLocalResultSet(rightPlan);
+      advanceRight(ctx);
+      fetchNextRecord(ctx);
+    }
+    return new OResultSet() {
+      private int currentCount = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (currentCount >= nRecords) {
+          return false;
+        }
+        return nextRecord != null;
+      }
+
+      @Override
+      public OResult next() {
+        if (currentCount >= nRecords || nextRecord == null) {
+          throw new IllegalStateException();
+        }
+        OResultInternal result = nextRecord;
+        fetchNextRecord(ctx);
+        currentCount++;
+        return result;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public Optional<OExecutionPlan> getExecutionPlan() {
+        return Optional.empty();
+      }
+
+      @Override
+      public Map<String, Long> getQueryStats() {
+        return null;
+      }
+    };
+  }
+
+  private void fetchNextRecord(OCommandContext ctx) {
+    long begin = profilingEnabled ? System.nanoTime() : 0;
+    try {
+      nextRecord = null;
+      while (currentLeft == null || rightGroup == null || rightGroupIndex >= rightGroup.size()) {
+        if (!advanceLeft(ctx)) {
+          return;
+        }
+        rightGroupIndex = 0;
+        if (rightGroup != null && compare(currentLeftValue, rightGroupValue) == 0) {
+          // same value of the previous left row, join it with the same group
+          continue;
+        }
+        rightGroup = null;
+        while (nextRight != null && compare(nextRightValue, currentLeftValue) < 0) {
+          advanceRight(ctx);
+        }
+        if (nextRight == null) {
+          // no more right rows, nothing else can match
+          currentLeft = null;
+          return;
+        }
+        if (compare(nextRightValue, currentLeftValue) == 0) {
+          rightGroup = new ArrayList<>();
+          rightGroupValue = nextRightValue;
+          while (nextRight != null && compare(nextRightValue, rightGroupValue) == 0) {
+            rightGroup.add(nextRight);
+            advanceRight(ctx);
+          }
+        }
+      }
+      nextRecord = HashJoinStep.join(currentLeft, rightGroup.get(rightGroupIndex++));
+    } finally {
+      if (profilingEnabled) {
+        cost += (System.nanoTime() - begin);
+      }
+    }
+  }
+
+  /** moves to the next left row with a not null value, returns false at the end of the input */
+  private boolean advanceLeft(OCommandContext ctx) {
+    while (left.hasNext()) {
+      OResult row = left.next();
+      Object value = condition.evaluateLeft(row, ctx);
+      if (value != null) {
+        checkOrder(currentLeftValue, value);
+        currentLeft = row;
+        currentLeftValue = value;
+        return true;
+      }
+    }
+    currentLeft = null;
+    return false;
+  }
+
+  /** moves to the next right row with a not null value, or to null at the end of the input */
+  private void advanceRight(OCommandContext ctx) {
+    while (right.hasNext()) {
+      OResult row = right.next();
+      Object value = condition.evaluateRight(row, ctx);
+      if (value != null) {
+        checkOrder(nextRightValue, value);
+        nextRight = row;
+        nextRightValue = value;
+        return;
+      }
+    }
+    nextRight = null;
+  }
+
+  private void checkOrder(Object previous, Object value) {
+    if (previous != null && compare(previous, value) > 0) {
+      throw new OCommandExecutionException(
+          "Merge join on " + condition + " requires inputs sorted by the joined values");
+    }
+  }
+
+  private static int compare(Object first, Object second) {
+    return ODefaultComparator.INSTANCE.compare(first, second);
+  }
+
+  @Override
+  public void close() {
+    if (left != null) {
+      left.close();
+      right.close();
+    }
+    super.close();
+  }
+
+  @Override
+  public String prettyPrint(int depth, int indent) {
+    String spaces = OExecutionStepInternal.getIndent(depth, indent);
+    StringBuilder result = new StringBuilder();
+    result.append(spaces);
+    result.append("+ MERGE JOIN ON ");
+    result.append(condition);
+    if (profilingEnabled) {
+      result.append(" (").append(getCostFormatted()).append(")");
+    }
+    result.append("\n").append(spaces).append("  LEFT\n");
+    result.append(leftPlan.prettyPrint(depth + 1, indent));
+    result.append("\n").append(spaces).append("  RIGHT\n");
+    result.append(rightPlan.prettyPrint(depth + 1, indent));
+    return result.toString();
+  }
+
+  @Override
+  public long getCost() {
+    return cost;
+  }
+}
@@ -1,14 +1,23 @@
 package com.orientechnologies.orient.core.sql.executor;
 
 import com.orientechnologies.common.util.OPair;
+import com.orientechnologies.orient.core.collate.ODefaultCollate;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.sql.parser.OAndBlock;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCompareOperator;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCondition;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
 import com.orientechnologies.orient.core.sql.parser.OCluster;
+import com.orientechnologies.orient.core.sql.parser.OEqualsCompareOperator;
 import com.orientechnologies.orient.core.sql.parser.OExpression;
 import com.orientechnologies.orient.core.sql.parser.OFromClause;
 import com.orientechnologies.orient.core.sql.parser.OFromItem;
@@ -22,6 +31,7 @@ import com.orientechnologies.orient.core.sql.parser.OMatchStatement;
 import com.orientechnologies.orient.core.sql.parser.OMultiMatchPathItem;
 import com.orientechnologies.orient.core.sql.parser.ONestedProjection;
 import com.orientechnologies.orient.core.sql.parser.OOrderBy;
+import com.orientechnologies.orient.core.sql.parser.OOrderByItem;
 import com.orientechnologies.orient.core.sql.parser.OProjection;
 import com.orientechnologies.orient.core.sql.parser.OProjectionItem;
 import com.orientechnologies.orient.core.sql.parser.ORid;
@@ -69,6 +79,7 @@ public class OMatchExecutionPlanner {
   private Map<String, String> aliasClasses;
   private Map<String, String> aliasClusters;
   private Map<String, ORid> aliasRids;
+  private List<MatchJoin> joins = new ArrayList<>();
   private boolean foundOptional = false;
   private long threshold = 100;
 
@@ -105,6 +116,7 @@ public class OMatchExecutionPlanner {
 
     buildPatterns(context);
     splitDisjointPatterns(context);
+    extractJoins();
 
     OSelectExecutionPlan result = new OSelectExecutionPlan(context);
     Map<String, Long> estimatedRootEntries =
@@ -124,7 +136,10 @@ public class OMatchExecutionPlanner {
 
     addPrefetchSteps(result, aliasesToPrefetch, context, enableProfiling);
 
-    if (subPatterns.size() > 1) {
+    if (subPatterns.size() > 1 && !joins.isEmpty()) {
+      result.chain(
+          createJoinSteps(context, estimatedRootEntries, aliasesToPrefetch, enableProfiling));
+    } else if (subPatterns.size() > 1) {
       CartesianProductStep step = new CartesianProductStep(context, enableProfiling);
       for (Pattern subPattern : subPatterns) {
         step.addSubPlan(
@@ -592,6 +607,340 @@ public class OMatchExecutionPlanner {
     this.subPatterns = pattern.getDisjointPatterns();
   }
 
+  /**
+   * moves the conditions like <code>name = $matched.a.name</code>, that the filter of a pattern
+   * made of a single alias defines on the aliases of another pattern, from the filter to {@link
+   * #joins}, so that the two patterns are joined on them instead of being evaluated one for each
+   * row of the other
+   */
+  private void extractJoins() {
+    if (subPatterns.size() < 2) {
+      return;
+    }
+    boolean changed = false;
+    for (Pattern subPattern : subPatterns) {
+      if (subPattern.aliasToNode.size() != 1) {
+        continue;
+      }
+      String alias = subPattern.aliasToNode.keySet().iterator().next();
+      OWhereClause filter = aliasFilters.get(alias);
+      if (filter == null || isOptional(alias)) {
+        continue;
+      }
+      List<OAndBlock> flattened = filter.flatten();
+      if (flattened.size() != 1) {
+        continue;
+      }
+      List<OBooleanExpression> remaining = new ArrayList<>();
+      for (OBooleanExpression item : flattened.get(0).getSubBlocks()) {
+        MatchJoin join = toJoin(alias, subPattern, item);
+        if (join == null) {
+          remaining.add(item);
+        } else {
+          joins.add(join);
+        }
+      }
+      if (remaining.size() < flattened.get(0).getSubBlocks().size()) {
+        if (remaining.isEmpty()) {
+          aliasFilters.remove(alias);
+        } else {
+          OAndBlock block = new OAndBlock(-1);
+          block.getSubBlocks().addAll(remaining);
+          OWhereClause newFilter = new OWhereClause(-1);
+          newFilter.setBaseExpression(block);
+          aliasFilters.put(alias, newFilter);
+        }
+        changed = true;
+      }
+    }
+    if (changed) {
+      rebindFilters(aliasFilters);
+    }
+  }
+
+  private MatchJoin toJoin(String alias, Pattern pattern, OBooleanExpression item) {
+    if (!(item instanceof OBinaryCondition)
+        || !(((OBinaryCondition) item).getOperator() instanceof OEqualsCompareOperator)) {
+      return null;
+    }
+    OBinaryCondition condition = (OBinaryCondition) item;
+    boolean aliasOperandIsLeft = isAliasOperand(condition.getLeft());
+    OExpression aliasOperand = aliasOperandIsLeft ? condition.getLeft() : condition.getRight();
+    OExpression matchedOperand = aliasOperandIsLeft ? condition.getRight() : condition.getLeft();
+    if (!isAliasOperand(aliasOperand)) {
+      return null;
+    }
+    // only $matched.<alias>... of a single alias of another pattern, with no other variables
+    String matchedText = matchedOperand.toString();
+    List<String> matchedAliases = matchedOperand.getMatchPatternInvolvedAliases();
+    if (!matchedText.startsWith("$matched.")
+        || matchedText.indexOf('$', 1) >= 0
+        || matchedAliases == null
+        || matchedAliases.size() != 1
+        || isOptional(matchedAliases.get(0))) {
+      return null;
+    }
+    Pattern otherPattern = null;
+    for (Pattern subPattern : subPatterns) {
+      if (subPattern.aliasToNode.containsKey(matchedAliases.get(0))) {
+        otherPattern = subPattern;
+      }
+    }
+    if (otherPattern == null || otherPattern == pattern) {
+      return null;
+    }
+    return new MatchJoin(
+        alias,
+        pattern,
+        aliasOperand,
+        matchedAliases.get(0),
+        otherPattern,
+        matchedOperand,
+        condition.getOperator(),
+        aliasOperandIsLeft);
+  }
+
+  private boolean isAliasOperand(OExpression expression) {
+    return !expression.toString().contains("$") && !expression.refersToParent();
+  }
+
+  /**
+   * joins the disjoint patterns one by one: the next pattern is one that has join conditions with
+   * the patterns already joined, if any, and is joined with a {@link MergeJoinStep} or a {@link
+   * HashJoinStep} that uses the smaller side as build side, otherwise it is combined with a {@link
+   * CartesianProductStep}
+   *
+   * @return the step that returns the rows of all the patterns
+   */
+  private OExecutionStepInternal createJoinSteps(
+      OCommandContext context,
+      Map<String, Long> estimatedRootEntries,
+      Set<String> prefetchedAliases,
+      boolean profilingEnabled) {
+    List<Pattern> remaining = new ArrayList<>(subPatterns);
+    List<MatchJoin> pendingJoins = new ArrayList<>(joins);
+    Pattern first = remaining.remove(0);
+    Set<Pattern> joinedPatterns = new HashSet<>();
+    joinedPatterns.add(first);
+    long joinedSize = estimateSize(first, estimatedRootEntries);
+    OInternalExecutionPlan joinedPlan = null;
+    OExecutionStepInternal step = null;
+
+    while (!remaining.isEmpty()) {
+      Pattern next = remaining.get(0);
+      List<MatchJoin> nextJoins = Collections.emptyList();
+      for (Pattern candidate : remaining) {
+        List<MatchJoin> candidateJoins =
+            pendingJoins.stream()
+                .filter(
+                    x ->
+                        (joinedPatterns.contains(x.pattern) && x.otherPattern == candidate)
+                            || (joinedPatterns.contains(x.otherPattern)
+                                && x.pattern == candidate))
+                .collect(Collectors.toList());
+        if (!candidateJoins.isEmpty()) {
+          next = candidate;
+          nextJoins = candidateJoins;
+          break;
+        }
+      }
+      remaining.remove(next);
+      pendingJoins.removeAll(nextJoins);
+      long nextSize = estimateSize(next, estimatedRootEntries);
+
+      // conditions with the joined patterns on the left and the next pattern on the right
+      List<JoinCondition> conditions = new ArrayList<>();
+      for (MatchJoin join : nextJoins) {
+        JoinCondition condition = join.toJoinCondition();
+        conditions.add(join.pattern == next ? condition.swap() : condition);
+      }
+
+      step = null;
+      if (joinedPlan == null && conditions.size() == 1) {
+        step =
+            createMergeJoinStep(
+                first,
+                next,
+                conditions.get(0),
+                context,
+                estimatedRootEntries,
+                prefetchedAliases,
+                profilingEnabled);
+      }
+      if (step == null) {
+        if (joinedPlan == null) {
+          joinedPlan =
+              createPlanForPattern(
+                  first, context, estimatedRootEntries, prefetchedAliases, profilingEnabled);
+        }
+        OInternalExecutionPlan nextPlan =
+            createPlanForPattern(
+                next, context, estimatedRootEntries, prefetchedAliases, profilingEnabled);
+        if (conditions.isEmpty()) {
+          CartesianProductStep cartesianProduct =
+              new CartesianProductStep(context, profilingEnabled);
+          cartesianProduct.addSubPlan(joinedPlan);
+          cartesianProduct.addSubPlan(nextPlan);
+          step = cartesianProduct;
+        } else if (nextSize <= joinedSize) {
+          step = new HashJoinStep(joinedPlan, nextPlan, conditions, context, profilingEnabled);
+        } else {
+          step =
+              new HashJoinStep(
+                  nextPlan,
+                  joinedPlan,
+                  conditions.stream().map(x -> x.swap()).collect(Collectors.toList()),
+                  context,
+                  profilingEnabled);
+        }
+      }
+
+      OSelectExecutionPlan plan = new OSelectExecutionPlan(context);
+      plan.chain(step);
+      joinedPlan = plan;
+      joinedPatterns.add(next);
+      if (conditions.isEmpty()) {
+        joinedSize =
+            joinedSize > Long.MAX_VALUE / Math.max(nextSize, 1)
+                ? Long.MAX_VALUE
+                : joinedSize * nextSize;
+      } else {
+        joinedSize = Math.max(joinedSize, nextSize);
+      }
+    }
+    return step;
+  }
+
+  /**
+   * @return a merge join of two patterns made of a single alias, when both are larger than the
+   *     spill threshold of hash joins and the joined values are properties of the same type
+   *     indexed by an ordered index, so that both sides are fetched in order from the index; null
+   *     otherwise
+   */
+  private OExecutionStepInternal createMergeJoinStep(
+      Pattern left,
+      Pattern right,
+      JoinCondition condition,
+      OCommandContext context,
+      Map<String, Long> estimatedRootEntries,
+      Set<String> prefetchedAliases,
+      boolean profilingEnabled) {
+    int threshold =
+        context
+            .getDatabase()
+            .getConfiguration()
+            .getValueAsInteger(OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD);
+    if (threshold <= 0
+        || left.aliasToNode.size() != 1
+        || right.aliasToNode.size() != 1
+        || estimateSize(left, estimatedRootEntries) < threshold
+        || estimateSize(right, estimatedRootEntries) < threshold) {
+      return null;
+    }
+    MatchJoin join = joins.stream().filter(x -> x.isFor(left, right)).findFirst().orElse(null);
+    if (join == null || !join.aliasOperand.isBaseIdentifier()) {
+      return null;
+    }
+    String aliasProperty = join.aliasOperand.getDefaultAlias().getStringValue();
+    String matchedPrefix = "$matched." + join.matchedAlias + ".";
+    String matchedText = join.matchedOperand.toString();
+    if (!matchedText.startsWith(matchedPrefix)) {
+      return null;
+    }
+    String matchedProperty = matchedText.substring(matchedPrefix.length());
+    if (!matchedProperty.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+      return null;
+    }
+
+    OType aliasType = getOrderedIndexType(join.alias, aliasProperty, prefetchedAliases, context);
+    OType matchedType =
+        getOrderedIndexType(join.matchedAlias, matchedProperty, prefetchedAliases, context);
+    if (aliasType == null || aliasType != matchedType) {
+      return null;
+    }
+
+    OInternalExecutionPlan aliasPlan =
+        createOrderedPlan(join.alias, join.pattern, aliasProperty, context, profilingEnabled);
+    OInternalExecutionPlan matchedPlan =
+        createOrderedPlan(
+            join.matchedAlias, join.otherPattern, matchedProperty, context, profilingEnabled);
+    if (join.pattern == left) {
+      return new MergeJoinStep(aliasPlan, matchedPlan, condition, context, profilingEnabled);
+    }
+    return new MergeJoinStep(matchedPlan, aliasPlan, condition, context, profilingEnabled);
+  }
+
+  /**
+   * @return the type of the property, if the alias is the whole class, not prefetched, and the
+   *     property is a string or an integer with the default collate and it is the first field of
+   *     an ordered index of the class; null otherwise
+   */
+  private OType getOrderedIndexType(
+      String alias, String property, Set<String> prefetchedAliases, OCommandContext context) {
+    String className = aliasClasses.get(alias);
+    if (className == null
+        || aliasFilters.get(alias) != null
+        || aliasRids.get(alias) != null
+        || aliasClusters.get(alias) != null
+        || prefetchedAliases.contains(alias)) {
+      return null;
+    }
+    OClass clazz = context.getDatabase().getMetadata().getSchema().getClass(className);
+    OProperty prop = clazz == null ? null : clazz.getProperty(property);
+    if (prop == null
+        || !(prop.getType() == OType.STRING
+            || prop.getType() == OType.INTEGER
+            || prop.getType() == OType.LONG
+            || prop.getType() == OType.SHORT)
+        || (prop.getCollate() != null
+            && !ODefaultCollate.NAME.equals(prop.getCollate().getName()))) {
+      return null;
+    }
+    for (OIndex index : clazz.getIndexes()) {
+      if (index.supportsOrderedIterations()
+          && index.getDefinition() != null
+          && property.equals(index.getDefinition().getFields().get(0))) {
+        return prop.getType();
+      }
+    }
+    return null;
+  }
+
+  private OInternalExecutionPlan createOrderedPlan(
+      String alias,
+      Pattern pattern,
+      String property,
+      OCommandContext context,
+      boolean profilingEnabled) {
+    OOrderByItem item = new OOrderByItem();
+    item.setAlias(property);
+    item.setType(OOrderByItem.ASC);
+    OOrderBy orderBy = new OOrderBy(-1);
+    orderBy.setItems(new ArrayList<>(Collections.singletonList(item)));
+    OSelectStatement select = createSelectStatement(aliasClasses.get(alias), null, null, null);
+    select.setOrderBy(orderBy);
+
+    OSelectExecutionPlan plan = new OSelectExecutionPlan(context);
+    plan.chain(
+        new MatchFirstStep(
+            context,
+            pattern.aliasToNode.get(alias),
+            select.createExecutionPlan(context, profilingEnabled),
+            profilingEnabled));
+    return plan;
+  }
+
+  private long estimateSize(Pattern pattern, Map<String, Long> estimatedRootEntries) {
+    long result = Long.MAX_VALUE;
+    for (String alias : pattern.aliasToNode.keySet()) {
+      Long estimate = estimatedRootEntries.get(alias);
+      if (estimate != null) {
+        result = Math.min(result, estimate);
+      }
+    }
+    return result;
+  }
+
   private void addStepsFor(
       OSelectExecutionPlan plan,
       EdgeTraversal edge,
@@ -913,4 +1262,49 @@ public class OMatchExecutionPlanner {
     }
     return result;
   }
+
+  /**
+   * an equality condition between an operand evaluated on the record of the alias of a pattern and
+   * an operand that refers to the alias of another pattern through <code>$matched</code>
+   */
+  private static class MatchJoin {
+    private final String alias;
+    private final Pattern pattern;
+    private final OExpression aliasOperand;
+    private final String matchedAlias;
+    private final Pattern otherPattern;
+    private final OExpression matchedOperand;
+    private final OBinaryCompareOperator operator;
+    private final boolean aliasOperandIsLeft;
+
+    private MatchJoin(
+        String alias,
+        Pattern pattern,
+        OExpression aliasOperand,
+        String matchedAlias,
+        Pattern otherPattern,
+        OExpression matchedOperand,
+        OBinaryCompareOperator operator,
+        boolean aliasOperandIsLeft) {
+      this.alias = alias;
+      this.pattern = pattern;
+      this.aliasOperand = aliasOperand;
+      this.matchedAlias = matchedAlias;
+      this.otherPattern = otherPattern;
+      this.matchedOperand = matchedOperand;
+      this.operator = operator;
+      this.aliasOperandIsLeft = aliasOperandIsLeft;
+    }
+
+    private boolean isFor(Pattern first, Pattern second) {
+      return (pattern == first && otherPattern == second)
+          || (pattern == second && otherPattern == first);
+    }
+
+    /** @return the condition with the pattern of the alias on the left */
+    private JoinCondition toJoinCondition() {
+      return new JoinCondition(
+          aliasOperand, alias, matchedOperand, null, operator, !aliasOperandIsLeft);
+    }
+  }
 }
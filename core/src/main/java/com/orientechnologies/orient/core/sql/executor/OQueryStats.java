@@ -1,10 +1,21 @@
 package com.orientechnologies.orient.core.sql.executor;
 
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
+import com.orientechnologies.orient.core.index.OIndexStatistics;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.security.ORole;
+import com.orientechnologies.orient.core.metadata.security.ORule;
+import com.orientechnologies.orient.core.storage.cache.OPageAccessTracker;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * This class contains statistics about graph structure and query execution.
@@ -15,8 +26,13 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class OQueryStats {
 
+  /** Statistics of the statements executed when the limit of distinct statements was reached */
+  public static final String OTHER_STATEMENTS = "(other statements)";
+
   public Map<String, Long> stats = new ConcurrentHashMap<>();
 
+  private final Map<String, OStatementProfile> statementProfiles = new ConcurrentHashMap<>();
+
   public static OQueryStats get(ODatabaseDocumentInternal db) {
     return db.getSharedContext().getQueryStats();
   }
@@ -56,6 +72,155 @@ public class OQueryStats {
     pushValue(key, value);
   }
 
+  /**
+   * Returns the statistics collected on an index by {@link #analyze(ODatabaseDocumentInternal,
+   * OClass)}.
+   *
+   * @return the index statistics, null if the index was never analyzed
+   */
+  public OIndexStatistics getIndexStatistics(OIndex index) {
+    if (index == null) {
+      return null;
+    }
+    return OIndexStatistics.fromIndex(index);
+  }
+
+  /**
+   * Collects statistics (entries, distinct keys, null keys and an histogram of the key values) on
+   * all the indexes of a class and stores them in the index configuration, so that the query
+   * planners can use them to estimate the cost of index lookups. The operation scans the whole
+   * indexes, so it should be executed again only when the data distribution changes significantly.
+   *
+   * @return the statistics collected on each index, by index name
+   */
+  public Map<String, OIndexStatistics> analyze(ODatabaseDocumentInternal db, OClass clazz) {
+    db.checkSecurity(ORule.ResourceGeneric.SCHEMA, ORole.PERMISSION_UPDATE);
+    final int buckets =
+        db.getConfiguration()
+            .getValueAsInteger(OGlobalConfiguration.QUERY_STATISTICS_HISTOGRAM_BUCKETS);
+    final OIndexManagerAbstract indexManager = db.getMetadata().getIndexManagerInternal();
+    final Map<String, OIndexStatistics> result = new TreeMap<>();
+    for (OIndex index : clazz.getIndexes()) {
+      final OIndex storedIndex = indexManager.getRawIndex(index.getName());
+      if (storedIndex == null || storedIndex.getConfiguration() == null) {
+        continue;
+      }
+      final OIndexStatistics statistics = OIndexStatistics.collect(storedIndex, buckets);
+      indexManager.setIndexStatistics(storedIndex.getName(), statistics.toDocument());
+      result.put(storedIndex.getName(), statistics);
+    }
+    return result;
+  }
+
+  /**
+   * @return true if the query execution that is starting has to be profiled step by step, see
+   *     {@link OGlobalConfiguration#QUERY_PROFILING_SAMPLING_INTERVAL}
+   */
+  public boolean shouldSample() {
+    final int interval =
+        OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.getValueAsInteger();
+    return interval > 0 && ThreadLocalRandom.current().nextInt(interval) == 0;
+  }
+
+  /**
+   * Adds a query execution to the statistics of its statement, and writes it to the slow query log
+   * if it took too long.
+   *
+   * @param nanos the time spent in the execution, without the time spent by the caller between
+   *     one fetch and the next one
+   * @param pages the pages accessed by a sampled execution, null if the execution was not sampled
+   * @param plan the execution plan, with the cost of each step if the execution was sampled
+   */
+  public void recordExecution(
+      String database,
+      String statement,
+      long nanos,
+      long rows,
+      OPageAccessTracker pages,
+      OExecutionPlan plan) {
+    String normalized = normalizeStatement(statement);
+    OStatementProfile profile = statementProfiles.get(normalized);
+    if (profile == null) {
+      if (statementProfiles.size()
+          >= OGlobalConfiguration.QUERY_PROFILING_MAX_STATEMENTS.getValueAsInteger()) {
+        normalized = OTHER_STATEMENTS;
+      }
+      profile = statementProfiles.computeIfAbsent(normalized, OStatementProfile::new);
+    }
+    profile.record(nanos, rows);
+    if (pages != null) {
+      profile.recordSample(
+          pages.getHits(), pages.getReads(), plan == null ? null : plan.prettyPrint(0, 2));
+    }
+    if (OSlowQueryLog.isSlow(nanos)) {
+      OSlowQueryLog.log(database, statement, nanos, rows, plan);
+    }
+  }
+
+  /** @return the statistics of the executed statements, see {@link #recordExecution} */
+  public List<OStatementProfile> getStatementProfiles() {
+    return new ArrayList<>(statementProfiles.values());
+  }
+
+  public void resetStatementProfiles() {
+    statementProfiles.clear();
+  }
+
+  /**
+   * Replaces the string and number literals of a statement with '?' and collapses the white
+   * spaces, so that executions of the same query with different values share their statistics.
+   */
+  public static String normalizeStatement(String statement) {
+    final StringBuilder result = new StringBuilder(statement.length());
+    boolean pendingSpace = false;
+    int i = 0;
+    while (i < statement.length()) {
+      final char c = statement.charAt(i);
+      if (Character.isWhitespace(c)) {
+        pendingSpace = result.length() > 0;
+        i++;
+        continue;
+      }
+      if (pendingSpace) {
+        result.append(' ');
+        pendingSpace = false;
+      }
+      if (c == '\'' || c == '"') {
+        // skip the string literal, with its escaped characters
+        i++;
+        while (i < statement.length() && statement.charAt(i) != c) {
+          i += statement.charAt(i) == '\\' ? 2 : 1;
+        }
+        i++;
+        result.append('?');
+      } else if (c == '`') {
+        // quoted identifiers are kept
+        final int end = statement.indexOf('`', i + 1);
+        final int next = end < 0 ? statement.length() : end + 1;
+        result.append(statement, i, next);
+        i = next;
+      } else if (Character.isDigit(c) && !isIdentifierPart(result)) {
+        while (i < statement.length()
+            && (Character.isLetterOrDigit(statement.charAt(i)) || statement.charAt(i) == '.')) {
+          i++;
+        }
+        result.append('?');
+      } else {
+        result.append(c);
+        i++;
+      }
+    }
+    return result.toString();
+  }
+
+  private static boolean isIdentifierPart(StringBuilder normalized) {
+    if (normalized.length() == 0) {
+      return false;
+    }
+    final char last = normalized.charAt(normalized.length() - 1);
+    return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+  }
+
   public long getAverageOutEdgeSpan(String vertexClass, String edgeClass) {
     String key = generateKey(vertexClass, "-", edgeClass, "->");
     Long val = stats.get(key);
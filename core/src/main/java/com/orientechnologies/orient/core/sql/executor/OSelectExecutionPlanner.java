@@ -3,6 +3,7 @@ package com.orientechnologies.orient.core.sql.executor;
 import com.orientechnologies.common.util.OPair;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.command.ODynamicVariable;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
@@ -21,7 +22,9 @@ import com.orientechnologies.orient.core.metadata.schema.OProperty;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.metadata.schema.OView;
+import com.orientechnologies.orient.core.metadata.security.OSecurityEngine;
 import com.orientechnologies.orient.core.metadata.security.OSecurityInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OCommandExecutorSQLAbstract;
 import com.orientechnologies.orient.core.sql.parser.*;
 import java.util.ArrayList;
@@ -87,6 +90,11 @@ public class OSelectExecutionPlanner {
   public OInternalExecutionPlan createExecutionPlan(
       OCommandContext ctx, boolean enableProfiling, boolean useCache) {
     ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    OBooleanExpression securityPredicate = getSecurityPredicateForTarget(ctx);
+    if (securityPredicate != null) {
+      // the predicate depends on the roles of the current user, the plan cannot be shared
+      useCache = false;
+    }
     if (useCache && !enableProfiling && statement.executinPlanCanBeCached()) {
       OExecutionPlan plan = OExecutionPlanCache.get(statement.getOriginalStatement(), ctx, db);
       if (plan != null) {
@@ -97,6 +105,9 @@ public class OSelectExecutionPlanner {
     long planningStart = System.currentTimeMillis();
 
     init(ctx);
+    if (securityPredicate != null) {
+      addSecurityPredicate(info, securityPredicate, ctx);
+    }
     OSelectExecutionPlan result = new OSelectExecutionPlan(ctx);
 
     if (info.expand && info.distinct) {
@@ -147,6 +158,53 @@ public class OSelectExecutionPlanner {
     return result;
   }
 
+  /**
+   * returns the READ predicate of the security policies of the target class, if it can be added to
+   * the WHERE condition of the query
+   */
+  private OBooleanExpression getSecurityPredicateForTarget(OCommandContext ctx) {
+    OFromItem target = statement.getTarget() == null ? null : statement.getTarget().getItem();
+    if (target == null || target.getIdentifier() == null || ctx.getDatabase() == null) {
+      return null;
+    }
+    ODatabaseInternal db = (ODatabaseInternal) ctx.getDatabase();
+    OSecurityInternal security = db.getSharedContext().getSecurity();
+    return security.getReadPredicateForQuery(
+        (ODatabaseSession) db, target.getIdentifier().getStringValue());
+  }
+
+  /**
+   * adds the READ predicate of the security policies to the WHERE condition, so that indexes can be
+   * used to filter the records the current user cannot read. The records are still checked one by
+   * one when they are loaded.
+   */
+  private static void addSecurityPredicate(
+      QueryPlanningInfo info, OBooleanExpression predicate, OCommandContext ctx) {
+    OBooleanExpression condition = predicate;
+    if (info.whereClause != null) {
+      OAndBlock andBlock = new OAndBlock(-1);
+      andBlock.getSubBlocks().add(info.whereClause.getBaseExpression());
+      andBlock.getSubBlocks().add(predicate);
+      condition = andBlock;
+    }
+    info.whereClause = new OWhereClause(-1);
+    info.whereClause.setBaseExpression(condition);
+    info.securityPredicateApplied = true;
+
+    // the policies see the user with no permission checks, as it is loaded by OSecurityEngine
+    ODatabaseSession session = (ODatabaseSession) ctx.getDatabase();
+    ODocument[] user = new ODocument[1];
+    ctx.setVariable(
+        "$currentUser",
+        (ODynamicVariable)
+            (inContext) -> {
+              if (user[0] == null) {
+                user[0] = OSecurityEngine.loadCurrentUser(session);
+              }
+              return user[0];
+            });
+  }
+
   private void handleLockRecord(
       OSelectExecutionPlan result,
       QueryPlanningInfo info,
@@ -662,7 +720,8 @@ public class OSelectExecutionPlanner {
       // this can be extended to use range operators too
       return false;
     }
-    if (securityPoliciesExistForClass(targetClass, ctx)) {
+    // if the condition is the security predicate, the index returns only the readable records
+    if (!info.securityPredicateApplied && securityPoliciesExistForClass(targetClass, ctx)) {
       return false;
     }
 
@@ -1668,6 +1727,10 @@ public class OSelectExecutionPlanner {
       plan.chain(new FetchFromStorageMetadataStep(ctx, profilingEnabled));
     } else if (metadata.getName().equalsIgnoreCase(OCommandExecutorSQLAbstract.METADATA_DATABASE)) {
       plan.chain(new FetchFromDatabaseMetadataStep(ctx, profilingEnabled));
+    } else if (metadata
+        .getName()
+        .equalsIgnoreCase(OCommandExecutorSQLAbstract.METADATA_QUERYSTATS)) {
+      plan.chain(new FetchFromQueryStatsMetadataStep(ctx, profilingEnabled));
     } else {
       throw new UnsupportedOperationException("Invalid metadata: " + metadata.getName());
     }
@@ -2376,6 +2439,11 @@ public class OSelectExecutionPlanner {
     if (indexSearchDescriptors.size() != info.flattenedWhereClause.size()) {
       return null; // some blocks could not be managed with an index
     }
+    if (indexSearchDescriptors.size() == 1
+        && info.orderBy == null
+        && isClassScanCheaper(indexSearchDescriptors.get(0), clazz, ctx)) {
+      return null;
+    }
 
     List<OExecutionStepInternal> result = null;
     List<IndexSearchDescriptor> optimumIndexSearchDescriptors =
@@ -2442,6 +2510,32 @@ public class OSelectExecutionPlanner {
     return result;
   }
 
+  /**
+   * checks, based on the index statistics, if an index range lookup is expected to return a big
+   * portion of the class, so that a class scan is cheaper than loading the records one by one from
+   * the index. Equality lookups are not checked: the statistics give the average number of entries
+   * per key, which is misleading on skewed keys
+   */
+  private boolean isClassScanCheaper(
+      IndexSearchDescriptor desc, OClass clazz, OCommandContext ctx) {
+    if (!desc.isRange()) {
+      return false;
+    }
+    float ratio =
+        ctx.getDatabase()
+            .getConfiguration()
+            .getValueAsFloat(OGlobalConfiguration.QUERY_STATISTICS_INDEX_SCAN_RATIO);
+    if (ratio <= 0) {
+      return false;
+    }
+    long estimated = desc.estimateFromStatistics(ctx);
+    if (estimated < 0) {
+      return false;
+    }
+    long count = clazz.count();
+    return count > 0 && estimated > count * ratio;
+  }
+
   private static OSchema getSchemaFromContext(OCommandContext ctx) {
     return ((OMetadataInternal) ctx.getDatabase().getMetadata()).getImmutableSchemaSnapshot();
   }
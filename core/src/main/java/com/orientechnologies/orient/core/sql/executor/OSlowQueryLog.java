@@ -0,0 +1,84 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.log.OLogFormatter;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.parser.OSystemVariableResolver;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Rolling log of the queries slower than {@link OGlobalConfiguration#QUERY_SLOW_LOG_THRESHOLD},
+ * shared by all the databases of the process. The files are configured with {@link
+ * OGlobalConfiguration#QUERY_SLOW_LOG_FILE} the first time a slow query is logged.
+ */
+public final class OSlowQueryLog {
+  private static final int FILE_SIZE_LIMIT = 10 * 1024 * 1024;
+  private static final int FILE_COUNT = 10;
+
+  private static FileHandler handler;
+  private static boolean initialized = false;
+
+  private OSlowQueryLog() {}
+
+  /** @return true if a query that took <code>nanos</code> has to be logged */
+  public static boolean isSlow(final long nanos) {
+    final long threshold = OGlobalConfiguration.QUERY_SLOW_LOG_THRESHOLD.getValueAsLong();
+    return threshold > 0 && nanos > threshold * 1_000_000;
+  }
+
+  public static void log(
+      final String database,
+      final String statement,
+      final long nanos,
+      final long rows,
+      final OExecutionPlan plan) {
+    final StringBuilder message = new StringBuilder();
+    message.append("Slow query on database '").append(database).append("' (");
+    message.append(nanos / 1_000_000).append("ms, ").append(rows).append(" rows): ");
+    message.append(statement);
+    if (plan != null) {
+      message.append('\n').append(plan.prettyPrint(0, 2));
+    }
+
+    final FileHandler fileHandler = getHandler();
+    if (fileHandler == null) {
+      OLogManager.instance().warn(OSlowQueryLog.class, "%s", message);
+    } else {
+      final LogRecord record = new LogRecord(Level.WARNING, message.toString());
+      record.setLoggerName(OSlowQueryLog.class.getName());
+      fileHandler.publish(record);
+    }
+  }
+
+  private static synchronized FileHandler getHandler() {
+    if (!initialized) {
+      initialized = true;
+      String pattern = OGlobalConfiguration.QUERY_SLOW_LOG_FILE.getValueAsString();
+      final String homeVariable = "${" + Orient.ORIENTDB_HOME + "}";
+      if (pattern != null && pattern.contains(homeVariable)) {
+        final String home = Orient.getHomePath();
+        pattern = home == null ? null : pattern.replace(homeVariable, home);
+      }
+      if (pattern != null && !pattern.isEmpty()) {
+        pattern = OSystemVariableResolver.resolveSystemVariables(pattern);
+        try {
+          final File parent = new File(pattern).getAbsoluteFile().getParentFile();
+          if (parent != null) {
+            parent.mkdirs();
+          }
+          handler = new FileHandler(pattern, FILE_SIZE_LIMIT, FILE_COUNT, true);
+          handler.setFormatter(new OLogFormatter());
+        } catch (IOException | RuntimeException e) {
+          OLogManager.instance()
+              .error(OSlowQueryLog.class, "Cannot open the slow query log '%s'", e, pattern);
+        }
+      }
+    }
+    return handler;
+  }
+}
@@ -0,0 +1,102 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics of all the statements that are equal once their literals are removed, see
+ * {@link OQueryStats#recordExecution}. Only sampled executions are profiled step by step and count
+ * the pages they read.
+ */
+public class OStatementProfile {
+  private final String statement;
+
+  private final LongAdder executions = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder rows = new LongAdder();
+
+  private final LongAdder sampledExecutions = new LongAdder();
+  private final LongAdder pagesHit = new LongAdder();
+  private final LongAdder pagesRead = new LongAdder();
+  private final AtomicReference<String> lastSampledPlan = new AtomicReference<>();
+
+  public OStatementProfile(String statement) {
+    this.statement = statement;
+  }
+
+  void record(long nanos, long rows) {
+    executions.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+    this.rows.add(rows);
+  }
+
+  void recordSample(long pagesHit, long pagesRead, String plan) {
+    sampledExecutions.increment();
+    this.pagesHit.add(pagesHit);
+    this.pagesRead.add(pagesRead);
+    if (plan != null) {
+      lastSampledPlan.set(plan);
+    }
+  }
+
+  public String getStatement() {
+    return statement;
+  }
+
+  public long getExecutions() {
+    return executions.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getSampledExecutions() {
+    return sampledExecutions.sum();
+  }
+
+  public long getPagesHit() {
+    return pagesHit.sum();
+  }
+
+  public long getPagesRead() {
+    return pagesRead.sum();
+  }
+
+  /** @return the plan of the last sampled execution, with the cost of each step */
+  public String getLastSampledPlan() {
+    return lastSampledPlan.get();
+  }
+
+  public OResult toResult() {
+    final OResultInternal result = new OResultInternal();
+    final long executions = getExecutions();
+    final long sampled = getSampledExecutions();
+    result.setProperty("statement", statement);
+    result.setProperty("executions", executions);
+    result.setProperty("totalTimeMs", getTotalNanos() / 1_000_000.0);
+    result.setProperty(
+        "averageTimeMs", executions == 0 ? 0.0 : getTotalNanos() / 1_000_000.0 / executions);
+    result.setProperty("maxTimeMs", getMaxNanos() / 1_000_000.0);
+    result.setProperty("rows", getRows());
+    result.setProperty("averageRows", executions == 0 ? 0.0 : (double) getRows() / executions);
+    result.setProperty("sampledExecutions", sampled);
+    result.setProperty(
+        "averagePagesHit", sampled == 0 ? 0.0 : (double) getPagesHit() / sampled);
+    result.setProperty(
+        "averagePagesRead", sampled == 0 ? 0.0 : (double) getPagesRead() / sampled);
+    result.setProperty("lastSampledPlan", getLastSampledPlan());
+    return result;
+  }
+}
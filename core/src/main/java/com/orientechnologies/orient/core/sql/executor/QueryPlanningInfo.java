@@ -51,6 +51,12 @@ public class QueryPlanningInfo {
   protected OAndBlock ridRangeConditions;
   protected OStorage.LOCKING_STRATEGY lockRecord;
 
+  /**
+   * set to true when the READ predicate of the security policies of the target class is added to
+   * the WHERE condition
+   */
+  protected boolean securityPredicateApplied = false;
+
   public QueryPlanningInfo copy() {
     // TODO check what has to be copied and what can be just referenced as it is
     QueryPlanningInfo result = new QueryPlanningInfo();
@@ -81,6 +87,7 @@ public class QueryPlanningInfo {
     result.ridRangeConditions = this.ridRangeConditions;
 
     result.lockRecord = this.lockRecord;
+    result.securityPredicateApplied = this.securityPredicateApplied;
     return result;
   }
 }
@@ -0,0 +1,279 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.index.OCompositeIndexDefinition;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.sql.parser.OAndBlock;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCompareOperator;
+import com.orientechnologies.orient.core.sql.parser.OBinaryCondition;
+import com.orientechnologies.orient.core.sql.parser.OBooleanExpression;
+import com.orientechnologies.orient.core.sql.parser.OEqualsCompareOperator;
+import com.orientechnologies.orient.core.sql.parser.OExpression;
+import com.orientechnologies.orient.core.sql.parser.OGeOperator;
+import com.orientechnologies.orient.core.sql.parser.OGtOperator;
+import com.orientechnologies.orient.core.sql.parser.OLeOperator;
+import com.orientechnologies.orient.core.sql.parser.OLtOperator;
+import com.orientechnologies.orient.core.sql.parser.OMethodCall;
+import com.orientechnologies.orient.core.sql.parser.OWhereClause;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Resolves a filtered <code>outE('X')</code>/<code>inE('X')</code> traversal step using a
+ * vertex-centric index, ie. an ordered composite index defined on the edge class whose first field
+ * is the edge endpoint the traversal starts from (<code>out</code> for outE, <code>in</code> for
+ * inE) and whose second field is an edge property, eg.
+ *
+ * <pre>
+ * CREATE INDEX Follows.out_since ON Follows (out, since) NOTUNIQUE
+ * </pre>
+ *
+ * With such an index the edges of a single vertex are stored sorted by the edge property, so a
+ * condition on that property becomes a range scan on the index instead of a full iteration of the
+ * vertex ridbag. Edges are returned in ascending order of the indexed property. The index is used
+ * only to reduce the candidates: the caller still has to evaluate the whole filter on each edge.
+ */
+public class VertexCentricIndexLookup {
+
+  private final OIndex index;
+  private final Object fromKey;
+  private final boolean fromInclusive;
+  private final Object toKey;
+  private final boolean toInclusive;
+
+  private VertexCentricIndexLookup(
+      OIndex index, Object fromKey, boolean fromInclusive, Object toKey, boolean toInclusive) {
+    this.index = index;
+    this.fromKey = fromKey;
+    this.fromInclusive = fromInclusive;
+    this.toKey = toKey;
+    this.toInclusive = toInclusive;
+  }
+
+  /**
+   * Looks for a vertex-centric index that can be used to execute <code>method</code> starting from
+   * <code>vertex</code> with the given edge filter.
+   *
+   * @return the lookup, or null if no suitable index exists or the filter cannot be used on it
+   */
+  public static VertexCentricIndexLookup find(
+      OIdentifiable vertex, OMethodCall method, OWhereClause filter, OCommandContext ctx) {
+    if (vertex == null || method == null || filter == null) {
+      return null;
+    }
+    ORID vertexRid = vertex.getIdentity();
+    if (vertexRid == null || !vertexRid.isPersistent()) {
+      return null;
+    }
+    String vertexField = vertexField(method);
+    if (vertexField == null) {
+      return null;
+    }
+    String edgeClassName = edgeClassName(method, ctx);
+    if (edgeClassName == null) {
+      return null;
+    }
+    List<OAndBlock> flattened = filter.flatten();
+    if (flattened.size() != 1) {
+      return null;
+    }
+    OAndBlock conditions = flattened.get(0);
+
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    OClass edgeClass = db.getMetadata().getImmutableSchemaSnapshot().getClass(edgeClassName);
+    if (edgeClass == null) {
+      return null;
+    }
+
+    for (OIndex classIndex : edgeClass.getClassIndexes()) {
+      VertexCentricIndexLookup lookup =
+          createLookup(db, classIndex, vertexRid, vertexField, conditions, ctx);
+      if (lookup != null) {
+        return lookup;
+      }
+    }
+    return null;
+  }
+
+  /** @return the candidate edges, sorted by the indexed edge property */
+  public Iterable<OResultInternal> execute() {
+    return () -> {
+      Stream<ORawPair<Object, ORID>> stream =
+          index
+              .getInternal()
+              .streamEntriesBetween(fromKey, fromInclusive, toKey, toInclusive, true);
+      return new EdgeIterator(stream);
+    };
+  }
+
+  public OIndex getIndex() {
+    return index;
+  }
+
+  private static VertexCentricIndexLookup createLookup(
+      ODatabaseDocumentInternal db,
+      OIndex classIndex,
+      ORID vertexRid,
+      String vertexField,
+      OAndBlock conditions,
+      OCommandContext ctx) {
+    OIndexDefinition definition = classIndex.getDefinition();
+    if (!(definition instanceof OCompositeIndexDefinition)
+        || ((OCompositeIndexDefinition) definition).getMultiValueDefinition() != null
+        || !classIndex.supportsOrderedIterations()) {
+      return null;
+    }
+    List<String> fields = definition.getFields();
+    if (fields.size() < 2 || !fields.get(0).equalsIgnoreCase(vertexField)) {
+      return null;
+    }
+    String propertyField = fields.get(1);
+
+    Object lower = null;
+    boolean lowerInclusive = true;
+    Object upper = null;
+    boolean upperInclusive = true;
+    for (OBooleanExpression exp : conditions.getSubBlocks()) {
+      if (!(exp instanceof OBinaryCondition)) {
+        continue;
+      }
+      OBinaryCondition condition = (OBinaryCondition) exp;
+      OExpression left = condition.getLeft();
+      OExpression right = condition.getRight();
+      if (!left.isBaseIdentifier()
+          || !left.toString().equals(propertyField)
+          || !right.isEarlyCalculated(ctx)) {
+        continue;
+      }
+      OBinaryCompareOperator operator = condition.getOperator();
+      if (operator instanceof OEqualsCompareOperator) {
+        if (lower == null && upper == null) {
+          Object value = right.execute((OResult) null, ctx);
+          lower = value;
+          upper = value;
+        }
+      } else if (operator instanceof OGtOperator || operator instanceof OGeOperator) {
+        if (lower == null) {
+          lower = right.execute((OResult) null, ctx);
+          lowerInclusive = operator instanceof OGeOperator;
+        }
+      } else if (operator instanceof OLtOperator || operator instanceof OLeOperator) {
+        if (upper == null) {
+          upper = right.execute((OResult) null, ctx);
+          upperInclusive = operator instanceof OLeOperator;
+        }
+      }
+    }
+    if (lower == null && upper == null) {
+      // no condition on the indexed edge property, the ridbag is cheaper
+      return null;
+    }
+
+    Object fromKey;
+    Object toKey;
+    try {
+      fromKey =
+          lower == null
+              ? definition.createValue(vertexRid)
+              : definition.createValue(vertexRid, lower);
+      toKey =
+          upper == null
+              ? definition.createValue(vertexRid)
+              : definition.createValue(vertexRid, upper);
+    } catch (RuntimeException e) {
+      // the values do not match the index key types, let the filter evaluate them on each edge
+      return null;
+    }
+    if (fromKey == null || toKey == null) {
+      return null;
+    }
+    OIndex txAwareIndex =
+        db.getMetadata().getIndexManagerInternal().getIndex(db, classIndex.getName());
+    if (txAwareIndex == null) {
+      return null;
+    }
+    return new VertexCentricIndexLookup(
+        txAwareIndex,
+        fromKey,
+        lower == null || lowerInclusive,
+        toKey,
+        upper == null || upperInclusive);
+  }
+
+  private static String vertexField(OMethodCall method) {
+    String methodName = method.getMethodNameString();
+    if ("outE".equalsIgnoreCase(methodName)) {
+      return "out";
+    }
+    if ("inE".equalsIgnoreCase(methodName)) {
+      return "in";
+    }
+    return null;
+  }
+
+  private static String edgeClassName(OMethodCall method, OCommandContext ctx) {
+    List<OExpression> params = method.getParams();
+    if (params == null || params.size() != 1 || !params.get(0).isEarlyCalculated(ctx)) {
+      return null;
+    }
+    Object value = params.get(0).execute((OResult) null, ctx);
+    if (value instanceof String) {
+      return (String) value;
+    }
+    return null;
+  }
+
+  private static class EdgeIterator implements Iterator<OResultInternal> {
+    private final Stream<ORawPair<Object, ORID>> stream;
+    private final Iterator<ORawPair<Object, ORID>> entries;
+    private OResultInternal nextElement;
+    private boolean closed = false;
+
+    private EdgeIterator(Stream<ORawPair<Object, ORID>> stream) {
+      this.stream = stream;
+      this.entries = stream.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextElement == null) {
+        fetchNext();
+      }
+      return nextElement != null;
+    }
+
+    @Override
+    public OResultInternal next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      OResultInternal result = nextElement;
+      nextElement = null;
+      return result;
+    }
+
+    private void fetchNext() {
+      if (closed) {
+        return;
+      }
+      while (entries.hasNext()) {
+        ORecord edge = entries.next().second.getRecord();
+        if (edge != null) {
+          nextElement = new OResultInternal(edge);
+          return;
+        }
+      }
+      closed = true;
+      stream.close();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/* Generated By:JJTree: Do not edit this line. OAnalyzeClassStatement.java Version 4.3 */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=false,VISITOR=true,TRACK_TOKENS=true,NODE_PREFIX=O,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+package com.orientechnologies.orient.core.sql.parser;
+
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.index.OIndexStatistics;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.sql.executor.OInternalResultSet;
+import com.orientechnologies.orient.core.sql.executor.OQueryStats;
+import com.orientechnologies.orient.core.sql.executor.OResultInternal;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.util.Map;
+
+/**
+ * ANALYZE CLASS &lt;name&gt;: collects the statistics of the indexes of a class, see {@link
+ * OQueryStats#analyze}. ANALYZE is not a keyword, so that it can still be used as an identifier.
+ */
+public class OAnalyzeClassStatement extends ODDLStatement {
+
+  protected OIdentifier className;
+
+  public OAnalyzeClassStatement(int id) {
+    super(id);
+  }
+
+  public OAnalyzeClassStatement(OrientSql p, int id) {
+    super(p, id);
+  }
+
+  @Override
+  public OResultSet executeDDL(OCommandContext ctx) {
+    ODatabaseDocumentInternal db = (ODatabaseDocumentInternal) ctx.getDatabase();
+    OClass clazz = db.getMetadata().getSchema().getClass(className.getStringValue());
+    if (clazz == null) {
+      throw new OCommandExecutionException("Schema Class not found: " + className);
+    }
+
+    OInternalResultSet rs = new OInternalResultSet();
+    Map<String, OIndexStatistics> statistics = OQueryStats.get(db).analyze(db, clazz);
+    for (Map.Entry<String, OIndexStatistics> entry : statistics.entrySet()) {
+      OResultInternal result = new OResultInternal();
+      result.setProperty("operation", "analyze class");
+      result.setProperty("className", className.getStringValue());
+      result.setProperty("indexName", entry.getKey());
+      result.setProperty("entries", entry.getValue().getEntries());
+      result.setProperty("distinctKeys", entry.getValue().getDistinctKeys());
+      result.setProperty("nullEntries", entry.getValue().getNullEntries());
+      rs.add(result);
+    }
+    return rs;
+  }
+
+  @Override
+  public void toString(Map<Object, Object> params, StringBuilder builder) {
+    builder.append("ANALYZE CLASS ");
+    className.toString(params, builder);
+  }
+
+  @Override
+  public OAnalyzeClassStatement copy() {
+    OAnalyzeClassStatement result = new OAnalyzeClassStatement(-1);
+    result.className = className == null ? null : className.copy();
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    OAnalyzeClassStatement that = (OAnalyzeClassStatement) o;
+
+    if (className != null ? !className.equals(that.className) : that.className != null)
+      return false;
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return className != null ? className.hashCode() : 0;
+  }
+}
+/* JavaCC - OriginalChecksum=d2b7e6c3a0f14b8e9c5a7d1f3e6b2a90 (do not edit this line) */
@@ -0,0 +1,342 @@
+package com.orientechnologies.orient.core.sql.parser;
+
+import com.orientechnologies.common.profiler.OMetricCounter;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
+import com.orientechnologies.orient.core.storage.cache.chm.FrequencySketch;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, concurrent cache for SQL statements and execution plans, using a simplified
+ * W-TinyLFU eviction policy: new entries go to a small LRU admission window; entries evicted from
+ * the window are admitted to the main segmented LRU only if they were accessed more frequently
+ * than the main segment victim, according to a {@link FrequencySketch}.
+ *
+ * <p>Lookups are lock free. The eviction policy is updated under a lock, which is only tried on
+ * lookups: if it is held by another thread the access is not recorded, so that readers never
+ * block each other.
+ *
+ * <p>The counters of the cache can also be added to process wide counters of the {@link
+ * OMetricsRegistry}, shared by all the caches created with the same metrics name.
+ */
+public class OConcurrentLFUCache<V> {
+  private static final int WINDOW_PERCENT = 1;
+  private static final int PROTECTED_PERCENT = 80;
+  // keeps the frequency estimates of small caches accurate
+  private static final int MIN_SKETCH_SIZE = 64;
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+  private static final int REMOVED = 3;
+
+  private final ConcurrentHashMap<String, Entry<V>> data = new ConcurrentHashMap<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  // access ordered, guarded by lock
+  private final LinkedHashMap<String, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Entry<V>> protectedSegment =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final FrequencySketch sketch = new FrequencySketch();
+  // last keys invalidated and not put again yet, at most as many as the capacity, guarded by lock
+  private final Set<String> invalidatedKeys = new LinkedHashSet<>();
+
+  private final int capacity;
+  private final int maxWindow;
+  private final int maxMain;
+  private final int maxProtected;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder rebuilds = new LongAdder();
+
+  // process wide counters, null if the cache is not exported
+  private final OMetricCounter hitsMetric;
+  private final OMetricCounter missesMetric;
+  private final OMetricCounter evictionsMetric;
+  private final OMetricCounter invalidationsMetric;
+  private final OMetricCounter rebuildsMetric;
+
+  /** @param capacity the max number of entries in the cache */
+  public OConcurrentLFUCache(int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * @param capacity the max number of entries in the cache
+   * @param metricsName the prefix of the names of the counters registered in the {@link
+   *     OMetricsRegistry}, eg. "orientdb_execution_plan_cache", or null to not export them
+   */
+  public OConcurrentLFUCache(int capacity, String metricsName) {
+    this.capacity = Math.max(0, capacity);
+    this.maxWindow = Math.max(1, this.capacity * WINDOW_PERCENT / 100);
+    this.maxMain = Math.max(0, this.capacity - maxWindow);
+    this.maxProtected = maxMain * PROTECTED_PERCENT / 100;
+    sketch.ensureCapacity(Math.max(MIN_SKETCH_SIZE, this.capacity));
+
+    if (metricsName == null) {
+      hitsMetric = null;
+      missesMetric = null;
+      evictionsMetric = null;
+      invalidationsMetric = null;
+      rebuildsMetric = null;
+    } else {
+      final OMetricsRegistry registry = OMetricsRegistry.instance();
+      hitsMetric =
+          registry.counter(
+              metricsName + "_hits_total", "Lookups that found the entry in the cache");
+      missesMetric =
+          registry.counter(
+              metricsName + "_misses_total", "Lookups that did not find the entry in the cache");
+      evictionsMetric =
+          registry.counter(
+              metricsName + "_evictions_total",
+              "Entries removed to keep the cache within its capacity");
+      invalidationsMetric =
+          registry.counter(
+              metricsName + "_invalidations_total", "Entries removed after a metadata change");
+      rebuildsMetric =
+          registry.counter(
+              metricsName + "_rebuilds_total", "Entries put again after being invalidated");
+    }
+  }
+
+  /** @return the cached value, null if it is not in the cache */
+  public V get(String key) {
+    Entry<V> entry = data.get(key);
+    if (entry == null) {
+      misses.increment();
+      add(missesMetric, 1);
+    } else {
+      hits.increment();
+      add(hitsMetric, 1);
+    }
+    if (lock.tryLock()) {
+      try {
+        sketch.increment(key.hashCode());
+        if (entry != null) {
+          onAccess(entry);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return entry == null ? null : entry.value;
+  }
+
+  public void put(String key, V value) {
+    if (capacity == 0) {
+      return;
+    }
+    lock.lock();
+    try {
+      sketch.increment(key.hashCode());
+      if (invalidatedKeys.remove(key)) {
+        rebuilds.increment();
+        add(rebuildsMetric, 1);
+      }
+      Entry<V> existing = data.get(key);
+      if (existing != null) {
+        existing.value = value;
+        onAccess(existing);
+        return;
+      }
+      Entry<V> entry = new Entry<>(key, value);
+      data.put(key, entry);
+      window.put(key, entry);
+      evict();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean contains(String key) {
+    return data.containsKey(key);
+  }
+
+  public int size() {
+    return data.size();
+  }
+
+  /**
+   * Removes all the entries whose value matches the predicate
+   *
+   * @return the number of removed entries
+   */
+  public int invalidate(Predicate<V> predicate) {
+    lock.lock();
+    try {
+      int removed = 0;
+      Iterator<Entry<V>> iterator = data.values().iterator();
+      while (iterator.hasNext()) {
+        Entry<V> entry = iterator.next();
+        if (predicate.test(entry.value)) {
+          iterator.remove();
+          segment(entry).remove(entry.key);
+          entry.segment = REMOVED;
+          onInvalidated(entry.key);
+          removed++;
+        }
+      }
+      invalidations.add(removed);
+      add(invalidationsMetric, removed);
+      return removed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void clear() {
+    lock.lock();
+    try {
+      invalidations.add(data.size());
+      add(invalidationsMetric, data.size());
+      for (Entry<V> entry : data.values()) {
+        entry.segment = REMOVED;
+        onInvalidated(entry.key);
+      }
+      data.clear();
+      window.clear();
+      probation.clear();
+      protectedSegment.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return the number of lookups that found the entry in the cache */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** @return the number of lookups that did not find the entry in the cache */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** @return the number of entries removed to keep the cache within its capacity */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /** @return the number of entries removed explicitly, eg. after a schema change */
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /** @return the number of entries put again after they were removed explicitly */
+  public long getRebuilds() {
+    return rebuilds.sum();
+  }
+
+  private void onInvalidated(String key) {
+    invalidatedKeys.add(key);
+    if (invalidatedKeys.size() > capacity) {
+      invalidatedKeys.remove(invalidatedKeys.iterator().next());
+    }
+  }
+
+  private static void add(OMetricCounter metric, long delta) {
+    if (metric != null) {
+      metric.add(delta);
+    }
+  }
+
+  private void onAccess(Entry<V> entry) {
+    switch (entry.segment) {
+      case WINDOW:
+        window.get(entry.key);
+        break;
+      case PROBATION:
+        probation.remove(entry.key);
+        entry.segment = PROTECTED;
+        protectedSegment.put(entry.key, entry);
+        while (protectedSegment.size() > maxProtected) {
+          Entry<V> demoted = removeEldest(protectedSegment);
+          demoted.segment = PROBATION;
+          probation.put(demoted.key, demoted);
+        }
+        break;
+      case PROTECTED:
+        protectedSegment.get(entry.key);
+        break;
+      default:
+        // removed in the meantime
+    }
+  }
+
+  private void evict() {
+    while (window.size() > maxWindow) {
+      Entry<V> candidate = removeEldest(window);
+      if (probation.size() + protectedSegment.size() < maxMain) {
+        candidate.segment = PROBATION;
+        probation.put(candidate.key, candidate);
+        continue;
+      }
+      Entry<V> victim = eldest(probation.isEmpty() ? protectedSegment : probation);
+      // on a tie the most recent entry wins, as in a plain LRU
+      if (victim != null
+          && sketch.frequency(candidate.key.hashCode())
+              >= sketch.frequency(victim.key.hashCode())) {
+        segment(victim).remove(victim.key);
+        discard(victim);
+        candidate.segment = PROBATION;
+        probation.put(candidate.key, candidate);
+      } else {
+        discard(candidate);
+      }
+    }
+  }
+
+  private void discard(Entry<V> entry) {
+    entry.segment = REMOVED;
+    data.remove(entry.key, entry);
+    evictions.increment();
+    add(evictionsMetric, 1);
+  }
+
+  private Map<String, Entry<V>> segment(Entry<V> entry) {
+    switch (entry.segment) {
+      case WINDOW:
+        return window;
+      case PROBATION:
+        return probation;
+      default:
+        return protectedSegment;
+    }
+  }
+
+  private static <V> Entry<V> eldest(LinkedHashMap<String, Entry<V>> segment) {
+    Iterator<Entry<V>> iterator = segment.values().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  private static <V> Entry<V> removeEldest(LinkedHashMap<String, Entry<V>> segment) {
+    Iterator<Entry<V>> iterator = segment.values().iterator();
+    Entry<V> result = iterator.next();
+    iterator.remove();
+    return result;
+  }
+
+  private static class Entry<V> {
+    private final String key;
+    private volatile V value;
+    // guarded by the cache lock
+    private int segment = WINDOW;
+
+    private Entry(String key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
@@ -1,44 +1,74 @@
 package com.orientechnologies.orient.core.sql.parser;
 
+import com.orientechnologies.common.profiler.OMetricsRegistry;
+import com.orientechnologies.orient.core.collate.OCollate;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.config.OStorageClusterConfiguration;
 import com.orientechnologies.orient.core.config.OStorageConfiguration;
+import com.orientechnologies.orient.core.config.OStorageEntryConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.OMetadataUpdateListener;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
+import com.orientechnologies.orient.core.index.OIndexStatistics;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OSchemaShared;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
 import com.orientechnologies.orient.core.sql.executor.OInternalExecutionPlan;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * This class is an LRU cache for already prepared SQL execution plans. It stores itself in the
- * storage as a resource. It also acts an an entry point for the SQL executor.
+ * This class is a cache for already prepared SQL execution plans (see {@link OConcurrentLFUCache}
+ * for the eviction policy). It stores itself in the storage as a resource. It also acts an an
+ * entry point for the SQL executor.
+ *
+ * <p>Each plan is cached together with the names of the classes its statement refers to: when the
+ * schema or the indexes change, only the plans that refer to a changed class (or to one of its
+ * super/sub classes) are invalidated. Plans whose classes cannot be determined are invalidated on
+ * every change.
  *
  * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
  */
 public class OExecutionPlanCache implements OMetadataUpdateListener {
 
-  Map<String, OInternalExecutionPlan> map;
-  int mapSize;
+  private final OConcurrentLFUCache<CachedPlan> cache;
+
+  protected volatile long lastInvalidation = -1;
+  protected volatile long lastGlobalTimeout = OGlobalConfiguration.COMMAND_TIMEOUT.getValueAsLong();
 
-  protected long lastInvalidation = -1;
-  protected long lastGlobalTimeout = OGlobalConfiguration.COMMAND_TIMEOUT.getValueAsLong();
+  private final Lock lock = new ReentrantLock();
+
+  // last known state of the schema and of the indexes, guarded by lock
+  private Map<String, String> classSignatures;
+  private Map<String, Set<String>> classHierarchies = Collections.emptyMap();
+  private Map<String, String> indexSignatures;
+  private Map<String, String> indexClasses = Collections.emptyMap();
+  private String storageSignature;
+  private String clusterSignature;
 
   /** @param size the size of the cache */
   public OExecutionPlanCache(int size) {
-    this.mapSize = size;
-    map =
-        new LinkedHashMap<String, OInternalExecutionPlan>(size) {
-          protected boolean removeEldestEntry(
-              final Map.Entry<String, OInternalExecutionPlan> eldest) {
-            return super.size() > mapSize;
-          }
-        };
+    cache = new OConcurrentLFUCache<>(size, OMetricsRegistry.PLAN_CACHE);
   }
 
   public static long getLastInvalidation(ODatabaseDocumentInternal db) {
@@ -47,9 +77,7 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
     }
 
     OExecutionPlanCache resource = db.getSharedContext().getExecutionPlanCache();
-    synchronized (resource) {
-      return resource.lastInvalidation;
-    }
+    return resource.lastInvalidation;
   }
 
   /**
@@ -60,9 +88,7 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
     if (OGlobalConfiguration.STATEMENT_CACHE_SIZE.getValueAsInteger() == 0) {
       return false;
     }
-    synchronized (map) {
-      return map.containsKey(statement);
-    }
+    return cache.contains(OStatementCache.normalize(statement));
   }
 
   /**
@@ -109,15 +135,21 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
       return;
     }
 
-    synchronized (map) {
-      OInternalExecutionPlan internal = (OInternalExecutionPlan) plan;
-      OBasicCommandContext ctx = new OBasicCommandContext();
-      ctx.setDatabase(db);
-      internal = internal.copy(ctx);
-      // this copy is never used, so it has to be closed to free resources
-      internal.close();
-      map.put(statement, internal);
+    String key = OStatementCache.normalize(statement);
+    Set<String> classes = null;
+    if (db instanceof ODatabaseDocumentInternal) {
+      ODatabaseDocumentInternal internalDb = (ODatabaseDocumentInternal) db;
+      initMetadataState(internalDb);
+      classes = referencedClasses(key, internalDb.getMetadata().getImmutableSchemaSnapshot());
     }
+
+    OInternalExecutionPlan internal = (OInternalExecutionPlan) plan;
+    OBasicCommandContext ctx = new OBasicCommandContext();
+    ctx.setDatabase(db);
+    internal = internal.copy(ctx);
+    // this copy is never used, so it has to be closed to free resources
+    internal.close();
+    cache.put(key, new CachedPlan(internal, classes));
   }
 
   /**
@@ -127,8 +159,6 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
    */
   public OExecutionPlan getInternal(
       String statement, OCommandContext ctx, ODatabaseDocumentInternal db) {
-    OInternalExecutionPlan result;
-
     long currentGlobalTimeout =
         db.getConfiguration().getValueAsLong(OGlobalConfiguration.COMMAND_TIMEOUT);
     if (currentGlobalTimeout != this.lastGlobalTimeout) {
@@ -142,16 +172,11 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
     if (OGlobalConfiguration.STATEMENT_CACHE_SIZE.getValueAsInteger() == 0) {
       return null;
     }
-    synchronized (map) {
-      // LRU
-      result = map.remove(statement);
-      if (result != null) {
-        map.put(statement, result);
-        result = result.copy(ctx);
-      }
+    CachedPlan cached = cache.get(OStatementCache.normalize(statement));
+    if (cached == null) {
+      return null;
     }
-
-    return result;
+    return cached.plan.copy(ctx);
   }
 
   public void invalidate() {
@@ -160,22 +185,112 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
       return;
     }
 
-    synchronized (this) {
-      synchronized (map) {
-        map.clear();
-      }
+    lock.lock();
+    try {
+      cache.clear();
+      lastInvalidation = System.currentTimeMillis();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Invalidates the plans that refer to at least one of the given classes, and the plans whose
+   * classes are unknown.
+   *
+   * @param classNames lower case class names
+   */
+  protected void invalidate(Set<String> classNames) {
+    if (OGlobalConfiguration.STATEMENT_CACHE_SIZE.getValueAsInteger() == 0) {
       lastInvalidation = System.currentTimeMillis();
+      return;
+    }
+
+    lock.lock();
+    try {
+      cache.invalidate(
+          plan -> plan.classes == null || !Collections.disjoint(plan.classes, classNames));
+      lastInvalidation = System.currentTimeMillis();
+    } finally {
+      lock.unlock();
     }
   }
 
   @Override
   public void onSchemaUpdate(String database, OSchemaShared schema) {
-    invalidate();
+    ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    Map<String, String> signatures = new HashMap<>();
+    Map<String, Set<String>> hierarchies = new HashMap<>();
+    if (db == null || !readSchema(db, schema, signatures, hierarchies)) {
+      lock.lock();
+      try {
+        classSignatures = null;
+        invalidate();
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+
+    lock.lock();
+    try {
+      if (classSignatures == null) {
+        invalidate();
+      } else {
+        Set<String> changed = changedKeys(classSignatures, signatures);
+        if (!changed.isEmpty()) {
+          Set<String> affected = new HashSet<>();
+          for (String className : changed) {
+            affected.add(className);
+            affected.addAll(classHierarchies.getOrDefault(className, Collections.emptySet()));
+            affected.addAll(hierarchies.getOrDefault(className, Collections.emptySet()));
+          }
+          invalidate(affected);
+        }
+      }
+      classSignatures = signatures;
+      classHierarchies = hierarchies;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
   public void onIndexManagerUpdate(String database, OIndexManagerAbstract indexManager) {
-    invalidate();
+    ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    Map<String, String> signatures = new HashMap<>();
+    Map<String, String> classes = new HashMap<>();
+    if (db == null || !readIndexes(db, indexManager, signatures, classes)) {
+      lock.lock();
+      try {
+        indexSignatures = null;
+        invalidate();
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+
+    lock.lock();
+    try {
+      if (indexSignatures == null) {
+        invalidate();
+      } else {
+        Set<String> changed = changedKeys(indexSignatures, signatures);
+        if (!changed.isEmpty()) {
+          Set<String> affected = new HashSet<>();
+          for (String indexName : changed) {
+            addIndexClass(affected, indexClasses.get(indexName));
+            addIndexClass(affected, classes.get(indexName));
+          }
+          invalidate(affected);
+        }
+      }
+      indexSignatures = signatures;
+      indexClasses = classes;
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -190,7 +305,54 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
 
   @Override
   public void onStorageConfigurationUpdate(String database, OStorageConfiguration update) {
-    invalidate();
+    String settings;
+    String clusters;
+    try {
+      settings = storageSignature(update);
+      clusters = clusterSignature(update);
+    } catch (RuntimeException e) {
+      invalidate();
+      return;
+    }
+    lock.lock();
+    try {
+      if (!settings.equals(storageSignature)) {
+        invalidate();
+      } else if (!clusters.equals(clusterSignature)) {
+        // new or dropped class clusters are notified as schema changes as well, only the plans
+        // that do not refer to classes (eg. on cluster targets) have to be invalidated here
+        invalidate(Collections.emptySet());
+      }
+      storageSignature = settings;
+      clusterSignature = clusters;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return the number of plans found in the cache */
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  /** @return the number of lookups that did not find a plan, so that it had to be built again */
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  /** @return the number of plans removed from the cache to keep it within its size */
+  public long getEvictions() {
+    return cache.getEvictions();
+  }
+
+  /** @return the number of plans removed from the cache after a schema or index change */
+  public long getInvalidations() {
+    return cache.getInvalidations();
+  }
+
+  /** @return the number of plans cached again after they were invalidated */
+  public long getRebuilds() {
+    return cache.getRebuilds();
   }
 
   public static OExecutionPlanCache instance(ODatabaseDocumentTx db) {
@@ -201,4 +363,242 @@ public class OExecutionPlanCache implements OMetadataUpdateListener {
     OExecutionPlanCache resource = db.getSharedContext().getExecutionPlanCache();
     return resource;
   }
+
+  /**
+   * takes the first snapshot of the schema and of the indexes, so that the next changes can be
+   * compared with it.
+   */
+  private void initMetadataState(ODatabaseDocumentInternal db) {
+    boolean needsSchema;
+    boolean needsIndexes;
+    boolean needsStorage;
+    lock.lock();
+    try {
+      needsSchema = classSignatures == null;
+      needsIndexes = indexSignatures == null;
+      needsStorage = storageSignature == null;
+    } finally {
+      lock.unlock();
+    }
+    if (!needsSchema && !needsIndexes && !needsStorage) {
+      return;
+    }
+    // read outside of the lock: the listeners are invoked holding the metadata locks
+    Map<String, String> signatures = new HashMap<>();
+    Map<String, Set<String>> hierarchies = new HashMap<>();
+    boolean schemaRead =
+        needsSchema && readSchema(db, db.getSharedContext().getSchema(), signatures, hierarchies);
+    Map<String, String> idxSignatures = new HashMap<>();
+    Map<String, String> idxClasses = new HashMap<>();
+    boolean indexesRead =
+        needsIndexes
+            && readIndexes(db, db.getSharedContext().getIndexManager(), idxSignatures, idxClasses);
+    String settings = null;
+    String clusters = null;
+    if (needsStorage) {
+      try {
+        settings = storageSignature(db.getStorage().getConfiguration());
+        clusters = clusterSignature(db.getStorage().getConfiguration());
+      } catch (RuntimeException e) {
+        settings = null;
+      }
+    }
+    lock.lock();
+    try {
+      if (schemaRead && classSignatures == null) {
+        classSignatures = signatures;
+        classHierarchies = hierarchies;
+      }
+      if (indexesRead && indexSignatures == null) {
+        indexSignatures = idxSignatures;
+        indexClasses = idxClasses;
+      }
+      if (settings != null && storageSignature == null) {
+        storageSignature = settings;
+        clusterSignature = clusters;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void addIndexClass(Set<String> affected, String className) {
+    if (className == null) {
+      return;
+    }
+    affected.add(className);
+    affected.addAll(classHierarchies.getOrDefault(className, Collections.emptySet()));
+  }
+
+  private static boolean readSchema(
+      ODatabaseDocumentInternal db,
+      OSchemaShared schema,
+      Map<String, String> signatures,
+      Map<String, Set<String>> hierarchies) {
+    try {
+      for (OClass clazz : schema.getClasses(db)) {
+        String name = clazz.getName().toLowerCase(Locale.ENGLISH);
+        signatures.put(name, classSignature(clazz));
+        Set<String> related = new HashSet<>();
+        for (OClass superClass : clazz.getAllSuperClasses()) {
+          related.add(superClass.getName().toLowerCase(Locale.ENGLISH));
+        }
+        for (OClass subClass : clazz.getAllSubclasses()) {
+          related.add(subClass.getName().toLowerCase(Locale.ENGLISH));
+        }
+        hierarchies.put(name, related);
+      }
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static boolean readIndexes(
+      ODatabaseDocumentInternal db,
+      OIndexManagerAbstract indexManager,
+      Map<String, String> signatures,
+      Map<String, String> classes) {
+    try {
+      for (OIndex index : indexManager.getIndexes(db)) {
+        OIndexDefinition definition = index.getDefinition();
+        OIndexStatistics statistics = OIndexStatistics.fromIndex(index);
+        signatures.put(
+            index.getName(),
+            index.getType()
+                + "|"
+                + index.getAlgorithm()
+                + "|"
+                + definition
+                + "|"
+                + (statistics == null ? 0 : statistics.getCollectedOn()));
+        if (definition != null && definition.getClassName() != null) {
+          classes.put(index.getName(), definition.getClassName().toLowerCase(Locale.ENGLISH));
+        }
+      }
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static String classSignature(OClass clazz) {
+    StringBuilder result = new StringBuilder();
+    result.append(clazz.getName());
+    result.append('|').append(clazz.isAbstract());
+    result.append('|').append(clazz.isStrictMode());
+    result.append('|').append(clazz.getSuperClassesNames());
+    result.append('|').append(Arrays.toString(clazz.getClusterIds()));
+    Map<String, OProperty> properties = new TreeMap<>();
+    for (OProperty property : clazz.declaredProperties()) {
+      properties.put(property.getName(), property);
+    }
+    for (OProperty property : properties.values()) {
+      result.append('|').append(property.getName());
+      result.append(':').append(property.getType());
+      result.append(':').append(property.getLinkedType());
+      OClass linkedClass = property.getLinkedClass();
+      result.append(':').append(linkedClass == null ? null : linkedClass.getName());
+      OCollate collate = property.getCollate();
+      result.append(':').append(collate == null ? null : collate.getName());
+    }
+    return result.toString();
+  }
+
+  private static String storageSignature(OStorageConfiguration configuration) {
+    StringBuilder result = new StringBuilder();
+    result.append(configuration.getTimeZone() == null ? null : configuration.getTimeZone().getID());
+    result.append('|').append(configuration.getDateFormat());
+    result.append('|').append(configuration.getDateTimeFormat());
+    result.append('|').append(configuration.getLocaleLanguage());
+    result.append('|').append(configuration.getLocaleCountry());
+    result.append('|').append(configuration.getCharset());
+    result.append('|').append(configuration.isStrictSql());
+    result.append('|').append(configuration.getClusterSelection());
+    result.append('|').append(configuration.getConflictStrategy());
+    result.append('|').append(configuration.isValidationEnabled());
+    for (OStorageEntryConfiguration property : configuration.getProperties()) {
+      result.append('|').append(property.name).append('=').append(property.value);
+    }
+    return result.toString();
+  }
+
+  private static String clusterSignature(OStorageConfiguration configuration) {
+    StringBuilder result = new StringBuilder();
+    for (OStorageClusterConfiguration cluster : configuration.getClusters()) {
+      result.append(cluster == null ? null : cluster.getName()).append('|');
+    }
+    return result.toString();
+  }
+
+  private static Set<String> changedKeys(Map<String, String> before, Map<String, String> after) {
+    Set<String> result = new HashSet<>();
+    for (Map.Entry<String, String> entry : before.entrySet()) {
+      if (!entry.getValue().equals(after.get(entry.getKey()))) {
+        result.add(entry.getKey());
+      }
+    }
+    for (String key : after.keySet()) {
+      if (!before.containsKey(key)) {
+        result.add(key);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * finds the schema classes a statement refers to, looking at its identifiers and at the content
+   * of its strings (eg. <code>out('Friend')</code>).
+   *
+   * @return the lower case names of the classes, null if the statement does not refer to any class
+   */
+  private static Set<String> referencedClasses(String statement, OSchema schema) {
+    Set<String> result = new HashSet<>();
+    for (String token : tokens(statement)) {
+      OClass clazz = schema.getClass(token);
+      if (clazz != null) {
+        result.add(clazz.getName().toLowerCase(Locale.ENGLISH));
+      }
+    }
+    return result.isEmpty() ? null : result;
+  }
+
+  private static Collection<String> tokens(String statement) {
+    List<String> result = new ArrayList<>();
+    int tokenStart = -1;
+    int quoteStart = -1;
+    char quote = 0;
+    for (int i = 0; i <= statement.length(); i++) {
+      char c = i < statement.length() ? statement.charAt(i) : ' ';
+      if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+        if (tokenStart < 0) {
+          tokenStart = i;
+        }
+        continue;
+      }
+      if (tokenStart >= 0) {
+        result.add(statement.substring(tokenStart, i));
+        tokenStart = -1;
+      }
+      if (quote == 0 && (c == '\'' || c == '"' || c == '`')) {
+        quote = c;
+        quoteStart = i + 1;
+      } else if (quote != 0 && c == quote && statement.charAt(i - 1) != '\\') {
+        // the whole content of a string, for class names with special characters
+        result.add(statement.substring(quoteStart, i));
+        quote = 0;
+      }
+    }
+    return result;
+  }
+
+  private static class CachedPlan {
+    private final OInternalExecutionPlan plan;
+    private final Set<String> classes;
+
+    private CachedPlan(OInternalExecutionPlan plan, Set<String> classes) {
+      this.plan = plan;
+      this.classes = classes;
+    }
+  }
 }
@@ -559,7 +559,7 @@ public class OExpression extends SimpleNode {
    * @return a list of pattern aliases involved in this condition. Null it does not involve the
    *     pattern
    */
-  List<String> getMatchPatternInvolvedAliases() {
+  public List<String> getMatchPatternInvolvedAliases() {
     if (mathExpression != null) return mathExpression.getMatchPatternInvolvedAliases();
     if (arrayConcatExpression != null)
       return arrayConcatExpression.getMatchPatternInvolvedAliases();
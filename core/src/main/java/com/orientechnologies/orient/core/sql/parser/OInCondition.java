@@ -6,10 +6,14 @@ import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.operator.OQueryOperatorEquals;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,6 +29,7 @@ public class OInCondition extends OBooleanExpression {
 
   private static final Object UNSET = new Object();
   private Object inputFinalValue = UNSET;
+  private final HashedValues hashedValues = new HashedValues();
 
   public OInCondition(int id) {
     super(id);
@@ -41,7 +46,7 @@ public class OInCondition extends OBooleanExpression {
     if (rightVal == null) {
       return false;
     }
-    return evaluateExpression(leftVal, rightVal);
+    return hashedValues.evaluate(leftVal, rightVal);
   }
 
   public Object evaluateRight(OIdentifiable currentRecord, OCommandContext ctx) {
@@ -76,7 +81,7 @@ public class OInCondition extends OBooleanExpression {
     }
 
     Object leftVal = evaluateLeft(currentRecord, ctx);
-    return evaluateExpression(leftVal, rightVal);
+    return hashedValues.evaluate(leftVal, rightVal);
   }
 
   private boolean evaluateAny(OResult currentRecord, Object rightVal, OCommandContext ctx) {
@@ -157,6 +162,100 @@ public class OInCondition extends OBooleanExpression {
     return false;
   }
 
+  /**
+   * Evaluates the condition with a lookup in a hash set of the right values, when the right value
+   * is a large collection that is the same for many records, eg. the result of a subquery or a
+   * parameter, so that <code>x IN (SELECT ...)</code> does not compare each record with each value
+   * of the subquery. The set is built the second time the same collection is evaluated, and only
+   * when all its values are strings, integers, longs or persistent RIDs of the same class: the set
+   * is used only for left values of that class, for which it gives the same result of {@link
+   * #evaluateExpression(Object, Object)}.
+   */
+  static class HashedValues {
+    private static final int MIN_SIZE = 16;
+
+    private volatile State state;
+
+    boolean evaluate(Object leftVal, Object rightVal) {
+      if (leftVal == null
+          || !(rightVal instanceof Collection)
+          || ((Collection) rightVal).size() < MIN_SIZE) {
+        return evaluateExpression(leftVal, rightVal);
+      }
+      Collection<?> collection = (Collection<?>) rightVal;
+      State current = state;
+      if (current == null
+          || current.source.get() != collection
+          || current.size != collection.size()) {
+        // the first time a collection is evaluated it is not hashed, it can be a new one for each
+        // record
+        state = new State(collection, false, null, null);
+        return evaluateExpression(leftVal, rightVal);
+      }
+      if (!current.built) {
+        current = build(collection);
+        state = current;
+      }
+      if (current.values != null && leftVal.getClass() == current.valueClass) {
+        return current.values.contains(leftVal);
+      }
+      return evaluateExpression(leftVal, rightVal);
+    }
+
+    private static State build(Collection<?> collection) {
+      Set<Object> values = new HashSet<>();
+      Class<?> valueClass = null;
+      for (Object item : collection) {
+        Object value = item;
+        if (value instanceof OResult && ((OResult) value).isElement()) {
+          value = ((OResult) value).getElement().get();
+        } else if (value instanceof OResult) {
+          Set<String> names = ((OResult) value).getPropertyNames();
+          if (names.size() != 1) {
+            return new State(collection, true, null, null);
+          }
+          value = ((OResult) value).getProperty(names.iterator().next());
+        }
+        if (value instanceof OIdentifiable) {
+          if (!((OIdentifiable) value).getIdentity().isPersistent()) {
+            return new State(collection, true, null, null);
+          }
+          value = ((OIdentifiable) value).getIdentity();
+        }
+        if (value == null) {
+          continue;
+        }
+        if (!(value instanceof String
+                || value instanceof Integer
+                || value instanceof Long
+                || value.getClass() == ORecordId.class)
+            || (valueClass != null && valueClass != value.getClass())) {
+          return new State(collection, true, null, null);
+        }
+        valueClass = value.getClass();
+        values.add(value);
+      }
+      return new State(collection, true, values, valueClass);
+    }
+
+    private static final class State {
+      private final WeakReference<Collection<?>> source;
+      private final int size;
+      private final boolean built;
+      private final Set<Object> values;
+      private final Class<?> valueClass;
+
+      private State(
+          Collection<?> source, boolean built, Set<Object> values, Class<?> valueClass) {
+        this.source = new WeakReference<>(source);
+        this.size = source.size();
+        this.built = built;
+        this.values = values;
+        this.valueClass = valueClass;
+      }
+    }
+  }
+
   public void toString(Map<Object, Object> params, StringBuilder builder) {
     left.toString(params, builder);
     builder.append(" IN ");
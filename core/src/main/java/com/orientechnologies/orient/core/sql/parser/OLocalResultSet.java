@@ -4,11 +4,16 @@ import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.metadata.security.OSecurityUser;
+import com.orientechnologies.orient.core.sql.executor.AbstractExecutionStep;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
+import com.orientechnologies.orient.core.sql.executor.OExecutionStep;
 import com.orientechnologies.orient.core.sql.executor.OInternalExecutionPlan;
+import com.orientechnologies.orient.core.sql.executor.OQueryStats;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.storage.cache.OPageAccessTracker;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -22,13 +27,48 @@ public class OLocalResultSet implements OResultSet {
   long totalExecutionTime = 0;
   long startTime = 0;
 
+  private final String databaseName;
+  private final OQueryStats queryStats;
+  private final OPageAccessTracker pageTracker;
+  private long executionNanos = 0;
+  private long rows = 0;
+  private boolean recorded = false;
+
   public OLocalResultSet(OInternalExecutionPlan executionPlan) {
     this.executionPlan = executionPlan;
+    final ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+    if (db != null && db.getSharedContext() != null && executionPlan.getStatement() != null) {
+      this.databaseName = db.getName();
+      this.queryStats = OQueryStats.get(db);
+    } else {
+      this.databaseName = null;
+      this.queryStats = null;
+    }
+    if (queryStats != null && queryStats.shouldSample()) {
+      enableStepProfiling(executionPlan.getSteps());
+      this.pageTracker = new OPageAccessTracker();
+    } else {
+      this.pageTracker = null;
+    }
     fetchNext();
   }
 
+  private static void enableStepProfiling(List<OExecutionStep> steps) {
+    if (steps == null) {
+      return;
+    }
+    for (OExecutionStep step : steps) {
+      if (step instanceof AbstractExecutionStep) {
+        ((AbstractExecutionStep) step).setProfilingEnabled(true);
+      }
+      enableStepProfiling(step.getSubSteps());
+    }
+  }
+
   private boolean fetchNext() {
     long begin = System.currentTimeMillis();
+    long beginNanos = System.nanoTime();
+    final OPageAccessTracker previousTracker = activateTracker();
     try {
       if (lastFetch == null) {
         startTime = begin;
@@ -41,7 +81,40 @@ public class OLocalResultSet implements OResultSet {
       }
       return true;
     } finally {
+      deactivateTracker(previousTracker);
+      executionNanos += System.nanoTime() - beginNanos;
       totalExecutionTime += (System.currentTimeMillis() - begin);
+      if (finished) {
+        recordExecution();
+      }
+    }
+  }
+
+  private void recordExecution() {
+    if (queryStats == null || recorded) {
+      return;
+    }
+    recorded = true;
+    queryStats.recordExecution(
+        databaseName,
+        executionPlan.getStatement(),
+        executionNanos,
+        rows,
+        pageTracker,
+        executionPlan);
+  }
+
+  /**
+   * The steps of a batch are lazy, most of the work happens while the batch is iterated, so every
+   * access to it has to be timed and has to count the pages it reads.
+   */
+  private OPageAccessTracker activateTracker() {
+    return pageTracker != null ? pageTracker.activate() : null;
+  }
+
+  private void deactivateTracker(OPageAccessTracker previousTracker) {
+    if (pageTracker != null) {
+      pageTracker.deactivate(previousTracker);
     }
   }
 
@@ -50,24 +123,34 @@ public class OLocalResultSet implements OResultSet {
     if (finished) {
       return false;
     }
-    if (lastFetch.hasNext()) {
-      return true;
-    } else {
-      return fetchNext();
+    final long beginNanos = System.nanoTime();
+    final OPageAccessTracker previousTracker = activateTracker();
+    try {
+      if (lastFetch.hasNext()) {
+        return true;
+      }
+    } finally {
+      deactivateTracker(previousTracker);
+      executionNanos += System.nanoTime() - beginNanos;
     }
+    return fetchNext();
   }
 
   @Override
   public OResult next() {
-    if (finished) {
+    if (!hasNext()) {
       throw new IllegalStateException();
     }
-    if (!lastFetch.hasNext()) {
-      if (!fetchNext()) {
-        throw new IllegalStateException();
-      }
+    final long beginNanos = System.nanoTime();
+    final OPageAccessTracker previousTracker = activateTracker();
+    try {
+      final OResult result = lastFetch.next();
+      rows++;
+      return result;
+    } finally {
+      deactivateTracker(previousTracker);
+      executionNanos += System.nanoTime() - beginNanos;
     }
-    return lastFetch.next();
   }
 
   private void logProfiling() {
@@ -102,6 +185,7 @@ public class OLocalResultSet implements OResultSet {
 
   @Override
   public void close() {
+    recordExecution();
     executionPlan.close();
   }
 
@@ -1,5 +1,7 @@
 package com.orientechnologies.orient.core.sql.parser;
 
+import com.orientechnologies.common.profiler.OMetricHistogram;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
 import com.orientechnologies.orient.core.db.document.OQueryLifecycleListener;
 import com.orientechnologies.orient.core.sql.executor.OExecutionPlan;
 import com.orientechnologies.orient.core.sql.executor.OInternalResultSet;
@@ -15,12 +17,19 @@ import java.util.concurrent.atomic.AtomicLong;
 public class OLocalResultSetLifecycleDecorator implements OResultSet {
 
   private static final AtomicLong counter = new AtomicLong(0);
+  private static final OMetricHistogram QUERY_METRIC =
+      OMetricsRegistry.instance()
+          .histogram(
+              OMetricsRegistry.QUERY_SECONDS,
+              "Time from the execution of a query to the close of its result set");
 
   private OResultSet entity;
   private List<OQueryLifecycleListener> lifecycleListeners = new ArrayList<>();
   private String queryId;
 
   private boolean hasNextPage;
+  // reset when the execution time is recorded, the result set can be closed more than once
+  private long startTime = System.nanoTime();
 
   public OLocalResultSetLifecycleDecorator(OResultSet entity) {
     this.entity = entity;
@@ -56,6 +65,10 @@ public class OLocalResultSetLifecycleDecorator implements OResultSet {
 
   @Override
   public void close() {
+    if (startTime != 0) {
+      QUERY_METRIC.recordSince(startTime);
+      startTime = 0;
+    }
     entity.close();
     this.lifecycleListeners.forEach(x -> x.queryClosed(this.getQueryId()));
     this.lifecycleListeners.clear();
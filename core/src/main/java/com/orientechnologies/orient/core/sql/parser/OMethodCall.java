@@ -62,6 +62,14 @@ public class OMethodCall extends SimpleNode {
     builder.append(")");
   }
 
+  public String getMethodNameString() {
+    return methodName.getStringValue();
+  }
+
+  public List<OExpression> getParams() {
+    return params;
+  }
+
   public boolean isBidirectional() {
     return bidirectionalMethods.contains(methodName.getStringValue().toLowerCase(Locale.ENGLISH));
   }
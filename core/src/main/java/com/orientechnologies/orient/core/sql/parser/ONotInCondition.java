@@ -22,6 +22,7 @@ public class ONotInCondition extends OBooleanExpression {
 
   private static final Object UNSET = new Object();
   private Object inputFinalValue = UNSET;
+  private final OInCondition.HashedValues hashedValues = new OInCondition.HashedValues();
 
   public ONotInCondition(int id) {
     super(id);
@@ -45,7 +46,7 @@ public class ONotInCondition extends OBooleanExpression {
     if (rightVal == null) {
       return true;
     }
-    return !OInCondition.evaluateExpression(leftVal, rightVal);
+    return !hashedValues.evaluate(leftVal, rightVal);
   }
 
   @Override
@@ -62,7 +63,7 @@ public class ONotInCondition extends OBooleanExpression {
     if (rightVal == null) {
       return true;
     }
-    return !OInCondition.evaluateExpression(leftVal, rightVal);
+    return !hashedValues.evaluate(leftVal, rightVal);
   }
 
   public void toString(Map<Object, Object> params, StringBuilder builder) {
@@ -9,29 +9,22 @@ import com.orientechnologies.orient.core.sql.OCommandSQLParsingException;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 /**
- * This class is an LRU cache for already parsed SQL statement executors. It stores itself in the
- * storage as a resource. It also acts an an entry point for the SQL parser.
+ * This class is a cache for already parsed SQL statement executors (see {@link
+ * OConcurrentLFUCache} for the eviction policy). Statements are cached by their text, ignoring
+ * insignificant white spaces. It stores itself in the storage as a resource. It also acts an an
+ * entry point for the SQL parser.
  *
  * @author Luigi Dell'Aquila (l.dellaquila-(at)-orientdb.com)
  */
 public class OStatementCache {
 
-  private Map<String, OStatement> map;
-  private int mapSize;
+  private final OConcurrentLFUCache<OStatement> cache;
 
   /** @param size the size of the cache */
   public OStatementCache(int size) {
-    this.mapSize = size;
-    map =
-        new LinkedHashMap<String, OStatement>(size) {
-          protected boolean removeEldestEntry(final Map.Entry<String, OStatement> eldest) {
-            return super.size() > mapSize;
-          }
-        };
+    cache = new OConcurrentLFUCache<>(size);
   }
 
   /**
@@ -43,9 +36,7 @@ public class OStatementCache {
       return false;
     }
 
-    synchronized (map) {
-      return map.containsKey(statement);
-    }
+    return cache.contains(normalize(statement));
   }
 
   /**
@@ -88,23 +79,53 @@ public class OStatementCache {
       return parse(statement);
     }
 
-    OStatement result;
-    synchronized (map) {
-      // LRU
-      result = map.remove(statement);
-      if (result != null) {
-        map.put(statement, result);
-      }
-    }
+    String key = normalize(statement);
+    OStatement result = cache.get(key);
     if (result == null) {
       result = parse(statement);
-      synchronized (map) {
-        map.put(statement, result);
-      }
+      cache.put(key, result);
     }
     return result;
   }
 
+  /**
+   * Normalizes an SQL statement to be used as a cache key: white spaces outside of quoted strings
+   * and identifiers are collapsed to a single space, leading and trailing ones are removed.
+   *
+   * @param statement an SQL statement
+   * @return the normalized statement
+   */
+  public static String normalize(String statement) {
+    if (statement == null) {
+      return null;
+    }
+    StringBuilder result = new StringBuilder(statement.length());
+    char quote = 0;
+    boolean pendingSpace = false;
+    for (int i = 0; i < statement.length(); i++) {
+      char c = statement.charAt(i);
+      if (quote == 0 && Character.isWhitespace(c)) {
+        pendingSpace = result.length() > 0;
+        continue;
+      }
+      if (pendingSpace) {
+        result.append(' ');
+        pendingSpace = false;
+      }
+      result.append(c);
+      if (quote == 0) {
+        if (c == '\'' || c == '"' || c == '`') {
+          quote = c;
+        }
+      } else if (c == '\\' && i + 1 < statement.length()) {
+        result.append(statement.charAt(++i));
+      } else if (c == quote) {
+        quote = 0;
+      }
+    }
+    return result.toString();
+  }
+
   /**
    * parses an SQL statement and returns the corresponding executor
    *
@@ -202,8 +223,21 @@ public class OStatementCache {
       return;
     }
 
-    synchronized (map) {
-      map.clear();
-    }
+    cache.clear();
+  }
+
+  /** @return the number of statements found in the cache */
+  public long getHits() {
+    return cache.getHits();
+  }
+
+  /** @return the number of statements that had to be parsed */
+  public long getMisses() {
+    return cache.getMisses();
+  }
+
+  /** @return the number of statements removed from the cache to keep it within its size */
+  public long getEvictions() {
+    return cache.getEvictions();
   }
 }
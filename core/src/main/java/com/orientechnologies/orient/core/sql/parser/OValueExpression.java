@@ -126,7 +126,7 @@ public class OValueExpression extends OExpression {
     return false;
   }
 
-  List<String> getMatchPatternInvolvedAliases() {
+  public List<String> getMatchPatternInvolvedAliases() {
     return null;
   }
 
@@ -12,6 +12,7 @@ import com.orientechnologies.orient.core.index.OCompositeIndexDefinition;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexDefinition;
+import com.orientechnologies.orient.core.index.OIndexStatistics;
 import com.orientechnologies.orient.core.index.OPropertyIndexDefinition;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
@@ -149,19 +150,26 @@ public class OWhereClause extends SimpleNode {
         ((OCompositeKey) key).addKey(keyValue);
       }
     }
-    if (key != null) {
-      if (conditions.size() == definitionFields.size()) {
-        try (Stream<ORID> rids = index.getInternal().getRids(key)) {
-          return rids.count();
-        }
-      } else if (index.supportsOrderedIterations()) {
-        final Spliterator<ORawPair<Object, ORID>> spliterator;
+    if (key != null && conditions.size() == definitionFields.size()) {
+      try (Stream<ORID> rids = index.getInternal().getRids(key)) {
+        return rids.count();
+      }
+    }
+    // no exact count for partial keys, the statistics are more accurate than the spliterator
+    OIndexStatistics statistics = OIndexStatistics.fromIndex(index);
+    if (statistics != null) {
+      long estimate = statistics.estimateEquality(nMatchingKeys, definitionFields.size());
+      if (estimate >= 0) {
+        return estimate;
+      }
+    }
+    if (key != null && index.supportsOrderedIterations()) {
+      final Spliterator<ORawPair<Object, ORID>> spliterator;
 
-        try (Stream<ORawPair<Object, ORID>> stream =
-            index.getInternal().streamEntriesBetween(key, true, key, true, true)) {
-          spliterator = stream.spliterator();
-          return spliterator.estimateSize();
-        }
+      try (Stream<ORawPair<Object, ORID>> stream =
+          index.getInternal().streamEntriesBetween(key, true, key, true, true)) {
+        spliterator = stream.spliterator();
+        return spliterator.estimateSize();
       }
     }
     return Long.MAX_VALUE;
@@ -20,6 +20,13 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
     this(new JavaCharStream(stream, charset));
   }
 
+  /** ANALYZE is not a keyword, so that it can still be used as an identifier */
+  private boolean isAnalyzeClassStatement() {
+    return getToken(1).kind == IDENTIFIER
+        && getToken(1).image.equalsIgnoreCase("analyze")
+        && getToken(2).kind == CLASS;
+  }
+
   public final ORid Rid() throws ParseException {
     /*@bgen(jjtree) Rid */
     ORid jjtn000 = new ORid(JJTRID);
@@ -1410,6 +1417,8 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
                                       result = HaSyncClusterStatement();
                                     } else if (jj_2_52(2147483647)) {
                                       result = HaSetStatement();
+                                    } else if (isAnalyzeClassStatement()) {
+                                      result = AnalyzeClassStatement();
                                     } else {
                                       jj_consume_token(-1);
                                       throw new ParseException();
@@ -25827,6 +25836,51 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
     throw new Error("Missing return statement in function");
   }
 
+  public final OAnalyzeClassStatement AnalyzeClassStatement() throws ParseException {
+    /*@bgen(jjtree) AnalyzeClassStatement */
+    OAnalyzeClassStatement jjtn000 = new OAnalyzeClassStatement(JJTANALYZECLASSSTATEMENT);
+    boolean jjtc000 = true;
+    jjtree.openNodeScope(jjtn000);
+    jjtn000.jjtSetFirstToken(getToken(1));
+    try {
+      jj_consume_token(IDENTIFIER);
+      jj_consume_token(CLASS);
+      jjtn000.className = Identifier();
+      jjtree.closeNodeScope(jjtn000, true);
+      jjtc000 = false;
+      jjtn000.jjtSetLastToken(getToken(0));
+      {
+        if (true) return jjtn000;
+      }
+    } catch (Throwable jjte000) {
+      if (jjtc000) {
+        jjtree.clearNodeScope(jjtn000);
+        jjtc000 = false;
+      } else {
+        jjtree.popNode();
+      }
+      if (jjte000 instanceof RuntimeException) {
+        {
+          if (true) throw (RuntimeException) jjte000;
+        }
+      }
+      if (jjte000 instanceof ParseException) {
+        {
+          if (true) throw (ParseException) jjte000;
+        }
+      }
+      {
+        if (true) throw (Error) jjte000;
+      }
+    } finally {
+      if (jjtc000) {
+        jjtree.closeNodeScope(jjtn000, true);
+        jjtn000.jjtSetLastToken(getToken(0));
+      }
+    }
+    throw new Error("Missing return statement in function");
+  }
+
   private boolean jj_2_1(int xla) {
     jj_la = xla;
     jj_lastpos = jj_scanpos = token;
@@ -34980,8 +35034,17 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
                                                                                                                 if (jj_3R_155()) {
                                                                                                                   jj_scanpos =
                                                                                                                       xsp;
-                                                                                                                  if (jj_3R_156())
-                                                                                                                    return true;
+                                                                                                                  if (jj_3R_156()) {
+                                                                                                                    jj_scanpos =
+                                                                                                                        xsp;
+                                                                                                                    jj_lookingAhead = true;
+                                                                                                                    jj_semLA =
+                                                                                                                        isAnalyzeClassStatement();
+                                                                                                                    jj_lookingAhead = false;
+                                                                                                                    if (!jj_semLA
+                                                                                                                        || jj_3R_1088())
+                                                                                                                      return true;
+                                                                                                                  }
                                                                                                                 }
                                                                                                               }
                                                                                                             }
@@ -37621,6 +37684,13 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
     return false;
   }
 
+  private boolean jj_3R_1088() {
+    if (jj_scan_token(IDENTIFIER)) return true;
+    if (jj_scan_token(CLASS)) return true;
+    if (jj_3R_170()) return true;
+    return false;
+  }
+
   /** Generated Token Manager. */
   public OrientSqlTokenManager token_source;
   /** Current token. */
@@ -37631,6 +37701,10 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
   private int jj_ntk;
   private Token jj_scanpos, jj_lastpos;
   private int jj_la;
+  /** Whether we are looking ahead. */
+  private boolean jj_lookingAhead = false;
+
+  private boolean jj_semLA;
   private int jj_gen;
   private final int[] jj_la1 = new int[458];
   private static int[] jj_la1_0;
@@ -41941,7 +42015,7 @@ public class OrientSql /*@bgen(jjtree)*/ implements OrientSqlTreeConstants, Orie
 
   /** Get the specific Token. */
   public final Token getToken(int index) {
-    Token t = token;
+    Token t = jj_lookingAhead ? jj_scanpos : token;
     for (int i = 0; i < index; i++) {
       if (t.next != null) t = t.next;
       else t = t.next = token_source.getNextToken();
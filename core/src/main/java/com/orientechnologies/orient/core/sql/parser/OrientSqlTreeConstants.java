@@ -205,6 +205,7 @@ public interface OrientSqlTreeConstants {
   public int JJTDATABASEUSERDATA = 200;
   public int JJTCREATEDATABASESTATEMENT = 201;
   public int JJTDROPDATABASESTATEMENT = 202;
+  public int JJTANALYZECLASSSTATEMENT = 203;
 
   public String[] jjtNodeName = {
     "Rid",
@@ -410,6 +411,7 @@ public interface OrientSqlTreeConstants {
     "DatabaseUserData",
     "CreateDatabaseStatement",
     "DropDatabaseStatement",
+    "AnalyzeClassStatement",
   };
 }
 /* JavaCC - OriginalChecksum=7771c9acdfb66453b7257763d2933bb2 (do not edit this line) */
@@ -0,0 +1,67 @@
+package com.orientechnologies.orient.core.storage.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the pages that the current thread finds in the read cache or has to load from the write
+ * cache while the tracker is active, eg. to profile a single query execution. When no tracker is
+ * active, the cost for the read cache is a single volatile read per page access.
+ */
+public final class OPageAccessTracker {
+  private static final ThreadLocal<OPageAccessTracker> CURRENT = new ThreadLocal<>();
+  private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+  private long hits;
+  private long reads;
+
+  /**
+   * Starts tracking the page accesses of the current thread. Every activation has to be followed
+   * by a {@link #deactivate(OPageAccessTracker)} in the same thread.
+   *
+   * @return the tracker that was active before, to be restored by {@link
+   *     #deactivate(OPageAccessTracker)}
+   */
+  public OPageAccessTracker activate() {
+    final OPageAccessTracker previous = CURRENT.get();
+    CURRENT.set(this);
+    ACTIVE.incrementAndGet();
+    return previous;
+  }
+
+  public void deactivate(final OPageAccessTracker previous) {
+    ACTIVE.decrementAndGet();
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /** @return the number of pages found in the read cache */
+  public long getHits() {
+    return hits;
+  }
+
+  /** @return the number of pages loaded from the write cache or from the disk */
+  public long getReads() {
+    return reads;
+  }
+
+  public static void onPageHit() {
+    if (ACTIVE.get() > 0) {
+      final OPageAccessTracker tracker = CURRENT.get();
+      if (tracker != null) {
+        tracker.hits++;
+      }
+    }
+  }
+
+  public static void onPageRead() {
+    if (ACTIVE.get() > 0) {
+      final OPageAccessTracker tracker = CURRENT.get();
+      if (tracker != null) {
+        tracker.reads++;
+      }
+    }
+  }
+}
@@ -94,6 +94,26 @@ public interface OWriteCache {
       long fileId, long startPageIndex, OModifiableBoolean cacheHit, boolean verifyChecksums)
       throws IOException;
 
+  /**
+   * Loads from the file the pages which follow a page being read sequentially. Loading stops at
+   * the first page which is held in the write cache, is not stored in the file yet or can not be
+   * verified, those pages are left to {@link #load(long, long, OModifiableBoolean, boolean)}.
+   *
+   * @return the loaded pages, starting from <code>startPageIndex</code>, may be fewer than
+   *     <code>pageCount</code>
+   */
+  OCachePointer[] loadAhead(
+      long fileId, long startPageIndex, int pageCount, boolean verifyChecksums) throws IOException;
+
+  /** @return true if the page is held in the write cache */
+  boolean isPageCached(long fileId, long pageIndex);
+
+  /**
+   * @return a stamp which changes every time a page of the file is flushed and removed from the
+   *     write cache, pages loaded ahead are valid only if it did not change while they were loaded
+   */
+  long getFlushedPagesStamp(long fileId);
+
   void flush(long fileId);
 
   void flush();
@@ -5,13 +5,21 @@ import com.orientechnologies.common.directmemory.OByteBufferPool;
 import com.orientechnologies.common.directmemory.ODirectMemoryAllocator.Intention;
 import com.orientechnologies.common.directmemory.OPointer;
 import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.profiler.OMetricCounter;
+import com.orientechnologies.common.profiler.OMetricHistogram;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
+import com.orientechnologies.common.thread.OThreadPoolExecutorWithLogging;
 import com.orientechnologies.common.types.OModifiableBoolean;
 import com.orientechnologies.common.util.ORawPair;
+import com.orientechnologies.common.util.OUncaughtExceptionHandler;
 import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.storage.OStorageAbstract;
 import com.orientechnologies.orient.core.storage.cache.OAbstractWriteCache;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntryImpl;
 import com.orientechnologies.orient.core.storage.cache.OCachePointer;
+import com.orientechnologies.orient.core.storage.cache.OPageAccessTracker;
 import com.orientechnologies.orient.core.storage.cache.OReadCache;
 import com.orientechnologies.orient.core.storage.cache.OWriteCache;
 import com.orientechnologies.orient.core.storage.cache.chm.readbuffer.BoundedBuffer;
@@ -22,12 +30,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Disk cache based on ConcurrentHashMap and eviction policy which is asynchronously processed by
@@ -45,6 +57,23 @@ public final class AsyncReadCache implements OReadCache {
   private static final int N_CPU = Runtime.getRuntime().availableProcessors();
   private static final int WRITE_BUFFER_MAX_BATCH = 128 * ceilingPowerOfTwo(N_CPU);
 
+  private static final int READ_AHEAD_MIN_PAGES = 4;
+
+  private static final OMetricCounter HITS_METRIC =
+      OMetricsRegistry.instance()
+          .counter(OMetricsRegistry.CACHE_HITS, "Pages found in the disk cache");
+  private static final OMetricCounter MISSES_METRIC =
+      OMetricsRegistry.instance()
+          .counter(OMetricsRegistry.CACHE_MISSES, "Pages not found in the disk cache");
+  private static final OMetricHistogram PAGE_LOAD_METRIC =
+      OMetricsRegistry.instance()
+          .histogram(
+              OMetricsRegistry.PAGE_LOAD_SECONDS,
+              "Time to load in the disk cache a page that was not there");
+  private static final int READ_AHEAD_STREAMS = 4;
+  private static final int READ_AHEAD_MAX_THREADS = 4;
+  private static final int READ_AHEAD_QUEUE_PER_THREAD = 16;
+
   private final ConcurrentHashMap<PageKey, OCacheEntry> data;
   private final Lock evictionLock = new ReentrantLock();
 
@@ -67,11 +96,53 @@ public final class AsyncReadCache implements OReadCache {
 
   private final OByteBufferPool bufferPool;
 
+  /** Max amount of pages loaded ahead of a sequential scan, 0 if read-ahead is disabled. */
+  private final int readAheadMaxPages;
+
+  private final ConcurrentHashMap<Long, ReadAheadState> readAheadStates = new ConcurrentHashMap<>();
+  private final ThreadPoolExecutor readAheadExecutor;
+
+  private final LongAdder readAheadPages = new LongAdder();
+  private final LongAdder readAheadWastedPages = new LongAdder();
+
   public AsyncReadCache(
       final OByteBufferPool bufferPool,
       final long maxCacheSizeInBytes,
       final int pageSize,
       final boolean trackHitRate) {
+    this(bufferPool, maxCacheSizeInBytes, pageSize, trackHitRate, 0);
+  }
+
+  public AsyncReadCache(
+      final OByteBufferPool bufferPool,
+      final long maxCacheSizeInBytes,
+      final int pageSize,
+      final boolean trackHitRate,
+      final int readAheadMaxPages) {
+    this.readAheadMaxPages = readAheadMaxPages;
+    if (readAheadMaxPages > 0) {
+      final int threads = Math.min(READ_AHEAD_MAX_THREADS, N_CPU);
+      // read-ahead requests which can not be queued are dropped, scans never wait for them
+      readAheadExecutor =
+          new OThreadPoolExecutorWithLogging(
+              threads,
+              threads,
+              60L,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(threads * READ_AHEAD_QUEUE_PER_THREAD),
+              r -> {
+                final Thread thread = new Thread(OStorageAbstract.storageThreadGroup, r);
+                thread.setDaemon(true);
+                thread.setName("OrientDB Read Ahead Thread");
+                thread.setUncaughtExceptionHandler(new OUncaughtExceptionHandler());
+                return thread;
+              },
+              new ThreadPoolExecutor.DiscardPolicy());
+      readAheadExecutor.allowCoreThreadTimeOut(true);
+    } else {
+      readAheadExecutor = null;
+    }
+
     evictionLock.lock();
     try {
       this.pageSize = pageSize;
@@ -209,10 +280,16 @@ public final class AsyncReadCache implements OReadCache {
         if (cacheEntry.acquireEntry()) {
           afterRead(cacheEntry);
 
+          HITS_METRIC.increment();
+          OPageAccessTracker.onPageHit();
           if (trackHitRate) {
             hits.increment();
           }
 
+          if (readAheadExecutor != null) {
+            readAhead(fileId, pageIndex, false, writeCache, verifyChecksums);
+          }
+
           return cacheEntry;
         }
       } else {
@@ -224,12 +301,16 @@ public final class AsyncReadCache implements OReadCache {
                 (page, entry) -> {
                   if (entry == null) {
                     try {
+                      final long loadStart = System.nanoTime();
                       final OCachePointer pointer =
                           writeCache.load(
                               fileId, pageIndex, new OModifiableBoolean(), verifyChecksums);
                       if (pointer == null) {
                         return null;
                       }
+                      PAGE_LOAD_METRIC.recordSince(loadStart);
+                      MISSES_METRIC.increment();
+                      OPageAccessTracker.onPageRead();
 
                       cacheSize.incrementAndGet();
                       return new OCacheEntryImpl(
@@ -252,6 +333,8 @@ public final class AsyncReadCache implements OReadCache {
 
         if (cacheEntry.acquireEntry()) {
           if (read[0]) {
+            HITS_METRIC.increment();
+            OPageAccessTracker.onPageHit();
             if (trackHitRate) {
               hits.increment();
             }
@@ -268,12 +351,142 @@ public final class AsyncReadCache implements OReadCache {
             }
           }
 
+          if (readAheadExecutor != null) {
+            readAhead(fileId, pageIndex, !read[0], writeCache, verifyChecksums);
+          }
+
           return cacheEntry;
         }
       }
     }
   }
 
+  /**
+   * Detects sequential access to the pages of a file and loads the following pages in background.
+   * Only cache misses and the first access to pages loaded ahead are tracked, so accesses to pages
+   * which are already cached have almost no overhead.
+   */
+  private void readAhead(
+      final long fileId,
+      final int pageIndex,
+      final boolean miss,
+      final OWriteCache writeCache,
+      final boolean verifyChecksums) {
+    ReadAheadState state = readAheadStates.get(fileId);
+    if (state == null) {
+      if (!miss) {
+        return;
+      }
+      state = readAheadStates.computeIfAbsent(fileId, id -> new ReadAheadState());
+    } else if (!miss && !state.isTrigger(pageIndex)) {
+      return;
+    }
+
+    final ReadAheadRequest request = state.onAccess(pageIndex, miss);
+    if (request == null) {
+      return;
+    }
+
+    final ReadAheadState readAheadState = state;
+    readAheadExecutor.execute(
+        () -> loadAhead(readAheadState, fileId, request, writeCache, verifyChecksums));
+  }
+
+  private void loadAhead(
+      final ReadAheadState state,
+      final long fileId,
+      final ReadAheadRequest request,
+      final OWriteCache writeCache,
+      final boolean verifyChecksums) {
+    final Lock lock = state.lock.readLock();
+    lock.lock();
+    try {
+      if (state.closed) {
+        return;
+      }
+
+      final long stamp = writeCache.getFlushedPagesStamp(fileId);
+      final OCachePointer[] pointers =
+          writeCache.loadAhead(fileId, request.startPageIndex, request.pageCount, verifyChecksums);
+      for (int i = 0; i < pointers.length; i++) {
+        if (addReadAheadPage(fileId, request.startPageIndex + i, pointers[i], writeCache, stamp)) {
+          readAheadPages.increment();
+        }
+      }
+    } catch (final Exception e) {
+      OLogManager.instance()
+          .debug(this, "Read-ahead of pages of file %d was not completed", e, fileId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean addReadAheadPage(
+      final long fileId,
+      final int pageIndex,
+      final OCachePointer pointer,
+      final OWriteCache writeCache,
+      final long stamp) {
+    final OCacheEntry[] added = new OCacheEntry[1];
+    data.compute(
+        new PageKey(fileId, pageIndex),
+        (page, entry) -> {
+          // the page may have been changed after it was loaded, the order of the checks matters,
+          // see OWriteCache#getFlushedPagesStamp
+          if (entry != null
+              || writeCache.isPageCached(fileId, pageIndex)
+              || writeCache.getFlushedPagesStamp(fileId) != stamp) {
+            return entry;
+          }
+
+          cacheSize.incrementAndGet();
+          added[0] = new OCacheEntryImpl(fileId, pageIndex, pointer, true);
+          return added[0];
+        });
+
+    if (added[0] == null) {
+      pointer.decrementReadersReferrer();
+      return false;
+    }
+
+    afterAdd(added[0]);
+    return true;
+  }
+
+  /**
+   * Removes a page loaded ahead which was not used before the end of file was truncated or was
+   * allocated again.
+   */
+  private boolean removeReadAheadPage(final PageKey pageKey, final OCacheEntry cacheEntry) {
+    evictionLock.lock();
+    try {
+      emptyBuffers();
+
+      if (!cacheEntry.freeze()) {
+        return false;
+      }
+      if (data.remove(pageKey, cacheEntry)) {
+        policy.onRemove(cacheEntry);
+        cacheSize.decrementAndGet();
+      }
+      return true;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void stopReadAhead(final long fileId) {
+    if (readAheadExecutor == null) {
+      return;
+    }
+
+    final ReadAheadState state = readAheadStates.remove(fileId);
+    if (state != null) {
+      state.close();
+      readAheadWastedPages.add(state.pendingPages());
+    }
+  }
+
   private OCacheEntry addNewPagePointerToTheCache(final long fileId, final int pageIndex) {
     final PageKey pageKey = new PageKey(fileId, pageIndex);
 
@@ -284,7 +497,13 @@ public final class AsyncReadCache implements OReadCache {
     final OCacheEntry cacheEntry = new OCacheEntryImpl(fileId, pageIndex, cachePointer, true);
     cacheEntry.acquireEntry();
 
-    final OCacheEntry oldCacheEntry = data.putIfAbsent(pageKey, cacheEntry);
+    OCacheEntry oldCacheEntry = data.putIfAbsent(pageKey, cacheEntry);
+    // page of a truncated file or a page loaded ahead while it was allocated
+    if (oldCacheEntry != null
+        && readAheadExecutor != null
+        && removeReadAheadPage(pageKey, oldCacheEntry)) {
+      oldCacheEntry = data.putIfAbsent(pageKey, cacheEntry);
+    }
     if (oldCacheEntry != null) {
       throw new IllegalStateException(
           "Page  " + fileId + ":" + pageIndex + " was allocated in other thread");
@@ -489,6 +708,10 @@ public final class AsyncReadCache implements OReadCache {
 
   @Override
   public final void clear() {
+    for (final long fileId : readAheadStates.keySet()) {
+      stopReadAhead(fileId);
+    }
+
     evictionLock.lock();
     try {
       emptyBuffers();
@@ -517,6 +740,7 @@ public final class AsyncReadCache implements OReadCache {
   public final void truncateFile(long fileId, final OWriteCache writeCache) throws IOException {
     fileId = OAbstractWriteCache.checkFileIdCompatibility(writeCache.getId(), fileId);
 
+    stopReadAhead(fileId);
     final int filledUpTo = (int) writeCache.getFilledUpTo(fileId);
     writeCache.truncateFile(fileId);
 
@@ -526,6 +750,7 @@ public final class AsyncReadCache implements OReadCache {
   @Override
   public final void closeFile(long fileId, final boolean flush, final OWriteCache writeCache) {
     fileId = OAbstractWriteCache.checkFileIdCompatibility(writeCache.getId(), fileId);
+    stopReadAhead(fileId);
     final int filledUpTo = (int) writeCache.getFilledUpTo(fileId);
 
     clearFile(fileId, filledUpTo, writeCache);
@@ -534,6 +759,7 @@ public final class AsyncReadCache implements OReadCache {
 
   public final void deleteFile(long fileId, final OWriteCache writeCache) throws IOException {
     fileId = OAbstractWriteCache.checkFileIdCompatibility(writeCache.getId(), fileId);
+    stopReadAhead(fileId);
     final int filledUpTo = (int) writeCache.getFilledUpTo(fileId);
 
     clearFile(fileId, filledUpTo, writeCache);
@@ -545,6 +771,7 @@ public final class AsyncReadCache implements OReadCache {
     final Collection<Long> files = writeCache.files().values();
     final List<ORawPair<Long, Integer>> filledUpTo = new ArrayList<>(1024);
     for (final long fileId : files) {
+      stopReadAhead(fileId);
       filledUpTo.add(new ORawPair<>(fileId, (int) writeCache.getFilledUpTo(fileId)));
     }
 
@@ -560,6 +787,7 @@ public final class AsyncReadCache implements OReadCache {
     final Collection<Long> files = writeCache.files().values();
     final List<ORawPair<Long, Integer>> filledUpTo = new ArrayList<>(1024);
     for (final long fileId : files) {
+      stopReadAhead(fileId);
       filledUpTo.add(new ORawPair<>(fileId, (int) writeCache.getFilledUpTo(fileId)));
     }
 
@@ -633,6 +861,160 @@ public final class AsyncReadCache implements OReadCache {
     return (int) ((hits.sum() * 100) / reqSum);
   }
 
+  /** @return amount of pages loaded ahead of sequential scans */
+  long getReadAheadPages() {
+    return readAheadPages.sum();
+  }
+
+  /** @return amount of pages loaded ahead of sequential scans which were not used */
+  long getReadAheadWastedPages() {
+    return readAheadWastedPages.sum();
+  }
+
+  private static final class ReadAheadRequest {
+    private final int startPageIndex;
+    private final int pageCount;
+
+    private ReadAheadRequest(final int startPageIndex, final int pageCount) {
+      this.startPageIndex = startPageIndex;
+      this.pageCount = pageCount;
+    }
+  }
+
+  /**
+   * Sequential streams of accesses to the pages of a single file, several cursors may scan the
+   * same file at the same time. Every time the first page of a batch loaded ahead is accessed, the
+   * next batch is requested, so one batch is always in flight ahead of the scan. The size of the
+   * batch is doubled every time it is requested and is halved for the new streams of the file
+   * every time the pages loaded ahead by a stream are not used.
+   */
+  private final class ReadAheadState {
+    /** Held by the read-ahead tasks, so the file can not be closed while they add pages. */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private boolean closed;
+
+    private final ReadAheadStream[] streams = new ReadAheadStream[READ_AHEAD_STREAMS];
+    private int initialBatch = READ_AHEAD_MIN_PAGES;
+    private long tick;
+
+    private ReadAheadState() {
+      for (int i = 0; i < streams.length; i++) {
+        streams[i] = new ReadAheadStream();
+      }
+    }
+
+    private boolean isTrigger(final int pageIndex) {
+      for (final ReadAheadStream stream : streams) {
+        if (stream.trigger == pageIndex) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private synchronized ReadAheadRequest onAccess(final int pageIndex, final boolean miss) {
+      tick++;
+
+      ReadAheadStream stream = null;
+      for (final ReadAheadStream candidate : streams) {
+        if (candidate.matches(pageIndex)) {
+          stream = candidate;
+          break;
+        }
+      }
+
+      if (stream == null) {
+        if (!miss) {
+          return null;
+        }
+
+        stream = streams[0];
+        for (final ReadAheadStream candidate : streams) {
+          if (candidate.lastAccess < stream.lastAccess) {
+            stream = candidate;
+          }
+        }
+
+        final int wasted = stream.pendingPages();
+        if (wasted > 0) {
+          readAheadWastedPages.add(wasted);
+          initialBatch = Math.max(READ_AHEAD_MIN_PAGES, initialBatch / 2);
+        }
+        stream.reset(pageIndex, tick);
+        return null;
+      }
+
+      stream.lastAccess = tick;
+      final boolean trigger = pageIndex == stream.trigger;
+      stream.lastPage = Math.max(stream.lastPage, pageIndex);
+
+      final int startPageIndex;
+      if (stream.batch == 0) {
+        // second access of a sequential stream
+        stream.batch = initialBatch;
+        startPageIndex = pageIndex + 1;
+      } else if (trigger || (miss && pageIndex >= stream.loadedUpTo)) {
+        // pages loaded ahead are used, so the scan can use more of them
+        stream.batch = Math.min(readAheadMaxPages, stream.batch * 2);
+        initialBatch = Math.max(initialBatch, stream.batch / 2);
+        startPageIndex = Math.max(stream.loadedUpTo, pageIndex + 1);
+      } else {
+        // batch is still in flight
+        return null;
+      }
+
+      stream.loadedUpTo = startPageIndex + stream.batch;
+      stream.trigger = startPageIndex;
+      return new ReadAheadRequest(startPageIndex, stream.batch);
+    }
+
+    private synchronized int pendingPages() {
+      int pending = 0;
+      for (final ReadAheadStream stream : streams) {
+        pending += stream.pendingPages();
+      }
+      return pending;
+    }
+
+    private void close() {
+      lock.writeLock().lock();
+      try {
+        closed = true;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  private static final class ReadAheadStream {
+    private int lastPage = -1;
+    private int loadedUpTo;
+    private int batch;
+    private long lastAccess;
+
+    /** Page which requests the next batch when accessed, read without lock by cache hits. */
+    private volatile int trigger = -1;
+
+    private boolean matches(final int pageIndex) {
+      return lastPage >= 0
+          && pageIndex > lastPage
+          && pageIndex <= Math.max(lastPage + READ_AHEAD_MIN_PAGES, loadedUpTo);
+    }
+
+    private int pendingPages() {
+      return lastPage >= 0 ? Math.max(0, loadedUpTo - lastPage - 1) : 0;
+    }
+
+    private void reset(final int pageIndex, final long tick) {
+      lastPage = pageIndex;
+      loadedUpTo = pageIndex + 1;
+      batch = 0;
+      lastAccess = tick;
+      trigger = -1;
+    }
+  }
+
   private enum DrainStatus {
     IDLE {
       @Override
@@ -106,6 +106,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.zip.CRC32;
 import javax.crypto.BadPaddingException;
@@ -276,6 +277,12 @@ public final class OWOWCache extends OAbstractWriteCache
   private final ConcurrentHashMap<PageKey, OCachePointer> writeCachePages =
       new ConcurrentHashMap<>();
 
+  /** Number of stripes of {@link #flushedPagesStamps}, power of two. */
+  private static final int FLUSHED_PAGES_STAMPS = 64;
+
+  /** Counters of the pages removed from the write cache after flush, striped by file id. */
+  private final AtomicLongArray flushedPagesStamps = new AtomicLongArray(FLUSHED_PAGES_STAMPS);
+
   /**
    * Storage for the pages which are hold only by write cache and are not shared with read cache.
    */
@@ -1125,6 +1132,115 @@ public final class OWOWCache extends OAbstractWriteCache
     }
   }
 
+  @Override
+  public OCachePointer[] loadAhead(
+      final long fileId,
+      final long startPageIndex,
+      final int pageCount,
+      final boolean verifyChecksums)
+      throws IOException {
+    final int intId = extractFileId(fileId);
+    filesLock.acquireReadLock();
+    try {
+      checkForClose();
+
+      final long externalId = composeFileId(id, intId);
+      final OClosableEntry<Long, OFile> entry = files.acquire(externalId);
+      try {
+        final OFile fileClassic = entry.get();
+        final int count =
+            (int) Math.min(pageCount, fileClassic.getFileSize() / pageSize - startPageIndex);
+        if (count <= 0) {
+          return new OCachePointer[0];
+        }
+
+        final PageKey[] pageKeys = new PageKey[count];
+        for (int i = 0; i < count; i++) {
+          pageKeys[i] = new PageKey(intId, startPageIndex + i);
+        }
+
+        final Lock[] pageLocks = lockManager.acquireSharedLocksInBatch(pageKeys);
+        try {
+          int loaded = 0;
+          while (loaded < count && !writeCachePages.containsKey(pageKeys[loaded])) {
+            loaded++;
+          }
+          if (loaded == 0) {
+            return new OCachePointer[0];
+          }
+
+          final OPointer[] pointers = new OPointer[loaded];
+          final List<ByteBuffer> buffers = new ArrayList<>(loaded);
+          for (int i = 0; i < loaded; i++) {
+            pointers[i] = bufferPool.acquireDirect(true, Intention.LOAD_PAGE_FROM_DISK);
+            buffers.add(pointers[i].getNativeByteBuffer());
+          }
+
+          boolean completed = false;
+          try {
+            fileClassic.read(startPageIndex * pageSize, buffers).await();
+            completed = true;
+          } finally {
+            if (!completed) {
+              for (final OPointer pointer : pointers) {
+                bufferPool.release(pointer);
+              }
+            }
+          }
+
+          final boolean verify =
+              verifyChecksums
+                  && (checksumMode == OChecksumMode.StoreAndVerify
+                      || checksumMode == OChecksumMode.StoreAndThrow
+                      || checksumMode == OChecksumMode.StoreAndSwitchReadOnlyMode);
+
+          // broken pages are left to the regular load which checks the double write log
+          int verified = 0;
+          while (verified < loaded
+              && (!verify
+                  || verifyMagicChecksumAndDecryptPage(
+                      buffers.get(verified), intId, startPageIndex + verified))) {
+            verified++;
+          }
+
+          final OCachePointer[] result = new OCachePointer[verified];
+          for (int i = 0; i < loaded; i++) {
+            if (i < verified) {
+              buffers.get(i).position(0);
+              result[i] =
+                  new OCachePointer(
+                      pointers[i], bufferPool, externalId, (int) (startPageIndex + i));
+              result[i].incrementReadersReferrer();
+            } else {
+              bufferPool.release(pointers[i]);
+            }
+          }
+          return result;
+        } finally {
+          for (final Lock pageLock : pageLocks) {
+            pageLock.unlock();
+          }
+        }
+      } finally {
+        files.release(entry);
+      }
+    } catch (final InterruptedException e) {
+      throw OException.wrapException(new OStorageException("Data load was interrupted"), e);
+    } finally {
+      filesLock.releaseReadLock();
+    }
+  }
+
+  @Override
+  public boolean isPageCached(final long fileId, final long pageIndex) {
+    return writeCachePages.containsKey(new PageKey(extractFileId(fileId), pageIndex));
+  }
+
+  @Override
+  public long getFlushedPagesStamp(final long fileId) {
+    return flushedPagesStamps.get(extractFileId(fileId) & (FLUSHED_PAGES_STAMPS - 1));
+  }
+
   @Override
   public int allocateNewPage(final long fileId) throws IOException {
     filesLock.acquireReadLock();
@@ -2621,6 +2737,7 @@ public final class OWOWCache extends OAbstractWriteCache
             pagePointer.releaseExclusiveLock();
           }
 
+          flushedPagesStamps.incrementAndGet(pageKey.fileId & (FLUSHED_PAGES_STAMPS - 1));
           entryIterator.remove();
         } finally {
           groupLock.unlock();
@@ -3291,6 +3408,9 @@ public final class OWOWCache extends OAbstractWriteCache
 
           try {
             if (version == pointer.getVersion()) {
+              // stamp is changed before the removal, so pages loaded ahead either find the page
+              // still in the write cache or see the new stamp
+              flushedPagesStamps.incrementAndGet(pageKey.fileId & (FLUSHED_PAGES_STAMPS - 1));
               writeCachePages.remove(pageKey);
               writeCacheSize.decrementAndGet();
 
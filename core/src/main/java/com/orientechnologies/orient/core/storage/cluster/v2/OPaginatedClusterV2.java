@@ -966,6 +966,171 @@ public final class OPaginatedClusterV2 extends OPaginatedCluster {
         });
   }
 
+  /**
+   * Moves a record stored in a single page to the lowest page that has enough free space for it, if
+   * that page precedes the one the record is stored in. The record keeps its cluster position and
+   * version, only its entry in the position map is updated.
+   *
+   * @return true if the record was moved
+   */
+  public boolean relocateRecord(
+      final long clusterPosition, final OAtomicOperation atomicOperation) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final OClusterPositionMapBucket.PositionEntry positionEntry =
+                clusterPositionMap.get(clusterPosition, 1, atomicOperation);
+            if (positionEntry == null) {
+              return false;
+            }
+
+            final int pageIndex = (int) positionEntry.getPageIndex();
+            final int recordPosition = positionEntry.getRecordPosition();
+
+            final byte[] chunk;
+            final int recordVersion;
+            final OCacheEntry cacheEntry =
+                loadPageForRead(atomicOperation, fileId, pageIndex, false);
+            try {
+              final OClusterPage page = new OClusterPage(cacheEntry);
+              if (page.isDeleted(recordPosition)) {
+                return false;
+              }
+              chunk =
+                  page.getRecordBinaryValue(recordPosition, 0, page.getRecordSize(recordPosition));
+              recordVersion = page.getRecordVersion(recordPosition);
+            } finally {
+              releasePageFromRead(atomicOperation, cacheEntry);
+            }
+
+            // records split in several chunks are left where they are
+            if (OLongSerializer.INSTANCE.deserializeNative(
+                    chunk, chunk.length - OLongSerializer.LONG_SIZE)
+                >= 0) {
+              return false;
+            }
+
+            final int targetPageIndex = freeSpaceMap.findFreePage(chunk.length);
+            if (targetPageIndex < 0 || targetPageIndex >= pageIndex) {
+              return false;
+            }
+
+            final int newRecordPosition;
+            final int targetMaxRecordSize;
+            final OCacheEntry targetEntry =
+                loadPageForWrite(atomicOperation, fileId, targetPageIndex, false, true);
+            try {
+              final OClusterPage targetPage = new OClusterPage(targetEntry);
+              newRecordPosition =
+                  targetPage.appendRecord(
+                      recordVersion,
+                      chunk,
+                      -1,
+                      atomicOperation.getBookedRecordPositions(id, targetPageIndex));
+              targetMaxRecordSize = targetPage.getMaxRecordSize();
+            } finally {
+              releasePageFromWrite(atomicOperation, targetEntry);
+            }
+            if (newRecordPosition < 0) {
+              return false;
+            }
+            freeSpaceMap.updatePageFreeSpace(atomicOperation, targetPageIndex, targetMaxRecordSize);
+
+            final int sourceMaxRecordSize;
+            final OCacheEntry sourceEntry =
+                loadPageForWrite(atomicOperation, fileId, pageIndex, false, true);
+            try {
+              final OClusterPage sourcePage = new OClusterPage(sourceEntry);
+              sourcePage.deleteRecord(recordPosition, true);
+              atomicOperation.addDeletedRecordPosition(id, pageIndex, recordPosition);
+              sourceMaxRecordSize = sourcePage.getMaxRecordSize();
+            } finally {
+              releasePageFromWrite(atomicOperation, sourceEntry);
+            }
+            freeSpaceMap.updatePageFreeSpace(atomicOperation, pageIndex, sourceMaxRecordSize);
+
+            clusterPositionMap.update(
+                clusterPosition,
+                new OClusterPositionMapBucket.PositionEntry(targetPageIndex, newRecordPosition),
+                atomicOperation);
+            return true;
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  /**
+   * Releases the empty pages at the end of the cluster file. Released pages are removed from the
+   * free space map and are reused before the file is extended again.
+   *
+   * @return the number of released pages
+   */
+  public int releaseEmptyTailPages(final OAtomicOperation atomicOperation) {
+    return calculateInsideComponentOperation(
+        atomicOperation,
+        operation -> {
+          acquireExclusiveLock();
+          try {
+            final OCacheEntry stateCacheEntry =
+                loadPageForWrite(atomicOperation, fileId, STATE_ENTRY_INDEX, false, true);
+            try {
+              final OPaginatedClusterStateV2 state = new OPaginatedClusterStateV2(stateCacheEntry);
+              final int fileSize = state.getFileSize();
+
+              int lastPage = fileSize;
+              while (lastPage > STATE_ENTRY_INDEX) {
+                final OCacheEntry cacheEntry =
+                    loadPageForRead(atomicOperation, fileId, lastPage, false);
+                try {
+                  if (new OClusterPage(cacheEntry).getRecordsCount() > 0) {
+                    break;
+                  }
+                } finally {
+                  releasePageFromRead(atomicOperation, cacheEntry);
+                }
+
+                freeSpaceMap.updatePageFreeSpace(atomicOperation, lastPage, 0);
+                lastPage--;
+              }
+
+              if (lastPage < fileSize) {
+                state.setFileSize(lastPage);
+              }
+              return fileSize - lastPage;
+            } finally {
+              releasePageFromWrite(atomicOperation, stateCacheEntry);
+            }
+          } finally {
+            releaseExclusiveLock();
+          }
+        });
+  }
+
+  /** @return the number of data pages of the cluster file */
+  public int getDataPagesCount() throws IOException {
+    atomicOperationsManager.acquireReadLock(this);
+    try {
+      acquireSharedLock();
+      try {
+        final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
+        final OCacheEntry stateCacheEntry =
+            loadPageForRead(atomicOperation, fileId, STATE_ENTRY_INDEX, false);
+        try {
+          return new OPaginatedClusterStateV2(stateCacheEntry).getFileSize();
+        } finally {
+          releasePageFromRead(atomicOperation, stateCacheEntry);
+        }
+      } finally {
+        releaseSharedLock();
+      }
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
+
   @Override
   public long getTombstonesCount() {
     return 0;
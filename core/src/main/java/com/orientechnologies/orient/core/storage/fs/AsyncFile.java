@@ -240,6 +240,36 @@ public final class AsyncFile implements OFile {
     }
   }
 
+  @Override
+  public IOResult read(long offset, List<ByteBuffer> buffers) {
+    final CountDownLatch latch = new CountDownLatch(buffers.size());
+    final AsyncIOResult asyncIOResult = new AsyncIOResult(latch);
+
+    long position = offset;
+    for (final ByteBuffer byteBuffer : buffers) {
+      byteBuffer.rewind();
+      lock.sharedLock();
+      try {
+        checkForClose();
+        checkPosition(position);
+        checkPosition(position + byteBuffer.limit() - 1);
+
+        final long filePosition = position + HEADER_SIZE;
+        fileChannel.read(
+            byteBuffer,
+            filePosition,
+            latch,
+            new ReadHandler(byteBuffer, asyncIOResult, filePosition));
+      } finally {
+        lock.sharedUnlock();
+      }
+
+      position += byteBuffer.limit();
+    }
+
+    return asyncIOResult;
+  }
+
   @Override
   public long allocateSpace(int size) {
     return this.size.getAndAdd(size);
@@ -406,6 +436,45 @@ public final class AsyncFile implements OFile {
     }
   }
 
+  private final class ReadHandler implements CompletionHandler<Integer, CountDownLatch> {
+    private final ByteBuffer byteBuffer;
+    private final AsyncIOResult ioResult;
+    private final long position;
+
+    private ReadHandler(ByteBuffer byteBuffer, AsyncIOResult ioResult, long position) {
+      this.byteBuffer = byteBuffer;
+      this.ioResult = ioResult;
+      this.position = position;
+    }
+
+    @Override
+    public void completed(Integer result, CountDownLatch attachment) {
+      if (result == -1) {
+        ioResult.exc = new EOFException("End of file " + osFile + " is reached.");
+        attachment.countDown();
+      } else if (byteBuffer.remaining() > 0) {
+        lock.sharedLock();
+        try {
+          checkForClose();
+
+          fileChannel.read(byteBuffer, position + byteBuffer.position(), attachment, this);
+        } catch (RuntimeException e) {
+          failed(e, attachment);
+        } finally {
+          lock.sharedUnlock();
+        }
+      } else {
+        attachment.countDown();
+      }
+    }
+
+    @Override
+    public void failed(Throwable exc, CountDownLatch attachment) {
+      ioResult.exc = exc;
+      attachment.countDown();
+    }
+  }
+
   private static final class AsyncIOResult implements IOResult {
     private final CountDownLatch latch;
     private Throwable exc;
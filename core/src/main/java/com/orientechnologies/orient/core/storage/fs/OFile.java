@@ -18,6 +18,12 @@ public interface OFile extends OClosableItem {
 
   void read(long offset, ByteBuffer buffer, boolean throwOnEof) throws IOException;
 
+  /**
+   * Reads consecutive regions of the file, starting at the given offset, into the passed in
+   * buffers. All the reads are issued at once, without waiting for the previous ones to complete.
+   */
+  IOResult read(long offset, List<ByteBuffer> buffers) throws IOException;
+
   void write(long offset, ByteBuffer buffer) throws IOException;
 
   IOResult write(List<ORawPair<Long, ByteBuffer>> buffers) throws IOException;
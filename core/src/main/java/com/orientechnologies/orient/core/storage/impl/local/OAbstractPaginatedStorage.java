@@ -27,6 +27,8 @@ import com.orientechnologies.common.exception.OHighLevelException;
 import com.orientechnologies.common.io.OIOException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.profiler.ModifiableLongProfileHookValue;
+import com.orientechnologies.common.profiler.OMetricHistogram;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
 import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
@@ -87,6 +89,7 @@ import com.orientechnologies.orient.core.storage.cache.OWriteCache;
 import com.orientechnologies.orient.core.storage.cache.local.OBackgroundExceptionListener;
 import com.orientechnologies.orient.core.storage.cluster.OOfflineCluster;
 import com.orientechnologies.orient.core.storage.cluster.OPaginatedCluster;
+import com.orientechnologies.orient.core.storage.cluster.v2.OPaginatedClusterV2;
 import com.orientechnologies.orient.core.storage.config.OClusterBasedStorageConfiguration;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.ORecordSerializationContext;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.OStorageTransaction;
@@ -126,8 +129,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         OPageIsBrokenListener {
   private static final int WAL_RESTORE_REPORT_INTERVAL = 30 * 1000; // milliseconds
 
+  private static final OMetricHistogram COMMIT_METRIC =
+      OMetricsRegistry.instance()
+          .histogram(OMetricsRegistry.COMMIT_SECONDS, "Time to commit a transaction");
+
   private static final Comparator<ORecordOperation> COMMIT_RECORD_OPERATION_COMPARATOR =
-      Comparator.comparing(o -> o.getRecord().getIdentity());
+      Comparator.comparing(ORecordOperation::getRID);
 
   protected static final OScheduledThreadPoolExecutorWithLogging fuzzyCheckpointExecutor;
   // public static final int STORAGE_CONFIGURATION_INDEX_ID = -1;
@@ -140,7 +147,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     fuzzyCheckpointExecutor.setMaximumPoolSize(1);
   }
 
-  private final OSimpleRWLockManager<ORID> lockManager;
+  private final OStripedRecordLockManager lockManager;
   protected volatile OSBTreeCollectionManagerShared sbTreeCollectionManager;
 
   /** Lock is used to atomically update record versions. */
@@ -201,7 +208,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     super(name, filePath, mode);
 
     this.id = id;
-    lockManager = new ONotThreadRWLockManager<>();
+    lockManager = new OStripedRecordLockManager();
     recordVersionManager = new OPartitionedLockManager<>();
     sbTreeCollectionManager = new OSBTreeCollectionManagerShared(this);
 
@@ -1895,6 +1902,112 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
   }
 
+  /**
+   * Compacts a cluster online: the records stored in the last pages of the cluster file are moved
+   * to the free space of the first ones, keeping their RIDs, and the pages left empty at the end of
+   * the file are released. Records are moved in small batches, each one in its own atomic
+   * operation, so concurrent operations on the cluster are blocked only for the length of a batch.
+   *
+   * @return the completed compaction
+   * @see OClusterCompaction
+   */
+  public final OClusterCompaction compactCluster(final int clusterId) {
+    final OClusterCompaction compaction = new OClusterCompaction(this, clusterId);
+    compaction.run();
+    return compaction;
+  }
+
+  int relocateClusterRecords(final int clusterId, final long[] clusterPositions) {
+    try {
+      stateLock.acquireReadLock();
+      try {
+        interruptionManager.enterCriticalPath();
+        checkOpennessAndMigration();
+        checkIfThreadIsBlocked();
+
+        final OPaginatedClusterV2 cluster = doGetCompactableCluster(clusterId);
+        makeStorageDirty();
+        return atomicOperationsManager.calculateInsideAtomicOperation(
+            null,
+            atomicOperation -> {
+              int relocated = 0;
+              for (final long clusterPosition : clusterPositions) {
+                if (cluster.relocateRecord(clusterPosition, atomicOperation)) {
+                  relocated++;
+                }
+              }
+              return relocated;
+            });
+      } finally {
+        stateLock.releaseReadLock();
+        interruptionManager.exitCriticalPath();
+      }
+    } catch (final RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  int releaseEmptyClusterPages(final int clusterId) {
+    try {
+      stateLock.acquireReadLock();
+      try {
+        interruptionManager.enterCriticalPath();
+        checkOpennessAndMigration();
+        checkIfThreadIsBlocked();
+
+        final OPaginatedClusterV2 cluster = doGetCompactableCluster(clusterId);
+        makeStorageDirty();
+        return atomicOperationsManager.calculateInsideAtomicOperation(
+            null, cluster::releaseEmptyTailPages);
+      } finally {
+        stateLock.releaseReadLock();
+        interruptionManager.exitCriticalPath();
+      }
+    } catch (final RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  int getClusterDataPagesCount(final int clusterId) {
+    try {
+      stateLock.acquireReadLock();
+      try {
+        interruptionManager.enterCriticalPath();
+        checkOpennessAndMigration();
+
+        return doGetCompactableCluster(clusterId).getDataPagesCount();
+      } finally {
+        stateLock.releaseReadLock();
+        interruptionManager.exitCriticalPath();
+      }
+    } catch (final RuntimeException ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Error ee) {
+      throw logAndPrepareForRethrow(ee);
+    } catch (final Throwable t) {
+      throw logAndPrepareForRethrow(t);
+    }
+  }
+
+  private OPaginatedClusterV2 doGetCompactableCluster(final int clusterId) {
+    final OCluster cluster = doGetAndCheckCluster(clusterId);
+    if (!(cluster instanceof OPaginatedClusterV2)) {
+      throw new OStorageException(
+          "Cluster '"
+              + cluster.getName()
+              + "' can not be compacted, only clusters of binary version 2 support compaction");
+    }
+    return (OPaginatedClusterV2) cluster;
+  }
+
   private OCluster doGetAndCheckCluster(final int clusterId) {
     checkClusterSegmentIndexRange(clusterId);
 
@@ -2206,7 +2319,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
    */
   @Override
   public List<ORecordOperation> commit(final OTransactionInternal clientTx) {
-    return commit(clientTx, false);
+    final long start = System.nanoTime();
+    try {
+      return commit(clientTx, false);
+    } finally {
+      COMMIT_METRIC.recordSince(start);
+    }
   }
 
   /**
@@ -2217,7 +2335,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
    */
   @SuppressWarnings("UnusedReturnValue")
   public List<ORecordOperation> commitPreAllocated(final OTransactionInternal clientTx) {
-    return commit(clientTx, true);
+    final long start = System.nanoTime();
+    try {
+      return commit(clientTx, true);
+    } finally {
+      COMMIT_METRIC.recordSince(start);
+    }
   }
 
   /**
@@ -2298,6 +2421,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
       }
 
       final List<ORecordOperation> result = new ArrayList<>(8);
+      OStripedRecordLockManager.LockedRecords lockedRecords = null;
       stateLock.acquireReadLock();
       try {
         interruptionManager.enterCriticalPath();
@@ -2313,10 +2437,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
           if (locked != null) {
             recordLocks.removeAll(locked);
           }
-          Collections.sort(recordLocks);
-          for (final ORID rid : recordLocks) {
-            acquireWriteLock(rid);
-          }
+          lockedRecords = lockManager.acquireWriteLocks(recordLocks, 0);
         }
         try {
           checkOpennessAndMigration();
@@ -2388,6 +2509,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
                   recordOperation,
                   positions.get(recordOperation),
                   database.getSerializer());
+              OTransactionSpill.onCommitted(recordOperation);
               result.add(recordOperation);
             }
             lockIndexes(indexOperations);
@@ -2415,22 +2537,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
         }
       } finally {
         try {
-          if (modificationLock) {
-            final List<ORID> recordLocks = new ArrayList<>();
-            for (final ORecordOperation recordOperation : recordOperations) {
-              if (recordOperation.type == ORecordOperation.UPDATED
-                  || recordOperation.type == ORecordOperation.DELETED) {
-                recordLocks.add(recordOperation.getRID());
-              }
-            }
-
-            final Set<ORID> locked = transaction.getLockedRecords();
-            if (locked != null) {
-              recordLocks.removeAll(locked);
-            }
-            for (final ORID rid : recordLocks) {
-              releaseWriteLock(rid);
-            }
+          if (lockedRecords != null) {
+            lockManager.releaseWriteLocks(lockedRecords);
           }
         } finally {
           stateLock.releaseReadLock();
@@ -4634,7 +4742,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageAbstract
     }
 
     try {
-      lockManager.acquireReadLock(rid.copy(), 0);
+      lockManager.acquireReadLock(rid, 0);
     } catch (final RuntimeException ee) {
       throw logAndPrepareForRethrow(ee);
     } catch (final Error ee) {
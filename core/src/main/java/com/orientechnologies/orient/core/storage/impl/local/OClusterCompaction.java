@@ -0,0 +1,224 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.storage.OPhysicalPosition;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Online compaction of a cluster. Records are visited from the last cluster position backwards, as
+ * the most recent records are usually stored in the last pages of the cluster file, and each one is
+ * moved to the first page that has enough free space for it, if that page precedes its own. When
+ * all the records have been visited, the empty pages at the end of the file are released.
+ *
+ * <p>The pages read and written by the compaction are throttled by {@link
+ * OGlobalConfiguration#STORAGE_COMPACTION_PAGES_PER_SECOND}. While it runs the compaction is
+ * registered as an MBean, which exposes its progress and allows to change the throttling or to
+ * cancel it.
+ */
+public class OClusterCompaction implements Runnable, OClusterCompactionMXBean {
+  // pages written by a record move: source page, target page and position map bucket
+  private static final int PAGES_PER_MOVE = 3;
+
+  private final OAbstractPaginatedStorage storage;
+  private final int clusterId;
+  private final String clusterName;
+  private final int batchSize;
+
+  private volatile int pagesPerSecond;
+  private volatile boolean running;
+  private volatile boolean cancelled;
+
+  private final AtomicLong scannedRecords = new AtomicLong();
+  private final AtomicLong movedRecords = new AtomicLong();
+  private volatile long totalRecords;
+  private volatile int initialDataPages;
+  private volatile int releasedPages;
+
+  public OClusterCompaction(final OAbstractPaginatedStorage storage, final int clusterId) {
+    this.storage = storage;
+    this.clusterId = clusterId;
+    this.clusterName = storage.getClusterNameById(clusterId);
+
+    final OContextConfiguration configuration =
+        storage.getConfiguration().getContextConfiguration();
+    this.pagesPerSecond =
+        configuration.getValueAsInteger(OGlobalConfiguration.STORAGE_COMPACTION_PAGES_PER_SECOND);
+    this.batchSize =
+        Math.max(
+            1, configuration.getValueAsInteger(OGlobalConfiguration.STORAGE_COMPACTION_BATCH_SIZE));
+  }
+
+  @Override
+  public void run() {
+    final ObjectName mbeanName = registerMBean();
+    running = true;
+    try {
+      totalRecords = storage.count(clusterId);
+      initialDataPages = storage.getClusterDataPagesCount(clusterId);
+
+      final long start = System.nanoTime();
+      long accessedPages = 0;
+
+      final long[] batch = new long[batchSize];
+      int batchLength = 0;
+
+      OPhysicalPosition[] positions =
+          storage.lowerPhysicalPositions(
+              clusterId, new OPhysicalPosition(storage.getLastClusterPosition(clusterId) + 1));
+      while (positions.length > 0 && !cancelled) {
+        // lower positions are returned in ascending order
+        for (int i = positions.length - 1; i >= 0 && !cancelled; i--) {
+          batch[batchLength++] = positions[i].clusterPosition;
+          if (batchLength == batchSize) {
+            accessedPages += relocate(batch, batchLength);
+            batchLength = 0;
+            throttle(start, accessedPages);
+          }
+        }
+        positions = storage.lowerPhysicalPositions(clusterId, positions[0]);
+      }
+      if (batchLength > 0 && !cancelled) {
+        relocate(batch, batchLength);
+      }
+
+      if (!cancelled) {
+        releasedPages = storage.releaseEmptyClusterPages(clusterId);
+      }
+      OLogManager.instance()
+          .info(
+              this,
+              "Compaction of cluster '%s' %s: %d records moved, %d of %d pages released",
+              clusterName,
+              cancelled ? "cancelled" : "completed",
+              movedRecords.get(),
+              releasedPages,
+              initialDataPages);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      OLogManager.instance().warn(this, "Compaction of cluster '%s' interrupted", clusterName);
+    } finally {
+      running = false;
+      unregisterMBean(mbeanName);
+    }
+  }
+
+  private int relocate(final long[] batch, final int batchLength) {
+    final long[] clusterPositions = batchLength == batch.length ? batch : copy(batch, batchLength);
+    final int moved = storage.relocateClusterRecords(clusterId, clusterPositions);
+    scannedRecords.addAndGet(batchLength);
+    movedRecords.addAndGet(moved);
+    return batchLength + moved * PAGES_PER_MOVE;
+  }
+
+  private static long[] copy(final long[] batch, final int batchLength) {
+    final long[] result = new long[batchLength];
+    System.arraycopy(batch, 0, result, 0, batchLength);
+    return result;
+  }
+
+  private void throttle(final long start, final long accessedPages) throws InterruptedException {
+    final int budget = pagesPerSecond;
+    if (budget <= 0) {
+      return;
+    }
+    final long expected = TimeUnit.SECONDS.toNanos(accessedPages) / budget;
+    final long elapsed = System.nanoTime() - start;
+    if (expected > elapsed) {
+      TimeUnit.NANOSECONDS.sleep(expected - elapsed);
+    }
+  }
+
+  private ObjectName registerMBean() {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name =
+          new ObjectName(
+              "com.orientechnologies.orient.core.storage:type=OClusterCompaction,storage="
+                  + ObjectName.quote(storage.getName())
+                  + ",cluster="
+                  + ObjectName.quote(clusterName));
+      if (server.isRegistered(name)) {
+        return null;
+      }
+      server.registerMBean(this, name);
+      return name;
+    } catch (Exception e) {
+      OLogManager.instance()
+          .warn(this, "MBean for compaction of cluster '%s' can not be registered", e, clusterName);
+      return null;
+    }
+  }
+
+  private void unregisterMBean(final ObjectName name) {
+    if (name == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } catch (Exception e) {
+      OLogManager.instance()
+          .warn(
+              this, "MBean for compaction of cluster '%s' can not be unregistered", e, clusterName);
+    }
+  }
+
+  @Override
+  public String getClusterName() {
+    return clusterName;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public long getScannedRecords() {
+    return scannedRecords.get();
+  }
+
+  @Override
+  public long getMovedRecords() {
+    return movedRecords.get();
+  }
+
+  @Override
+  public int getInitialDataPages() {
+    return initialDataPages;
+  }
+
+  @Override
+  public int getReleasedPages() {
+    return releasedPages;
+  }
+
+  @Override
+  public int getProgress() {
+    final long total = totalRecords;
+    if (total == 0) {
+      return running ? 0 : 100;
+    }
+    return (int) Math.min(100, scannedRecords.get() * 100 / total);
+  }
+
+  @Override
+  public int getPagesPerSecond() {
+    return pagesPerSecond;
+  }
+
+  @Override
+  public void setPagesPerSecond(final int pagesPerSecond) {
+    this.pagesPerSecond = pagesPerSecond;
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+}
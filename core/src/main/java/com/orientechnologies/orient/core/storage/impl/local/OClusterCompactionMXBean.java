@@ -0,0 +1,34 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+/** Provides an MBean for {@link OClusterCompaction}. */
+public interface OClusterCompactionMXBean {
+  /** @return Name of the compacted cluster */
+  String getClusterName();
+
+  /** @return true if the compaction is in progress */
+  boolean isRunning();
+
+  /** @return Number of records checked so far */
+  long getScannedRecords();
+
+  /** @return Number of records moved to a lower page so far */
+  long getMovedRecords();
+
+  /** @return Number of data pages of the cluster when the compaction started */
+  int getInitialDataPages();
+
+  /** @return Number of empty pages released at the end of the cluster file */
+  int getReleasedPages();
+
+  /** @return Percentage of the cluster records checked so far */
+  int getProgress();
+
+  /** @return Max number of pages per second read or written by the compaction */
+  int getPagesPerSecond();
+
+  /** Changes the max number of pages per second read or written by the compaction. */
+  void setPagesPerSecond(int pagesPerSecond);
+
+  /** Stops the compaction after the current batch, the records moved so far are kept. */
+  void cancel();
+}
@@ -0,0 +1,360 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.common.concur.lock.OInterruptedException;
+import com.orientechnologies.common.concur.lock.OLockException;
+import com.orientechnologies.common.concur.lock.OSimpleRWLockManager;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.orient.core.id.ORID;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read/write record locks which are not bound to the thread that acquired them, kept in a table
+ * striped by the hash of the record id. Every stripe is an open addressing hash of (cluster id,
+ * cluster position) pairs guarded by its own lock, so locking a record neither allocates nor
+ * contends with the records of other stripes.
+ *
+ * <p>The records updated by a transaction are locked with {@link #acquireWriteLocks(Collection,
+ * long)}, which orders them by stripe and takes the lock of each stripe only once. Because all the
+ * batches are acquired in the same order, two transactions can not deadlock on their records.
+ */
+public final class OStripedRecordLockManager implements OSimpleRWLockManager<ORID> {
+
+  private static final int EXCLUSIVE = -1;
+  private static final int STRIPE_SHIFT = 20;
+  private static final int MIN_CAPACITY = 16;
+
+  private final Stripe[] stripes;
+  private final int stripeMask;
+
+  private final Comparator<ORID> lockOrder =
+      (first, second) -> {
+        final int firstHash = hash(first.getClusterId(), first.getClusterPosition());
+        final int secondHash = hash(second.getClusterId(), second.getClusterPosition());
+        int result = Integer.compare(stripeIndex(firstHash), stripeIndex(secondHash));
+        if (result == 0) {
+          result = Integer.compare(first.getClusterId(), second.getClusterId());
+        }
+        if (result == 0) {
+          result = Long.compare(first.getClusterPosition(), second.getClusterPosition());
+        }
+        return result;
+      };
+
+  public OStripedRecordLockManager() {
+    this(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  public OStripedRecordLockManager(final int concurrencyLevel) {
+    int count = 16;
+    while (count < concurrencyLevel && count < 1024) {
+      count <<= 1;
+    }
+    stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe();
+    }
+    stripeMask = count - 1;
+  }
+
+  /** Records locked by {@link #acquireWriteLocks(Collection, long)}, in lock order. */
+  public static final class LockedRecords {
+    private final int[] clusterIds;
+    private final long[] positions;
+    private final int[] hashes;
+    private int size;
+
+    private LockedRecords(final int capacity) {
+      clusterIds = new int[capacity];
+      positions = new long[capacity];
+      hashes = new int[capacity];
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+
+  @Override
+  public void acquireReadLock(final ORID key, final long timeout) {
+    lock(key.getClusterId(), key.getClusterPosition(), true, timeout);
+  }
+
+  @Override
+  public void acquireWriteLock(final ORID key, final long timeout) {
+    lock(key.getClusterId(), key.getClusterPosition(), false, timeout);
+  }
+
+  @Override
+  public void releaseReadLock(final ORID key) {
+    unlock(key.getClusterId(), key.getClusterPosition(), true);
+  }
+
+  @Override
+  public void releaseWriteLock(final ORID key) {
+    unlock(key.getClusterId(), key.getClusterPosition(), false);
+  }
+
+  /**
+   * Acquires the write locks of all the passed records, or none of them if the timeout expires.
+   * Duplicated records are locked once.
+   *
+   * @param timeout the maximum time to wait for each record in milliseconds, 0 to wait forever
+   * @return the locked records, to be passed to {@link #releaseWriteLocks(LockedRecords)}
+   */
+  public LockedRecords acquireWriteLocks(
+      final Collection<? extends ORID> rids, final long timeout) {
+    final ORID[] sorted = rids.toArray(new ORID[0]);
+    Arrays.sort(sorted, lockOrder);
+
+    final LockedRecords records = new LockedRecords(sorted.length);
+    for (final ORID rid : sorted) {
+      final int clusterId = rid.getClusterId();
+      final long position = rid.getClusterPosition();
+      final int last = records.size - 1;
+      if (last >= 0
+          && records.clusterIds[last] == clusterId
+          && records.positions[last] == position) {
+        continue;
+      }
+      records.clusterIds[records.size] = clusterId;
+      records.positions[records.size] = position;
+      records.hashes[records.size] = hash(clusterId, position);
+      records.size++;
+    }
+
+    int acquired = 0;
+    try {
+      while (acquired < records.size) {
+        final int stripeIndex = stripeIndex(records.hashes[acquired]);
+        final Stripe stripe = stripes[stripeIndex];
+        stripe.lock.lock();
+        try {
+          do {
+            stripe.lock(
+                records.clusterIds[acquired],
+                records.positions[acquired],
+                records.hashes[acquired],
+                false,
+                timeout);
+            acquired++;
+          } while (acquired < records.size
+              && stripeIndex(records.hashes[acquired]) == stripeIndex);
+        } finally {
+          stripe.lock.unlock();
+        }
+      }
+    } catch (final RuntimeException | Error e) {
+      release(records, acquired);
+      throw e;
+    }
+    return records;
+  }
+
+  /** Releases the write locks acquired by {@link #acquireWriteLocks(Collection, long)}. */
+  public void releaseWriteLocks(final LockedRecords records) {
+    release(records, records.size);
+  }
+
+  private void release(final LockedRecords records, final int count) {
+    int released = 0;
+    while (released < count) {
+      final int stripeIndex = stripeIndex(records.hashes[released]);
+      final Stripe stripe = stripes[stripeIndex];
+      stripe.lock.lock();
+      try {
+        do {
+          stripe.unlock(
+              records.clusterIds[released],
+              records.positions[released],
+              records.hashes[released],
+              false);
+          released++;
+        } while (released < count && stripeIndex(records.hashes[released]) == stripeIndex);
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  private void lock(
+      final int clusterId, final long position, final boolean shared, final long timeout) {
+    final int hash = hash(clusterId, position);
+    final Stripe stripe = stripes[stripeIndex(hash)];
+    stripe.lock.lock();
+    try {
+      stripe.lock(clusterId, position, hash, shared, timeout);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  private void unlock(final int clusterId, final long position, final boolean shared) {
+    final int hash = hash(clusterId, position);
+    final Stripe stripe = stripes[stripeIndex(hash)];
+    stripe.lock.lock();
+    try {
+      stripe.unlock(clusterId, position, hash, shared);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  private int stripeIndex(final int hash) {
+    return (hash >>> STRIPE_SHIFT) & stripeMask;
+  }
+
+  private static int hash(final int clusterId, final long position) {
+    long h = position * 0x9E3779B97F4A7C15L + clusterId;
+    h ^= h >>> 32;
+    h *= 0xC2B2AE3D27D4EB4FL;
+    return (int) (h ^ (h >>> 29));
+  }
+
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private int[] clusterIds = new int[MIN_CAPACITY];
+    private long[] positions = new long[MIN_CAPACITY];
+    /** Number of read locks of the record, {@link #EXCLUSIVE} if write locked, 0 if free slot. */
+    private int[] states = new int[MIN_CAPACITY];
+
+    private int size;
+
+    // keeps the state of the neighbour stripes out of the cache line of this one
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    /** Has to be called holding {@link #lock}. */
+    private void lock(
+        final int clusterId,
+        final long position,
+        final int hash,
+        final boolean shared,
+        final long timeout) {
+      final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+      try {
+        while (true) {
+          final int slot = find(clusterId, position, hash);
+          if (slot < 0) {
+            add(clusterId, position, hash, shared ? 1 : EXCLUSIVE);
+            return;
+          }
+          if (shared && states[slot] != EXCLUSIVE) {
+            states[slot]++;
+            return;
+          }
+
+          if (timeout == 0) {
+            released.await();
+          } else {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              throw new OLockException(
+                  String.format(
+                      "Time out acquire lock for resource: '#%d:%d' ", clusterId, position));
+            }
+            released.awaitNanos(remaining);
+          }
+        }
+      } catch (final InterruptedException e) {
+        throw OException.wrapException(new OInterruptedException("Interrupted Lock"), e);
+      }
+    }
+
+    /** Has to be called holding {@link #lock}. */
+    private void unlock(
+        final int clusterId, final long position, final int hash, final boolean shared) {
+      final int slot = find(clusterId, position, hash);
+      if (slot < 0 || shared != (states[slot] != EXCLUSIVE)) {
+        throw new OLockException("Impossible to release a not acquired lock");
+      }
+
+      if (shared && states[slot] > 1) {
+        states[slot]--;
+      } else {
+        remove(slot);
+        released.signalAll();
+      }
+    }
+
+    private int find(final int clusterId, final long position, final int hash) {
+      final int mask = states.length - 1;
+      int slot = hash & mask;
+      while (states[slot] != 0) {
+        if (clusterIds[slot] == clusterId && positions[slot] == position) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private void add(final int clusterId, final long position, final int hash, final int state) {
+      if ((size + 1) * 2 > states.length) {
+        resize(states.length * 2);
+      }
+      final int mask = states.length - 1;
+      int slot = hash & mask;
+      while (states[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      clusterIds[slot] = clusterId;
+      positions[slot] = position;
+      states[slot] = state;
+      size++;
+    }
+
+    /** Removes the entry with backward shifting, so that no tombstone is left in the table. */
+    private void remove(final int slot) {
+      final int mask = states.length - 1;
+      int hole = slot;
+      int current = slot;
+      while (true) {
+        current = (current + 1) & mask;
+        if (states[current] == 0) {
+          break;
+        }
+        final int home = hash(clusterIds[current], positions[current]) & mask;
+        if (((current - home) & mask) >= ((current - hole) & mask)) {
+          clusterIds[hole] = clusterIds[current];
+          positions[hole] = positions[current];
+          states[hole] = states[current];
+          hole = current;
+        }
+      }
+      states[hole] = 0;
+      size--;
+
+      // gives back the memory taken by big transactions
+      if (states.length > MIN_CAPACITY && size * 8 < states.length) {
+        resize(states.length / 2);
+      }
+    }
+
+    private void resize(final int capacity) {
+      final int[] oldClusterIds = clusterIds;
+      final long[] oldPositions = positions;
+      final int[] oldStates = states;
+
+      clusterIds = new int[capacity];
+      positions = new long[capacity];
+      states = new int[capacity];
+      size = 0;
+      for (int i = 0; i < oldStates.length; i++) {
+        if (oldStates[i] != 0) {
+          add(
+              oldClusterIds[i],
+              oldPositions[i],
+              hash(oldClusterIds[i], oldPositions[i]),
+              oldStates[i]);
+        }
+      }
+    }
+  }
+}
@@ -38,8 +38,14 @@ import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODura
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * @author Andrey Lomakin (a.lomakin-at-orientdb.com)
@@ -56,7 +62,7 @@ public class OAtomicOperationsManager {
   private final OReadCache readCache;
   private final OWriteCache writeCache;
 
-  private final Object segmentLock = new Object();
+  private final Lock segmentLock = new ReentrantLock();
   private final AtomicOperationIdGen idGen;
 
   private final boolean trackPageOperations;
@@ -66,6 +72,14 @@ public class OAtomicOperationsManager {
   private final OperationsFreezer componentOperationsFreezer = new OperationsFreezer();
   private final AtomicOperationsTable atomicOperationsTable;
 
+  /**
+   * Locks of the components that support optimistic reads, by lock name. The commit of an atomic
+   * operation holds the write lock of the components it changed while it applies its changes to
+   * the read cache, see {@link #startOptimisticRead(ODurableComponent)}.
+   */
+  private final ConcurrentHashMap<String, StampedLock> optimisticReadLocks =
+      new ConcurrentHashMap<>();
+
   public OAtomicOperationsManager(
       OAbstractPaginatedStorage storage,
       boolean trackPageOperations,
@@ -97,9 +111,12 @@ public class OAtomicOperationsManager {
 
     // transaction id and id of active segment should grow synchronously to maintain correct size of
     // WAL
-    synchronized (segmentLock) {
+    segmentLock.lock();
+    try {
       unitId = idGen.nextId();
       activeSegment = writeAheadLog.activeSegment();
+    } finally {
+      segmentLock.unlock();
     }
 
     atomicOperationsTable.startOperation(unitId, activeSegment);
@@ -325,6 +342,7 @@ public class OAtomicOperationsManager {
         operation.rollbackInProgress();
       }
 
+      final List<Lock> committingLocks = lockOptimisticReads(operation);
       try {
         final OLogSequenceNumber lsn;
         if (trackPageOperations) {
@@ -344,6 +362,8 @@ public class OAtomicOperationsManager {
         }
 
       } finally {
+        unlockOptimisticReads(committingLocks);
+
         final Iterator<String> lockedObjectIterator = operation.lockedObjects().iterator();
 
         try {
@@ -405,6 +425,68 @@ public class OAtomicOperationsManager {
     acquireExclusiveLockTillOperationComplete(operation, durableComponent.getLockName());
   }
 
+  /**
+   * Enables the optimistic reads of a component, see {@link
+   * #startOptimisticRead(ODurableComponent)}. They are not supported when the page operations are
+   * tracked, because then the pages are changed in place before the commit.
+   */
+  public void enableOptimisticReads(ODurableComponent durableComponent) {
+    if (!trackPageOperations) {
+      optimisticReadLocks.putIfAbsent(durableComponent.getLockName(), new StampedLock());
+    }
+  }
+
+  /**
+   * Starts a read of a component that does not take the read lock of the component, so that it does
+   * not wait for the atomic operations that changed the component to complete. The read has to be
+   * done outside of an atomic operation and it sees only committed pages, but it can see the pages
+   * of different commits: its result is valid only if {@link #validateOptimisticRead(
+   * ODurableComponent, long)} returns true, and it can fail if it is not.
+   *
+   * @return the stamp to validate the read with, 0 if the read is not possible because the
+   *     component does not support optimistic reads or a commit is changing it
+   */
+  public long startOptimisticRead(ODurableComponent durableComponent) {
+    final StampedLock lock = optimisticReadLocks.get(durableComponent.getLockName());
+    if (lock == null) {
+      return 0;
+    }
+    return lock.tryOptimisticRead();
+  }
+
+  /** @return true if no commit changed the component since the read was started */
+  public boolean validateOptimisticRead(ODurableComponent durableComponent, long stamp) {
+    final StampedLock lock = optimisticReadLocks.get(durableComponent.getLockName());
+    return lock != null && stamp != 0 && lock.validate(stamp);
+  }
+
+  private List<Lock> lockOptimisticReads(final OAtomicOperation operation) {
+    if (optimisticReadLocks.isEmpty()) {
+      return null;
+    }
+    List<Lock> locks = null;
+    for (final String lockedObject : operation.lockedObjects()) {
+      final StampedLock lock = optimisticReadLocks.get(lockedObject);
+      if (lock != null) {
+        if (locks == null) {
+          locks = new ArrayList<>();
+        }
+        final Lock writeLock = lock.asWriteLock();
+        writeLock.lock();
+        locks.add(writeLock);
+      }
+    }
+    return locks;
+  }
+
+  private static void unlockOptimisticReads(final List<Lock> locks) {
+    if (locks != null) {
+      for (final Lock lock : locks) {
+        lock.unlock();
+      }
+    }
+  }
+
   public void acquireReadLock(ODurableComponent durableComponent) {
     assert durableComponent.getLockName() != null;
 
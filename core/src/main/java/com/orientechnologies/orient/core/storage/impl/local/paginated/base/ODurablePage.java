@@ -29,6 +29,7 @@ import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWALCh
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.po.PageOperationRecord;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Base page class for all durable data structures, that is data structures state of which can be
@@ -65,6 +66,9 @@ public class ODurablePage {
 
   public static final int NEXT_FREE_POSITION = WAL_POSITION_OFFSET + OLongSerializer.LONG_SIZE;
 
+  /** Returned by {@link #compareUTF8Value(int, byte[])} when the bytes do not decide the order. */
+  protected static final int UNDECIDED_COMPARISON = Integer.MIN_VALUE;
+
   private final OWALChanges changes;
   private final OCacheEntry cacheEntry;
   private final OCachePointer pointer;
@@ -221,6 +225,60 @@ public class ODurablePage {
     return changes.getByteValue(pointer.getBufferDuplicate(), pageOffset);
   }
 
+  /**
+   * Compares the string serialized by {@link OUTF8Serializer} at the given offset with a string,
+   * without deserializing it. The bytes are compared in place, this is correct as long as the first
+   * different characters are both above or both below the surrogate range, because the order of
+   * UTF-8 bytes is the order of the code points while {@link String#compareTo} compares UTF-16
+   * chars.
+   *
+   * @param value the UTF-8 bytes of the string, see {@link #utf8ComparisonKey(String)}
+   * @return the sign of {@link String#compareTo} of the serialized string with the given one, or
+   *     {@link #UNDECIDED_COMPARISON} if it can not be told from the bytes
+   */
+  protected final int compareUTF8Value(final int pageOffset, final byte[] value) {
+    final int len = getShortValue(pageOffset) & 0xFFFF;
+    final int start = pageOffset + OShortSerializer.SHORT_SIZE;
+    final int common = Math.min(len, value.length);
+    final ByteBuffer buffer = changes == null ? pointer.getBuffer() : null;
+
+    for (int i = 0; i < common; i++) {
+      final int pageByte =
+          (buffer != null ? buffer.get(start + i) : getByteValue(start + i)) & 0xFF;
+      final int valueByte = value[i] & 0xFF;
+      if (pageByte != valueByte) {
+        // 0xEE and 0xEF start the characters from U+E000 to U+FFFF, which precede the surrogate
+        // pairs in UTF-16 order but follow them in code point order
+        if (pageByte >= 0xEE || valueByte >= 0xEE) {
+          return UNDECIDED_COMPARISON;
+        }
+        return pageByte < valueByte ? -1 : 1;
+      }
+    }
+
+    return Integer.compare(len, value.length);
+  }
+
+  /**
+   * @return the UTF-8 bytes of a string to compare with {@link #compareUTF8Value(int, byte[])}, or
+   *     null if the string contains unpaired surrogates, which are not preserved by the encoding
+   */
+  protected static byte[] utf8ComparisonKey(final String value) {
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        return null;
+      }
+    }
+
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
   @SuppressWarnings("SameReturnValue")
   protected final int setIntValue(final int pageOffset, final int value) {
     final ByteBuffer buffer = pointer.getBuffer();
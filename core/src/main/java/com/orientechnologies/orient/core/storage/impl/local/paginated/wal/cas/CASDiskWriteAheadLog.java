@@ -6,6 +6,8 @@ import com.orientechnologies.common.directmemory.ODirectMemoryAllocator.Intentio
 import com.orientechnologies.common.directmemory.OPointer;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.profiler.OMetricHistogram;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.thread.OScheduledThreadPoolExecutorWithLogging;
@@ -59,6 +61,10 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
 
   private static final int BATCH_READ_SIZE = 4 * 1024;
 
+  private static final OMetricHistogram FLUSH_METRIC =
+      OMetricsRegistry.instance()
+          .histogram(OMetricsRegistry.WAL_FLUSH_SECONDS, "Time to fsync the written WAL records");
+
   protected static final int DEFAULT_MAX_CACHE_SIZE = Integer.MAX_VALUE;
 
   private static final OScheduledThreadPoolExecutorWithLogging commitExecutor;
@@ -1906,9 +1912,10 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
                     (Callable<?>)
                         () -> {
                           try {
+                            final long flushStart = System.nanoTime();
                             long startTs = 0;
                             if (printPerformanceStatistic) {
-                              startTs = System.nanoTime();
+                              startTs = flushStart;
                             }
 
                             final int cqSize = fileCloseQueueSize.get();
@@ -1941,6 +1948,7 @@ public final class CASDiskWriteAheadLog implements OWriteAheadLog {
                               walFile.force(true);
                             }
 
+                            FLUSH_METRIC.recordSince(flushStart);
                             flushedLSN = writtenUpTo.get().lsn;
 
                             fireEventsFor(flushedLSN);
@@ -127,6 +127,8 @@ public class OLocalHashTableV3<K, V> extends ODurableComponent implements OHashT
     this.metadataConfigurationFileExtension = metadataConfigurationFileExtension;
     this.treeStateFileExtension = treeStateFileExtension;
     this.nullBucketFileExtension = nullBucketFileExtension;
+
+    atomicOperationsManager.enableOptimisticReads(this);
   }
 
   @Override
@@ -188,70 +190,94 @@ public class OLocalHashTableV3<K, V> extends ODurableComponent implements OHashT
   }
 
   public V get(K key) {
+    if (atomicOperationsManager.getCurrentOperation() == null) {
+      // optimistic read: it does not wait for the writers, it is retried with the lock if a commit
+      // changed the table meanwhile
+      final long stamp = atomicOperationsManager.startOptimisticRead(this);
+      if (stamp != 0) {
+        try {
+          final V result = doGet(key, null);
+          if (atomicOperationsManager.validateOptimisticRead(this, stamp)) {
+            return result;
+          }
+        } catch (final IOException e) {
+          if (atomicOperationsManager.validateOptimisticRead(this, stamp)) {
+            throw OException.wrapException(
+                new OIndexException("Exception during index value retrieval"), e);
+          }
+        } catch (final RuntimeException e) {
+          // the pages read may belong to different commits
+          if (atomicOperationsManager.validateOptimisticRead(this, stamp)) {
+            throw e;
+          }
+        }
+      }
+    }
+
     atomicOperationsManager.acquireReadLock(this);
     try {
       acquireSharedLock();
       try {
-        final OAtomicOperation atomicOperation = atomicOperationsManager.getCurrentOperation();
-
-        if (key == null) {
-          if (getFilledUpTo(atomicOperation, nullBucketFileId) == 0) {
-            return null;
-          }
+        return doGet(key, atomicOperationsManager.getCurrentOperation());
+      } finally {
+        releaseSharedLock();
+      }
+    } catch (final IOException e) {
+      throw OException.wrapException(
+          new OIndexException("Exception during index value retrieval"), e);
+    } finally {
+      atomicOperationsManager.releaseReadLock(this);
+    }
+  }
 
-          V result;
-          final OCacheEntry cacheEntry =
-              loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
-          try {
-            final ONullBucket<V> nullBucket = new ONullBucket<>(cacheEntry, valueSerializer, false);
-            result = nullBucket.getValue();
-          } finally {
-            releasePageFromRead(atomicOperation, cacheEntry);
-          }
+  private V doGet(K key, final OAtomicOperation atomicOperation) throws IOException {
+    if (key == null) {
+      if (getFilledUpTo(atomicOperation, nullBucketFileId) == 0) {
+        return null;
+      }
 
-          return result;
-        } else {
-          key = keySerializer.preprocess(key, (Object[]) keyTypes);
+      V result;
+      final OCacheEntry cacheEntry = loadPageForRead(atomicOperation, nullBucketFileId, 0, false);
+      try {
+        final ONullBucket<V> nullBucket = new ONullBucket<>(cacheEntry, valueSerializer, false);
+        result = nullBucket.getValue();
+      } finally {
+        releasePageFromRead(atomicOperation, cacheEntry);
+      }
 
-          final long hashCode = keyHashFunction.hashCode(key);
+      return result;
+    } else {
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
 
-          final BucketPath bucketPath = getBucket(hashCode, atomicOperation);
-          final long bucketPointer =
-              directory.getNodePointer(
-                  bucketPath.nodeIndex,
-                  bucketPath.itemIndex + bucketPath.hashMapOffset,
-                  atomicOperation);
+      final long hashCode = keyHashFunction.hashCode(key);
 
-          if (bucketPointer == 0) {
-            return null;
-          }
+      final BucketPath bucketPath = getBucket(hashCode, atomicOperation);
+      final long bucketPointer =
+          directory.getNodePointer(
+              bucketPath.nodeIndex,
+              bucketPath.itemIndex + bucketPath.hashMapOffset,
+              atomicOperation);
 
-          final long pageIndex = getPageIndex(bucketPointer);
+      if (bucketPointer == 0) {
+        return null;
+      }
 
-          final OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
-          try {
-            final OHashIndexBucket<K, V> bucket =
-                new OHashIndexBucket<>(cacheEntry, keySerializer, valueSerializer, keyTypes);
+      final long pageIndex = getPageIndex(bucketPointer);
 
-            final Entry<K, V> entry = bucket.find(key, hashCode);
-            if (entry == null) {
-              return null;
-            }
+      final OCacheEntry cacheEntry = loadPageForRead(atomicOperation, fileId, pageIndex, false);
+      try {
+        final OHashIndexBucket<K, V> bucket =
+            new OHashIndexBucket<>(cacheEntry, keySerializer, valueSerializer, keyTypes);
 
-            return entry.value;
-          } finally {
-            releasePageFromRead(atomicOperation, cacheEntry);
-          }
+        final Entry<K, V> entry = bucket.find(key, hashCode);
+        if (entry == null) {
+          return null;
         }
 
+        return entry.value;
       } finally {
-        releaseSharedLock();
+        releasePageFromRead(atomicOperation, cacheEntry);
       }
-    } catch (final IOException e) {
-      throw OException.wrapException(
-          new OIndexException("Exception during index value retrieval"), e);
-    } finally {
-      atomicOperationsManager.releaseReadLock(this);
     }
   }
 
@@ -26,6 +26,7 @@ import com.orientechnologies.common.serialization.types.OByteSerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OShortSerializer;
+import com.orientechnologies.common.serialization.types.OUTF8Serializer;
 import com.orientechnologies.orient.core.encryption.OEncryption;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -118,13 +119,16 @@ public final class CellBTreeMultiValueV2Bucket<K> extends ODurablePage {
   }
 
   int find(final K key, final OBinarySerializer<K> keySerializer, final OEncryption encryption) {
+    final byte[] utf8Key =
+        encryption == null && keySerializer == OUTF8Serializer.INSTANCE && key instanceof String
+            ? utf8ComparisonKey((String) key)
+            : null;
     int low = 0;
     int high = size() - 1;
 
     while (low <= high) {
       final int mid = (low + high) >>> 1;
-      final K midVal = getKey(mid, keySerializer, encryption);
-      final int cmp = comparator.compare(midVal, key);
+      final int cmp = compareKey(mid, key, utf8Key, keySerializer, encryption);
 
       if (cmp < 0) {
         low = mid + 1;
@@ -138,6 +142,34 @@ public final class CellBTreeMultiValueV2Bucket<K> extends ODurablePage {
     return -(low + 1); // key not found.
   }
 
+  /**
+   * Compares the key at the given index with the searched one. Unless the keys are encrypted,
+   * string, integer and long keys are compared in place, without deserializing the key of the page,
+   * the other keys and the strings which can not be compared by their bytes are deserialized and
+   * compared by the comparator.
+   */
+  private int compareKey(
+      final int index,
+      final K key,
+      final byte[] utf8Key,
+      final OBinarySerializer<K> keySerializer,
+      final OEncryption encryption) {
+    if (encryption == null) {
+      if (utf8Key != null) {
+        final int cmp = compareUTF8Value(getKeyPosition(index), utf8Key);
+        if (cmp != UNDECIDED_COMPARISON) {
+          return cmp;
+        }
+      } else if (keySerializer == OIntegerSerializer.INSTANCE && key instanceof Integer) {
+        return Integer.compare(getIntValue(getKeyPosition(index)), (Integer) key);
+      } else if (keySerializer == OLongSerializer.INSTANCE && key instanceof Long) {
+        return Long.compare(getLongValue(getKeyPosition(index)), (Long) key);
+      }
+    }
+
+    return comparator.compare(getKey(index, keySerializer, encryption), key);
+  }
+
   private void removeMainLeafEntry(
       final int entryIndex, final int entryPosition, final int keySize) {
     int nextItem;
@@ -657,17 +689,7 @@ public final class CellBTreeMultiValueV2Bucket<K> extends ODurablePage {
 
   public K getKey(
       final int index, final OBinarySerializer<K> keySerializer, final OEncryption encryption) {
-    int entryPosition = getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
-
-    if (!isLeaf()) {
-      entryPosition += 2 * OIntegerSerializer.INT_SIZE;
-    } else {
-      entryPosition +=
-          2 * OIntegerSerializer.INT_SIZE
-              + OByteSerializer.BYTE_SIZE
-              + OLongSerializer.LONG_SIZE
-              + RID_SIZE;
-    }
+    int entryPosition = getKeyPosition(index);
 
     if (encryption == null) {
       return deserializeFromDirectMemory(keySerializer, entryPosition);
@@ -681,6 +703,21 @@ public final class CellBTreeMultiValueV2Bucket<K> extends ODurablePage {
     }
   }
 
+  private int getKeyPosition(final int index) {
+    final int entryPosition =
+        getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
+
+    if (!isLeaf()) {
+      return entryPosition + 2 * OIntegerSerializer.INT_SIZE;
+    }
+
+    return entryPosition
+        + 2 * OIntegerSerializer.INT_SIZE
+        + OByteSerializer.BYTE_SIZE
+        + OLongSerializer.LONG_SIZE
+        + RID_SIZE;
+  }
+
   byte[] getRawKey(
       final int index, final OBinarySerializer<K> keySerializer, final OEncryption encryption) {
     int entryPosition = getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
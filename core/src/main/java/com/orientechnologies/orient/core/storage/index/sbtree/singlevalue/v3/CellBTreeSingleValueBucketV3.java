@@ -26,6 +26,7 @@ import com.orientechnologies.common.serialization.types.OByteSerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OShortSerializer;
+import com.orientechnologies.common.serialization.types.OUTF8Serializer;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
@@ -92,13 +93,16 @@ public final class CellBTreeSingleValueBucketV3<K> extends ODurablePage {
   }
 
   public int find(final K key, final OBinarySerializer<K> keySerializer) {
+    final byte[] utf8Key =
+        keySerializer == OUTF8Serializer.INSTANCE && key instanceof String
+            ? utf8ComparisonKey((String) key)
+            : null;
     int low = 0;
     int high = size() - 1;
 
     while (low <= high) {
       final int mid = (low + high) >>> 1;
-      final K midVal = getKey(mid, keySerializer);
-      final int cmp = comparator.compare(midVal, key);
+      final int cmp = compareKey(mid, key, utf8Key, keySerializer);
 
       if (cmp < 0) {
         low = mid + 1;
@@ -112,6 +116,30 @@ public final class CellBTreeSingleValueBucketV3<K> extends ODurablePage {
     return -(low + 1); // key not found.
   }
 
+  /**
+   * Compares the key at the given index with the searched one. String, integer and long keys are
+   * compared in place, without deserializing the key of the page, the other keys and the strings
+   * which can not be compared by their bytes are deserialized and compared by the comparator.
+   */
+  private int compareKey(
+      final int index,
+      final K key,
+      final byte[] utf8Key,
+      final OBinarySerializer<K> keySerializer) {
+    if (utf8Key != null) {
+      final int cmp = compareUTF8Value(getKeyPosition(index), utf8Key);
+      if (cmp != UNDECIDED_COMPARISON) {
+        return cmp;
+      }
+    } else if (keySerializer == OIntegerSerializer.INSTANCE && key instanceof Integer) {
+      return Integer.compare(getIntValue(getKeyPosition(index)), (Integer) key);
+    } else if (keySerializer == OLongSerializer.INSTANCE && key instanceof Long) {
+      return Long.compare(getLongValue(getKeyPosition(index)), (Long) key);
+    }
+
+    return comparator.compare(getKey(index, keySerializer), key);
+  }
+
   public int removeLeafEntry(final int entryIndex, byte[] key, byte[] value) {
     final int entryPosition =
         getIntValue(POSITIONS_ARRAY_OFFSET + entryIndex * OIntegerSerializer.INT_SIZE);
@@ -339,13 +367,18 @@ public final class CellBTreeSingleValueBucketV3<K> extends ODurablePage {
   }
 
   public K getKey(final int index, final OBinarySerializer<K> keySerializer) {
-    int entryPosition = getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
+    return deserializeFromDirectMemory(keySerializer, getKeyPosition(index));
+  }
+
+  private int getKeyPosition(final int index) {
+    final int entryPosition =
+        getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
 
     if (!isLeaf()) {
-      entryPosition += 2 * OIntegerSerializer.INT_SIZE;
+      return entryPosition + 2 * OIntegerSerializer.INT_SIZE;
     }
 
-    return deserializeFromDirectMemory(keySerializer, entryPosition);
+    return entryPosition;
   }
 
   public boolean isLeaf() {
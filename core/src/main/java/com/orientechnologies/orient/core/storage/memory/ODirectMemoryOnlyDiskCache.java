@@ -31,6 +31,7 @@ import com.orientechnologies.orient.core.storage.cache.OAbstractWriteCache;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.cache.OCacheEntryImpl;
 import com.orientechnologies.orient.core.storage.cache.OCachePointer;
+import com.orientechnologies.orient.core.storage.cache.OPageAccessTracker;
 import com.orientechnologies.orient.core.storage.cache.OPageDataVerificationError;
 import com.orientechnologies.orient.core.storage.cache.OReadCache;
 import com.orientechnologies.orient.core.storage.cache.OWriteCache;
@@ -233,6 +234,8 @@ public final class ODirectMemoryOnlyDiskCache extends OAbstractWriteCache
     synchronized (cacheEntry) {
       cacheEntry.incrementUsages();
     }
+    // all the pages are in memory
+    OPageAccessTracker.onPageHit();
 
     return cacheEntry;
   }
@@ -657,6 +660,25 @@ public final class ODirectMemoryOnlyDiskCache extends OAbstractWriteCache
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public final OCachePointer[] loadAhead(
+      final long fileId,
+      final long startPageIndex,
+      final int pageCount,
+      final boolean verifyChecksums) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public final boolean isPageCached(final long fileId, final long pageIndex) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public final long getFlushedPagesStamp(final long fileId) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public final long getExclusiveWriteCachePagesSize() {
     return 0;
@@ -68,6 +68,11 @@ public abstract class OTransactionAbstract implements OTransaction {
     final OLocalRecordCache dbCache = database.getLocalCache();
 
     for (ORecordOperation txEntry : entries) {
+      if (OTransactionSpill.isSpilled(txEntry)) {
+        // NOT LOADED AGAIN JUST FOR THE CACHE
+        dbCache.deleteRecord(txEntry.getRID());
+        continue;
+      }
       if (!updateStrategy) {
         // ALWAYS REMOVE THE RECORD FROM CACHE
         dbCache.deleteRecord(txEntry.getRecord().getIdentity());
@@ -136,6 +136,13 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
 
     // REMOVE ALL THE DIRTY ENTRIES AND UNDO ANY DIRTY DOCUMENT IF POSSIBLE.
     for (final ORecordOperation v : allEntries.values()) {
+      final ORecord saved = OTransactionSpill.getSavedRecord(v);
+      if (saved != null) {
+        saved.unload();
+      }
+      if (OTransactionSpill.isSpilled(v)) {
+        continue;
+      }
       final ORecord rec = v.getRecord();
       rec.unload();
     }
@@ -580,6 +587,9 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
         if (iRecord instanceof ODocument && ((ODocument) iRecord).isTrackingChanges()) {
           ODocumentInternal.clearTrackData(((ODocument) iRecord));
         }
+        if (status == TXSTATUS.BEGUN) {
+          spillIfNeeded(txEntry);
+        }
         return txEntry;
       } catch (final Exception e) {
         switch (iStatus) {
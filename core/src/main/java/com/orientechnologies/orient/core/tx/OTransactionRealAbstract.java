@@ -19,6 +19,7 @@
  */
 package com.orientechnologies.orient.core.tx;
 
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
@@ -64,6 +65,11 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
 
   private Optional<List<byte[]>> serializedOperations = Optional.empty();
 
+  private int spillThreshold = -1;
+  private OTransactionSpill spill;
+  /** Operations with a record in memory, moved to the spill by the next {@link #spillRecords()}. */
+  private final List<ORecordOperation> spillCandidates = new ArrayList<ORecordOperation>();
+
   protected OTransactionRealAbstract(final ODatabaseDocumentInternal database, final int id) {
     super(database);
     this.id = id;
@@ -71,7 +77,7 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
 
   @Override
   public void addChangedDocument(ODocument document) {
-    if (getRecord(document.getIdentity()) == null) {
+    if (getRecordEntry(document.getIdentity()) == null) {
       changedDocuments.add(document);
     }
   }
@@ -79,6 +85,9 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
   public void close() {
     super.close();
     for (final ORecordOperation recordOperation : getRecordOperations()) {
+      if (OTransactionSpill.isSpilled(recordOperation)) {
+        continue;
+      }
       final ORecord record = recordOperation.getRecord();
       if (record instanceof ODocument) {
         final ODocument document = (ODocument) record;
@@ -99,6 +108,11 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
     allEntries.clear();
     indexEntries.clear();
     recordIndexOperations.clear();
+    spillCandidates.clear();
+    if (spill != null) {
+      spill.close();
+      spill = null;
+    }
     newObjectCounter = -2;
     status = TXSTATUS.INVALID;
 
@@ -303,6 +317,94 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
     }
   }
 
+  /**
+   * Registers the record of a created or updated operation for the spill, and moves the registered
+   * records to the spill file once more of them than {@link
+   * OGlobalConfiguration#TX_SPILL_THRESHOLD} are kept in memory.
+   */
+  protected void spillIfNeeded(final ORecordOperation operation) {
+    if (spillThreshold < 0) {
+      spillThreshold =
+          getDatabase().isRemote()
+              ? 0
+              : getDatabase()
+                  .getConfiguration()
+                  .getValueAsInteger(OGlobalConfiguration.TX_SPILL_THRESHOLD);
+    }
+    if (spillThreshold == 0
+        || operation == null
+        || (operation.type != ORecordOperation.CREATED
+            && operation.type != ORecordOperation.UPDATED)) {
+      return;
+    }
+
+    spillCandidates.add(operation);
+    final int inMemory = spillCandidates.size() + (spill != null ? spill.getLoadedCount() : 0);
+    if (inMemory > spillThreshold) {
+      spillRecords();
+    }
+  }
+
+  private void spillRecords() {
+    if (spill == null) {
+      spill = new OTransactionSpill(getDatabase(), spillThreshold);
+    }
+
+    for (ORecordOperation operation : spillCandidates) {
+      if (!(operation.getRecordContainer() instanceof ORecord)
+          || (operation.type != ORecordOperation.CREATED
+              && operation.type != ORecordOperation.UPDATED)) {
+        continue;
+      }
+      final ORecord record = (ORecord) operation.getRecordContainer();
+      if (getRecordEntry(record.getIdentity()) != operation
+          || !OTransactionSpill.isSpillable(record)) {
+        continue;
+      }
+
+      final OTransactionSpill.SpilledRecord spilled = spill.write(record);
+      if (spilled != null) {
+        detachIndexValues(record);
+        operation.setRecord(spilled);
+      }
+    }
+    spillCandidates.clear();
+    spill.unloadAll();
+  }
+
+  /** @return the spill file of the transaction, null if no record is spilled */
+  OTransactionSpill getSpill() {
+    return spill;
+  }
+
+  /** Replaces the record instance with its identity in the index changes done for the record. */
+  private void detachIndexValues(final ORecord record) {
+    final List<OTransactionRecordIndexOperation> operations =
+        recordIndexOperations.get(record.getIdentity());
+    if (operations == null) {
+      return;
+    }
+
+    for (OTransactionRecordIndexOperation operation : operations) {
+      final OTransactionIndexChanges indexChanges = indexEntries.get(operation.index);
+      if (indexChanges == null) {
+        continue;
+      }
+      final OTransactionIndexChangesPerKey keyChanges =
+          operation.key == null
+              ? indexChanges.nullKeyChanges
+              : indexChanges.changesPerKey.get(operation.key);
+      if (keyChanges == null) {
+        continue;
+      }
+      for (OTransactionIndexEntry entry : keyChanges.getEntriesAsList()) {
+        if (entry.getValue() == record) {
+          entry.setValue(record.getIdentity());
+        }
+      }
+    }
+  }
+
   public void updateIdentityAfterCommit(final ORID oldRid, final ORID newRid) {
     if (oldRid.equals(newRid))
       // NO CHANGE, IGNORE IT
@@ -344,6 +446,11 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
       updatedRids.put(newRid.copy(), oldRid.copy());
 
       if (!rec.getRecord().getIdentity().equals(newRid)) {
+        // THE INSTANCE SAVED BEFORE THE SPILL SHARES THE IDENTITY OF THE SPILLED RECORD
+        final ORecord saved = OTransactionSpill.getSavedRecord(rec);
+        if (saved != null) {
+          ORecordInternal.onBeforeIdentityChanged(saved);
+        }
         ORecordInternal.onBeforeIdentityChanged(rec.getRecord());
 
         final ORecordId recordId = (ORecordId) rec.getRecord().getIdentity();
@@ -355,6 +462,9 @@ public abstract class OTransactionRealAbstract extends OTransactionAbstract
         }
 
         ORecordInternal.onAfterIdentityChanged(rec.getRecord());
+        if (saved != null) {
+          ORecordInternal.onAfterIdentityChanged(saved);
+        }
       }
     }
 
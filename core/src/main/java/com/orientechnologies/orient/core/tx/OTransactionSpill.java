@@ -0,0 +1,452 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.core.tx;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ORecordLazyMultiValue;
+import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.exception.ODatabaseException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentEntry;
+import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
+import com.orientechnologies.orient.core.storage.OStorage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Temporary file where a transaction keeps the content of its records once it holds more of them
+ * than {@link OGlobalConfiguration#TX_SPILL_THRESHOLD}. The record operation of a spilled record
+ * points to a {@link SpilledRecord}, which loads the record back from the file when it is accessed,
+ * by the reads of the transaction or by the commit. Only the last loaded records, as many as the
+ * threshold, are kept in memory, the others are loaded again when they are accessed and nobody
+ * references them any more.
+ *
+ * <p>The spilled record is a new instance that shares the identity of the saved one, so the saved
+ * instance gets the identity assigned by the commit, and {@link #onCommitted} gives it the new
+ * version. Changes done to the saved instance without saving it again are not seen by the
+ * transaction any more: the saved instance is not dirty once spilled, and stays dirty after the
+ * commit if it was changed since.
+ */
+public final class OTransactionSpill implements Closeable {
+  private final ODatabaseDocumentInternal database;
+  private final FileChannel channel;
+  private final int maxLoaded;
+  private final ArrayDeque<ORecord> loaded = new ArrayDeque<>();
+  private int maxLoadedCount;
+  private long size;
+
+  public OTransactionSpill(final ODatabaseDocumentInternal database, final int maxLoaded) {
+    this.database = database;
+    this.maxLoaded = maxLoaded;
+    try {
+      final Path directory = Files.createDirectories(Paths.get(Orient.getTempPath()));
+      final Path file = Files.createTempFile(directory, "tx", ".spill");
+      channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.DELETE_ON_CLOSE);
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new ODatabaseException("Cannot create the spill file of the transaction"), e);
+    }
+  }
+
+  /**
+   * @return true if the record of the operation is spilled and not loaded, so it is not referenced
+   *     by anybody outside of the transaction
+   */
+  public static boolean isSpilled(final ORecordOperation operation) {
+    return operation.getRecordContainer() instanceof SpilledRecord
+        && !((SpilledRecord) operation.getRecordContainer()).isLoaded();
+  }
+
+  /**
+   * @return the instance that was saved by the caller if the record of the operation is spilled
+   *     and the instance is still referenced, otherwise null
+   */
+  public static ORecord getSavedRecord(final ORecordOperation operation) {
+    return operation.getRecordContainer() instanceof SpilledRecord
+        ? ((SpilledRecord) operation.getRecordContainer()).saved.get()
+        : null;
+  }
+
+  /**
+   * Called by the storage once the record of the operation is written: the committed version is
+   * kept, so that the record is loaded again as committed, and given to the saved instance.
+   */
+  public static void onCommitted(final ORecordOperation operation) {
+    if (operation.getRecordContainer() instanceof SpilledRecord) {
+      ((SpilledRecord) operation.getRecordContainer()).committed();
+    }
+  }
+
+  /**
+   * Tells if a record can be spilled: it has to be a dirty top level record, and documents can not
+   * hold tree based rid bags, because their serialization changes the storage.
+   */
+  public static boolean isSpillable(final ORecord record) {
+    if (!record.isDirty()) {
+      return false;
+    }
+    if (record instanceof ODocument) {
+      final ODocument document = (ODocument) record;
+      if (document.isEmbedded()) {
+        return false;
+      }
+      for (String fieldName : document.fieldNames()) {
+        final Object value = document.rawField(fieldName);
+        if (value instanceof ORidBag && !((ORidBag) value).isEmbedded()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Serializes a record to the spill file. The record is not dirty any more once spilled, so that
+   * later changes to it can be told apart.
+   *
+   * @return the spilled record, or null if the record can not be serialized yet, for example
+   *     because it links records which are not saved
+   */
+  public SpilledRecord write(final ORecord record) {
+    final byte[] content;
+    try {
+      content = database.getSerializer().toStream(record);
+    } catch (RuntimeException e) {
+      OLogManager.instance()
+          .debug(this, "Record %s is kept in memory by the transaction", e, record.getIdentity());
+      return null;
+    }
+
+    final long position = size;
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(content);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer, position + buffer.position());
+      }
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new ODatabaseException("Cannot write to the spill file of the transaction"), e);
+    }
+    size += content.length;
+    ORecordInternal.unsetDirty(record);
+
+    return new SpilledRecord(
+        record,
+        ORecordInternal.getRecordType(record),
+        record instanceof ODocument ? ((ODocument) record).getClassName() : null,
+        position,
+        content.length);
+  }
+
+  /** @return the number of loaded spilled records kept in memory by the transaction */
+  public int getLoadedCount() {
+    return loaded.size();
+  }
+
+  /** @return the highest number of loaded spilled records kept in memory at the same time */
+  public int getMaxLoadedCount() {
+    return maxLoadedCount;
+  }
+
+  /** Drops the loaded spilled records, they are loaded again from the file when accessed. */
+  public void unloadAll() {
+    loaded.clear();
+  }
+
+  @Override
+  public void close() {
+    loaded.clear();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      OLogManager.instance().warn(this, "Cannot delete the spill file of the transaction", e);
+    }
+  }
+
+  private ORecord load(final SpilledRecord spilled) {
+    if (!channel.isOpen()) {
+      throw new ODatabaseException(
+          "Record " + spilled.rid + " can not be loaded, the transaction is closed");
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(spilled.length);
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, spilled.position + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of the spill file");
+        }
+      }
+    } catch (IOException e) {
+      throw OException.wrapException(
+          new ODatabaseException("Cannot read from the spill file of the transaction"), e);
+    }
+
+    final ORecord record =
+        Orient.instance()
+            .getRecordFactoryManager()
+            .newInstance(spilled.recordType, spilled.rid.getClusterId(), database);
+    // THE SHARED IDENTITY KEEPS THE RECORD IN SYNC WITH THE RID UPDATES DONE BY THE COMMIT
+    ORecordInternal.setIdentity(record, spilled.rid);
+    ORecordInternal.fill(
+        record, spilled.rid, spilled.version, buffer.array(), !spilled.committed, database);
+    if (spilled.className != null) {
+      ODocumentInternal.fillClassNameIfNeeded((ODocument) record, spilled.className);
+    }
+    if (record instanceof ODocument && !spilled.committed) {
+      resolveTemporaryLinks((ODocument) record);
+    }
+    return record;
+  }
+
+  /**
+   * The links to the records created by the transaction are spilled with their temporary rids:
+   * they are replaced by the identities held by the transaction, which the commit updates. The
+   * entries are changed in place because the document ignores a link set to an equal rid.
+   */
+  private void resolveTemporaryLinks(final ODocument document) {
+    for (Map.Entry<String, ODocumentEntry> field : ODocumentInternal.rawEntries(document)) {
+      final ODocumentEntry entry = field.getValue();
+      if (entry.value instanceof ORID) {
+        entry.value = resolveTemporaryLink((ORID) entry.value);
+      } else {
+        resolveTemporaryLinks(entry.value);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resolveTemporaryLinks(final Object value) {
+    if (value instanceof ODocument) {
+      if (((ODocument) value).isEmbedded()) {
+        resolveTemporaryLinks((ODocument) value);
+      }
+      return;
+    }
+
+    boolean oldAutoConvert = false;
+    if (value instanceof ORecordLazyMultiValue) {
+      oldAutoConvert = ((ORecordLazyMultiValue) value).isAutoConvertToRecord();
+      ((ORecordLazyMultiValue) value).setAutoConvertToRecord(false);
+    }
+    if (value instanceof List) {
+      final List<Object> list = (List<Object>) value;
+      for (int i = 0; i < list.size(); i++) {
+        final Object item = list.get(i);
+        if (item instanceof ORID) {
+          final ORID link = resolveTemporaryLink((ORID) item);
+          if (link != item) {
+            list.set(i, link);
+          }
+        } else {
+          resolveTemporaryLinks(item);
+        }
+      }
+    } else if (value instanceof Set) {
+      final Set<Object> set = (Set<Object>) value;
+      final List<ORID> temporary = new ArrayList<>();
+      for (Object item : set) {
+        if (item instanceof ORID && resolveTemporaryLink((ORID) item) != item) {
+          temporary.add((ORID) item);
+        } else {
+          resolveTemporaryLinks(item);
+        }
+      }
+      for (ORID item : temporary) {
+        set.remove(item);
+        set.add(resolveTemporaryLink(item));
+      }
+    } else if (value instanceof Map) {
+      final Map<Object, Object> map = (Map<Object, Object>) value;
+      for (Map.Entry<Object, Object> entry : new ArrayList<>(map.entrySet())) {
+        if (entry.getValue() instanceof ORID) {
+          final ORID link = resolveTemporaryLink((ORID) entry.getValue());
+          if (link != entry.getValue()) {
+            map.put(entry.getKey(), link);
+          }
+        } else {
+          resolveTemporaryLinks(entry.getValue());
+        }
+      }
+    }
+    if (value instanceof ORecordLazyMultiValue) {
+      ((ORecordLazyMultiValue) value).setAutoConvertToRecord(oldAutoConvert);
+    }
+  }
+
+  private ORID resolveTemporaryLink(final ORID link) {
+    if (link.isPersistent()) {
+      return link;
+    }
+    final ORecordOperation operation = database.getTransaction().getRecordEntry(link);
+    return operation != null ? operation.getRID() : link;
+  }
+
+  private void keepLoaded(final ORecord record) {
+    if (loaded.peekLast() == record) {
+      return;
+    }
+    loaded.addLast(record);
+    if (loaded.size() > maxLoaded) {
+      loaded.removeFirst();
+    }
+    maxLoadedCount = Math.max(maxLoadedCount, loaded.size());
+  }
+
+  /** Record operation content that is kept in the spill file. */
+  public final class SpilledRecord implements OIdentifiable {
+    private final ORecordId rid;
+    private final byte recordType;
+    private final String className;
+    private final long position;
+    private final int length;
+    private final WeakReference<ORecord> saved;
+    private int version;
+    private boolean committed;
+    private WeakReference<ORecord> record;
+
+    private SpilledRecord(
+        final ORecord saved,
+        final byte recordType,
+        final String className,
+        final long position,
+        final int length) {
+      this.rid = (ORecordId) saved.getIdentity();
+      this.recordType = recordType;
+      this.version = saved.getVersion();
+      this.className = className;
+      this.position = position;
+      this.length = length;
+      this.saved = new WeakReference<>(saved);
+    }
+
+    public boolean isLoaded() {
+      return getLoaded() != null;
+    }
+
+    private ORecord getLoaded() {
+      return record != null ? record.get() : null;
+    }
+
+    private void committed() {
+      final ORecord current = getLoaded();
+      if (current != null) {
+        version = current.getVersion();
+      }
+      committed = true;
+
+      final ORecord savedRecord = saved.get();
+      if (savedRecord != null && savedRecord != current) {
+        ORecordInternal.setVersion(savedRecord, version);
+        if (savedRecord instanceof ODocument) {
+          ODocumentInternal.clearTransactionTrackData((ODocument) savedRecord);
+        }
+      }
+    }
+
+    @Override
+    public ORID getIdentity() {
+      return rid;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends ORecord> T getRecord() {
+      ORecord current = getLoaded();
+      if (current == null) {
+        current = load(this);
+        record = new WeakReference<>(current);
+      }
+      keepLoaded(current);
+      return (T) current;
+    }
+
+    @Override
+    public void lock(final boolean iExclusive) {
+      rid.lock(iExclusive);
+    }
+
+    @Override
+    public boolean isLocked() {
+      return rid.isLocked();
+    }
+
+    @Override
+    public OStorage.LOCKING_STRATEGY lockingStrategy() {
+      return rid.lockingStrategy();
+    }
+
+    @Override
+    public void unlock() {
+      rid.unlock();
+    }
+
+    @Override
+    public int compareTo(final OIdentifiable other) {
+      return rid.compareTo(other);
+    }
+
+    @Override
+    public int compare(final OIdentifiable first, final OIdentifiable second) {
+      return rid.compare(first, second);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof OIdentifiable && rid.equals(((OIdentifiable) obj).getIdentity());
+    }
+
+    @Override
+    public int hashCode() {
+      return rid.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return rid.toString();
+    }
+  }
+}
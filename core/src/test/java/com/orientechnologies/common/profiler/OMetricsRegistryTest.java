@@ -0,0 +1,68 @@
+package com.orientechnologies.common.profiler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OMetricsRegistryTest {
+
+  @Test
+  public void testHistogramBuckets() {
+    for (long value : new long[] {0, 1, 3, 4, 7, 8, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = OMetricHistogram.bucketIndex(value);
+      Assert.assertTrue(OMetricHistogram.lowestEquivalentValue(index) <= value);
+      Assert.assertTrue(OMetricHistogram.highestEquivalentValue(index) >= value);
+      // the relative error is below 25%
+      Assert.assertTrue(
+          OMetricHistogram.highestEquivalentValue(index)
+                  - OMetricHistogram.lowestEquivalentValue(index)
+              <= value / 4);
+    }
+    Assert.assertEquals(OMetricHistogram.BUCKETS - 1, OMetricHistogram.bucketIndex(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    OMetricHistogram histogram = new OMetricHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    Assert.assertEquals(1000, histogram.getCount());
+    Assert.assertEquals(500500L * 1000, histogram.getSum());
+
+    long median = histogram.getValueAtPercentile(50);
+    Assert.assertTrue(median >= 500_000 && median <= 500_000 * 5 / 4);
+    long max = histogram.getValueAtPercentile(100);
+    Assert.assertTrue(max >= 1_000_000 && max <= 1_000_000 * 5 / 4);
+  }
+
+  @Test
+  public void testPrometheusFormat() throws Exception {
+    OMetricsRegistry registry = new OMetricsRegistry();
+    OMetricCounter counter = registry.counter("test_total", "A counter");
+    counter.add(3);
+    Assert.assertSame(counter, registry.counter("test_total", "A counter"));
+    registry.gauge("test_size", "A gauge", () -> 42);
+    OMetricHistogram histogram = registry.histogram("test_seconds", "A histogram");
+    histogram.record(1_500);
+    histogram.record(2_000_000_000L);
+
+    StringBuilder out = new StringBuilder();
+    registry.writePrometheus(out);
+    String text = out.toString();
+
+    Assert.assertTrue(text.contains("# TYPE test_total counter\ntest_total 3\n"));
+    Assert.assertTrue(text.contains("# TYPE test_size gauge\ntest_size 42\n"));
+    Assert.assertTrue(text.contains("# TYPE test_seconds histogram\n"));
+    Assert.assertTrue(text.contains("test_seconds_bucket{le=\"1.024E-6\"} 0\n"));
+    Assert.assertTrue(text.contains("test_seconds_bucket{le=\"2.048E-6\"} 1\n"));
+    Assert.assertTrue(text.contains("test_seconds_bucket{le=\"+Inf\"} 2\n"));
+    Assert.assertTrue(text.contains("test_seconds_count 2\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeMismatch() {
+    OMetricsRegistry registry = new OMetricsRegistry();
+    registry.counter("test_metric", "A counter");
+    registry.histogram("test_metric", "A histogram");
+  }
+}
@@ -0,0 +1,83 @@
+package com.orientechnologies.orient.core.db.tool;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.OCreateDatabaseUtil;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ODatabaseBinaryExportImportTest {
+
+  @Test
+  public void testExportImportKeepsRidsLinksAndIndexes() {
+    final File directory = new File("target/binaryExport_" + getClass().getSimpleName());
+    OFileUtils.deleteRecursively(directory);
+
+    try (final OrientDB orientDB =
+        OCreateDatabaseUtil.createDatabase(
+            "source", "embedded:", OCreateDatabaseUtil.TYPE_MEMORY)) {
+      final List<ORID> rids = new ArrayList<>();
+      try (final ODatabaseSession db =
+          orientDB.open("source", "admin", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD)) {
+        final OClass cls = db.createClass("Item");
+        cls.createProperty("name", OType.STRING).createIndex(OClass.INDEX_TYPE.UNIQUE);
+
+        for (int i = 0; i < 100; i++) {
+          final ODocument document = new ODocument("Item");
+          document.field("name", "item" + i);
+          document.field("link", rids.isEmpty() ? null : rids.get(rids.size() - 1));
+          final ORidBag bag = new ORidBag();
+          for (ORID rid : rids) bag.add(rid);
+          document.field("bag", bag);
+          db.save(document);
+          rids.add(document.getIdentity());
+        }
+        // DELETED RECORDS LEAVE HOLES IN THE CLUSTER, THE IMPORT HAS TO KEEP THE OTHER POSITIONS
+        db.delete(rids.get(0));
+        db.delete(rids.get(50));
+
+        new ODatabaseBinaryExport((ODatabaseDocumentInternal) db, directory.getPath(), iText -> {})
+            .setOptions("-parallel=2")
+            .exportDatabase();
+      }
+
+      OCreateDatabaseUtil.createDatabase("target", orientDB, OCreateDatabaseUtil.TYPE_MEMORY);
+      try (final ODatabaseSession db =
+          orientDB.open("target", "admin", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD)) {
+        new ODatabaseBinaryImport((ODatabaseDocumentInternal) db, directory.getPath(), iText -> {})
+            .setOptions("-parallel=2")
+            .importDatabase();
+
+        Assert.assertEquals(98, db.countClass("Item"));
+        Assert.assertNull(db.load(rids.get(50)));
+        for (int i = 2; i < 100; i++) {
+          if (i == 50 || i == 51) continue;
+          final ODocument document = db.load(rids.get(i));
+          Assert.assertEquals("item" + i, document.field("name"));
+          Assert.assertEquals(rids.get(i - 1), document.<OIdentifiable>field("link").getIdentity());
+          Assert.assertEquals(i, document.<ORidBag>field("bag").size());
+        }
+
+        try (OResultSet result = db.query("select from Item where name = ?", "item42")) {
+          Assert.assertEquals(rids.get(42), result.next().getIdentity().get());
+        }
+        Assert.assertFalse(
+            db.getMetadata().getSchema().existsClass(ODatabaseImport.EXPORT_IMPORT_CLASS_NAME));
+      }
+    } finally {
+      OFileUtils.deleteRecursively(directory);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package com.orientechnologies.orient.core.index;
+
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.FetchFromIndexStep;
+import com.orientechnologies.orient.core.sql.executor.OQueryStats;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.core.sql.executor.OSelectExecutionPlan;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OIndexStatisticsTest {
+
+  private ODatabaseDocumentInternal db;
+
+  @Before
+  public void before() {
+    db = new ODatabaseDocumentTx("memory:" + OIndexStatisticsTest.class.getSimpleName());
+    db.create();
+  }
+
+  @After
+  public void after() {
+    db.drop();
+  }
+
+  @Test
+  public void testAnalyze() {
+    OClass clazz = db.getMetadata().getSchema().createClass("StatsClass");
+    clazz.createProperty("val", OType.INTEGER);
+    clazz.createIndex("StatsClass.val", OClass.INDEX_TYPE.NOTUNIQUE, "val");
+
+    for (int i = 0; i < 1000; i++) {
+      ODocument doc = new ODocument("StatsClass");
+      doc.field("val", i % 100);
+      doc.save();
+    }
+    for (int i = 0; i < 10; i++) {
+      new ODocument("StatsClass").save();
+    }
+
+    OIndex index = db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsClass.val");
+    Assert.assertNull(OQueryStats.get(db).getIndexStatistics(index));
+
+    OQueryStats.get(db).analyze(db, clazz);
+
+    OIndexStatistics statistics = OQueryStats.get(db).getIndexStatistics(index);
+    Assert.assertNotNull(statistics);
+    Assert.assertEquals(1010, statistics.getEntries());
+    Assert.assertEquals(100, statistics.getDistinctKeys());
+    Assert.assertEquals(10, statistics.getNullEntries());
+    Assert.assertEquals(10, statistics.estimateEquality(1, 1));
+
+    long half = statistics.estimateRange(0, true, 49, true);
+    Assert.assertTrue(half > 400 && half < 600);
+    long all = statistics.estimateRange(null, true, null, true);
+    Assert.assertTrue(all >= 999 && all <= 1001);
+
+    OIndexStatistics copy = OIndexStatistics.fromDocument(statistics.toDocument());
+    Assert.assertEquals(statistics.getEntries(), copy.getEntries());
+    Assert.assertEquals(statistics.getDistinctKeys(), copy.getDistinctKeys());
+    Assert.assertEquals(statistics.getHistogram(), copy.getHistogram());
+  }
+
+  @Test
+  public void testPlannerUsesStatistics() {
+    OClass clazz = db.getMetadata().getSchema().createClass("StatsPlanClass");
+    clazz.createProperty("val", OType.INTEGER);
+    clazz.createIndex("StatsPlanClass.val", OClass.INDEX_TYPE.NOTUNIQUE, "val");
+
+    for (int i = 0; i < 1000; i++) {
+      ODocument doc = new ODocument("StatsPlanClass");
+      doc.field("val", i % 100);
+      doc.save();
+    }
+    OQueryStats.get(db).analyze(db, clazz);
+
+    try (OResultSet result = db.query("select from StatsPlanClass where val = 5")) {
+      Assert.assertEquals(10, result.stream().count());
+      OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+      Assert.assertEquals(FetchFromIndexStep.class, plan.getSteps().get(0).getClass());
+    }
+
+    try (OResultSet result = db.query("select from StatsPlanClass where val >= 10")) {
+      Assert.assertEquals(900, result.stream().count());
+      OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+      Assert.assertNotEquals(FetchFromIndexStep.class, plan.getSteps().get(0).getClass());
+    }
+  }
+
+  @Test
+  public void testPlannerUsesIndexOnSkewedKeys() {
+    OClass clazz = db.getMetadata().getSchema().createClass("StatsSkewedClass");
+    clazz.createProperty("val", OType.INTEGER);
+    clazz.createIndex("StatsSkewedClass.val", OClass.INDEX_TYPE.NOTUNIQUE, "val");
+
+    for (int i = 0; i < 1000; i++) {
+      ODocument doc = new ODocument("StatsSkewedClass");
+      doc.field("val", i < 998 ? 0 : i - 997);
+      doc.save();
+    }
+    OQueryStats.get(db).analyze(db, clazz);
+
+    // the average of 333 entries per key is above the scan ratio, but the key has one entry only
+    try (OResultSet result = db.query("select from StatsSkewedClass where val = 1")) {
+      Assert.assertEquals(1, result.stream().count());
+      OSelectExecutionPlan plan = (OSelectExecutionPlan) result.getExecutionPlan().get();
+      Assert.assertEquals(FetchFromIndexStep.class, plan.getSteps().get(0).getClass());
+    }
+  }
+
+  @Test
+  public void testAnalyzeClassStatement() {
+    OClass clazz = createAnalyzedClass("StatsStatementClass");
+    OIndex index =
+        db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsStatementClass.val");
+
+    try (OResultSet result = db.command("analyze class StatsStatementClass")) {
+      OResult item = result.next();
+      Assert.assertEquals("StatsStatementClass.val", item.getProperty("indexName"));
+      Assert.assertEquals(100L, (long) item.getProperty("entries"));
+      Assert.assertEquals(10L, (long) item.getProperty("distinctKeys"));
+      Assert.assertFalse(result.hasNext());
+    }
+    Assert.assertEquals(100, OQueryStats.get(db).getIndexStatistics(index).getEntries());
+  }
+
+  @Test
+  public void testRebuildRemovesStatistics() {
+    OClass clazz = createAnalyzedClass("StatsRebuildClass");
+    OIndex index = db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsRebuildClass.val");
+    OQueryStats.get(db).analyze(db, clazz);
+    Assert.assertNotNull(OQueryStats.get(db).getIndexStatistics(index));
+
+    db.command("rebuild index StatsRebuildClass.val").close();
+    index = db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsRebuildClass.val");
+    Assert.assertNull(OQueryStats.get(db).getIndexStatistics(index));
+  }
+
+  @Test
+  public void testTruncateRemovesStatistics() {
+    OClass clazz = createAnalyzedClass("StatsTruncateClass");
+    OIndex index =
+        db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsTruncateClass.val");
+    OQueryStats.get(db).analyze(db, clazz);
+    Assert.assertNotNull(OQueryStats.get(db).getIndexStatistics(index));
+
+    db.command("truncate class StatsTruncateClass").close();
+    index = db.getMetadata().getIndexManagerInternal().getIndex(db, "StatsTruncateClass.val");
+    Assert.assertNull(OQueryStats.get(db).getIndexStatistics(index));
+  }
+
+  private OClass createAnalyzedClass(String className) {
+    OClass clazz = db.getMetadata().getSchema().createClass(className);
+    clazz.createProperty("val", OType.INTEGER);
+    clazz.createIndex(className + ".val", OClass.INDEX_TYPE.NOTUNIQUE, "val");
+    for (int i = 0; i < 100; i++) {
+      ODocument doc = new ODocument(className);
+      doc.field("val", i % 10);
+      doc.save();
+    }
+    return clazz;
+  }
+}
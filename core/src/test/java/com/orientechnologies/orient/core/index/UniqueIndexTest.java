@@ -1,14 +1,23 @@
 package com.orientechnologies.orient.core.index;
 
+import com.orientechnologies.common.listener.OProgressListener;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.exception.OInvalidIndexEngineIdException;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.index.engine.v1.OCellBTreeSingleValueIndexEngine;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import java.io.File;
 import java.util.List;
 import org.junit.After;
 import org.junit.Assert;
@@ -92,6 +101,91 @@ public class UniqueIndexTest {
     Assert.assertEquals(result.size(), 1);
   }
 
+  @Test
+  public void testBloomFilter() throws Exception {
+    // plocal, so that the reopen loads the index engine again and builds its filter from the keys
+    final String url =
+        "embedded:"
+            + System.getProperty("buildDirectory", ".")
+            + File.separator
+            + UniqueIndexTest.class.getSimpleName();
+    OrientDB orientDB = new OrientDB(url, OrientDBConfig.defaultConfig());
+    if (orientDB.exists("bloomFilter")) {
+      orientDB.drop("bloomFilter");
+    }
+    orientDB.execute(
+        "create database bloomFilter plocal users (admin identified by 'admin' role admin)");
+    try {
+      ODatabaseSession session = orientDB.open("bloomFilter", "admin", "admin");
+      OClass itemClass = session.getMetadata().getSchema().createClass("BloomItem");
+      itemClass.createProperty("id", OType.LONG);
+      itemClass.createIndex(
+          "BloomItem.id",
+          OClass.INDEX_TYPE.UNIQUE.toString(),
+          (OProgressListener) null,
+          new ODocument().field(OIndex.BLOOM_FILTER, true),
+          new String[] {"id"});
+
+      for (long i = 0; i < 3000; i++) {
+        session.save(new ODocument("BloomItem").field("id", i * 2));
+      }
+
+      // the filter created with the index is full after 1024 keys, a bigger one replaces it
+      OIndexInternal index = itemClass.getClassIndex("BloomItem.id").getInternal();
+      waitForBloomFilter(getEngine(session, index), 2048);
+      for (long i = 0; i < 6000; i++) {
+        Assert.assertEquals(i % 2 == 0 ? 1 : 0, index.getRids(i).count());
+      }
+
+      session.begin();
+      session.save(new ODocument("BloomItem").field("id", 3L));
+      session.rollback();
+      Assert.assertEquals(0, index.getRids(3L).count());
+
+      try {
+        session.save(new ODocument("BloomItem").field("id", 10L));
+        Assert.fail("Expected record duplicate exception");
+      } catch (ORecordDuplicatedException ex) {
+      }
+      session.close();
+      orientDB.close();
+
+      // the filter is built again in the background when the index is loaded, the gets and the
+      // puts do not wait for it
+      orientDB = new OrientDB(url, OrientDBConfig.defaultConfig());
+      session = orientDB.open("bloomFilter", "admin", "admin");
+      itemClass = session.getMetadata().getSchema().getClass("BloomItem");
+      index = itemClass.getClassIndex("BloomItem.id").getInternal();
+      Assert.assertEquals(1, index.getRids(1998L).count());
+      session.save(new ODocument("BloomItem").field("id", 5L));
+
+      waitForBloomFilter(getEngine(session, index), 6000);
+      for (long i = 0; i < 6000; i++) {
+        Assert.assertEquals(i % 2 == 0 || i == 5 ? 1 : 0, index.getRids(i).count());
+      }
+      session.close();
+    } finally {
+      orientDB.drop("bloomFilter");
+      orientDB.close();
+    }
+  }
+
+  private static OCellBTreeSingleValueIndexEngine getEngine(
+      ODatabaseSession session, OIndexInternal index) throws OInvalidIndexEngineIdException {
+    final OAbstractPaginatedStorage storage =
+        (OAbstractPaginatedStorage) ((ODatabaseDocumentInternal) session).getStorage();
+    return (OCellBTreeSingleValueIndexEngine) storage.getIndexEngine(index.getIndexId());
+  }
+
+  private static void waitForBloomFilter(OCellBTreeSingleValueIndexEngine engine, long capacity)
+      throws InterruptedException {
+    final long timeout = System.currentTimeMillis() + 60_000;
+    while (engine.getBloomFilterCapacity() < capacity) {
+      Assert.assertTrue("The Bloom filter is not built", System.currentTimeMillis() < timeout);
+      Thread.sleep(10);
+    }
+  }
+
   @After
   public void after() {
     db.drop();
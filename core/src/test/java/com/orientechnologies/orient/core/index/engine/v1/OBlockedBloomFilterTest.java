@@ -0,0 +1,51 @@
+package com.orientechnologies.orient.core.index.engine.v1;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OBlockedBloomFilterTest {
+
+  @Test
+  public void testNoFalseNegatives() {
+    OBlockedBloomFilter filter = new OBlockedBloomFilter(10_000, 10);
+    Random random = new Random(42);
+    long[] hashes = new long[10_000];
+    for (int i = 0; i < hashes.length; i++) {
+      hashes[i] = random.nextLong();
+      filter.add(hashes[i]);
+    }
+    for (long hash : hashes) {
+      Assert.assertTrue(filter.mightContain(hash));
+    }
+    Assert.assertFalse(filter.isFull());
+  }
+
+  @Test
+  public void testFalsePositiveRate() {
+    OBlockedBloomFilter filter = new OBlockedBloomFilter(10_000, 10);
+    Random random = new Random(42);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add(random.nextLong());
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain(random.nextLong())) {
+        falsePositives++;
+      }
+    }
+    Assert.assertTrue("false positives: " + falsePositives, falsePositives < 3_000);
+  }
+
+  @Test
+  public void testFull() {
+    OBlockedBloomFilter filter = new OBlockedBloomFilter(10, 10);
+    for (int i = 0; i < 11; i++) {
+      filter.add(i);
+    }
+    Assert.assertTrue(filter.isFull());
+    for (int i = 0; i < 11; i++) {
+      Assert.assertTrue(filter.mightContain(i));
+    }
+  }
+}
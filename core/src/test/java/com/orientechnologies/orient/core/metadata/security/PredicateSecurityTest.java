@@ -499,4 +499,93 @@ public class PredicateSecurityTest {
       Assert.assertEquals(1, rids.count());
     }
   }
+
+  @Test
+  public void testSqlReadPredicateIsUsedByPlanner() {
+    OSecurityInternal security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+
+    OClass person = db.createClass("Person");
+    person.createProperty("tenant", OType.STRING);
+    db.command("create index Person.tenant on Person (tenant) NOTUNIQUE");
+    db.command("update OUser set tenant = 'foo' where name = 'reader'");
+
+    OSecurityPolicyImpl policy = security.createSecurityPolicy(db, "testPolicy");
+    policy.setActive(true);
+    policy.setReadRule("tenant = $currentUser.tenant");
+    security.saveSecurityPolicy(db, policy);
+    security.setSecurityPolicy(db, security.getRole(db, "reader"), "database.class.Person", policy);
+
+    for (int i = 0; i < 10; i++) {
+      OElement elem = db.newElement("Person");
+      elem.setProperty("tenant", i < 3 ? "foo" : "bar");
+      elem.setProperty("name", "name" + i);
+      db.save(elem);
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "reader", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD); // "reader"
+
+    try (OResultSet rs = db.query("explain select from Person")) {
+      String plan = rs.next().getProperty("executionPlanAsString");
+      Assert.assertTrue(plan, plan.contains("FETCH FROM INDEX Person.tenant"));
+    }
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(3, rs.stream().count());
+    }
+    try (OResultSet rs = db.query("select from Person where name = 'name5'")) {
+      Assert.assertFalse(rs.hasNext());
+    }
+    try (OResultSet rs = db.query("select count(*) as count from Person")) {
+      Assert.assertEquals(3L, (long) rs.next().getProperty("count"));
+    }
+  }
+
+  @Test
+  public void testSqlReadPredicateOnLinkIsNotUsedByPlanner() {
+    OSecurityInternal security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+
+    db.createClass("Company");
+    OClass person = db.createClass("Person");
+    person.createProperty("company", OType.LINK);
+
+    OSecurityPolicyImpl companyPolicy = security.createSecurityPolicy(db, "companyPolicy");
+    companyPolicy.setActive(true);
+    companyPolicy.setReadRule("false");
+    security.saveSecurityPolicy(db, companyPolicy);
+    security.setSecurityPolicy(
+        db, security.getRole(db, "reader"), "database.class.Company", companyPolicy);
+
+    OSecurityPolicyImpl personPolicy = security.createSecurityPolicy(db, "personPolicy");
+    personPolicy.setActive(true);
+    personPolicy.setReadRule("company.name = 'foo'");
+    security.saveSecurityPolicy(db, personPolicy);
+    security.setSecurityPolicy(
+        db, security.getRole(db, "reader"), "database.class.Person", personPolicy);
+
+    OElement foo = db.newElement("Company");
+    foo.setProperty("name", "foo");
+    db.save(foo);
+    OElement bar = db.newElement("Company");
+    bar.setProperty("name", "bar");
+    db.save(bar);
+    for (int i = 0; i < 10; i++) {
+      OElement elem = db.newElement("Person");
+      elem.setProperty("company", i < 3 ? foo : bar);
+      elem.setProperty("name", "name" + i);
+      db.save(elem);
+    }
+
+    db.close();
+    this.db = orient.open(DB_NAME, "reader", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD); // "reader"
+    security = ((ODatabaseInternal) db).getSharedContext().getSecurity();
+
+    // the reader cannot load the companies, the policy is evaluated with no permission checks
+    Assert.assertNull(security.getReadPredicateForQuery(db, "Person"));
+    try (OResultSet rs = db.query("select from Person")) {
+      Assert.assertEquals(3, rs.stream().count());
+    }
+    try (OResultSet rs = db.query("select from Person where name = 'name1'")) {
+      Assert.assertTrue(rs.hasNext());
+    }
+  }
 }
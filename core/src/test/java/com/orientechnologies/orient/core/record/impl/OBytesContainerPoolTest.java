@@ -0,0 +1,67 @@
+package com.orientechnologies.orient.core.record.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OBytesContainerPool;
+import org.junit.Test;
+
+public class OBytesContainerPoolTest {
+
+  @Test
+  public void testReuse() {
+    BytesContainer first = OBytesContainerPool.acquire();
+    first.alloc(1000);
+    byte[] bytes = first.bytes;
+    OBytesContainerPool.release(first);
+
+    BytesContainer second = OBytesContainerPool.acquire();
+    assertSame(first, second);
+    assertSame(bytes, second.bytes);
+    assertEquals(0, second.offset);
+    OBytesContainerPool.release(second);
+  }
+
+  @Test
+  public void testNested() {
+    BytesContainer outer = OBytesContainerPool.acquire();
+    BytesContainer inner = OBytesContainerPool.acquire();
+    assertNotSame(outer, inner);
+    assertNotSame(outer.bytes, inner.bytes);
+    OBytesContainerPool.release(inner);
+    OBytesContainerPool.release(outer);
+  }
+
+  @Test
+  public void testBigBuffersAreNotKept() {
+    BytesContainer container = OBytesContainerPool.acquire();
+    int maxSize = OGlobalConfiguration.RECORD_SERIALIZATION_BUFFER_MAX_SIZE.getValueAsInteger();
+    container.alloc(maxSize + 1);
+    byte[] bytes = container.bytes;
+    OBytesContainerPool.release(container);
+
+    container = OBytesContainerPool.acquire();
+    assertNotSame(bytes, container.bytes);
+    OBytesContainerPool.release(container);
+  }
+
+  @Test
+  public void testToBytesCopiesContent() {
+    BytesContainer container = OBytesContainerPool.acquire();
+    int pos = container.alloc(3);
+    container.bytes[pos] = 1;
+    container.bytes[pos + 1] = 2;
+    container.bytes[pos + 2] = 3;
+    byte[] content = OBytesContainerPool.toBytes(container);
+    OBytesContainerPool.release(container);
+
+    container = OBytesContainerPool.acquire();
+    container.bytes[container.alloc(1)] = 9;
+    OBytesContainerPool.release(container);
+    assertArrayEquals(new byte[] {1, 2, 3}, content);
+  }
+}
@@ -0,0 +1,136 @@
+package com.orientechnologies.orient.core.sql.executor;
+
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OSQLEngine;
+import com.orientechnologies.orient.core.sql.functions.OSQLFunctionAbstract;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OQueryStatsProfilingTest {
+  private ODatabaseDocument db;
+  private int oldSamplingInterval;
+
+  @Before
+  public void before() {
+    oldSamplingInterval =
+        OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.getValueAsInteger();
+    db = new ODatabaseDocumentTx("memory:" + OQueryStatsProfilingTest.class.getSimpleName());
+    db.create();
+    db.createClass("Profiled");
+    for (int i = 0; i < 10; i++) {
+      db.save(new ODocument("Profiled").field("id", i).field("name", "name" + i));
+    }
+    OQueryStats.get((ODatabaseDocumentInternal) db).resetStatementProfiles();
+  }
+
+  @After
+  public void after() {
+    OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.setValue(oldSamplingInterval);
+    db.drop();
+  }
+
+  @Test
+  public void testNormalizeStatement() {
+    Assert.assertEquals(
+        "select from Foo where a = ? and b = ? and c1 = ?",
+        OQueryStats.normalizeStatement("select  from Foo where a = 'x' and b = 12 and\nc1 = 1.5"));
+    Assert.assertEquals(
+        "select from `Foo 1` where name = ?",
+        OQueryStats.normalizeStatement("select from `Foo 1` where name = \"a \\\" b\""));
+  }
+
+  @Test
+  public void testAggregateByStatement() {
+    OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.setValue(0);
+    for (int i = 0; i < 5; i++) {
+      try (OResultSet rs = db.query("select from Profiled where id = " + i)) {
+        Assert.assertEquals(1, rs.stream().count());
+      }
+    }
+
+    OResult stats = findStatement("select from Profiled where id = ?");
+    Assert.assertEquals(5L, (long) stats.getProperty("executions"));
+    Assert.assertEquals(5L, (long) stats.getProperty("rows"));
+    Assert.assertEquals(0L, (long) stats.getProperty("sampledExecutions"));
+    Assert.assertNull(stats.getProperty("lastSampledPlan"));
+  }
+
+  @Test
+  public void testSampledExecution() {
+    OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.setValue(1);
+    try (OResultSet rs = db.query("select from Profiled where name = 'name3'")) {
+      Assert.assertEquals(1, rs.stream().count());
+    }
+
+    OResult stats = findStatement("select from Profiled where name = ?");
+    Assert.assertEquals(1L, (long) stats.getProperty("executions"));
+    Assert.assertEquals(1L, (long) stats.getProperty("sampledExecutions"));
+    String plan = stats.getProperty("lastSampledPlan");
+    Assert.assertNotNull(plan);
+    Assert.assertTrue(plan.contains("FETCH FROM CLASS Profiled"));
+    Assert.assertTrue(plan.contains("μs"));
+  }
+
+  @Test
+  public void testSampledExecutionCountsIteration() {
+    OGlobalConfiguration.QUERY_PROFILING_SAMPLING_INTERVAL.setValue(1);
+    final String functionName = getClass().getSimpleName() + "_sleep";
+    OSQLEngine.getInstance()
+        .registerFunction(
+            functionName,
+            new OSQLFunctionAbstract(functionName, 0, 0) {
+              @Override
+              public Object execute(
+                  Object iThis,
+                  OIdentifiable iCurrentRecord,
+                  Object iCurrentResult,
+                  Object[] iParams,
+                  OCommandContext iContext) {
+                try {
+                  Thread.sleep(2);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                return true;
+              }
+
+              @Override
+              public String getSyntax() {
+                return functionName + "()";
+              }
+            });
+    try {
+      try (OResultSet rs = db.query("select from Profiled where " + functionName + "() = true")) {
+        Assert.assertEquals(10, rs.stream().count());
+      }
+    } finally {
+      OSQLEngine.getInstance().unregisterFunction(functionName);
+    }
+
+    OResult stats = findStatement("select from Profiled where " + functionName + "() = true");
+    Assert.assertEquals(1L, (long) stats.getProperty("sampledExecutions"));
+    // the filter runs while the results are iterated, ten rows sleeping 2ms each
+    Assert.assertTrue((double) stats.getProperty("totalTimeMs") >= 20.0);
+    Assert.assertTrue(
+        (double) stats.getProperty("averagePagesHit")
+                + (double) stats.getProperty("averagePagesRead")
+            > 0);
+  }
+
+  private OResult findStatement(String statement) {
+    try (OResultSet rs = db.query("select from metadata:queryStats")) {
+      return rs.stream()
+          .filter(x -> statement.equals(x.getProperty("statement")))
+          .findFirst()
+          .orElseThrow(() -> new AssertionError("statement not profiled: " + statement));
+    }
+  }
+}
@@ -1927,6 +1927,46 @@ public class OSelectStatementExecutionTest {
     result.close();
   }
 
+  @Test
+  public void testInLargeSubquery() {
+    String className = "testInLargeSubquery";
+    db.getMetadata().getSchema().createClass(className);
+
+    for (int i = 0; i < 100; i++) {
+      ODocument doc = db.newInstance(className);
+      doc.setProperty("name", "name" + i);
+      doc.setProperty("num", i);
+      doc.save();
+    }
+
+    try (OResultSet result =
+        db.query(
+            "select from "
+                + className
+                + " where name in (select name from "
+                + className
+                + " where num < 50) and num in (select num from "
+                + className
+                + " where num >= 40)")) {
+      Set<Integer> nums = new HashSet<>();
+      result.forEachRemaining(x -> nums.add(x.getProperty("num")));
+      Assert.assertEquals(10, nums.size());
+      for (int i = 40; i < 50; i++) {
+        Assert.assertTrue(nums.contains(i));
+      }
+    }
+
+    try (OResultSet result =
+        db.query(
+            "select count(*) as count from "
+                + className
+                + " where @rid not in (select from "
+                + className
+                + " where num < 30)")) {
+      Assert.assertEquals(70L, (long) result.next().getProperty("count"));
+    }
+  }
+
   @Test
   public void testLet6() {
     String className = "testLet6";
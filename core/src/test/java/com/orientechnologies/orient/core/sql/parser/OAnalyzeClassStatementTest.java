@@ -0,0 +1,24 @@
+package com.orientechnologies.orient.core.sql.parser;
+
+import org.junit.Test;
+
+public class OAnalyzeClassStatementTest extends OParserTestAbstract {
+
+  @Test
+  public void testPlain() {
+    checkRightSyntax("ANALYZE CLASS Foo");
+    checkRightSyntax("analyze class Foo");
+    checkRightSyntax("analyze class `Foo bar`");
+    checkWrongSyntax("analyze class Foo bar");
+    checkWrongSyntax("analyze clazz Foo");
+    checkWrongSyntax("analyze Foo");
+    checkWrongSyntax("analise class Foo");
+  }
+
+  @Test
+  public void testIdentifier() {
+    checkRightSyntax("select analyze from Foo");
+    checkRightSyntax("select from Foo where analyze = 1");
+    checkRightSyntax("create class analyze");
+  }
+}
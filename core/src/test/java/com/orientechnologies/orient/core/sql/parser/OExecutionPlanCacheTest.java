@@ -1,5 +1,7 @@
 package com.orientechnologies.orient.core.sql.parser;
 
+import com.orientechnologies.common.profiler.OMetricCounter;
+import com.orientechnologies.common.profiler.OMetricsRegistry;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OProperty;
@@ -33,28 +35,96 @@ public class OExecutionPlanCacheTest {
     Assert.assertTrue(cache.contains(stm));
 
     OClass clazz = db.getMetadata().getSchema().createClass(testName);
-    Assert.assertFalse(cache.contains(stm));
+    // the new class is not related to OUser
+    Assert.assertTrue(cache.contains(stm));
 
+    String classStm = "SELECT FROM " + testName + " WHERE name = 'foo'";
     Thread.sleep(2);
 
     // schema changes 2
-    db.query(stm).close();
+    db.query(classStm).close();
     cache = OExecutionPlanCache.instance(db);
-    Assert.assertTrue(cache.contains(stm));
+    Assert.assertTrue(cache.contains(classStm));
 
     OProperty prop = clazz.createProperty("name", OType.STRING);
-    Assert.assertFalse(cache.contains(stm));
+    Assert.assertFalse(cache.contains(classStm));
+    Assert.assertTrue(cache.contains(stm));
 
     Thread.sleep(2);
 
     // index changes
-    db.query(stm).close();
+    db.query(classStm).close();
     cache = OExecutionPlanCache.instance(db);
-    Assert.assertTrue(cache.contains(stm));
+    Assert.assertTrue(cache.contains(classStm));
 
     prop.createIndex(OClass.INDEX_TYPE.NOTUNIQUE);
-    Assert.assertFalse(cache.contains(stm));
+    Assert.assertFalse(cache.contains(classStm));
+    Assert.assertTrue(cache.contains(stm));
+
+    Thread.sleep(2);
+
+    // subclass changes
+    db.query(classStm).close();
+    Assert.assertTrue(cache.contains(classStm));
+
+    db.getMetadata().getSchema().createClass(testName + "Sub", clazz);
+    Assert.assertFalse(cache.contains(classStm));
+    Assert.assertTrue(cache.contains(stm));
+
+        db.close();
+  }
+
+  @Test
+  public void testNormalizedStatement() throws InterruptedException {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OExecutionPlanCacheTestNormalized");
+    db.create();
+    try {
+      OExecutionPlanCache cache = OExecutionPlanCache.instance(db);
+      Thread.sleep(2);
+
+      long hits = cache.getHits();
+      db.query("SELECT FROM OUser WHERE name = 'a  b'").close();
+      Assert.assertTrue(cache.contains("SELECT   FROM OUser\n WHERE name = 'a  b' "));
+      Assert.assertFalse(cache.contains("SELECT FROM OUser WHERE name = 'a b'"));
+
+      db.query(" SELECT FROM  OUser WHERE name = 'a  b'").close();
+      Assert.assertTrue(cache.getHits() > hits);
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testRebuildsAfterInvalidation() throws InterruptedException {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx("memory:OExecutionPlanCacheTestRebuilds");
+    db.create();
+    try {
+      OExecutionPlanCache cache = OExecutionPlanCache.instance(db);
+      OClass clazz = db.getMetadata().getSchema().createClass("testRebuildsAfterInvalidation");
+      String stm = "SELECT FROM testRebuildsAfterInvalidation WHERE name = 'foo'";
+      String rebuildsName = OMetricsRegistry.PLAN_CACHE + "_rebuilds_total";
+      OMetricCounter rebuildsMetric =
+          (OMetricCounter) OMetricsRegistry.instance().getMetric(rebuildsName);
+      Thread.sleep(2);
+
+      db.query(stm).close();
+      Assert.assertTrue(cache.contains(stm));
+      long invalidations = cache.getInvalidations();
+      long rebuilds = cache.getRebuilds();
+      long exportedRebuilds = rebuildsMetric.get();
+
+      clazz.createProperty("name", OType.STRING);
+      Assert.assertFalse(cache.contains(stm));
+      Assert.assertTrue(cache.getInvalidations() > invalidations);
+      Assert.assertEquals(rebuilds, cache.getRebuilds());
 
-    db.close();
+      Thread.sleep(2);
+      db.query(stm).close();
+      Assert.assertTrue(cache.contains(stm));
+      Assert.assertEquals(rebuilds + 1, cache.getRebuilds());
+      Assert.assertTrue(rebuildsMetric.get() > exportedRebuilds);
+    } finally {
+      db.drop();
+    }
   }
 }
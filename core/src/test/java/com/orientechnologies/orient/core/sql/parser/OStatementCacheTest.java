@@ -23,4 +23,20 @@ public class OStatementCacheTest {
     Assert.assertTrue(cache.contains("select from foo"));
     Assert.assertFalse(cache.contains("select from baz"));
   }
+
+  @Test
+  public void testNormalize() {
+    Assert.assertEquals("select from foo", OStatementCache.normalize("  select\n\tfrom   foo "));
+    Assert.assertEquals(
+        "select from foo where name = ' a  b\\' c '",
+        OStatementCache.normalize("select from foo where name =  ' a  b\\' c '"));
+    Assert.assertEquals(
+        "select `a  b` from foo", OStatementCache.normalize("select `a  b`   from foo"));
+
+    OStatementCache cache = new OStatementCache(10);
+    OStatement statement = cache.get("select from foo");
+    Assert.assertSame(statement, cache.get("select\nfrom  foo"));
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+  }
 }
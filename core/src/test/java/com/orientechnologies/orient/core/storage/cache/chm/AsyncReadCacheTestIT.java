@@ -26,6 +26,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -187,6 +188,38 @@ public class AsyncReadCacheTestIT {
     readCache.assertSize();
   }
 
+  @Test
+  public void testReadAhead() throws Exception {
+    final int pageSize = 4 * 1024;
+
+    final ODirectMemoryAllocator allocator = new ODirectMemoryAllocator();
+    final OByteBufferPool byteBufferPool = new OByteBufferPool(pageSize, allocator, 256);
+    final long maxMemory = 64 * 1024 * 1024;
+
+    final AsyncReadCache readCache =
+        new AsyncReadCache(byteBufferPool, maxMemory, pageSize, true, 64);
+    final MockedWriteCache writeCache = new MockedWriteCache(byteBufferPool);
+
+    final int pageCount = 10_000;
+    for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+      final OCacheEntry cacheEntry = readCache.loadForRead(1, pageIndex, true, writeCache, true);
+      readCache.releaseFromRead(cacheEntry, writeCache);
+    }
+
+    Assert.assertTrue(writeCache.loadedAhead.get() > 0);
+    Assert.assertTrue(readCache.getReadAheadPages() > 0);
+    System.out.println(
+        "Pages loaded ahead "
+            + readCache.getReadAheadPages()
+            + ", wasted "
+            + readCache.getReadAheadWastedPages()
+            + ", hit rate "
+            + readCache.hitRate());
+
+    readCache.clear();
+    readCache.assertSize();
+  }
+
   private static final class PageWriter implements Callable<Void> {
     private final int fileLimit;
     private final int pageLimit;
@@ -340,6 +373,7 @@ public class AsyncReadCacheTestIT {
 
   private static final class MockedWriteCache implements OWriteCache {
     private final OByteBufferPool byteBufferPool;
+    private final AtomicLong loadedAhead = new AtomicLong();
 
     MockedWriteCache(final OByteBufferPool byteBufferPool) {
       this.byteBufferPool = byteBufferPool;
@@ -427,6 +461,31 @@ public class AsyncReadCacheTestIT {
       return cachePointer;
     }
 
+    @Override
+    public OCachePointer[] loadAhead(
+        final long fileId,
+        final long startPageIndex,
+        final int pageCount,
+        final boolean verifyChecksums) {
+      loadedAhead.addAndGet(pageCount);
+      final OCachePointer[] pointers = new OCachePointer[pageCount];
+      for (int i = 0; i < pageCount; i++) {
+        pointers[i] =
+            load(fileId, startPageIndex + i, new OModifiableBoolean(), verifyChecksums);
+      }
+      return pointers;
+    }
+
+    @Override
+    public boolean isPageCached(final long fileId, final long pageIndex) {
+      return false;
+    }
+
+    @Override
+    public long getFlushedPagesStamp(final long fileId) {
+      return 0;
+    }
+
     @Override
     public void flush(final long fileId) {}
 
@@ -8,6 +8,7 @@ import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import org.junit.Assert;
@@ -132,6 +133,35 @@ public class AsyncFileTest {
     file.close();
   }
 
+  @Test
+  public void testReadSeveralChunks() throws Exception {
+    AsyncFile file = new AsyncFile(buildDirectoryPath, 1);
+    file.create();
+
+    final long position = file.allocateSpace(3 * 512);
+
+    final byte[] data = new byte[3 * 512];
+    final Random random = new Random();
+    random.nextBytes(data);
+
+    file.write(position, ByteBuffer.wrap(data));
+
+    final List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      buffers.add(ByteBuffer.allocate(512));
+    }
+
+    final IOResult result = file.read(position, buffers);
+    result.await();
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertArrayEquals(
+          Arrays.copyOfRange(data, i * 512, (i + 1) * 512), buffers.get(i).array());
+    }
+
+    file.close();
+  }
+
   @Test
   public void testOpenWriteSeveralChunks() throws Exception {
     AsyncFile file = new AsyncFile(buildDirectoryPath, 1);
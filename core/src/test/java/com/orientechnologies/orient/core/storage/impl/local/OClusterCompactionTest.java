@@ -0,0 +1,100 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.orient.core.OCreateDatabaseUtil;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OClusterCompactionTest {
+  private ODatabaseSession db;
+  private OrientDB orientDb;
+
+  @Before
+  public void before() {
+    orientDb =
+        new OrientDB(
+            "embedded:",
+            OrientDBConfig.builder()
+                .addConfig(OGlobalConfiguration.CLASS_MINIMUM_CLUSTERS, 1)
+                .addConfig(OGlobalConfiguration.CREATE_DEFAULT_USERS, false)
+                .addConfig(OGlobalConfiguration.STORAGE_COMPACTION_PAGES_PER_SECOND, 0)
+                .build());
+    orientDb.execute(
+        "create database test memory users ( admin identified by '"
+            + OCreateDatabaseUtil.NEW_ADMIN_PASSWORD
+            + "' role admin)");
+    db = orientDb.open("test", "admin", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD);
+    db.createClass("Compacted");
+  }
+
+  @After
+  public void after() {
+    db.close();
+    orientDb.close();
+  }
+
+  @Test
+  public void testCompaction() {
+    final StringBuilder payload = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      payload.append("payload-");
+    }
+
+    final Map<ORID, Integer> kept = new HashMap<>();
+    for (int i = 0; i < 2000; i++) {
+      final ODocument doc = new ODocument("Compacted");
+      doc.field("id", i);
+      doc.field("payload", payload.toString());
+      db.save(doc);
+      if (i >= 1800) {
+        kept.put(doc.getIdentity(), i);
+      }
+    }
+    db.command("delete from Compacted where id < 1800").close();
+
+    final int clusterId = db.getClass("Compacted").getDefaultClusterId();
+    final OAbstractPaginatedStorage storage =
+        (OAbstractPaginatedStorage) ((ODatabaseDocumentInternal) db).getStorage();
+
+    final OClusterCompaction compaction = storage.compactCluster(clusterId);
+    Assert.assertFalse(compaction.isRunning());
+    Assert.assertEquals(200, compaction.getScannedRecords());
+    Assert.assertTrue(compaction.getMovedRecords() > 0);
+    Assert.assertTrue(compaction.getReleasedPages() > 0);
+    Assert.assertEquals(100, compaction.getProgress());
+    Assert.assertEquals(
+        compaction.getInitialDataPages() - compaction.getReleasedPages(),
+        storage.getClusterDataPagesCount(clusterId));
+
+    db.getLocalCache().clear();
+    Assert.assertEquals(200, db.countClass("Compacted"));
+    for (Map.Entry<ORID, Integer> entry : kept.entrySet()) {
+      final ODocument doc = db.load(entry.getKey());
+      Assert.assertNotNull(doc);
+      Assert.assertEquals(entry.getValue(), doc.field("id"));
+      Assert.assertEquals(payload.toString(), doc.field("payload"));
+      Assert.assertEquals(1, doc.getVersion());
+    }
+
+    // released pages are reused by new records
+    for (int i = 0; i < 100; i++) {
+      final ODocument doc = new ODocument("Compacted");
+      doc.field("id", 2000 + i);
+      doc.field("payload", payload.toString());
+      db.save(doc);
+    }
+    Assert.assertEquals(300, db.countClass("Compacted"));
+    Assert.assertTrue(
+        storage.getClusterDataPagesCount(clusterId) <= compaction.getInitialDataPages());
+  }
+}
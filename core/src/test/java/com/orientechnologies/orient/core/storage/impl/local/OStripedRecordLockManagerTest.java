@@ -0,0 +1,152 @@
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import com.orientechnologies.common.concur.lock.OLockException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OStripedRecordLockManagerTest {
+
+  @Test
+  public void testReadWrite() {
+    OStripedRecordLockManager manager = new OStripedRecordLockManager();
+    ORID rid = new ORecordId(10, 20);
+    manager.acquireReadLock(rid, 0);
+    manager.acquireReadLock(new ORecordId(10, 20), 0);
+    try {
+      manager.acquireWriteLock(rid, 10);
+      Assert.fail();
+    } catch (OLockException e) {
+      // expected
+    }
+    manager.releaseReadLock(rid);
+    manager.releaseReadLock(rid);
+    manager.acquireWriteLock(rid, 10);
+    try {
+      manager.acquireReadLock(rid, 10);
+      Assert.fail();
+    } catch (OLockException e) {
+      // expected
+    }
+    try {
+      manager.releaseReadLock(rid);
+      Assert.fail();
+    } catch (OLockException e) {
+      // expected
+    }
+    manager.releaseWriteLock(rid);
+    manager.acquireReadLock(rid, 10);
+    manager.releaseReadLock(rid);
+  }
+
+  @Test
+  public void testBatchIsAllOrNothing() {
+    OStripedRecordLockManager manager = new OStripedRecordLockManager();
+    List<ORID> rids = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rids.add(new ORecordId(i % 7, i));
+    }
+    rids.add(new ORecordId(3, 10));
+
+    manager.acquireWriteLock(new ORecordId(3, 500), 0);
+    try {
+      manager.acquireWriteLocks(rids, 10);
+      Assert.fail();
+    } catch (OLockException e) {
+      // expected
+    }
+    manager.releaseWriteLock(new ORecordId(3, 500));
+
+    // nothing is left locked by the failed batch
+    for (ORID rid : rids) {
+      manager.acquireWriteLock(rid, 10);
+      manager.releaseWriteLock(rid);
+    }
+
+    OStripedRecordLockManager.LockedRecords locked = manager.acquireWriteLocks(rids, 10);
+    Assert.assertEquals(1000, locked.size());
+    try {
+      manager.acquireReadLock(new ORecordId(3, 10), 10);
+      Assert.fail();
+    } catch (OLockException e) {
+      // expected
+    }
+    manager.releaseWriteLocks(locked);
+    for (ORID rid : rids) {
+      manager.acquireWriteLock(rid, 10);
+      manager.releaseWriteLock(rid);
+    }
+  }
+
+  @Test
+  public void testBatchWaitsForRelease() throws Exception {
+    OStripedRecordLockManager manager = new OStripedRecordLockManager();
+    ORID rid = new ORecordId(1, 1);
+    manager.acquireReadLock(rid, 0);
+
+    CountDownLatch acquired = new CountDownLatch(1);
+    Thread thread =
+        new Thread(
+            () -> {
+              manager.releaseWriteLocks(
+                  manager.acquireWriteLocks(Collections.singletonList(new ORecordId(1, 1)), 0));
+              acquired.countDown();
+            });
+    thread.start();
+
+    Assert.assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+    manager.releaseReadLock(rid);
+    Assert.assertTrue(acquired.await(10, TimeUnit.SECONDS));
+    thread.join();
+  }
+
+  @Test
+  public void testConcurrentBatchesDoNotDeadlock() throws Exception {
+    OStripedRecordLockManager manager = new OStripedRecordLockManager(4);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger inside = new AtomicInteger();
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int seed = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int n = 0; n < 200; n++) {
+                    List<ORID> rids = new ArrayList<>();
+                    for (int i = 0; i < 50; i++) {
+                      rids.add(new ORecordId(i % 3, (seed * 31 + n * 7 + i * 13) % 100));
+                    }
+                    rids.add(new ORecordId(0, 1000));
+                    Collections.shuffle(rids);
+                    OStripedRecordLockManager.LockedRecords locked =
+                        manager.acquireWriteLocks(rids, 0);
+                    try {
+                      // every batch contains #0:1000, so only one batch at a time can be here
+                      Assert.assertEquals(1, inside.incrementAndGet());
+                      inside.decrementAndGet();
+                    } finally {
+                      manager.releaseWriteLocks(locked);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -5,6 +5,11 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -32,6 +37,57 @@ public abstract class OLocalHashTableV3Base {
     }
   }
 
+  @Test
+  public void testGetDoesNotWaitForWriters() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      final int key = i;
+      atomicOperationsManager.executeInsideAtomicOperation(
+          null, atomicOperation -> localHashTable.put(atomicOperation, key, String.valueOf(key)));
+    }
+
+    final CountDownLatch putDone = new CountDownLatch(1);
+    final CountDownLatch readDone = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<?> writer =
+          executor.submit(
+              () -> {
+                atomicOperationsManager.executeInsideAtomicOperation(
+                    null,
+                    atomicOperation -> {
+                      for (int i = 1000; i < 2000; i++) {
+                        localHashTable.put(atomicOperation, i, String.valueOf(i));
+                      }
+                      putDone.countDown();
+                      readDone.await();
+                    });
+                return null;
+              });
+
+      putDone.await();
+      // the writer holds the lock of the table till the end of its atomic operation
+      final Future<?> reader =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < 2000; i++) {
+                  Assert.assertEquals(i < 1000 ? String.valueOf(i) : null, localHashTable.get(i));
+                }
+                return null;
+              });
+      reader.get(10, TimeUnit.SECONDS);
+
+      readDone.countDown();
+      writer.get();
+    } finally {
+      readDone.countDown();
+      executor.shutdown();
+    }
+
+    for (int i = 0; i < 2000; i++) {
+      Assert.assertEquals(String.valueOf(i), localHashTable.get(i));
+    }
+  }
+
   @Test
   public void testKeyPutRandomUniform() throws IOException {
     final Set<Integer> keys = new HashSet<Integer>();
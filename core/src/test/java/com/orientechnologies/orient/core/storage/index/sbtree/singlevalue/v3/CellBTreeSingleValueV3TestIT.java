@@ -15,6 +15,7 @@ import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -22,6 +23,7 @@ import java.util.NavigableSet;
 import java.util.Random;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.After;
 import org.junit.Assert;
@@ -176,6 +178,44 @@ public class CellBTreeSingleValueV3TestIT {
     }
   }
 
+  @Test
+  public void testKeyPutNonAscii() throws Exception {
+    // characters from U+E000 to U+FFFF follow the supplementary ones in UTF-8 but not in UTF-16
+    final int[] codePoints = {'a', 'b', 0xE9, 0x4E2D, 0xD7FF, 0xE000, 0xFFFD, 0x1F600, 0x10FFFF};
+    final NavigableMap<String, ORID> keyValues = new TreeMap<>();
+    final Random random = new Random();
+    final int keysCount = 50_000;
+
+    atomicOperationsManager.executeInsideAtomicOperation(
+        null,
+        atomicOperation -> {
+          while (keyValues.size() < keysCount) {
+            final StringBuilder builder = new StringBuilder();
+            final int length = 1 + random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+              builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+            }
+            final String key = builder.toString();
+            final ORID value = new ORecordId(keyValues.size() % 32000, keyValues.size());
+            if (!keyValues.containsKey(key)) {
+              singleValueTree.put(atomicOperation, key, value);
+              keyValues.put(key, value);
+            }
+          }
+        });
+
+    Assert.assertEquals(keyValues.firstKey(), singleValueTree.firstKey());
+    Assert.assertEquals(keyValues.lastKey(), singleValueTree.lastKey());
+    Assert.assertEquals(
+        new ArrayList<>(keyValues.keySet()),
+        singleValueTree.keyStream().collect(Collectors.toList()));
+    for (Map.Entry<String, ORID> entry : keyValues.entrySet()) {
+      Assert.assertEquals(entry.getValue(), singleValueTree.get(entry.getKey()));
+    }
+    Assert.assertNull(singleValueTree.get("a\uD800"));
+    Assert.assertNull(singleValueTree.get("c"));
+  }
+
   @Test
   public void testKeyPutRandomGaussian() throws Exception {
     NavigableSet<String> keys = new TreeSet<>();
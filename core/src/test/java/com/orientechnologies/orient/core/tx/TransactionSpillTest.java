@@ -0,0 +1,137 @@
+package com.orientechnologies.orient.core.tx;
+
+import com.orientechnologies.orient.core.OCreateDatabaseUtil;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransactionSpillTest {
+  private OrientDB orientDB;
+  private ODatabaseDocument db;
+  private Object oldThreshold;
+
+  @Before
+  public void before() {
+    oldThreshold = OGlobalConfiguration.TX_SPILL_THRESHOLD.getValue();
+    OGlobalConfiguration.TX_SPILL_THRESHOLD.setValue(10);
+
+    orientDB =
+        OCreateDatabaseUtil.createDatabase("test", "embedded:", OCreateDatabaseUtil.TYPE_MEMORY);
+    db = orientDB.open("test", "admin", OCreateDatabaseUtil.NEW_ADMIN_PASSWORD);
+
+    final OClass cls = db.createClass("Item");
+    cls.createProperty("name", OType.STRING).createIndex(OClass.INDEX_TYPE.UNIQUE);
+  }
+
+  @After
+  public void after() {
+    db.close();
+    orientDB.close();
+    OGlobalConfiguration.TX_SPILL_THRESHOLD.setValue(oldThreshold);
+  }
+
+  @Test
+  public void testSpilledRecordsAreReadAndCommitted() {
+    db.begin();
+    final List<ORID> rids = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final ODocument document = new ODocument("Item");
+      document.field("name", "item" + i);
+      document.field("link", rids.isEmpty() ? null : rids.get(rids.size() - 1));
+      db.save(document);
+      rids.add(document.getIdentity());
+    }
+
+    final ODocument spilled = db.load(rids.get(5));
+    Assert.assertEquals("item5", spilled.field("name"));
+    spilled.field("name", "renamed");
+    db.save(spilled);
+
+    try (OResultSet result = db.query("select from Item where name = ?", "item42")) {
+      Assert.assertEquals(rids.get(42), result.next().getIdentity().get());
+    }
+    try (OResultSet result = db.query("select from Item where name = ?", "renamed")) {
+      Assert.assertEquals(rids.get(5), result.next().getIdentity().get());
+    }
+    db.commit();
+
+    Assert.assertEquals(100, db.countClass("Item"));
+    for (int i = 1; i < 100; i++) {
+      final ODocument document = db.load(rids.get(i));
+      Assert.assertTrue(document.getIdentity().isPersistent());
+      Assert.assertEquals(rids.get(i - 1), ((OIdentifiable) document.field("link")).getIdentity());
+    }
+    try (OResultSet result = db.query("select from Item where name = ?", "renamed")) {
+      Assert.assertEquals(rids.get(5), result.next().getIdentity().get());
+    }
+    try (OResultSet result = db.query("select from Item where name = ?", "item5")) {
+      Assert.assertFalse(result.hasNext());
+    }
+  }
+
+  @Test
+  public void testCommitKeepsFewSpilledRecordsInMemory() {
+    final char[] payload = new char[10_000];
+    Arrays.fill(payload, 'x');
+
+    db.begin();
+    final List<ODocument> kept = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final ODocument document = new ODocument("Item");
+      document.field("name", "item" + i);
+      document.field("payload", new String(payload));
+      db.save(document);
+      if (i % 100 == 0) {
+        kept.add(document);
+      }
+    }
+    final OTransactionSpill spill = ((OTransactionRealAbstract) db.getTransaction()).getSpill();
+    Assert.assertNotNull(spill);
+    db.commit();
+
+    // the commit loads every record, but no more of them than the threshold stay in memory
+    Assert.assertTrue(spill.getMaxLoadedCount() <= 10);
+    Assert.assertEquals(1000, db.countClass("Item"));
+
+    // the instances saved by the caller get the identity and the version of the commit
+    for (ODocument document : kept) {
+      Assert.assertTrue(document.getIdentity().isPersistent());
+      Assert.assertFalse(document.isDirty());
+      final ODocument stored = db.load(document.getIdentity());
+      Assert.assertEquals(document.field("name"), stored.field("name"));
+      Assert.assertEquals(stored.getVersion(), document.getVersion());
+    }
+    final ODocument first = kept.get(0);
+    first.field("name", "renamed");
+    db.save(first);
+    try (OResultSet result = db.query("select from Item where name = ?", "renamed")) {
+      Assert.assertEquals(first.getIdentity(), result.next().getIdentity().get());
+    }
+  }
+
+  @Test
+  public void testSpilledRecordsAreRolledBack() {
+    db.begin();
+    for (int i = 0; i < 100; i++) {
+      final ODocument document = new ODocument("Item");
+      document.field("name", "item" + i);
+      db.save(document);
+    }
+    db.rollback();
+
+    Assert.assertEquals(0, db.countClass("Item"));
+  }
+}
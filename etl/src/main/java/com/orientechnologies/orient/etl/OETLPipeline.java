@@ -27,6 +27,7 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.etl.loader.OETLLoader;
 import com.orientechnologies.orient.etl.transformer.OETLTransformer;
 import java.util.List;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 /**
@@ -88,28 +89,62 @@ public class OETLPipeline {
   }
 
   protected Object execute(final OETLExtractedItem source) {
-    int retry = 0;
-    do {
-      try (ODatabaseDocument db = acquire()) {
-        try {
-          Object current = source.payload;
-
-          context.setVariable("extractedNum", source.num);
-          context.setVariable("extractedPayload", source.payload);
-
-          for (OETLTransformer t : transformers) {
-            current = t.transform(db, current);
-            if (current == null) {
-              processor
-                  .getContext()
-                  .getMessageHandler()
-                  .warn(this, "Transformer [%s] returned null, skip rest of pipeline execution", t);
-            }
-          }
+    return execute(
+        db -> {
+          final Object current = transform(db, source);
           if (current != null) {
             // LOAD
             loader.load(db, current, context);
           }
+          return current;
+        });
+  }
+
+  /**
+   * Executes only the transformers on the extracted item, used when transformation and loading run
+   * on separate worker pools.
+   *
+   * @return the transformed payload, null if it must not be loaded
+   */
+  protected Object transform(final OETLExtractedItem source) {
+    final Object result = execute(db -> transform(db, source));
+    // the pipeline itself is returned when the retries are exhausted
+    return result == this ? null : result;
+  }
+
+  /** Loads a batch of transformed payloads. */
+  protected void load(final List<Object> batch) {
+    execute(
+        db -> {
+          loader.loadBatch(db, batch, context);
+          return null;
+        });
+  }
+
+  private Object transform(final ODatabaseDocument db, final OETLExtractedItem source) {
+    Object current = source.payload;
+
+    context.setVariable("extractedNum", source.num);
+    context.setVariable("extractedPayload", source.payload);
+
+    for (OETLTransformer t : transformers) {
+      current = t.transform(db, current);
+      if (current == null) {
+        processor
+            .getContext()
+            .getMessageHandler()
+            .warn(this, "Transformer [%s] returned null, skip rest of pipeline execution", t);
+      }
+    }
+    return current;
+  }
+
+  private Object execute(final Function<ODatabaseDocument, Object> task) {
+    int retry = 0;
+    do {
+      try (ODatabaseDocument db = acquire()) {
+        try {
+          final Object current = task.apply(db);
 
           db.commit();
           return current;
@@ -70,7 +70,13 @@ public class OETLProcessor {
   protected boolean haltOnError = true;
   protected int maxRetries = 10;
   protected int workers = 1;
+  protected int transformWorkers = 0;
+  protected int loadWorkers = 0;
+  protected int queueSize = 0;
+  protected int chunkSize = 100;
+  protected int loadBatchSize = 500;
   private boolean parallel = false;
+  private volatile OETLStagedExecutor stagedExecutor;
 
   /**
    * Creates an ETL processor by setting all the components on construction.
@@ -140,6 +146,27 @@ public class OETLProcessor {
 
       if (cores >= 2) workers = cores - 1;
     }
+
+    // SEPARATE TRANSFORMER AND LOADER WORKERS: ENABLES THE STAGED EXECUTION
+    final Integer cfgTransformWorkers = (Integer) context.getVariable("transformWorkers");
+    if (cfgTransformWorkers != null) transformWorkers = cfgTransformWorkers;
+
+    final Integer cfgLoadWorkers = (Integer) context.getVariable("loadWorkers");
+    if (cfgLoadWorkers != null) loadWorkers = cfgLoadWorkers;
+
+    if (transformWorkers > 0 || loadWorkers > 0) {
+      if (transformWorkers <= 0) transformWorkers = workers;
+      if (loadWorkers <= 0) loadWorkers = workers;
+    }
+
+    final Integer cfgQueueSize = (Integer) context.getVariable("queueSize");
+    if (cfgQueueSize != null) queueSize = cfgQueueSize;
+
+    final Integer cfgChunkSize = (Integer) context.getVariable("chunkSize");
+    if (cfgChunkSize != null && cfgChunkSize > 0) chunkSize = cfgChunkSize;
+
+    final Integer cfgLoadBatchSize = (Integer) context.getVariable("loadBatchSize");
+    if (cfgLoadBatchSize != null && cfgLoadBatchSize > 0) loadBatchSize = cfgLoadBatchSize;
   }
 
   public OETLProcessorStats getStats() {
@@ -189,6 +216,11 @@ public class OETLProcessor {
   }
 
   private void runExtractorAndPipeline() {
+    if (transformWorkers > 0) {
+      runStagedPipeline();
+      return;
+    }
+
     try {
 
       getContext()
@@ -230,6 +262,36 @@ public class OETLProcessor {
     executor.shutdown();
   }
 
+  private void runStagedPipeline() {
+    try {
+      getContext()
+          .getMessageHandler()
+          .info(
+              this,
+              "Started staged execution with %d transformer and %d loader threads",
+              transformWorkers,
+              loadWorkers);
+      extractor.extract(source.read());
+
+      stagedExecutor =
+          new OETLStagedExecutor(
+              this,
+              transformWorkers,
+              loadWorkers,
+              queueSize > 0 ? queueSize : transformWorkers * 500,
+              chunkSize,
+              loadBatchSize);
+      stagedExecutor.execute();
+
+      getContext().getMessageHandler().debug(this, "all items extracted");
+    } catch (OETLProcessHaltedException e) {
+      getContext().getMessageHandler().error(this, "ETL process halted: ", e);
+    } catch (Exception e) {
+      getContext().getMessageHandler().error(this, "ETL process has problem: ", e);
+    }
+    executor.shutdown();
+  }
+
   protected void begin() {
     getContext().getMessageHandler().info(this, "BEGIN ETL PROCESSOR");
     final Integer cfgMaxRetries = (Integer) context.getVariable("maxRetries");
@@ -343,6 +405,23 @@ public class OETLProcessor {
               stats.errors.get());
     }
 
+    final OETLStagedExecutor staged = stagedExecutor;
+    if (staged != null) {
+      getContext()
+          .getMessageHandler()
+          .info(
+              this,
+              "+ queues: transform %d/%d chunks (full %,d times, %s waiting) - load %d/%d chunks (full %,d times, %s waiting)",
+              staged.getTransformQueueSize(),
+              stats.transformQueue.capacity,
+              stats.transformQueue.fullWaits.get(),
+              OIOUtils.getTimeAsString(stats.transformQueue.blockedNanos.get() / 1000000),
+              staged.getLoadQueueSize(),
+              stats.loadQueue.capacity,
+              stats.loadQueue.fullWaits.get(),
+              OIOUtils.getTimeAsString(stats.loadQueue.blockedNanos.get() / 1000000));
+    }
+
     stats.lastExtractorProgress = extractorProgress;
     stats.lastLoaderProgress = loaderProgress;
     stats.lastLap = now;
@@ -462,6 +541,8 @@ public class OETLProcessor {
     public long lastLap = 0;
     public AtomicLong warnings = new AtomicLong();
     public AtomicLong errors = new AtomicLong();
+    public final OETLQueueStats transformQueue = new OETLQueueStats();
+    public final OETLQueueStats loadQueue = new OETLQueueStats();
 
     public long incrementWarnings() {
       return warnings.incrementAndGet();
@@ -471,4 +552,12 @@ public class OETLProcessor {
       return errors.incrementAndGet();
     }
   }
+
+  /** Backpressure statistics of a bounded queue between two stages of the staged execution. */
+  public static class OETLQueueStats {
+    public volatile int capacity = 0;
+    // TIMES A PRODUCER FOUND THE QUEUE FULL, AND THE TOTAL TIME SPENT WAITING FOR FREE SPACE
+    public final AtomicLong fullWaits = new AtomicLong();
+    public final AtomicLong blockedNanos = new AtomicLong();
+  }
 }
@@ -0,0 +1,266 @@
+/*
+ *
+ *  * Copyright 2010-2016 OrientDB LTD (info(-at-)orientdb.com)
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.orientechnologies.orient.etl;
+
+import com.orientechnologies.orient.etl.extractor.OETLExtractor;
+import com.orientechnologies.orient.etl.extractor.OETLSplittableExtractor;
+import com.orientechnologies.orient.etl.transformer.OETLTransformer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the ETL as a pipeline of stages, each one with its own workers: the extractor thread
+ * reads the source and pushes chunks of items to the transformer workers, that push the transformed
+ * records to the loader workers. The stages are connected by bounded queues, so a slow stage blocks
+ * the previous one: the time spent waiting on a full queue is tracked in the processor statistics.
+ *
+ * <p>When the extractor is a {@link OETLSplittableExtractor} the extractor thread only reads the
+ * raw items, while their parsing runs on the transformer workers.
+ */
+final class OETLStagedExecutor {
+  // END OF STAGE MARKER, COMPARED BY IDENTITY
+  private static final List<Object> END = Collections.unmodifiableList(new ArrayList<Object>());
+
+  private final OETLProcessor processor;
+  private final int transformWorkers;
+  private final int loadWorkers;
+  private final int chunkSize;
+  private final int loadBatchSize;
+  private final Stage transformStage;
+  private final Stage loadStage;
+  private final AtomicInteger runningTransformers = new AtomicInteger();
+
+  OETLStagedExecutor(
+      final OETLProcessor processor,
+      final int transformWorkers,
+      final int loadWorkers,
+      final int queueSize,
+      final int chunkSize,
+      final int loadBatchSize) {
+    this.processor = processor;
+    this.transformWorkers = transformWorkers;
+    this.loadWorkers = loadWorkers;
+    this.chunkSize = chunkSize;
+    this.loadBatchSize = loadBatchSize;
+
+    // THE QUEUES CONTAIN CHUNKS OF ITEMS
+    final int capacity = Math.max(2, queueSize / chunkSize);
+    transformStage = new Stage(capacity, processor.getStats().transformQueue);
+    loadStage = new Stage(capacity, processor.getStats().loadQueue);
+  }
+
+  void execute() {
+    final OETLExtractor extractor = processor.getExtractor();
+    final OETLSplittableExtractor splittable =
+        extractor instanceof OETLSplittableExtractor ? (OETLSplittableExtractor) extractor : null;
+    if (splittable != null) splittable.setSplit(true);
+
+    final ExecutorService transformPool = Executors.newFixedThreadPool(transformWorkers + 1);
+    final ExecutorService loadPool = Executors.newFixedThreadPool(loadWorkers);
+    final List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+    try {
+      runningTransformers.set(transformWorkers);
+      for (int i = 0; i < transformWorkers; i++) {
+        final OETLPipeline pipeline = newPipeline(processor.getTransformers());
+        futures.add(
+            CompletableFuture.runAsync(() -> runTransformer(pipeline, splittable), transformPool));
+      }
+      for (int i = 0; i < loadWorkers; i++) {
+        final OETLPipeline pipeline = newPipeline(Collections.emptyList());
+        futures.add(CompletableFuture.runAsync(() -> runLoader(pipeline), loadPool));
+      }
+      futures.add(CompletableFuture.runAsync(() -> runExtractor(extractor), transformPool));
+
+      for (CompletableFuture<Void> future : futures) {
+        // ON FAILURE INTERRUPT THE OTHER STAGES, OTHERWISE THEY WAIT FOREVER ON THE QUEUES
+        future.whenComplete(
+            (r, e) -> {
+              if (e != null) {
+                transformPool.shutdownNow();
+                loadPool.shutdownNow();
+              }
+            });
+      }
+
+      RuntimeException failure = null;
+      for (CompletableFuture<Void> future : futures) {
+        try {
+          future.join();
+        } catch (CompletionException e) {
+          if (failure == null)
+            failure =
+                e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+      }
+      if (failure != null) throw failure;
+
+    } finally {
+      transformPool.shutdownNow();
+      loadPool.shutdownNow();
+      if (splittable != null) splittable.setSplit(false);
+    }
+  }
+
+  int getTransformQueueSize() {
+    return transformStage.queue.size();
+  }
+
+  int getLoadQueueSize() {
+    return loadStage.queue.size();
+  }
+
+  private OETLPipeline newPipeline(final List<OETLTransformer> transformers) {
+    final OETLPipeline pipeline =
+        new OETLPipeline(
+            processor,
+            transformers,
+            processor.getLoader(),
+            processor.getLogLevel(),
+            processor.maxRetries,
+            processor.haltOnError);
+    pipeline.begin();
+    return pipeline;
+  }
+
+  private void runExtractor(final OETLExtractor extractor) {
+    processor.getContext().getMessageHandler().debug(this, "Start extracting");
+    try {
+      List<Object> chunk = new ArrayList<Object>(chunkSize);
+      boolean fetch = true;
+      while (fetch) {
+        try {
+          if (extractor.hasNext()) {
+            chunk.add(extractor.next());
+            if (chunk.size() >= chunkSize) {
+              transformStage.put(chunk);
+              chunk = new ArrayList<Object>(chunkSize);
+            }
+          } else fetch = false;
+        } catch (RuntimeException e) {
+          processor.getContext().getMessageHandler().error(this, "Error on extraction:", e);
+          processor.getStats().incrementErrors();
+          if (processor.haltOnError) throw e;
+        }
+      }
+      if (!chunk.isEmpty()) transformStage.put(chunk);
+      transformStage.put(END);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runTransformer(
+      final OETLPipeline pipeline, final OETLSplittableExtractor splittable) {
+    try {
+      List<Object> chunk;
+      while ((chunk = transformStage.queue.take()) != END) {
+        final List<Object> transformed = new ArrayList<Object>(chunk.size());
+        for (Object o : chunk) {
+          OETLExtractedItem item = (OETLExtractedItem) o;
+          if (splittable != null) item = parse(splittable, item);
+          if (item == null) continue;
+
+          final Object current = pipeline.transform(item);
+          if (current != null) transformed.add(current);
+        }
+        if (!transformed.isEmpty()) loadStage.put(transformed);
+      }
+      // RE-ADD END FLAG FOR OTHER THREADS
+      transformStage.put(END);
+
+      if (runningTransformers.decrementAndGet() == 0)
+        // LAST TRANSFORMER: NOTHING ELSE TO LOAD
+        loadStage.put(END);
+
+      pipeline.end();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private OETLExtractedItem parse(
+      final OETLSplittableExtractor splittable, final OETLExtractedItem item) {
+    try {
+      return new OETLExtractedItem(item.num, splittable.parse(item.payload));
+    } catch (RuntimeException e) {
+      processor
+          .getContext()
+          .getMessageHandler()
+          .error(this, "Error on parsing extracted item %d: %s", item.num, e);
+      processor.getStats().incrementErrors();
+      if (processor.haltOnError) throw e;
+      return null;
+    }
+  }
+
+  private void runLoader(final OETLPipeline pipeline) {
+    try {
+      List<Object> chunk;
+      while ((chunk = loadStage.queue.take()) != END) {
+        // GROUP THE PENDING CHUNKS IN A SINGLE BATCH
+        final List<Object> batch = new ArrayList<Object>(chunk);
+        List<Object> next;
+        while (batch.size() < loadBatchSize && (next = loadStage.queue.poll()) != null) {
+          if (next == END) {
+            // RE-ADD END FLAG, THE BATCH IS LOADED BEFORE EXITING
+            loadStage.put(END);
+            break;
+          }
+          batch.addAll(next);
+        }
+        pipeline.load(batch);
+      }
+      // RE-ADD END FLAG FOR OTHER THREADS
+      loadStage.put(END);
+
+      pipeline.end();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Bounded queue that feeds a stage, tracking the time the producers wait on it. */
+  private static final class Stage {
+    private final BlockingQueue<List<Object>> queue;
+    private final OETLProcessor.OETLQueueStats stats;
+
+    private Stage(final int capacity, final OETLProcessor.OETLQueueStats stats) {
+      this.queue = new ArrayBlockingQueue<List<Object>>(capacity);
+      this.stats = stats;
+      stats.capacity = capacity;
+    }
+
+    private void put(final List<Object> chunk) throws InterruptedException {
+      if (queue.offer(chunk)) return;
+
+      final long start = System.nanoTime();
+      queue.put(chunk);
+      stats.fullWaits.incrementAndGet();
+      stats.blockedNanos.addAndGet(System.nanoTime() - start);
+    }
+  }
+}
@@ -40,7 +40,8 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 /** An extractor based on Apache Commons CSV Created by frank on 10/5/15. */
-public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
+public class OETLCSVExtractor extends OETLAbstractSourceExtractor
+    implements OETLSplittableExtractor {
 
   private static String NULL_STRING = "NULL";
   protected OETLExtractedItem next;
@@ -54,6 +55,7 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
   private String nullValue = NULL_STRING;
   private String dateFormat = "yyyy-MM-dd";
   private String dateTimeFormat = "yyyy-MM-dd hh:mm";
+  private boolean split = false;
 
   @Override
   public ODocument getConfiguration() {
@@ -192,7 +194,12 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
       while (shouldSkipRecord(csvRecord) && recordIterator.hasNext()) {
         csvRecord = recordIterator.next();
       }
-      next = fetchNext(csvRecord);
+      if (split) {
+        // THE CONVERSION IS DEFERRED TO parse()
+        next = new OETLExtractedItem(++current, csvRecord);
+      } else {
+        next = fetchNext(csvRecord);
+      }
       return true;
     }
     return false;
@@ -202,7 +209,23 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
     return csvRecord.getRecordNumber() <= skipTo && csvRecord.getRecordNumber() >= skipFrom;
   }
 
+  @Override
+  public void setSplit(boolean split) {
+    this.split = split;
+  }
+
+  @Override
+  public Object parse(Object raw) {
+    return toDocument((CSVRecord) raw);
+  }
+
   private OETLExtractedItem fetchNext(CSVRecord csvRecord) {
+    final ODocument doc = toDocument(csvRecord);
+    current++;
+    return new OETLExtractedItem(current, doc);
+  }
+
+  private ODocument toDocument(CSVRecord csvRecord) {
     ODocument doc = new ODocument();
     final Map<String, String> recordAsMap = csvRecord.toMap();
 
@@ -250,8 +273,7 @@ public class OETLCSVExtractor extends OETLAbstractSourceExtractor {
     }
 
     log(Level.FINE, "document=%s", doc);
-    current++;
-    return new OETLExtractedItem(current, doc);
+    return doc;
   }
 
   private Object determineTheType(String fieldStringValue) {
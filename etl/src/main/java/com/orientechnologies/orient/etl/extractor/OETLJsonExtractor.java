@@ -26,10 +26,12 @@ import java.io.Reader;
 import java.text.ParseException;
 import java.util.NoSuchElementException;
 
-public class OETLJsonExtractor extends OETLAbstractSourceExtractor {
+public class OETLJsonExtractor extends OETLAbstractSourceExtractor
+    implements OETLSplittableExtractor {
   protected OJSONReader jsonReader;
   protected Character first = null;
   protected OETLExtractedItem next;
+  protected boolean split = false;
 
   @Override
   public String getName() {
@@ -91,6 +93,16 @@ public class OETLJsonExtractor extends OETLAbstractSourceExtractor {
     }
   }
 
+  @Override
+  public void setSplit(boolean split) {
+    this.split = split;
+  }
+
+  @Override
+  public Object parse(Object raw) {
+    return new ODocument().fromJSON((String) raw);
+  }
+
   @Override
   public ODocument getConfiguration() {
     return new ODocument().fromJSON("{parameters:[],output:'ODocument'}");
@@ -125,6 +137,10 @@ public class OETLJsonExtractor extends OETLAbstractSourceExtractor {
 
     if (value.isEmpty()) return null;
 
+    if (split)
+      // THE JSON PARSING IS DEFERRED TO parse()
+      return new OETLExtractedItem(current++, value);
+
     return new OETLExtractedItem(current++, new ODocument().fromJSON(value));
   }
 }
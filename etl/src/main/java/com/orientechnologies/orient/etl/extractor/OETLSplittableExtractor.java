@@ -0,0 +1,35 @@
+/*
+ *
+ *  * Copyright 2010-2016 OrientDB LTD (info(-at-)orientdb.com)
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package com.orientechnologies.orient.etl.extractor;
+
+/**
+ * ETL Extractor that can split the extraction in two phases: the sequential read of the raw items
+ * from the source, and their conversion to the extracted payload, which is thread safe and can run
+ * in parallel on the transformer workers.
+ */
+public interface OETLSplittableExtractor extends OETLExtractor {
+
+  /**
+   * When enabled, the extracted items returned by {@link #next()} contain the raw payload, that
+   * must be converted with {@link #parse(Object)}.
+   */
+  void setSplit(boolean split);
+
+  Object parse(Object raw);
+}
@@ -23,12 +23,20 @@ import com.orientechnologies.orient.core.db.ODatabasePool;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.etl.OETLComponent;
 import com.orientechnologies.orient.etl.OETLPipeline;
+import java.util.List;
 
 /** ETL Loader. */
 public interface OETLLoader extends OETLComponent {
 
   void load(ODatabaseDocument db, final Object input, OCommandContext context);
 
+  /** Loads a batch of inputs, in any order. */
+  default void loadBatch(ODatabaseDocument db, final List<Object> inputs, OCommandContext context) {
+    for (Object input : inputs) {
+      load(db, input, context);
+    }
+  }
+
   void beginLoader(OETLPipeline pipeline);
 
   long getProgress();
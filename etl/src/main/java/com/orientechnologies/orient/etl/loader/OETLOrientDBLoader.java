@@ -30,6 +30,7 @@ import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.exception.OConfigurationException;
 import com.orientechnologies.orient.core.exception.OSchemaException;
 import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OClassImpl;
 import com.orientechnologies.orient.core.metadata.schema.OProperty;
@@ -40,9 +41,12 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
 import com.orientechnologies.orient.etl.OETLPipeline;
 import com.orientechnologies.orient.etl.context.OETLContext;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -84,6 +88,58 @@ public class OETLOrientDBLoader extends OETLAbstractLoader {
 
   @Override
   public void load(ODatabaseDocument db, final Object input, OCommandContext context) {
+    load(db, input, clusterName);
+  }
+
+  /**
+   * Groups the records of the batch by target cluster, so that each cluster receives a sequential
+   * run of inserts. Without transactions the records are written with the massive insert intent.
+   */
+  @Override
+  public void loadBatch(ODatabaseDocument db, List<Object> inputs, OCommandContext context) {
+    final Map<String, List<Object>> byCluster = new LinkedHashMap<String, List<Object>>();
+    for (Object input : inputs) {
+      if (input == null) continue;
+      final String cluster = getTargetCluster(db, input);
+      byCluster.computeIfAbsent(cluster, k -> new ArrayList<Object>()).add(input);
+    }
+
+    final boolean massiveInsert = !tx && db.declareIntent(new OIntentMassiveInsert());
+    try {
+      for (Map.Entry<String, List<Object>> group : byCluster.entrySet()) {
+        for (Object input : group.getValue()) {
+          load(db, input, group.getKey());
+        }
+      }
+    } finally {
+      if (massiveInsert) db.declareIntent(null);
+    }
+  }
+
+  protected String getTargetCluster(ODatabaseDocument db, final Object input) {
+    if (clusterName != null) return clusterName;
+
+    final ODocument doc;
+    final String clsName;
+    if (input instanceof OVertex) {
+      doc = (ODocument) ((OVertex) input).getRecord();
+      clsName = doc.getClassName();
+    } else if (input instanceof ODocument) {
+      doc = (ODocument) input;
+      clsName = className != null ? className : doc.getClassName();
+    } else return null;
+
+    if (clsName == null) return null;
+
+    final OClass cls = db.getMetadata().getSchema().getClass(clsName);
+    if (cls == null)
+      // THE CLASS IS CREATED ON SAVE
+      return null;
+
+    return db.getClusterNameById(cls.getClusterForNewInstance(doc));
+  }
+
+  protected void load(ODatabaseDocument db, final Object input, final String targetCluster) {
 
     if (input == null) return;
 
@@ -102,7 +158,7 @@ public class OETLOrientDBLoader extends OETLAbstractLoader {
       final OVertex v = (OVertex) input;
 
       try {
-        v.save(clusterName);
+        v.save(targetCluster);
       } catch (ORecordDuplicatedException e) {
         if (!skipDuplicates) {
           throw e;
@@ -116,8 +172,8 @@ public class OETLOrientDBLoader extends OETLAbstractLoader {
         doc.setClassName(className);
       }
 
-      if (clusterName != null) {
-        db.save(doc, clusterName);
+      if (targetCluster != null) {
+        db.save(doc, targetCluster);
       } else if (doc.getClassName() != null) {
         db.save(doc);
       } else {
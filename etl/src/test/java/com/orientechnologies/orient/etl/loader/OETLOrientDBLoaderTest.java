@@ -26,9 +26,11 @@ import com.orientechnologies.orient.core.exception.OConfigurationException;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexManagerAbstract;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.etl.OETLBaseTest;
+import com.orientechnologies.orient.etl.context.OETLContext;
 import java.util.List;
 import org.junit.Test;
 
@@ -245,4 +247,47 @@ public class OETLOrientDBLoaderTest extends OETLBaseTest {
     res.close();
     db.close();
   }
+
+  @Test
+  public void shouldSaveDocumentsWithSeparateTransformerAndLoaderWorkers() {
+    StringBuilder content = new StringBuilder("name,surname,id");
+    for (int i = 0; i < 1000; i++) {
+      content.append("\n").append(names[i % names.length]).append(",");
+      content.append(surnames[i % surnames.length]).append(",").append(i);
+    }
+
+    OETLContext context = new OETLContext();
+    context
+        .setVariable("transformWorkers", 2)
+        .setVariable("loadWorkers", 2)
+        .setVariable("queueSize", 20)
+        .setVariable("chunkSize", 10)
+        .setVariable("loadBatchSize", 50);
+    configure(
+        "{source: { content: { value: '"
+            + content
+            + "' } }, extractor : { csv: {} }, loader: { orientdb: {\n"
+            + "      dbURL: 'memory:"
+            + name.getMethodName()
+            + "', class:'Person',      dbUser: \"admin\",\n"
+            + "      dbPassword: \"admin\",\n"
+            + "      dbAutoCreate: true,\n      tx: false,\n"
+            + "      dbType: \"document\", classes: [{name: 'Person', clusters: 4}] } } }",
+        context);
+
+    proc.execute();
+
+    assertThat(proc.getStats().errors.get()).isEqualTo(0);
+    assertThat(proc.getLoader().getProgress()).isEqualTo(1000);
+
+    ODatabaseDocument db = proc.getLoader().getPool().acquire();
+
+    OResultSet res = db.query("SELECT count(*) as count, max(id) as max FROM Person");
+    OResult result = res.next();
+    assertThat(result.<Long>getProperty("count")).isEqualTo(1000);
+    assertThat(result.<Integer>getProperty("max")).isEqualTo(999);
+
+    res.close();
+    db.close();
+  }
 }
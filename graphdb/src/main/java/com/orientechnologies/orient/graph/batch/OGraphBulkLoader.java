@@ -0,0 +1,838 @@
+package com.orientechnologies.orient.graph.batch;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OStorageEntryConfiguration;
+import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
+import com.orientechnologies.orient.core.intent.OIntentMassiveInsert;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.tinkerpop.blueprints.impls.orient.OrientEdgeType;
+import com.tinkerpop.blueprints.impls.orient.OrientVertexType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * API for the bulk load of large graphs, with multiple vertex and edge classes, into a new or an
+ * existing database. Vertices are identified by a (non negative) long id, unique among all the
+ * vertex classes.
+ *
+ * <p>Nothing is written to the database while vertices and edges are created: each record gets
+ * its final RID immediately (records are assigned round robin to the clusters of their class and
+ * are appended to them), record contents are spooled to temporary files, one per cluster, and
+ * vertex adjacencies are accumulated in memory up to {@link #setSortBufferSize(int)} entries,
+ * then sorted by vertex RID and spilled to temporary files. On {@link #end()} each cluster is
+ * written sequentially by a pool of {@link #setParallel(int)} threads: vertex ridbags are built
+ * merging the sorted adjacency files of the cluster, so that the whole adjacency never has to fit
+ * in heap. The indexes defined on the loaded classes are dropped before the load and built again
+ * at the end, which is much faster than updating them record by record.
+ *
+ * <p>The loaded clusters must not be written by anybody else during the load.
+ *
+ * <p>Typical usage: <code>
+ *   OGraphBulkLoader loader = new OGraphBulkLoader("plocal:your/db", "admin", "admin");
+ *   loader.begin();
+ *   loader.createVertex("Person", 0L, personProps);
+ *   loader.createVertex("Company", 1L, companyProps);
+ *   loader.createEdge("WorksAt", 0L, 1L, edgeProps);
+ *   ...
+ *   loader.end();
+ * </code>
+ *
+ * <p>Vertices do not need to be created before they are connected: edges to unknown ids create
+ * vertices of the default vertex class (V) without properties.
+ */
+public class OGraphBulkLoader {
+  private static final int POSITION_BITS = 48;
+  private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+  private static final int FIELD_BITS = 16;
+  private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+  private final String dbUrl;
+  private final String userName;
+  private final String password;
+
+  private String idPropertyName = "uid";
+  private String defaultVertexClass = OrientVertexType.CLASS_NAME;
+  private int parallel = 4;
+  private int sortBufferSize = 1 << 20;
+  private int estimatedVertices = -1;
+  private boolean rebuildIndexes = true;
+  private Boolean useLightweightEdges = null;
+  private File tempDirectory;
+
+  private ODatabaseDocumentInternal db;
+  private File workDirectory;
+  private VertexIdMap vertexRids;
+  private final Map<String, ClassState> classes = new HashMap<>();
+  private final Map<Integer, ClusterState> clusters = new HashMap<>();
+  private final List<String> linkFields = new ArrayList<>();
+  private final Map<String, Integer> linkFieldIds = new HashMap<>();
+  private final Map<Integer, AdjacencyBuffer> adjacency = new HashMap<>();
+  private long bufferedEntries = 0;
+  private final List<DroppedIndex> droppedIndexes = new ArrayList<>();
+  private final Set<String> droppedIndexNames = new HashSet<>();
+
+  /**
+   * Creates a new bulk load procedure. It's intended to be used only for a single load cycle
+   * (begin, create..., end)
+   *
+   * @param iDbURL db connection URL (plocal:/your/db/path)
+   * @param iUserName db user name (use admin for new db)
+   * @param iPassword db password (use admin for new db)
+   */
+  public OGraphBulkLoader(String iDbURL, String iUserName, String iPassword) {
+    this.dbUrl = iDbURL;
+    this.userName = iUserName;
+    this.password = iPassword;
+  }
+
+  /**
+   * Creates the database (if it does not exist) and initializes the load. Call this once, before
+   * starting to create vertices and edges.
+   */
+  public void begin() {
+    ODatabaseDocumentTx database = new ODatabaseDocumentTx(dbUrl);
+    if (database.exists()) {
+      database.open(userName, password);
+    } else {
+      database.create();
+    }
+    db = database;
+
+    if (useLightweightEdges == null) {
+      final List<OStorageEntryConfiguration> custom =
+          (List<OStorageEntryConfiguration>) db.get(ODatabase.ATTRIBUTES.CUSTOM);
+      for (OStorageEntryConfiguration c : custom) {
+        if (c.name.equalsIgnoreCase("useLightweightEdges")) {
+          useLightweightEdges = Boolean.parseBoolean(c.value);
+          break;
+        }
+      }
+      if (useLightweightEdges == null) {
+        useLightweightEdges = true;
+      }
+    }
+
+    final OSchema schema = db.getMetadata().getSchema();
+    if (!schema.existsClass(OrientVertexType.CLASS_NAME)) {
+      schema.createClass(OrientVertexType.CLASS_NAME);
+    }
+    if (!schema.existsClass(OrientEdgeType.CLASS_NAME)) {
+      schema.createClass(OrientEdgeType.CLASS_NAME);
+    }
+
+    vertexRids = new VertexIdMap(estimatedVertices > 0 ? estimatedVertices : 1024);
+    try {
+      workDirectory =
+          tempDirectory == null
+              ? Files.createTempDirectory("orientdb-bulk").toFile()
+              : Files.createTempDirectory(tempDirectory.toPath(), "orientdb-bulk").toFile();
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot create the temporary directory for the load", e);
+    }
+  }
+
+  /**
+   * Creates a new vertex of the default vertex class
+   *
+   * @param id the vertex ID
+   * @param properties the vertex properties, can be null
+   */
+  public void createVertex(long id, Map<String, Object> properties) {
+    createVertex(defaultVertexClass, id, properties);
+  }
+
+  /**
+   * Creates a new vertex
+   *
+   * @param className the vertex class. It is created if it does not exist
+   * @param id the vertex ID, unique among all the vertex classes
+   * @param properties the vertex properties, can be null
+   */
+  public void createVertex(String className, long id, Map<String, Object> properties) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Invalid vertex id: " + id);
+    }
+    if (vertexRids.get(id) >= 0) {
+      throw new IllegalArgumentException("Duplicated vertex id: " + id);
+    }
+    ClassState classState = getClassState(className, false);
+    ODocument content = new ODocument();
+    if (properties != null) {
+      content.fromMap(properties);
+    }
+    content.field(idPropertyName, id);
+    long rid = allocate(classState, content);
+    vertexRids.put(id, rid);
+  }
+
+  /**
+   * Creates a new edge between two vertices. If vertices do not exist, they will be created in the
+   * default vertex class
+   *
+   * @param className the edge class. It is created if it does not exist
+   * @param from id of the vertex that is starting point of the edge
+   * @param to id of the vertex that is end point of the edge
+   * @param properties the edge properties, can be null
+   */
+  public void createEdge(String className, long from, long to, Map<String, Object> properties) {
+    ClassState classState = getClassState(className, true);
+    long fromRid = getOrCreateVertex(from);
+    long toRid = getOrCreateVertex(to);
+    if (useLightweightEdges && (properties == null || properties.isEmpty())) {
+      link(fromRid, classState.outFieldId, toRid);
+      link(toRid, classState.inFieldId, fromRid);
+    } else {
+      ODocument content = new ODocument();
+      if (properties != null) {
+        content.fromMap(properties);
+      }
+      content.field("out", toRecordId(fromRid));
+      content.field("in", toRecordId(toRid));
+      long edgeRid = allocate(classState, content);
+      link(fromRid, classState.outFieldId, edgeRid);
+      link(toRid, classState.inFieldId, edgeRid);
+    }
+  }
+
+  /**
+   * Writes all the records to the database, rebuilds the indexes and closes the db. Call this once,
+   * after vertices and edges creation.
+   */
+  public void end() {
+    try {
+      for (ClusterState cluster : clusters.values()) {
+        cluster.closeRecords();
+      }
+      spill();
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallel));
+      try {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (ClusterState cluster : clusters.values()) {
+          futures.add(executor.submit(() -> writeCluster(cluster)));
+        }
+        for (Future<Void> future : futures) {
+          future.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Bulk load interrupted", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Error during the bulk load", e.getCause());
+      } finally {
+        executor.shutdownNow();
+      }
+
+      db.activateOnCurrentThread();
+      for (DroppedIndex index : droppedIndexes) {
+        index.create(db);
+      }
+    } finally {
+      for (ClusterState cluster : clusters.values()) {
+        cluster.closeRecords();
+      }
+      if (workDirectory != null) {
+        OFileUtils.deleteRecursively(workDirectory);
+      }
+      db.activateOnCurrentThread();
+      db.close();
+    }
+  }
+
+  private Void writeCluster(ClusterState cluster) throws IOException {
+    ODatabaseDocumentTx database = new ODatabaseDocumentTx(dbUrl);
+    database.open(userName, password);
+    try {
+      database.declareIntent(new OIntentMassiveInsert());
+      try (DataInputStream records = openInput(cluster.recordsFile);
+          AdjacencyReader links = new AdjacencyReader(cluster.runs)) {
+        for (long position = cluster.firstPosition; position < cluster.nextPosition; position++) {
+          final ODocument content = new ODocument();
+          content.fromStream(readRecord(records));
+          final ODocument doc = new ODocument(cluster.className);
+          doc.merge(content, true, false);
+
+          Map<Integer, ORidBag> bags = null;
+          while (links.hasNext() && (links.key() >>> FIELD_BITS) == position) {
+            if (bags == null) {
+              bags = new HashMap<>();
+            }
+            int fieldId = (int) (links.key() & FIELD_MASK);
+            ORidBag bag = bags.get(fieldId);
+            if (bag == null) {
+              bag = new ORidBag();
+              bags.put(fieldId, bag);
+            }
+            bag.add(toRecordId(links.value()));
+            links.next();
+          }
+          if (bags != null) {
+            for (Map.Entry<Integer, ORidBag> bag : bags.entrySet()) {
+              doc.field(linkFields.get(bag.getKey()), bag.getValue());
+            }
+          }
+
+          database.save(doc, cluster.clusterName);
+          if (doc.getIdentity().getClusterPosition() != position) {
+            throw new IllegalStateException(
+                "Record saved in position "
+                    + doc.getIdentity()
+                    + " instead of #"
+                    + cluster.clusterId
+                    + ":"
+                    + position
+                    + ": the cluster "
+                    + cluster.clusterName
+                    + " was modified during the load");
+          }
+        }
+      }
+    } finally {
+      database.declareIntent(null);
+      database.close();
+    }
+    return null;
+  }
+
+  private long getOrCreateVertex(long id) {
+    long rid = vertexRids.get(id);
+    if (rid < 0) {
+      createVertex(defaultVertexClass, id, null);
+      rid = vertexRids.get(id);
+    }
+    return rid;
+  }
+
+  private long allocate(ClassState classState, ODocument content) {
+    int[] clusterIds = classState.clusterIds;
+    int clusterId = clusterIds[(int) (classState.counter++ % clusterIds.length)];
+    ClusterState cluster = clusters.get(clusterId);
+    long position = cluster.nextPosition++;
+    try {
+      byte[] bytes = content.toStream();
+      cluster.records.writeInt(bytes.length);
+      cluster.records.write(bytes);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot write to " + cluster.recordsFile, e);
+    }
+    return ((long) clusterId << POSITION_BITS) | position;
+  }
+
+  private void link(long vertexRid, int fieldId, long target) {
+    int clusterId = (int) (vertexRid >>> POSITION_BITS);
+    AdjacencyBuffer buffer = adjacency.get(clusterId);
+    if (buffer == null) {
+      buffer = new AdjacencyBuffer();
+      adjacency.put(clusterId, buffer);
+    }
+    buffer.add(((vertexRid & POSITION_MASK) << FIELD_BITS) | fieldId, target);
+    if (++bufferedEntries >= sortBufferSize) {
+      spill();
+    }
+  }
+
+  /** sorts the buffered adjacency entries of each cluster and writes them in a new run file */
+  private void spill() {
+    for (Map.Entry<Integer, AdjacencyBuffer> entry : adjacency.entrySet()) {
+      AdjacencyBuffer buffer = entry.getValue();
+      if (buffer.size == 0) {
+        continue;
+      }
+      ClusterState cluster = clusters.get(entry.getKey());
+      File run = new File(workDirectory, "links-" + cluster.clusterId + "-" + cluster.runs.size());
+      buffer.sort();
+      try (DataOutputStream out = openOutput(run)) {
+        for (int i = 0; i < buffer.size; i++) {
+          out.writeLong(buffer.keys[i]);
+          out.writeLong(buffer.values[i]);
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot write to " + run, e);
+      }
+      cluster.runs.add(run);
+      buffer.size = 0;
+    }
+    bufferedEntries = 0;
+  }
+
+  private ClassState getClassState(String className, boolean edge) {
+    ClassState result = classes.get(className.toLowerCase(Locale.ENGLISH));
+    if (result != null) {
+      if (result.edge != edge) {
+        throw new IllegalArgumentException(
+            "Class " + className + " is used both as a vertex and as an edge class");
+      }
+      return result;
+    }
+
+    final OSchema schema = db.getMetadata().getSchema();
+    OClass clazz = schema.getClass(className);
+    if (clazz == null) {
+      clazz =
+          schema.createClass(
+              className,
+              schema.getClass(edge ? OrientEdgeType.CLASS_NAME : OrientVertexType.CLASS_NAME));
+    }
+    for (int i = clazz.getClusterIds().length; i < parallel; i++) {
+      String clusterName = clazz.getName().toLowerCase(Locale.ENGLISH) + "_" + i;
+      while (db.getClusterIdByName(clusterName) >= 0) {
+        clusterName = clusterName + "_";
+      }
+      clazz.addCluster(clusterName);
+    }
+    if (rebuildIndexes) {
+      dropIndexes(clazz);
+    }
+
+    result = new ClassState(clazz.getClusterIds(), edge);
+    for (int clusterId : result.clusterIds) {
+      ClusterState cluster =
+          new ClusterState(
+              clusterId,
+              db.getClusterNameById(clusterId),
+              clazz.getName(),
+              db.getStorage().getClusterNextPosition(clusterId));
+      cluster.openRecords(new File(workDirectory, "records-" + clusterId));
+      clusters.put(clusterId, cluster);
+    }
+    if (edge) {
+      boolean defaultEdgeClass = OrientEdgeType.CLASS_NAME.equals(clazz.getName());
+      result.outFieldId = linkFieldId(defaultEdgeClass ? "out_" : "out_" + clazz.getName());
+      result.inFieldId = linkFieldId(defaultEdgeClass ? "in_" : "in_" + clazz.getName());
+    }
+    classes.put(className.toLowerCase(Locale.ENGLISH), result);
+    return result;
+  }
+
+  private int linkFieldId(String fieldName) {
+    Integer result = linkFieldIds.get(fieldName);
+    if (result == null) {
+      result = linkFields.size();
+      if (result > FIELD_MASK) {
+        throw new IllegalStateException("Too many edge classes");
+      }
+      linkFields.add(fieldName);
+      linkFieldIds.put(fieldName, result);
+    }
+    return result;
+  }
+
+  private void dropIndexes(OClass clazz) {
+    List<OIndex> indexes = new ArrayList<>(clazz.getIndexes());
+    for (OIndex index : indexes) {
+      OIndexDefinition definition = index.getDefinition();
+      if (definition == null
+          || definition.getClassName() == null
+          || !droppedIndexNames.add(index.getName())) {
+        continue;
+      }
+      droppedIndexes.add(new DroppedIndex(index));
+      db.getMetadata().getIndexManagerInternal().dropIndex(db, index.getName());
+    }
+  }
+
+  private static ORecordId toRecordId(long rid) {
+    return new ORecordId((int) (rid >>> POSITION_BITS), rid & POSITION_MASK);
+  }
+
+  private static DataOutputStream openOutput(File file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+  }
+
+  private static DataInputStream openInput(File file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+  }
+
+  private static byte[] readRecord(DataInputStream in) throws IOException {
+    byte[] result = new byte[in.readInt()];
+    in.readFully(result);
+    return result;
+  }
+
+  /** @return the property name where ids are written on vertices */
+  public String getIdPropertyName() {
+    return idPropertyName;
+  }
+
+  /** @param idPropertyName the property name where ids are written on vertices */
+  public void setIdPropertyName(String idPropertyName) {
+    this.idPropertyName = idPropertyName;
+  }
+
+  /** @return the class of the vertices created implicitly by edges (V by default) */
+  public String getDefaultVertexClass() {
+    return defaultVertexClass;
+  }
+
+  /** @param defaultVertexClass the class of the vertices created implicitly by edges */
+  public void setDefaultVertexClass(String defaultVertexClass) {
+    this.defaultVertexClass = defaultVertexClass;
+  }
+
+  /** @return number of parallel threads used to write the clusters */
+  public int getParallel() {
+    return parallel;
+  }
+
+  /**
+   * sets the number of parallel threads used to write the clusters. Classes with less clusters
+   * than this number get new clusters. Use it before calling begin()
+   *
+   * @param parallel number of threads (default 4)
+   */
+  public void setParallel(int parallel) {
+    this.parallel = parallel;
+  }
+
+  /** @return the max number of adjacency entries kept in memory before sorting and spilling them */
+  public int getSortBufferSize() {
+    return sortBufferSize;
+  }
+
+  /**
+   * sets the max number of adjacency entries (two per edge, 16 bytes each) kept in memory before
+   * sorting and spilling them to a temporary file. Default is 1M entries.
+   */
+  public void setSortBufferSize(int sortBufferSize) {
+    this.sortBufferSize = sortBufferSize;
+  }
+
+  /** @return the estimated number of vertices, -1 if not set */
+  public int getEstimatedVertices() {
+    return estimatedVertices;
+  }
+
+  /**
+   * Sets the estimated number of vertices, to pre-allocate the in memory id to RID map. Use it
+   * before calling begin()
+   */
+  public void setEstimatedVertices(int estimatedVertices) {
+    this.estimatedVertices = estimatedVertices;
+  }
+
+  /** @return true if the indexes of the loaded classes are dropped and built again at the end */
+  public boolean isRebuildIndexes() {
+    return rebuildIndexes;
+  }
+
+  /**
+   * If true (default) the indexes of the loaded classes (and of their super classes) are dropped
+   * before writing the first record and built again at the end of the load. If the load fails,
+   * the indexes have to be created again manually.
+   */
+  public void setRebuildIndexes(boolean rebuildIndexes) {
+    this.rebuildIndexes = rebuildIndexes;
+  }
+
+  /**
+   * @return true if edges without properties are created as lightweight edges. Null means that the
+   *     database setting is used
+   */
+  public Boolean getUseLightweightEdges() {
+    return useLightweightEdges;
+  }
+
+  public void setUseLightweightEdges(Boolean useLightweightEdges) {
+    this.useLightweightEdges = useLightweightEdges;
+  }
+
+  /** @return the directory for the temporary files, null for the system default */
+  public File getTempDirectory() {
+    return tempDirectory;
+  }
+
+  /**
+   * Sets the directory for the temporary files. It needs enough space to contain all the records
+   * and two 16 bytes entries per edge.
+   */
+  public void setTempDirectory(File tempDirectory) {
+    this.tempDirectory = tempDirectory;
+  }
+
+  private static class ClassState {
+    private final int[] clusterIds;
+    private final boolean edge;
+    private long counter = 0;
+    private int outFieldId = -1;
+    private int inFieldId = -1;
+
+    private ClassState(int[] clusterIds, boolean edge) {
+      this.clusterIds = Arrays.copyOf(clusterIds, clusterIds.length);
+      this.edge = edge;
+    }
+  }
+
+  private static class ClusterState {
+    private final int clusterId;
+    private final String clusterName;
+    private final String className;
+    private final long firstPosition;
+    private long nextPosition;
+    private File recordsFile;
+    private DataOutputStream records;
+    private final List<File> runs = new ArrayList<>();
+
+    private ClusterState(int clusterId, String clusterName, String className, long firstPosition) {
+      this.clusterId = clusterId;
+      this.clusterName = clusterName;
+      this.className = className;
+      this.firstPosition = firstPosition;
+      this.nextPosition = firstPosition;
+    }
+
+    private void openRecords(File file) {
+      try {
+        recordsFile = file;
+        records = openOutput(file);
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot create " + file, e);
+      }
+    }
+
+    private void closeRecords() {
+      if (records != null) {
+        try {
+          records.close();
+        } catch (IOException e) {
+          throw new IllegalStateException("Cannot write to " + recordsFile, e);
+        } finally {
+          records = null;
+        }
+      }
+    }
+  }
+
+  /** adjacency entries of a cluster: the key is the vertex position and the link field */
+  private static class AdjacencyBuffer {
+    private long[] keys = new long[1024];
+    private long[] values = new long[1024];
+    private int size = 0;
+
+    private void add(long key, long value) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      keys[size] = key;
+      values[size] = value;
+      size++;
+    }
+
+    private void sort() {
+      sort(0, size - 1);
+    }
+
+    private void sort(int from, int to) {
+      while (from < to) {
+        long pivot = keys[(from + to) >>> 1];
+        int i = from;
+        int j = to;
+        while (i <= j) {
+          while (keys[i] < pivot) {
+            i++;
+          }
+          while (keys[j] > pivot) {
+            j--;
+          }
+          if (i <= j) {
+            swap(i++, j--);
+          }
+        }
+        // recurse on the smaller half to bound the stack depth
+        if (j - from < to - i) {
+          sort(from, j);
+          from = i;
+        } else {
+          sort(i, to);
+          to = j;
+        }
+      }
+    }
+
+    private void swap(int i, int j) {
+      long key = keys[i];
+      keys[i] = keys[j];
+      keys[j] = key;
+      long value = values[i];
+      values[i] = values[j];
+      values[j] = value;
+    }
+  }
+
+  /** merges the sorted run files of a cluster */
+  private static class AdjacencyReader implements AutoCloseable {
+    private final List<Run> runs = new ArrayList<>();
+    private final PriorityQueue<Run> queue =
+        new PriorityQueue<>((a, b) -> Long.compare(a.key, b.key));
+
+    private AdjacencyReader(List<File> files) throws IOException {
+      for (File file : files) {
+        Run run = new Run(openInput(file));
+        runs.add(run);
+        if (run.advance()) {
+          queue.add(run);
+        }
+      }
+    }
+
+    private boolean hasNext() {
+      return !queue.isEmpty();
+    }
+
+    private long key() {
+      return queue.peek().key;
+    }
+
+    private long value() {
+      return queue.peek().value;
+    }
+
+    private void next() throws IOException {
+      Run run = queue.poll();
+      if (run.advance()) {
+        queue.add(run);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (Run run : runs) {
+        run.in.close();
+      }
+    }
+
+    private static class Run {
+      private final DataInputStream in;
+      private long key;
+      private long value;
+
+      private Run(DataInputStream in) {
+        this.in = in;
+      }
+
+      private boolean advance() throws IOException {
+        try {
+          key = in.readLong();
+        } catch (EOFException e) {
+          return false;
+        }
+        value = in.readLong();
+        return true;
+      }
+    }
+  }
+
+  /** open addressing map from vertex ids (non negative) to packed RIDs */
+  private static class VertexIdMap {
+    private long[] keys;
+    private long[] values;
+    private int size = 0;
+
+    private VertexIdMap(int expected) {
+      int capacity = 16;
+      while (capacity < expected * 2L && capacity < (1 << 30)) {
+        capacity <<= 1;
+      }
+      init(capacity);
+    }
+
+    private void init(int capacity) {
+      keys = new long[capacity];
+      values = new long[capacity];
+      Arrays.fill(keys, -1);
+    }
+
+    private long get(long id) {
+      int mask = keys.length - 1;
+      for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+        if (keys[i] == id) {
+          return values[i];
+        }
+        if (keys[i] == -1) {
+          return -1;
+        }
+      }
+    }
+
+    private void put(long id, long value) {
+      if ((size + 1) * 4L > keys.length * 3L) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        init(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+          if (oldKeys[i] != -1) {
+            put(oldKeys[i], oldValues[i]);
+          }
+        }
+      }
+      int mask = keys.length - 1;
+      int i = hash(id) & mask;
+      while (keys[i] != -1 && keys[i] != id) {
+        i = (i + 1) & mask;
+      }
+      if (keys[i] == -1) {
+        size++;
+      }
+      keys[i] = id;
+      values[i] = value;
+    }
+
+    private static int hash(long id) {
+      long h = id * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32));
+    }
+  }
+
+  private static class DroppedIndex {
+    private final String name;
+    private final String type;
+    private final String algorithm;
+    private final String className;
+    private final ODocument metadata;
+    private final List<String> fields;
+
+    private DroppedIndex(OIndex index) {
+      this.name = index.getName();
+      this.type = index.getType();
+      this.algorithm = index.getAlgorithm();
+      this.className = index.getDefinition().getClassName();
+      this.metadata = index.getMetadata() == null ? null : index.getMetadata().copy();
+      this.fields = new ArrayList<>(index.getDefinition().getFieldsToIndex());
+    }
+
+    private void create(ODatabaseDocumentInternal db) {
+      OClass clazz = db.getMetadata().getSchema().getClass(className);
+      clazz.createIndex(name, type, null, metadata, algorithm, fields.toArray(new String[0]));
+    }
+  }
+}
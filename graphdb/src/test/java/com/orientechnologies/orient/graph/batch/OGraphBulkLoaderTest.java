@@ -0,0 +1,165 @@
+package com.orientechnologies.orient.graph.batch;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OGraphBulkLoaderTest {
+
+  @Test
+  public void testMultipleClasses() {
+    String dbUrl = "memory:OGraphBulkLoaderTest_testMultipleClasses";
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(dbUrl);
+    db.create();
+    OSchema schema = db.getMetadata().getSchema();
+    OClass person = schema.createClass("BulkPerson", schema.getClass("V"));
+    person.createProperty("uid", OType.LONG);
+    person.createIndex("BulkPerson.uid", OClass.INDEX_TYPE.UNIQUE, "uid");
+    db.close();
+
+    OGraphBulkLoader loader = new OGraphBulkLoader(dbUrl, "admin", "admin");
+    // force many spills of the adjacency buffer
+    loader.setSortBufferSize(7);
+    loader.setParallel(3);
+    loader.begin();
+
+    for (long i = 0; i < 50; i++) {
+      Map<String, Object> props = new HashMap<>();
+      props.put("name", "person" + i);
+      loader.createVertex("BulkPerson", i, props);
+    }
+    for (long i = 100; i < 105; i++) {
+      Map<String, Object> props = new HashMap<>();
+      props.put("name", "company" + i);
+      loader.createVertex("BulkCompany", i, props);
+    }
+    for (long i = 0; i < 50; i++) {
+      loader.createEdge("BulkKnows", i, (i + 1) % 50, null);
+      loader.createEdge("BulkKnows", i, (i + 2) % 50, null);
+      Map<String, Object> props = new HashMap<>();
+      props.put("since", (int) i);
+      loader.createEdge("BulkWorksAt", i, 100 + (i % 5), props);
+    }
+    // implicitly created vertex of the default class
+    loader.createEdge("BulkKnows", 0, 1000, null);
+    loader.end();
+
+    db = new ODatabaseDocumentTx(dbUrl);
+    db.open("admin", "admin");
+    try {
+      Assert.assertEquals(50, db.countClass("BulkPerson"));
+      Assert.assertEquals(5, db.countClass("BulkCompany"));
+      Assert.assertEquals(50, db.countClass("BulkWorksAt"));
+      Assert.assertEquals(1, db.countClass("V", false));
+
+      OIndex index = db.getMetadata().getIndexManagerInternal().getIndex(db, "BulkPerson.uid");
+      Assert.assertNotNull(index);
+      Assert.assertEquals(50, index.getInternal().size());
+
+      List<ODocument> result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(out('BulkKnows')) from BulkPerson where uid = 10"));
+      Assert.assertEquals(2, result.size());
+      for (ODocument doc : result) {
+        long uid = doc.<Number>field("uid").longValue();
+        Assert.assertTrue(uid == 11 || uid == 12);
+      }
+
+      result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(in('BulkKnows')) from BulkPerson where uid = 10"));
+      Assert.assertEquals(2, result.size());
+
+      result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(in('BulkWorksAt')) from BulkCompany where uid = 102"));
+      Assert.assertEquals(10, result.size());
+
+      result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(outE('BulkWorksAt')) from BulkPerson where uid = 7"));
+      Assert.assertEquals(1, result.size());
+      Assert.assertEquals(7, result.get(0).<Object>field("since"));
+
+      result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(out('BulkKnows')) from BulkPerson where uid = 0"));
+      Assert.assertEquals(3, result.size());
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testDeletedTailRecords() {
+    String dbUrl = "memory:OGraphBulkLoaderTest_testDeletedTailRecords";
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(dbUrl);
+    db.create();
+    OSchema schema = db.getMetadata().getSchema();
+    schema.createClass("BulkItem", schema.getClass("V"));
+    for (int i = 0; i < 20; i++) {
+      db.save(new ODocument("BulkItem").field("uid", -1L));
+    }
+    // the positions of the deleted records are not reused
+    db.command(new OCommandSQL("delete from BulkItem unsafe")).execute();
+    db.save(new ODocument("BulkItem").field("uid", -2L));
+    db.command(new OCommandSQL("delete from BulkItem unsafe")).execute();
+    db.close();
+
+    OGraphBulkLoader loader = new OGraphBulkLoader(dbUrl, "admin", "admin");
+    loader.begin();
+    for (long i = 0; i < 30; i++) {
+      loader.createVertex("BulkItem", i, null);
+    }
+    for (long i = 0; i < 30; i++) {
+      loader.createEdge("BulkNext", i, (i + 1) % 30, null);
+    }
+    loader.end();
+
+    db = new ODatabaseDocumentTx(dbUrl);
+    db.open("admin", "admin");
+    try {
+      Assert.assertEquals(30, db.countClass("BulkItem"));
+      Assert.assertEquals(30, db.countClass("BulkNext"));
+      List<ODocument> result =
+          db.query(
+              new OSQLSynchQuery<ODocument>(
+                  "select expand(out('BulkNext')) from BulkItem where uid = 29"));
+      Assert.assertEquals(1, result.size());
+      Assert.assertEquals(0L, result.get(0).<Number>field("uid").longValue());
+    } finally {
+      db.drop();
+    }
+  }
+
+  @Test
+  public void testDuplicatedVertex() {
+    String dbUrl = "memory:OGraphBulkLoaderTest_testDuplicatedVertex";
+    OGraphBulkLoader loader = new OGraphBulkLoader(dbUrl, "admin", "admin");
+    loader.begin();
+    try {
+      loader.createVertex(1L, null);
+      loader.createVertex(1L, null);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    } finally {
+      loader.end();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.fail;
 
 import com.orientechnologies.common.profiler.OProfiler;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
@@ -1489,6 +1490,66 @@ public class OMatchStatementExecutionNewTest {
     result.close();
   }
 
+  @Test
+  public void testVertexCentricEdgeIndex() {
+    db.command(new OCommandSQL("CREATE class VertexCentricV extends V")).execute();
+    db.command(new OCommandSQL("CREATE class VertexCentricE extends E")).execute();
+    db.command(new OCommandSQL("CREATE property VertexCentricE.out LINK")).execute();
+    db.command(new OCommandSQL("CREATE property VertexCentricE.in LINK")).execute();
+    db.command(new OCommandSQL("CREATE property VertexCentricE.since INTEGER")).execute();
+    db.command(
+            new OCommandSQL(
+                "CREATE index VertexCentricE_out_since on VertexCentricE (out, since) NOTUNIQUE"))
+        .execute();
+
+    db.command(new OCommandSQL("CREATE VERTEX VertexCentricV set name = 'hub'")).execute();
+    db.command(new OCommandSQL("CREATE VERTEX VertexCentricV set name = 'other'")).execute();
+    for (int i = 0; i < 20; i++) {
+      db.command(new OCommandSQL("CREATE VERTEX VertexCentricV set name = ?")).execute("n" + i);
+    }
+    // edges are created in descending order of "since", so the ridbag order is the reverse of the
+    // index order
+    String createEdge =
+        "CREATE EDGE VertexCentricE from (select from VertexCentricV where name = ?)"
+            + " to (select from VertexCentricV where name = ?) set since = ?";
+    for (int i = 19; i >= 0; i--) {
+      db.command(new OCommandSQL(createEdge)).execute("hub", "n" + i, i);
+      db.command(new OCommandSQL(createEdge)).execute("other", "n" + i, i);
+    }
+
+    StringBuilder query = new StringBuilder();
+    query.append("match ");
+    query.append("{class:VertexCentricV, as: hub, where: (name = 'hub')}");
+    query.append(".outE('VertexCentricE'){as: e, where: (since >= 15 and since < 18)}");
+    query.append(".inV(){as: target}");
+    query.append("return e.since as since, target.name as name");
+
+    try (OResultSet result = db.query(query.toString())) {
+      for (int i = 15; i < 18; i++) {
+        Assert.assertTrue(result.hasNext());
+        OResult item = result.next();
+        Assert.assertEquals((Integer) i, item.getProperty("since"));
+        Assert.assertEquals("n" + i, item.getProperty("name"));
+      }
+      Assert.assertFalse(result.hasNext());
+    }
+
+    query = new StringBuilder();
+    query.append("match ");
+    query.append("{class:VertexCentricV, as: target, where: (name = 'n3')}");
+    query.append(".inE('VertexCentricE'){as: e, where: (since = 3)}");
+    query.append(".outV(){as: source}");
+    query.append("return source.name as name");
+
+    try (OResultSet result = db.query(query.toString())) {
+      Set<String> sources = new HashSet<>();
+      result.stream().forEach(x -> sources.add(x.getProperty("name")));
+      Assert.assertEquals(2, sources.size());
+      Assert.assertTrue(sources.contains("hub"));
+      Assert.assertTrue(sources.contains("other"));
+    }
+  }
+
   @Test
   public void testJson() {
     StringBuilder query = new StringBuilder();
@@ -2300,6 +2361,47 @@ public class OMatchStatementExecutionNewTest {
     }
   }
 
+  @Test
+  public void testJoinDisjointPatterns() {
+    db.command(new OCommandSQL("CREATE CLASS JoinPerson EXTENDS V")).execute();
+    db.command(new OCommandSQL("CREATE CLASS JoinCity EXTENDS V")).execute();
+    for (int i = 0; i < 20; i++) {
+      db.command(
+              new OCommandSQL(
+                  "CREATE VERTEX JoinPerson SET name = 'p" + i + "', city = 'c" + (i % 5) + "'"))
+          .execute();
+    }
+    for (int i = 0; i < 4; i++) {
+      db.command(new OCommandSQL("CREATE VERTEX JoinCity SET name = 'c" + i + "'")).execute();
+    }
+
+    String query =
+        "MATCH {class:JoinCity, as:c}, {class:JoinPerson, as:p, where:(city = $matched.c.name)}"
+            + " RETURN c.name as city, p.name as person";
+    OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD.setValue(2);
+    try (OResultSet qResult = db.query(query)) {
+      Assert.assertTrue(qResult.getExecutionPlan().get().prettyPrint(0, 3).contains("HASH JOIN"));
+      Set<String> persons = new HashSet<>();
+      int rows = 0;
+      while (qResult.hasNext()) {
+        OResult item = qResult.next();
+        String person = item.getProperty("person");
+        int i = Integer.parseInt(person.substring(1));
+        Assert.assertEquals("c" + (i % 5), item.getProperty("city"));
+        persons.add(person);
+        rows++;
+      }
+      Assert.assertEquals(16, persons.size());
+      Assert.assertEquals(16, rows);
+      // the rows of the build side hold the matched vertices, past the threshold they are spilled
+      String plan = qResult.getExecutionPlan().get().prettyPrint(0, 3);
+      Assert.assertTrue(plan, plan.contains("spilled to disk"));
+    } finally {
+      OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD.setValue(
+          OGlobalConfiguration.QUERY_JOIN_SPILL_THRESHOLD.getDefValue());
+    }
+  }
+
   private long indexUsages(ODatabaseDocumentTx db) {
     final long oldIndexUsage;
     try {
@@ -43,8 +43,11 @@ import java.sql.SQLSyntaxErrorException;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -55,6 +58,7 @@ import java.util.Map;
 public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements PreparedStatement {
 
   protected final Map<Integer, Object> params;
+  protected final List<Object[]> batchParams = new ArrayList<>();
 
   public OrientJdbcPreparedStatement(OrientJdbcConnection iConnection, String sql) {
     this(
@@ -87,6 +91,7 @@ public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements
 
     //    return super.executeQuery(sql);
     sql = mayCleanForSpark(sql);
+    closeResultSet();
 
     if (sql.equalsIgnoreCase("select 1")) {
       // OPTIMIZATION
@@ -96,6 +101,7 @@ public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements
       rs.add(element);
       oResultSet = rs;
     } else {
+      applyFetchSize();
       try {
         //        sql = new OSQLSynchQuery<ODocument>(mayCleanForSpark(sql));
         oResultSet = database.query(sql, params.values().toArray());
@@ -104,6 +110,8 @@ public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements
         throw new SQLSyntaxErrorException("Error while parsing query", e);
       } catch (OException e) {
         throw new SQLException("Error while executing query", e);
+      } finally {
+        resetFetchSize();
       }
     }
 
@@ -214,9 +222,21 @@ public class OrientJdbcPreparedStatement extends OrientJdbcStatement implements
   }
 
   public void addBatch() throws SQLException {
+    batchParams.add(params.values().toArray());
+  }
 
-    //    batches.add(sql);
-    throw new UnsupportedOperationException();
+  @Override
+  public void clearBatch() throws SQLException {
+    batchParams.clear();
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    try {
+      return executeBatch(Collections.nCopies(batchParams.size(), sql), batchParams);
+    } finally {
+      batchParams.clear();
+    }
   }
 
   public void setCharacterStream(int parameterIndex, Reader reader, int length)
@@ -61,6 +61,10 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
+ * A {@link ResultSet#TYPE_FORWARD_ONLY} result set reads the records lazily from the underlying
+ * {@link OResultSet}, one record ahead of the current row, so the whole result is never kept in
+ * memory. Scrollable result sets load all the records when they are created.
+ *
  * @author Roberto Franchini (CELI srl - franchin--at--celi.it)
  * @author Salvatore Piccione (TXT e-solutions SpA - salvo.picci--at--gmail.com)
  */
@@ -68,6 +72,8 @@ public class OrientJdbcResultSet implements ResultSet {
   private final OrientJdbcResultSetMetaData resultSetMetaData;
   private final List<String> fieldNames;
   private List<OResult> records;
+  private OResultSet stream;
+  private OResult nextResult;
   private OrientJdbcStatement statement;
   private OResult result;
 
@@ -76,6 +82,9 @@ public class OrientJdbcResultSet implements ResultSet {
   private int type;
   private int concurrency;
   private int holdability;
+  private int fetchSize;
+  private boolean afterLast;
+  private boolean closed;
 
   private boolean lastReadWasNull = true;
 
@@ -88,23 +97,6 @@ public class OrientJdbcResultSet implements ResultSet {
       throws SQLException {
 
     this.statement = statement;
-    try {
-      records = oResultSet.stream().collect(Collectors.toList());
-    } catch (Exception e) {
-      throw new SQLException("Error occourred while mapping results ", e);
-    }
-    oResultSet.close();
-    rowCount = records.size();
-
-    if (records.size() >= 1) {
-      result = records.get(0);
-    } else {
-      result = new OResultInternal();
-    }
-
-    fieldNames = extractFieldNames(statement);
-
-    activateDatabaseOnCurrentThread();
     if (type == TYPE_FORWARD_ONLY
         || type == TYPE_SCROLL_INSENSITIVE
         || type == TYPE_SCROLL_SENSITIVE) this.type = type;
@@ -119,6 +111,31 @@ public class OrientJdbcResultSet implements ResultSet {
               + " or"
               + TYPE_SCROLL_SENSITIVE);
 
+    if (type == TYPE_FORWARD_ONLY) {
+      stream = oResultSet;
+      fetchSize = statement.getFetchSize();
+      nextResult = fetch();
+      result = nextResult != null ? nextResult : new OResultInternal();
+    } else {
+      try {
+        records = oResultSet.stream().collect(Collectors.toList());
+      } catch (Exception e) {
+        throw new SQLException("Error occourred while mapping results ", e);
+      }
+      oResultSet.close();
+      rowCount = records.size();
+
+      if (records.size() >= 1) {
+        result = records.get(0);
+      } else {
+        result = new OResultInternal();
+      }
+    }
+
+    fieldNames = extractFieldNames(statement);
+
+    activateDatabaseOnCurrentThread();
+
     if (concurrency == CONCUR_READ_ONLY || concurrency == CONCUR_UPDATABLE)
       this.concurrency = concurrency;
     else
@@ -199,10 +216,35 @@ public class OrientJdbcResultSet implements ResultSet {
     statement.database.activateOnCurrentThread();
   }
 
+  /** Reads the record after the current row, closing the underlying result set at its end. */
+  private OResult fetch() throws SQLException {
+    try {
+      if (stream.hasNext()) {
+        return stream.next();
+      }
+    } catch (Exception e) {
+      throw new SQLException("Error occourred while mapping results ", e);
+    }
+    stream.close();
+    return null;
+  }
+
+  private void checkForward(int iRowNumber) throws SQLException {
+    if (iRowNumber < cursor || (afterLast && iRowNumber <= cursor)) {
+      throw new SQLException("The ResultSet is TYPE_FORWARD_ONLY, it cannot move backward");
+    }
+  }
+
   public void close() throws SQLException {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+      nextResult = null;
+    }
     cursor = 0;
     rowCount = 0;
     records = null;
+    closed = true;
   }
 
   public boolean first() throws SQLException {
@@ -210,23 +252,58 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean last() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      checkForward(cursor);
+      while (nextResult != null) {
+        next();
+      }
+      return cursor >= 0;
+    }
     return absolute(rowCount - 1);
   }
 
   public boolean next() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      if (nextResult == null) {
+        if (!afterLast) {
+          cursor++;
+          afterLast = true;
+        }
+        return false;
+      }
+      activateDatabaseOnCurrentThread();
+      result = nextResult;
+      cursor++;
+      rowCount++;
+      nextResult = fetch();
+      return true;
+    }
     return absolute(++cursor);
   }
 
   public boolean previous() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      throw new SQLException("The ResultSet is TYPE_FORWARD_ONLY, it cannot move backward");
+    }
     return absolute(++cursor);
   }
 
   public void afterLast() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      while (next()) {
+        // skips the remaining records
+      }
+      return;
+    }
     // OUT OF LAST ITEM
     cursor = rowCount;
   }
 
   public void beforeFirst() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      checkForward(-1);
+      return;
+    }
     // OUT OF FIRST ITEM
     cursor = -1;
   }
@@ -236,6 +313,15 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean absolute(int iRowNumber) throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      checkForward(iRowNumber);
+      while (cursor < iRowNumber) {
+        if (!next()) {
+          return false;
+        }
+      }
+      return cursor >= 0 && !afterLast;
+    }
     if (iRowNumber > rowCount - 1) {
       // OUT OF LAST ITEM
       cursor = rowCount;
@@ -252,6 +338,9 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean isAfterLast() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      return afterLast;
+    }
     return cursor >= rowCount - 1;
   }
 
@@ -260,14 +349,17 @@ public class OrientJdbcResultSet implements ResultSet {
   }
 
   public boolean isClosed() throws SQLException {
-    return records == null;
+    return closed;
   }
 
   public boolean isFirst() throws SQLException {
-    return cursor == 0;
+    return cursor == 0 && !afterLast;
   }
 
   public boolean isLast() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      return cursor >= 0 && !afterLast && nextResult == null;
+    }
     return cursor == rowCount - 1;
   }
 
@@ -603,10 +695,18 @@ public class OrientJdbcResultSet implements ResultSet {
   public void setFetchDirection(int direction) throws SQLException {}
 
   public int getFetchSize() throws SQLException {
+    if (type == TYPE_FORWARD_ONLY) {
+      return fetchSize;
+    }
     return rowCount;
   }
 
-  public void setFetchSize(int rows) throws SQLException {}
+  public void setFetchSize(int rows) throws SQLException {
+    if (rows < 0) {
+      throw new SQLException("The fetch size cannot be negative: " + rows);
+    }
+    fetchSize = rows;
+  }
 
   public float getFloat(int columnIndex) throws SQLException {
 
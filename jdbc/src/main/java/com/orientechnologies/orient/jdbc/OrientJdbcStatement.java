@@ -19,12 +19,14 @@ import static java.lang.Boolean.parseBoolean;
 
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentRemote;
 import com.orientechnologies.orient.core.exception.OQueryParsingException;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.executor.OInternalResultSet;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -32,6 +34,7 @@ import java.sql.SQLSyntaxErrorException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -55,6 +58,7 @@ public class OrientJdbcStatement implements Statement {
   protected boolean closed;
   protected OResultSet oResultSet;
   protected OrientJdbcResultSet resultSet;
+  protected int fetchSize;
 
   public OrientJdbcStatement(final OrientJdbcConnection iConnection) {
     this(
@@ -72,7 +76,7 @@ public class OrientJdbcStatement implements Statement {
    */
   public OrientJdbcStatement(
       OrientJdbcConnection iConnection, int resultSetType, int resultSetConcurrency) {
-    this(iConnection, resultSetType, resultSetConcurrency, resultSetType);
+    this(iConnection, resultSetType, resultSetConcurrency, ResultSet.HOLD_CURSORS_OVER_COMMIT);
   }
 
   /**
@@ -103,6 +107,7 @@ public class OrientJdbcStatement implements Statement {
     if ("".equals(sqlCommand)) return false;
 
     sql = mayCleanForSpark(sqlCommand);
+    closeResultSet();
 
     if (sql.equalsIgnoreCase("select 1")) {
       OResultInternal element = new OResultInternal();
@@ -111,6 +116,7 @@ public class OrientJdbcStatement implements Statement {
       rs.add(element);
       oResultSet = rs;
     } else {
+      applyFetchSize();
       try {
 
         oResultSet = executeCommand(sql);
@@ -119,6 +125,8 @@ public class OrientJdbcStatement implements Statement {
         throw new SQLSyntaxErrorException("Error while parsing query", e);
       } catch (OException e) {
         throw new SQLException("Error while executing query", e);
+      } finally {
+        resetFetchSize();
       }
     }
 
@@ -180,9 +188,34 @@ public class OrientJdbcStatement implements Statement {
   }
 
   public void close() throws SQLException {
+    closeResultSet();
     closed = true;
   }
 
+  /** Closes the result set of the last query, releasing its cursor on the server. */
+  protected void closeResultSet() throws SQLException {
+    if (resultSet != null) {
+      resultSet.close();
+      resultSet = null;
+    }
+  }
+
+  /**
+   * Sets the fetch size of the statement as the number of records per page requested by the
+   * queries of a remote database, until {@link #resetFetchSize()} is called.
+   */
+  protected void applyFetchSize() {
+    if (fetchSize > 0 && database instanceof ODatabaseDocumentRemote) {
+      ((ODatabaseDocumentRemote) database).setQueryPageSize(fetchSize);
+    }
+  }
+
+  protected void resetFetchSize() {
+    if (fetchSize > 0 && database instanceof ODatabaseDocumentRemote) {
+      ((ODatabaseDocumentRemote) database).setQueryPageSize(0);
+    }
+  }
+
   public boolean execute(final String sql, int autoGeneratedKeys) throws SQLException {
     return false;
   }
@@ -208,14 +241,89 @@ public class OrientJdbcStatement implements Statement {
   public void clearWarnings() throws SQLException {}
 
   public int[] executeBatch() throws SQLException {
-    int[] results = new int[batches.size()];
-    int i = 0;
-    for (String sql : batches) {
-      results[i++] = executeUpdate(sql);
+    try {
+      return executeBatch(batches, Collections.emptyList());
+    } finally {
+      batches.clear();
+    }
+  }
+
+  /**
+   * Executes the statements of a batch as a single SQL script, so that the whole batch takes one
+   * round trip to a remote server. With the <code>batch.transactionSize</code> connection property
+   * the statements are committed in transactions of that many statements, otherwise every
+   * statement runs in its own implicit transaction as it would outside of a batch.
+   *
+   * @param statements the statements of the batch
+   * @param parameters the positional parameters of each statement, if any
+   * @return the update count of each statement
+   */
+  protected int[] executeBatch(List<String> statements, List<Object[]> parameters)
+      throws SQLException {
+    if (statements.isEmpty()) {
+      return new int[0];
+    }
+
+    database.activateOnCurrentThread();
+    final int transactionSize = Integer.parseInt(info.getProperty("batch.transactionSize", "0"));
+    final boolean transactions = transactionSize > 0 && !database.getTransaction().isActive();
+
+    final StringBuilder script = new StringBuilder();
+    final List<Object> args = new ArrayList<>();
+    for (int i = 0; i < statements.size(); i++) {
+      if (transactions && i % transactionSize == 0) {
+        script.append("BEGIN;\n");
+      }
+      script.append("LET jdbcResult").append(i).append(" = ");
+      script.append(trimStatement(statements.get(i))).append(";\n");
+      if (i < parameters.size()) {
+        Collections.addAll(args, parameters.get(i));
+      }
+      if (transactions
+          && (i % transactionSize == transactionSize - 1 || i == statements.size() - 1)) {
+        script.append("COMMIT;\n");
+      }
+    }
+    // the "count" property of every result of a statement, as executeUpdate() looks at it
+    script.append("RETURN [");
+    for (int i = 0; i < statements.size(); i++) {
+      script.append(i > 0 ? ", " : "").append("$jdbcResult").append(i).append(".count");
+    }
+    script.append("]");
+
+    final List<?> counts;
+    try (OResultSet rs = database.execute("sql", script.toString(), args.toArray())) {
+      counts = rs.hasNext() ? rs.next().getProperty("value") : null;
+    } catch (OException e) {
+      throw new BatchUpdateException("Error while executing batch", new int[0], e);
+    }
+    if (counts == null || counts.size() != statements.size()) {
+      throw new BatchUpdateException("Unexpected result of the batch: " + counts, new int[0]);
+    }
+
+    final int[] results = new int[statements.size()];
+    for (int i = 0; i < results.length; i++) {
+      final Object count = counts.get(i);
+      if (count instanceof List && !((List<?>) count).isEmpty()) {
+        final Object first = ((List<?>) count).get(0);
+        results[i] = first instanceof Number ? ((Number) first).intValue() : 1;
+      }
     }
     return results;
   }
 
+  private static String trimStatement(String statement) {
+    int end = statement.length();
+    while (end > 0) {
+      final char last = statement.charAt(end - 1);
+      if (last != ';' && !Character.isWhitespace(last)) {
+        break;
+      }
+      end--;
+    }
+    return statement.substring(0, end);
+  }
+
   public int getFetchDirection() throws SQLException {
 
     return 0;
@@ -225,10 +333,15 @@ public class OrientJdbcStatement implements Statement {
 
   public int getFetchSize() throws SQLException {
 
-    return 0;
+    return fetchSize;
   }
 
-  public void setFetchSize(final int rows) throws SQLException {}
+  public void setFetchSize(final int rows) throws SQLException {
+    if (rows < 0) {
+      throw new SQLException("The fetch size cannot be negative: " + rows);
+    }
+    fetchSize = rows;
+  }
 
   public ResultSet getGeneratedKeys() throws SQLException {
 
@@ -131,6 +131,32 @@ public class OrientJdbcPreparedStatementTest extends OrientJdbcDbPerMethodTempla
     assertThat(stmt.isClosed()).isTrue();
   }
 
+  @Test
+  public void shouldExecuteBatchOfPreparedStatements() throws Exception {
+    conn.createStatement().executeQuery("CREATE CLASS Batched");
+    conn.getInfo().setProperty("batch.transactionSize", "2");
+
+    PreparedStatement stmt = conn.prepareStatement("INSERT INTO Batched SET id = ?, number = ?");
+    for (int i = 0; i < 5; i++) {
+      stmt.setString(1, "batched" + i);
+      stmt.setInt(2, i);
+      stmt.addBatch();
+    }
+    assertThat(stmt.executeBatch()).containsExactly(1, 1, 1, 1, 1);
+
+    stmt = conn.prepareStatement("UPDATE Batched SET number = number + 10 WHERE number < ?");
+    stmt.setInt(1, 2);
+    stmt.addBatch();
+    stmt.setInt(1, 100);
+    stmt.addBatch();
+    assertThat(stmt.executeBatch()).containsExactly(2, 5);
+    stmt.close();
+
+    ResultSet resultSet =
+        conn.createStatement().executeQuery("SELECT sum(number) AS total FROM Batched");
+    assertThat(resultSet.getLong(1)).isEqualTo(80);
+  }
+
   @Test
   public void shouldExecutePreparedStatementWithExecuteMethod() throws Exception {
     conn.createStatement().executeQuery("CREATE CLASS insertable");
@@ -15,11 +15,15 @@
  */
 package com.orientechnologies.orient.jdbc;
 
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_SCROLL_INSENSITIVE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import org.junit.Test;
@@ -30,7 +34,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
   public void shouldNavigateResultSet() throws Exception {
 
     assertThat(conn.isClosed()).isFalse();
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
     ResultSet rs = stmt.executeQuery("SELECT * FROM Item");
     assertThat(rs.getFetchSize()).isEqualTo(20);
 
@@ -72,7 +76,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
 
     assertThat(conn.isClosed()).isFalse();
 
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT stringKey, intKey, text, length, date FROM Item")).isTrue();
     ResultSet rs = stmt.getResultSet();
@@ -109,7 +113,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
 
     stmt.close();
 
-    stmt = conn.createStatement();
+    stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT uuid,date, title, content FROM Article WHERE uuid = 123456"))
         .isTrue();
@@ -130,7 +134,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
         "INSERT INTO Article CONTENT {'uuid':'1234567',  'title':'title', 'content':'content'} ");
     insert.close();
 
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT uuid, date, title, content FROM Article WHERE uuid = 1234567"))
         .isTrue();
@@ -147,7 +151,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
   @Test
   public void shouldSelectWithDistinct() throws Exception {
 
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT DISTINCT(published) as pub FROM Item ")).isTrue();
 
@@ -163,7 +167,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
   @Test
   public void shouldSelectWithSum() throws Exception {
 
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT sum(score) as totalScore FROM Item ")).isTrue();
 
@@ -176,7 +180,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
     assertThat(rs.getBigDecimal("totalScore").intValue()).isEqualTo(3438);
 
     stmt.close();
-    stmt = conn.createStatement();
+    stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     // double check in lowercase
     assertThat(stmt.execute("SELECT sum(score) AS totalScore FROM Item ")).isTrue();
@@ -193,7 +197,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
   @Test
   public void shouldSelectWithCount() throws Exception {
 
-    Statement stmt = conn.createStatement();
+    Statement stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT count(*) FROM Item ")).isTrue();
 
@@ -208,7 +212,7 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
     stmt.close();
 
     //
-    stmt = conn.createStatement();
+    stmt = conn.createStatement(TYPE_SCROLL_INSENSITIVE, CONCUR_READ_ONLY);
 
     assertThat(stmt.execute("SELECT COUNT(*) FROM Item ")).isTrue();
 
@@ -255,4 +259,55 @@ public class OrientJdbcResultSetTest extends OrientJdbcDbPerMethodTemplateTest {
       assertThat(names).isSubsetOf(expectedNamee);
     }
   }
+
+  @Test
+  public void shouldStreamForwardOnlyResultSet() throws Exception {
+
+    Statement stmt = conn.createStatement();
+    stmt.setFetchSize(5);
+    ResultSet rs = stmt.executeQuery("SELECT * FROM Item");
+
+    assertThat(rs.getType()).isEqualTo(ResultSet.TYPE_FORWARD_ONLY);
+    assertThat(rs.getFetchSize()).isEqualTo(5);
+    assertThat(rs.isBeforeFirst()).isTrue();
+
+    assertThat(rs.first()).isTrue();
+    assertThat(rs.isFirst()).isTrue();
+    int rows = 1;
+    while (rs.next()) {
+      rows++;
+    }
+    assertThat(rows).isEqualTo(20);
+    assertThat(rs.isAfterLast()).isTrue();
+
+    try {
+      rs.first();
+      fail("a forward only result set cannot move backward");
+    } catch (SQLException e) {
+      // expected
+    }
+
+    stmt.close();
+    assertThat(rs.isClosed()).isTrue();
+  }
+
+  @Test
+  public void shouldSkipForwardOnForwardOnlyResultSet() throws Exception {
+
+    Statement stmt = conn.createStatement();
+    ResultSet rs = stmt.executeQuery("SELECT * FROM Item");
+
+    assertThat(rs.absolute(9)).isTrue();
+    assertThat(rs.getRow()).isEqualTo(9);
+
+    assertThat(rs.last()).isTrue();
+    assertThat(rs.isLast()).isTrue();
+    assertThat(rs.getRow()).isEqualTo(19);
+
+    assertThat(rs.next()).isFalse();
+    assertThat(rs.isAfterLast()).isTrue();
+
+    rs.close();
+    assertThat(rs.isClosed()).isTrue();
+  }
 }
@@ -50,6 +50,8 @@ import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.net.ssl.SSLSocket;
 
 public class OClientConnectionManager {
@@ -60,6 +62,7 @@ public class OClientConnectionManager {
   protected AtomicInteger connectionSerial = new AtomicInteger(0);
   protected final ConcurrentMap<OHashToken, OClientSessions> sessions =
       new ConcurrentHashMap<OHashToken, OClientSessions>();
+  private final Lock sessionsLock = new ReentrantLock();
   protected final TimerTask timerTask;
   private OServer server;
 
@@ -184,9 +187,12 @@ public class OClientConnectionManager {
       throw new OTokenSecurityException("The token provided is expired");
     }
     OClientSessions session;
-    synchronized (sessions) {
+    sessionsLock.lock();
+    try {
       session = new OClientSessions(tokenBytes);
       sessions.put(new OHashToken(tokenBytes), session);
+    } finally {
+      sessionsLock.unlock();
     }
     connection.setToken(parsedToken, tokenBytes);
     session.addConnection(connection);
@@ -211,13 +217,16 @@ public class OClientConnectionManager {
 
     OHashToken key = new OHashToken(tokenBytes);
     OClientSessions sess;
-    synchronized (sessions) {
+    sessionsLock.lock();
+    try {
       sess = sessions.get(key);
       if (sess == null) {
         // RECONNECT
         sess = new OClientSessions(tokenBytes);
         sessions.put(new OHashToken(tokenBytes), sess);
       }
+    } finally {
+      sessionsLock.unlock();
     }
     connection.setToken(parsedToken, tokenBytes);
     sess.addConnection(connection);
@@ -347,7 +356,8 @@ public class OClientConnectionManager {
     if (connection.getProtocol() instanceof ONetworkProtocolBinary) {
       byte[] tokenBytes = connection.getTokenBytes();
       OHashToken hashToken = new OHashToken(tokenBytes);
-      synchronized (sessions) {
+      sessionsLock.lock();
+      try {
         OClientSessions sess = sessions.get(hashToken);
         if (sess != null) {
           sess.removeConnection(connection);
@@ -355,6 +365,8 @@ public class OClientConnectionManager {
             sessions.remove(hashToken);
           }
         }
+      } finally {
+        sessionsLock.unlock();
       }
     }
   }
@@ -501,7 +513,7 @@ public class OClientConnectionManager {
                     entry.getValue().getRemoteAddress());
           }
         }
-        if (protocol.isAlive()) {
+        if (protocol.isRunning()) {
           if (protocol instanceof ONetworkProtocolBinary
               && ((ONetworkProtocolBinary) protocol).getRequestType() == -1) {
             try {
@@ -520,13 +532,13 @@ public class OClientConnectionManager {
 
     for (ONetworkProtocol protocol : toWait) {
       try {
-        protocol.join(
+        protocol.awaitTermination(
             server
                 .getContextConfiguration()
                 .getValueAsInteger(OGlobalConfiguration.SERVER_CHANNEL_CLEAN_DELAY));
-        if (protocol.isAlive()) {
+        if (protocol.isRunning()) {
           protocol.interrupt();
-          protocol.join();
+          protocol.awaitTermination(0);
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
@@ -564,8 +576,11 @@ public class OClientConnectionManager {
 
   public OClientSessions getSession(OClientConnection connection) {
     OHashToken key = new OHashToken(connection.getTokenBytes());
-    synchronized (sessions) {
+    sessionsLock.lock();
+    try {
       return sessions.get(key);
+    } finally {
+      sessionsLock.unlock();
     }
   }
 }
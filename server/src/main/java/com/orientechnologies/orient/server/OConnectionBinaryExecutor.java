@@ -44,6 +44,7 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.record.impl.ODocumentInternal;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.record.ORecordSerializerFactory;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultInternal;
@@ -307,7 +308,7 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
     } else {
       final ORecord record = connection.getDatabase().load(rid, fetchPlanString, ignoreCache);
       if (record != null) {
-        byte[] bytes = getRecordBytes(connection, record);
+        final BytesContainer content = getRecordContent(connection, record);
         final Set<ORecord> recordsToSend = new HashSet<>();
         if (record != null) {
           if (fetchPlanString.length() > 0) {
@@ -331,7 +332,11 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
         }
         response =
             new OReadRecordResponse(
-                ORecordInternal.getRecordType(record), record.getVersion(), bytes, recordsToSend);
+                ORecordInternal.getRecordType(record),
+                record.getVersion(),
+                content.bytes,
+                content.offset,
+                recordsToSend);
       } else {
         // No Record to send
         response = new OReadRecordResponse((byte) 0, 0, null, null);
@@ -372,7 +377,7 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
               .loadIfVersionIsNotLatest(rid, recordVersion, fetchPlanString, ignoreCache);
 
       if (record != null) {
-        byte[] bytes = getRecordBytes(connection, record);
+        final BytesContainer content = getRecordContent(connection, record);
         final Set<ORecord> recordsToSend = new HashSet<>();
         if (fetchPlanString.length() > 0) {
           // BUILD THE SERVER SIDE RECORD TO ACCES TO THE FETCH
@@ -394,7 +399,11 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
         }
         response =
             new OReadRecordIfVersionIsNotLatestResponse(
-                ORecordInternal.getRecordType(record), record.getVersion(), bytes, recordsToSend);
+                ORecordInternal.getRecordType(record),
+                record.getVersion(),
+                content.bytes,
+                content.offset,
+                recordsToSend);
       } else {
         response = new OReadRecordIfVersionIsNotLatestResponse((byte) 0, 0, null, null);
       }
@@ -1273,7 +1282,17 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
   }
 
   public static byte[] getRecordBytes(OClientConnection connection, final ORecord iRecord) {
-    final byte[] stream;
+    final BytesContainer content = getRecordContent(connection, iRecord);
+    return content.bytes != null ? content.fitBytes() : null;
+  }
+
+  /**
+   * Returns the content of a record in the serialization format of the connection, as the first
+   * {@link BytesContainer#offset} bytes of the container. The stored bytes are sent as they are
+   * when the connection uses the format of the database, and are not copied otherwise.
+   */
+  public static BytesContainer getRecordContent(
+      OClientConnection connection, final ORecord iRecord) {
     String dbSerializerName = null;
     if (ODatabaseRecordThreadLocal.instance().getIfDefined() != null)
       dbSerializerName =
@@ -1283,10 +1302,17 @@ public final class OConnectionBinaryExecutor implements OBinaryRequestExecutor {
         && (dbSerializerName == null || !dbSerializerName.equals(name))) {
       ((ODocument) iRecord).deserializeFields();
       ORecordSerializer ser = ORecordSerializerFactory.instance().getFormat(name);
-      stream = ser.toStream(iRecord);
-    } else stream = iRecord.toStream();
+      if (ser instanceof ORecordSerializerNetworkV37) {
+        final BytesContainer container = new BytesContainer();
+        ((ORecordSerializerNetworkV37) ser).serialize((ODocument) iRecord, container);
+        return container;
+      }
+      final byte[] stream = ser.toStream(iRecord);
+      return new BytesContainer(stream, stream != null ? stream.length : 0);
+    }
 
-    return stream;
+    final byte[] stream = iRecord.toStream();
+    return new BytesContainer(stream, stream != null ? stream.length : 0);
   }
 
   @Override
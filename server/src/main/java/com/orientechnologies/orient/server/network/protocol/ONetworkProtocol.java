@@ -20,6 +20,7 @@
 package com.orientechnologies.orient.server.network.protocol;
 
 import com.orientechnologies.common.thread.OSoftThread;
+import com.orientechnologies.common.thread.OVirtualThreads;
 import com.orientechnologies.orient.client.binary.OBinaryRequestExecutor;
 import com.orientechnologies.orient.core.config.OContextConfiguration;
 import com.orientechnologies.orient.enterprise.channel.OChannel;
@@ -29,14 +30,69 @@ import com.orientechnologies.orient.server.network.OServerNetworkListener;
 import java.io.IOException;
 import java.net.Socket;
 
+/**
+ * Handles a client connection. The protocol is a thread, but when virtual threads are enabled (see
+ * {@link OVirtualThreads#isEnabled()}) its {@link #run()} is executed by a virtual thread and the
+ * protocol thread itself is never started: {@link #isRunning()} and {@link #awaitTermination(long)}
+ * have to be used instead of {@link #isAlive()} and {@link #join(long)}.
+ */
 public abstract class ONetworkProtocol extends OSoftThread {
   protected OServer server;
 
+  private volatile Thread virtualThread;
+
   public ONetworkProtocol(final ThreadGroup group, final String name) {
     super(group, name);
     setDumpExceptions(false);
   }
 
+  @Override
+  public void start() {
+    if (virtualThread == null && OVirtualThreads.isEnabled()) {
+      virtualThread = OVirtualThreads.newThread(getName(), this);
+      virtualThread.setUncaughtExceptionHandler(getUncaughtExceptionHandler());
+      virtualThread.start();
+    } else {
+      super.start();
+    }
+  }
+
+  @Override
+  public void interrupt() {
+    final Thread thread = virtualThread;
+    if (thread != null) {
+      thread.interrupt();
+    } else {
+      super.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isInterrupted() {
+    final Thread thread = virtualThread;
+    return thread != null ? thread.isInterrupted() : super.isInterrupted();
+  }
+
+  /** @return true if the thread that handles the connection has been started and not finished */
+  public boolean isRunning() {
+    final Thread thread = virtualThread;
+    return thread != null ? thread.isAlive() : isAlive();
+  }
+
+  /**
+   * Waits for the thread that handles the connection to finish.
+   *
+   * @param millis the maximum time to wait, 0 to wait forever
+   */
+  public void awaitTermination(final long millis) throws InterruptedException {
+    final Thread thread = virtualThread;
+    if (thread != null) {
+      thread.join(millis);
+    } else {
+      join(millis);
+    }
+  }
+
   public abstract void config(
       final OServerNetworkListener iListener,
       final OServer iServer,
@@ -64,6 +64,7 @@ import com.orientechnologies.orient.server.network.protocol.http.command.get.OSe
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetFileDownload;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetIndex;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetListDatabases;
+import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetMetrics;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetPing;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetQuery;
 import com.orientechnologies.orient.server.network.protocol.http.command.get.OServerCommandGetSSO;
@@ -982,6 +983,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol
     cmdManager.registerCommand(new OServerCommandPostAuthToken());
     cmdManager.registerCommand(new OServerCommandGetSSO());
     cmdManager.registerCommand(new OServerCommandGetPing());
+    cmdManager.registerCommand(new OServerCommandGetMetrics());
 
     for (OServerCommandConfiguration c : iListener.getStatefulCommands())
       try {
@@ -0,0 +1,62 @@
+/*
+ *
+ *  *  Copyright 2010-2016 OrientDB LTD (http://orientdb.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://orientdb.com
+ *
+ */
+package com.orientechnologies.orient.server.network.protocol.http.command.get;
+
+import com.orientechnologies.common.profiler.OMetricsRegistry;
+import com.orientechnologies.orient.server.network.protocol.http.OHttpRequest;
+import com.orientechnologies.orient.server.network.protocol.http.OHttpResponse;
+import com.orientechnologies.orient.server.network.protocol.http.OHttpUtils;
+import com.orientechnologies.orient.server.network.protocol.http.command.OServerCommandAuthenticatedServerAbstract;
+
+/** Exports the metrics of {@link OMetricsRegistry} in the Prometheus text format. */
+public class OServerCommandGetMetrics extends OServerCommandAuthenticatedServerAbstract {
+  private static final String[] NAMES = {"GET|metrics"};
+
+  private static final String CONTENT_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+  public OServerCommandGetMetrics() {
+    super("server.metrics");
+  }
+
+  @Override
+  public boolean execute(final OHttpRequest iRequest, final OHttpResponse iResponse)
+      throws Exception {
+    checkSyntax(iRequest.getUrl(), 1, "Syntax error: metrics");
+
+    iRequest.getData().commandInfo = "Server metrics";
+
+    final StringBuilder content = new StringBuilder();
+    OMetricsRegistry.instance().writePrometheus(content);
+
+    iResponse.send(
+        OHttpUtils.STATUS_OK_CODE,
+        OHttpUtils.STATUS_OK_DESCRIPTION,
+        CONTENT_PROMETHEUS,
+        content.toString(),
+        null);
+
+    return false;
+  }
+
+  @Override
+  public String[] getNames() {
+    return NAMES;
+  }
+}
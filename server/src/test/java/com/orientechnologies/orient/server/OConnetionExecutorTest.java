@@ -1,5 +1,6 @@
 package com.orientechnologies.orient.server;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -12,6 +13,7 @@ import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
 import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerNetworkV37;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import com.orientechnologies.orient.core.sql.executor.OResultSet;
@@ -21,6 +23,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.After;
@@ -102,4 +105,19 @@ public class OConnetionExecutorTest {
     assertEquals("update", results.get(0).getProperty("name"));
     query.close();
   }
+
+  @Test
+  public void testRecordContentInNetworkFormat() {
+    Mockito.when(data.getSerializationImpl()).thenReturn(ORecordSerializerNetworkV37.NAME);
+    ODocument doc = database.save(new ODocument("test").field("name", "foo").field("number", 42));
+
+    BytesContainer content = OConnectionBinaryExecutor.getRecordContent(connection, doc);
+    byte[] bytes = Arrays.copyOf(content.bytes, content.offset);
+    assertArrayEquals(ORecordSerializerNetworkV37.INSTANCE.toStream(doc), bytes);
+
+    ODocument read = new ODocument();
+    ORecordSerializerNetworkV37.INSTANCE.fromStream(bytes, read, null);
+    assertEquals("foo", read.field("name"));
+    assertEquals(Integer.valueOf(42), read.field("number"));
+  }
 }
@@ -0,0 +1,94 @@
+package com.orientechnologies.orient.server.network;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.common.thread.OVirtualThreads;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import com.orientechnologies.orient.server.OServer;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Opens many binary connections to a server that handles them with virtual threads, and checks
+ * that the number of platform threads does not grow with them.
+ */
+public class VirtualThreadConnectionsIT {
+
+  private static final int CONNECTIONS =
+      Integer.getInteger("orientdb.test.virtualThreadConnections", 10_000);
+
+  private OServer server;
+  private boolean oldVirtualThreads;
+
+  @Before
+  public void before() throws Exception {
+    Assume.assumeTrue(OVirtualThreads.isSupported());
+    oldVirtualThreads = OGlobalConfiguration.ENVIRONMENT_VIRTUAL_THREADS.getValueAsBoolean();
+    OGlobalConfiguration.ENVIRONMENT_VIRTUAL_THREADS.setValue(true);
+
+    server = new OServer(false);
+    server.startup(
+        getClass()
+            .getClassLoader()
+            .getResourceAsStream(
+                "com/orientechnologies/orient/server/network/orientdb-server-config.xml"));
+    server.activate();
+  }
+
+  @After
+  public void after() {
+    if (server == null) {
+      return;
+    }
+    server.shutdown();
+    OGlobalConfiguration.ENVIRONMENT_VIRTUAL_THREADS.setValue(oldVirtualThreads);
+
+    Orient.instance().shutdown();
+    OFileUtils.deleteRecursively(new File(server.getDatabaseDirectory()));
+    Orient.instance().startup();
+  }
+
+  @Test
+  public void testConnectionsDoNotTakePlatformThreads() throws Exception {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final int threadsBefore = threads.getThreadCount();
+
+    final List<Socket> sockets = new ArrayList<>(CONNECTIONS);
+    try {
+      for (int i = 0; i < CONNECTIONS; i++) {
+        final Socket socket = new Socket("localhost", 2424);
+        sockets.add(socket);
+        // the server sends its protocol version as soon as it accepts the connection
+        final DataInputStream in = new DataInputStream(socket.getInputStream());
+        Assert.assertEquals(OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION, in.readShort());
+      }
+
+      // every connection waits for its first request now, the carrier threads of the virtual
+      // threads are bounded by the number of processors
+      final int maxNewThreads = Runtime.getRuntime().availableProcessors() * 2 + 16;
+      Assert.assertTrue(
+          "platform threads grew from " + threadsBefore + " to " + threads.getThreadCount(),
+          threads.getThreadCount() - threadsBefore < maxNewThreads);
+    } finally {
+      for (Socket socket : sockets) {
+        try {
+          socket.close();
+        } catch (IOException e) {
+          // ignore
+        }
+      }
+    }
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.assertTrue;
 import com.orientechnologies.common.io.OFileUtils;
 import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.OrientDB;
 import com.orientechnologies.orient.core.db.OrientDBConfig;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
@@ -271,6 +272,32 @@ public class RemoteQuerySupportTest {
     rs.close();
   }
 
+  @Test
+  public void testCloseWhilePrefetching() {
+    for (int i = 0; i < 150; i++) {
+      ODocument doc = new ODocument("Some");
+      doc.setProperty("prop", "value");
+      session.save(doc);
+    }
+    boolean oldPrefetch = OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.getValueAsBoolean();
+    OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.setValue(true);
+    try {
+      OResultSet res = session.query("select from Some");
+      for (int i = 0; i < 15; i++) {
+        assertTrue(res.hasNext());
+        res.next();
+      }
+      res.close();
+    } finally {
+      OGlobalConfiguration.QUERY_REMOTE_RESULTSET_PREFETCH.setValue(oldPrefetch);
+    }
+
+    try (OResultSet all = session.query("select from Some")) {
+      assertEquals(150, all.stream().count());
+    }
+    assertEquals(0, ((ODatabaseDocumentInternal) session).getActiveQueries().size());
+  }
+
   @After
   public void after() {
     QUERY_REMOTE_RESULTSET_PAGE_SIZE.setValue(oldPageSize);